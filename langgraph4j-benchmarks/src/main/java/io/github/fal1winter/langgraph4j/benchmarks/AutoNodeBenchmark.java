@@ -0,0 +1,99 @@
+package io.github.fal1winter.langgraph4j.benchmarks;
+
+import io.github.fal1winter.langgraph4j.agent.AgentState;
+import io.github.fal1winter.langgraph4j.agent.AutoNode;
+import io.github.fal1winter.langgraph4j.agent.Tool;
+import io.github.fal1winter.langgraph4j.agent.ToolCallingLLM;
+import io.github.fal1winter.langgraph4j.core.CompiledGraph;
+import io.github.fal1winter.langgraph4j.core.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Framework overhead of the agent loop, with a stub LLM and tool that answer immediately
+ * The stub asks for {@code toolCalls} tool calls, one per iteration, before finishing,
+ * so the score is the cost of prompt building, policy checks and tool call bookkeeping.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class AutoNodeBenchmark {
+
+    @Param({"1", "4"})
+    public int toolCalls;
+
+    private CompiledGraph<AgentState> graph;
+
+    @Setup
+    public void setUp() {
+        AutoNode<AgentState> agent = AutoNode.<AgentState>builder()
+            .name("agent")
+            .llm(new StubLLM(toolCalls))
+            .addTool(new StubTool())
+            .maxIterations(toolCalls + 1)
+            .build();
+        Graph<AgentState> builder = Graph.builder();
+        graph = builder.setLogging(false)
+            .addNode("agent", agent)
+            .setEntryPoint("agent")
+            .addEdge("agent", Graph.END)
+            .compile();
+    }
+
+    @Benchmark
+    public AgentState agentLoop() throws Exception {
+        AgentState state = new AgentState();
+        state.put("userInput", "What is the weather in Paris?");
+        return graph.execute(state);
+    }
+
+    /**
+     * Requests the lookup tool until the prompt carries enough results, then finishes
+     */
+    private static final class StubLLM implements ToolCallingLLM {
+
+        private static final String RESULT_MARKER = "[lookup result]";
+
+        private final int toolCalls;
+        private final LLMResponse finish = new LLMResponse("It is sunny.", Collections.emptyList(), true);
+        private final LLMResponse callTool = new LLMResponse("Looking it up.",
+            Collections.singletonList(new ToolCallRequest("lookup", "{\"city\":\"Paris\"}")), false);
+
+        StubLLM(int toolCalls) {
+            this.toolCalls = toolCalls;
+        }
+
+        @Override
+        public LLMResponse generate(String prompt, List<Tool> availableTools) {
+            int results = 0;
+            for (int i = prompt.indexOf(RESULT_MARKER); i >= 0; i = prompt.indexOf(RESULT_MARKER, i + 1)) {
+                results++;
+            }
+            return results < toolCalls ? callTool : finish;
+        }
+    }
+
+    private static final class StubTool implements Tool {
+
+        @Override
+        public String execute(Object parameters) {
+            return "sunny, 21C";
+        }
+
+        @Override
+        public String getName() {
+            return "lookup";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Look up the current weather for a city";
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.fal1winter.langgraph4j.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH CSV result file against a stored baseline
+ * Only the primary score and the {@code gc.alloc.rate.norm} profiler result
+ * (bytes allocated per operation) are compared, since other GC counters depend
+ * on heap size and run length. Exits with status 1 if any of them regressed by
+ * more than the threshold, so it can gate a CI job.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar io.github.fal1winter.langgraph4j.benchmarks.BaselineComparator \
+ *     baseline/results.csv target/results.csv [thresholdPercent]
+ * </pre>
+ */
+public final class BaselineComparator {
+
+    static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    /**
+     * Allocation changes smaller than one object header are measurement noise
+     */
+    static final double ALLOCATION_NOISE_BYTES = 16;
+
+    private static final String PACKAGE = BaselineComparator.class.getPackage().getName() + ".";
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BaselineComparator <baseline.csv> <results.csv> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length == 3 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Result> baseline = read(Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8));
+        Map<String, Result> current = read(Files.readAllLines(Paths.get(args[1]), StandardCharsets.UTF_8));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s%n", entry.getKey(), "-", now.score, "new");
+                continue;
+            }
+            double change = change(before, now);
+            boolean regressed = change > threshold
+                    && (!entry.getKey().contains(ALLOCATION) || now.score - before.score > ALLOCATION_NOISE_BYTES);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), before.score, now.score,
+                    change, regressed ? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.printf("%d result(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Percentage by which {@code now} is worse than {@code before}; negative is an improvement
+     */
+    static double change(Result before, Result now) {
+        if (before.score == 0) {
+            return now.score == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        double change = (now.score - before.score) / before.score * 100;
+        return before.higherIsBetter ? -change : change;
+    }
+
+    /**
+     * Primary and allocation results keyed by benchmark name and parameters
+     */
+    static Map<String, Result> read(List<String> lines) {
+        Map<String, Result> results = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return results;
+        }
+        List<String> header = parseLine(lines.get(0));
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            List<String> row = parseLine(line);
+            String benchmark = row.get(0);
+            int secondary = benchmark.indexOf(':');
+            if (secondary >= 0 && !benchmark.endsWith(ALLOCATION)) {
+                continue;
+            }
+            // Columns after the unit are parameters; a suite leaves the other suites' ones empty
+            List<String> params = new ArrayList<>();
+            for (int i = 7; i < row.size() && i < header.size(); i++) {
+                if (!row.get(i).isEmpty()) {
+                    params.add(header.get(i).replace("Param: ", "") + "=" + row.get(i));
+                }
+            }
+            String key = benchmark.replace(PACKAGE, "").replace(":\u00b7", ":");
+            if (!params.isEmpty()) {
+                key += " {" + String.join(", ", params) + "}";
+            }
+            boolean higherIsBetter = secondary < 0 && "thrpt".equals(row.get(1));
+            results.put(key, new Result(Double.parseDouble(row.get(4)), higherIsBetter));
+        }
+        return results;
+    }
+
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    static final class Result {
+        final double score;
+        final boolean higherIsBetter;
+
+        Result(double score, boolean higherIsBetter) {
+            this.score = score;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.fal1winter.langgraph4j.benchmarks;
+
+import io.github.fal1winter.langgraph4j.core.CompiledGraph;
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.State;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step loop cost on linear graphs of increasing size
+ * {@link LegacyGraphLoop} is the map-based loop {@link Graph#execute} ran before
+ * graphs were compiled, {@link Graph#execute} goes through the graph's cached
+ * compiled snapshot, and {@link CompiledGraph#execute} runs a graph compiled up front.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class CompiledGraphBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int nodeCount;
+
+    private Graph<State> graph;
+    private CompiledGraph<State> compiled;
+    private LegacyGraphLoop legacy;
+
+    @Setup
+    public void setUp() {
+        graph = Graph.builder();
+        graph.setLogging(false).setMaxIterations(nodeCount + 1);
+        for (int i = 0; i < nodeCount; i++) {
+            graph.addNode("node" + i, state -> state);
+        }
+        graph.setEntryPoint("node0");
+        for (int i = 0; i < nodeCount - 1; i++) {
+            // A never-taken conditional edge first, so edge matching is exercised too
+            graph.addConditionalEdge("node" + i, Graph.END, state -> state.hasError());
+            graph.addEdge("node" + i, "node" + (i + 1));
+        }
+        graph.addEdge("node" + (nodeCount - 1), Graph.END);
+        compiled = graph.compile();
+
+        legacy = new LegacyGraphLoop().setMaxIterations(nodeCount + 1);
+        for (int i = 0; i < nodeCount; i++) {
+            legacy.addNode("node" + i, state -> state);
+        }
+        legacy.setEntryPoint("node0");
+        for (int i = 0; i < nodeCount - 1; i++) {
+            legacy.addConditionalEdge("node" + i, Graph.END, state -> state.hasError());
+            legacy.addEdge("node" + i, "node" + (i + 1));
+        }
+        legacy.addEdge("node" + (nodeCount - 1), Graph.END);
+    }
+
+    @Benchmark
+    public State legacyExecute() throws Exception {
+        return legacy.execute(new State());
+    }
+
+    @Benchmark
+    public State graphExecute() throws Exception {
+        return graph.execute(new State());
+    }
+
+    @Benchmark
+    public State compiledExecute() throws Exception {
+        return compiled.execute(new State());
+    }
+}
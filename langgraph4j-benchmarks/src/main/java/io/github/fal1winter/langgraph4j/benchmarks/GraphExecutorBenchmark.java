@@ -0,0 +1,73 @@
+package io.github.fal1winter.langgraph4j.benchmarks;
+
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.State;
+import io.github.fal1winter.langgraph4j.execution.GraphExecutor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of one shared graph executed concurrently through a {@link GraphExecutor}
+ * Each operation runs a batch of executions, so ops/s times the batch size
+ * gives executions per second for each pool size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class GraphExecutorBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private GraphExecutor<State> executor;
+
+    @Setup
+    public void setUp() {
+        Graph<State> graph = Graph.builder();
+        graph.setLogging(false)
+            .addNode("parse", state -> {
+                Blackhole.consumeCPU(2000);
+                return state;
+            })
+            .addNode("enrich", state -> {
+                Blackhole.consumeCPU(2000);
+                return state;
+            })
+            .addNode("score", state -> {
+                Blackhole.consumeCPU(2000);
+                return state;
+            })
+            .setEntryPoint("parse")
+            .addEdge("parse", "enrich")
+            .addEdge("enrich", "score")
+            .addEdge("score", Graph.END);
+        executor = GraphExecutor.builder(graph).parallelism(parallelism).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void executeBatch(Blackhole blackhole) throws Exception {
+        List<CompletableFuture<State>> futures = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            futures.add(executor.submit(new State()));
+        }
+        for (CompletableFuture<State> future : futures) {
+            blackhole.consume(future.get());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.fal1winter.langgraph4j.benchmarks;
+
+import io.github.fal1winter.langgraph4j.core.CompiledGraph;
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.State;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one execution for the three graph shapes most workflows are built from
+ * Every shape runs ten steps of trivial nodes, so the scores compare the routing
+ * paths of the engine: plain edges, conditional edges and routers, and a loop
+ * back-edge guarded by a predicate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class GraphShapesBenchmark {
+
+    private static final int STEPS = 10;
+
+    private CompiledGraph<State> linear;
+    private CompiledGraph<State> branching;
+    private CompiledGraph<State> looping;
+
+    @Setup
+    public void setUp() {
+        linear = linearGraph().compile();
+        branching = branchingGraph().compile();
+        looping = loopingGraph().compile();
+    }
+
+    @Benchmark
+    public State linear() throws Exception {
+        return linear.execute(new State());
+    }
+
+    @Benchmark
+    public State branching() throws Exception {
+        State state = new State();
+        state.put("priority", "high");
+        return branching.execute(state);
+    }
+
+    @Benchmark
+    public State looping() throws Exception {
+        return looping.execute(new State());
+    }
+
+    /**
+     * step0 -> step1 -> ... -> step9
+     */
+    private static Graph<State> linearGraph() {
+        Graph<State> graph = Graph.builder();
+        graph.setLogging(false);
+        for (int i = 0; i < STEPS; i++) {
+            graph.addNode("step" + i, state -> state);
+        }
+        graph.setEntryPoint("step0");
+        for (int i = 0; i < STEPS - 1; i++) {
+            graph.addEdge("step" + i, "step" + (i + 1));
+        }
+        graph.addEdge("step" + (STEPS - 1), Graph.END);
+        return graph;
+    }
+
+    /**
+     * Alternates between conditional edges and routers; every decision sees three
+     * candidates and takes the last one, so every predicate is evaluated
+     */
+    private static Graph<State> branchingGraph() {
+        Graph<State> graph = Graph.builder();
+        graph.setLogging(false);
+        for (int i = 0; i < STEPS; i++) {
+            graph.addNode("step" + i, state -> state);
+            graph.addNode("low" + i, state -> state);
+            graph.addNode("medium" + i, state -> state);
+        }
+        graph.setEntryPoint("step0");
+        for (int i = 0; i < STEPS; i++) {
+            String next = i == STEPS - 1 ? Graph.END : "step" + (i + 1);
+            graph.addEdge("low" + i, next);
+            graph.addEdge("medium" + i, next);
+            if (i % 2 == 0) {
+                final int step = i;
+                graph.addRouter("step" + i, state -> {
+                    String priority = state.get("priority");
+                    if ("low".equals(priority)) {
+                        return "low" + step;
+                    }
+                    return "medium".equals(priority) ? "medium" + step : next;
+                });
+            } else {
+                graph.addConditionalEdge("step" + i, "low" + i, state -> "low".equals(state.get("priority")));
+                graph.addConditionalEdge("step" + i, "medium" + i, state -> "medium".equals(state.get("priority")));
+                graph.addEdge("step" + i, next);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * A single node looping back on itself until a counter in the state reaches ten
+     */
+    private static Graph<State> loopingGraph() {
+        Graph<State> graph = Graph.builder();
+        graph.setLogging(false).setMaxIterations(STEPS + 1);
+        graph.addNode("step", state -> {
+            state.put("count", state.get("count", 0) + 1);
+            return state;
+        });
+        graph.setEntryPoint("step");
+        graph.addConditionalEdge("step", "step", state -> state.get("count", 0) < STEPS);
+        graph.addEdge("step", Graph.END);
+        return graph;
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.fal1winter.langgraph4j.benchmarks;
+
+import io.github.fal1winter.langgraph4j.core.Edge;
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.Node;
+import io.github.fal1winter.langgraph4j.core.Router;
+import io.github.fal1winter.langgraph4j.core.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Frozen copy of the map-based step loop {@link Graph#execute} ran before
+ * graphs were compiled, kept only as a baseline for {@link CompiledGraphBenchmark}
+ *
+ * Logging and listener calls are left out; the benchmark graphs run with
+ * logging disabled and without listeners.
+ */
+final class LegacyGraphLoop {
+
+    private final Map<String, Node<State>> nodes = new LinkedHashMap<>();
+    private final Map<String, List<Edge<State>>> edges = new HashMap<>();
+    private final Map<String, Router<State>> routers = new HashMap<>();
+    private String entryPoint;
+    private int maxIterations = 100;
+
+    LegacyGraphLoop addNode(String name, Node<State> node) {
+        nodes.put(name, node);
+        return this;
+    }
+
+    LegacyGraphLoop setEntryPoint(String nodeName) {
+        this.entryPoint = nodeName;
+        return this;
+    }
+
+    LegacyGraphLoop addEdge(String from, String to) {
+        edges.computeIfAbsent(from, k -> new ArrayList<>()).add(new Edge<>(from, to));
+        return this;
+    }
+
+    LegacyGraphLoop addConditionalEdge(String from, String to, Predicate<State> condition) {
+        edges.computeIfAbsent(from, k -> new ArrayList<>()).add(new Edge<>(from, to, condition));
+        return this;
+    }
+
+    LegacyGraphLoop setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+        return this;
+    }
+
+    State execute(State initialState) throws Exception {
+        if (entryPoint == null) {
+            throw new IllegalStateException("Entry point not set");
+        }
+
+        State state = initialState;
+        String currentNode = entryPoint;
+        Set<String> visitedNodes = new HashSet<>();
+        List<String> executionPath = new ArrayList<>();
+        int iterations = 0;
+
+        while (!Graph.END.equals(currentNode) && iterations < maxIterations) {
+            iterations++;
+            executionPath.add(currentNode);
+
+            Node<State> node = nodes.get(currentNode);
+            if (node == null) {
+                throw new IllegalStateException("Node not found: " + currentNode);
+            }
+
+            try {
+                state = node.execute(state);
+            } catch (Exception e) {
+                state.setError("Node " + currentNode + " failed: " + e.getMessage());
+                throw e;
+            }
+
+            if (state.isNeedsHumanInput()) {
+                return state;
+            }
+
+            visitedNodes.add(currentNode);
+            currentNode = determineNextNode(currentNode, state);
+        }
+
+        if (iterations >= maxIterations) {
+            state.setError("Workflow exceeded maximum iterations: " + maxIterations);
+        }
+        return state;
+    }
+
+    private String determineNextNode(String currentNode, State state) {
+        if (routers.containsKey(currentNode)) {
+            return routers.get(currentNode).route(state);
+        }
+
+        List<Edge<State>> nodeEdges = edges.get(currentNode);
+        if (nodeEdges == null || nodeEdges.isEmpty()) {
+            return Graph.END;
+        }
+        for (Edge<State> edge : nodeEdges) {
+            if (edge.shouldTransition(state)) {
+                return edge.getToNode();
+            }
+        }
+        return Graph.END;
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.fal1winter.langgraph4j.benchmarks;
+
+import io.github.fal1winter.langgraph4j.core.IntKey;
+import io.github.fal1winter.langgraph4j.core.State;
+import io.github.fal1winter.langgraph4j.core.StateKey;
+import io.github.fal1winter.langgraph4j.core.StateSchema;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@link State} accessors every node goes through
+ * The state holds sixteen entries, about what a typical agent state carries. The
+ * {@code typed*} and {@code *Unboxed} variants run the same operations through
+ * {@link StateKey}s and an {@link IntKey} registered in a {@link StateSchema}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class StateBenchmark {
+
+    private static final int ENTRIES = 16;
+
+    /**
+     * The same sixteen entries as typed keys, plus a counter
+     */
+    public static class SchemaState extends State {
+        static final StateSchema SCHEMA = StateSchema.of(SchemaState.class);
+        static final List<StateKey<Integer>> KEYS = new ArrayList<>();
+        static final IntKey COUNTER = SCHEMA.intKey("counter");
+
+        static {
+            for (int i = 0; i < ENTRIES; i++) {
+                KEYS.add(SCHEMA.key("key" + i, Integer.class));
+            }
+        }
+    }
+
+    private final String[] keys = new String[ENTRIES];
+    @SuppressWarnings("unchecked")
+    private final StateKey<Integer>[] typedKeys = SchemaState.KEYS.toArray(new StateKey[0]);
+    private State state;
+    private State counters;
+    private SchemaState typed;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        state = new State();
+        typed = new SchemaState();
+        for (int i = 0; i < ENTRIES; i++) {
+            keys[i] = "key" + i;
+            state.put(keys[i], i);
+            typed.put(typedKeys[i], i);
+        }
+        // Past the Integer cache, so boxing allocates as it does for real counters
+        counters = new State();
+        counters.put("counter", 1_000);
+        typed.put(SchemaState.COUNTER, 1_000);
+    }
+
+    @Benchmark
+    public Integer get() {
+        return state.get(keys[next++ & (ENTRIES - 1)]);
+    }
+
+    @Benchmark
+    public Integer typedGet() {
+        return typed.get(typedKeys[next++ & (ENTRIES - 1)]);
+    }
+
+    @Benchmark
+    public void typedPut() {
+        int index = next++ & (ENTRIES - 1);
+        typed.put(typedKeys[index], index);
+    }
+
+    @Benchmark
+    public int increment() {
+        int count = counters.get("counter", 0) + 1;
+        counters.put("counter", count);
+        return count;
+    }
+
+    @Benchmark
+    public int incrementUnboxed() {
+        int count = typed.get(SchemaState.COUNTER) + 1;
+        typed.put(SchemaState.COUNTER, count);
+        return count;
+    }
+
+    @Benchmark
+    public Integer getWithDefault() {
+        return state.get("missing", 0);
+    }
+
+    @Benchmark
+    public void put() {
+        int index = next++ & (ENTRIES - 1);
+        state.put(keys[index], index);
+    }
+
+    @Benchmark
+    public void getData(Blackhole blackhole) {
+        Map<String, Object> data = state.getData();
+        blackhole.consume(data.get(keys[next++ & (ENTRIES - 1)]));
+    }
+
+    @Benchmark
+    public State copy() {
+        return state.copy();
+    }
+
+    @Benchmark
+    public State typedCopy() {
+        return typed.copy();
+    }
+}
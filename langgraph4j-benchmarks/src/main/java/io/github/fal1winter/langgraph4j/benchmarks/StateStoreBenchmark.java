@@ -0,0 +1,75 @@
+package io.github.fal1winter.langgraph4j.benchmarks;
+
+import io.github.fal1winter.langgraph4j.core.State;
+import io.github.fal1winter.langgraph4j.persistence.FileStateStore;
+import io.github.fal1winter.langgraph4j.persistence.InMemoryStateStore;
+import io.github.fal1winter.langgraph4j.persistence.StateStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Checkpoint save and load latency of the bundled state stores
+ * The checkpointed state holds sixteen short strings, so the file store's
+ * score is dominated by serialization and file system calls rather than bytes written.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class StateStoreBenchmark {
+
+    private static final int CHECKPOINTS = 64;
+
+    @Param({"memory", "file"})
+    public String store;
+
+    private StateStore<State> stateStore;
+    private Path directory;
+    private State state;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        if ("file".equals(store)) {
+            directory = Files.createTempDirectory("langgraph4j-bench");
+            stateStore = new FileStateStore<>(directory.toString());
+        } else {
+            stateStore = new InMemoryStateStore<>();
+        }
+        state = new State();
+        for (int i = 0; i < 16; i++) {
+            state.put("key" + i, "value-" + i);
+        }
+        for (int i = 0; i < CHECKPOINTS; i++) {
+            stateStore.save("checkpoint-" + i, state);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    @Benchmark
+    public void save() throws Exception {
+        stateStore.save("checkpoint-" + (next++ & (CHECKPOINTS - 1)), state);
+    }
+
+    @Benchmark
+    public State load() throws Exception {
+        return stateStore.load("checkpoint-" + (next++ & (CHECKPOINTS - 1)));
+    }
+}
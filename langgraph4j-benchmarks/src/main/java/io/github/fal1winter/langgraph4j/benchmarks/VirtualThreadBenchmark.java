@@ -0,0 +1,74 @@
+package io.github.fal1winter.langgraph4j.benchmarks;
+
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.Node;
+import io.github.fal1winter.langgraph4j.core.State;
+import io.github.fal1winter.langgraph4j.execution.GraphExecutor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10k concurrent workflows whose nodes block to simulate LLM latency,
+ * on a platform thread pool vs one virtual thread per execution
+ * Needs JDK 21 for the {@code virtual} case.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    private static final int WORKFLOWS = 10_000;
+    private static final long NODE_LATENCY_MILLIS = 20;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"200"})
+    public int platformPoolSize;
+
+    private GraphExecutor<State> executor;
+
+    @Setup
+    public void setUp() {
+        Node<State> llmCall = state -> {
+            Thread.sleep(NODE_LATENCY_MILLIS);
+            return state;
+        };
+        Graph<State> graph = Graph.builder();
+        graph.setLogging(false)
+            .addNode("plan", llmCall)
+            .addNode("act", llmCall)
+            .addNode("answer", llmCall)
+            .setEntryPoint("plan")
+            .addEdge("plan", "act")
+            .addEdge("act", "answer")
+            .addEdge("answer", Graph.END);
+
+        GraphExecutor.Builder<State> builder = GraphExecutor.builder(graph);
+        executor = "virtual".equals(threads)
+                ? builder.virtualThreads(true).build()
+                : builder.parallelism(platformPoolSize).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int runAll() throws Exception {
+        List<CompletableFuture<State>> futures = new ArrayList<>(WORKFLOWS);
+        for (int i = 0; i < WORKFLOWS; i++) {
+            futures.add(executor.submit(new State()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        return futures.size();
+    }
+}
@@ -2,6 +2,7 @@ package io.github.fal1winter.langgraph4j.agent;
 
 import io.github.fal1winter.langgraph4j.core.State;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,8 +15,16 @@ public class AgentState extends State {
      * Add a tool call record
      */
     public void addToolCall(String toolName, Object parameters, String result) {
-        List<ToolCall> calls = get("toolCalls", new ArrayList<>());
-        calls.add(new ToolCall(toolName, parameters, result));
+        addToolCall(toolName, parameters, result, System.currentTimeMillis());
+    }
+
+    /**
+     * Add a tool call record with the given timestamp, in epoch milliseconds.
+     * The list is copied, so state copies never share it.
+     */
+    public void addToolCall(String toolName, Object parameters, String result, long timestamp) {
+        List<ToolCall> calls = new ArrayList<>(getToolCalls());
+        calls.add(new ToolCall(toolName, parameters, result, timestamp));
         put("toolCalls", calls);
     }
 
@@ -63,19 +72,25 @@ public class AgentState extends State {
     }
 
     /**
-     * Tool call record
+     * Tool call record, serializable so agent states can be checkpointed
      */
-    public static class ToolCall {
+    public static class ToolCall implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private final String toolName;
         private final Object parameters;
         private final String result;
         private final long timestamp;
 
         public ToolCall(String toolName, Object parameters, String result) {
+            this(toolName, parameters, result, System.currentTimeMillis());
+        }
+
+        public ToolCall(String toolName, Object parameters, String result, long timestamp) {
             this.toolName = toolName;
             this.parameters = parameters;
             this.result = result;
-            this.timestamp = System.currentTimeMillis();
+            this.timestamp = timestamp;
         }
 
         public String getToolName() {
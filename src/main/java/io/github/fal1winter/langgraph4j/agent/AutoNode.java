@@ -1,13 +1,21 @@
 package io.github.fal1winter.langgraph4j.agent;
 
+import io.github.fal1winter.langgraph4j.core.CancellationToken;
 import io.github.fal1winter.langgraph4j.core.Node;
+import io.github.fal1winter.langgraph4j.jfr.JfrEvents;
+import io.github.fal1winter.langgraph4j.replay.Recording;
+import io.github.fal1winter.langgraph4j.tracing.Span;
+import io.github.fal1winter.langgraph4j.tracing.SpanContext;
+import io.github.fal1winter.langgraph4j.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Clock;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 /**
  * Auto node that can automatically call tools based on LLM decisions
@@ -22,18 +30,35 @@ public class AutoNode<S extends AgentState> implements Node<S> {
     private final int maxIterations;
     private final String systemPrompt;
     private final ToolExecutionPolicy policy;
+    private final String name;
+    private final Tracer tracer;
+    private final Clock clock;
 
     private AutoNode(Builder<S> builder) {
-        this.llm = builder.llm;
-        this.tools = builder.tools;
+        Recording recording = builder.recording;
+        if (recording != null) {
+            this.llm = recording.llm(builder.name, builder.llm);
+            this.tools = new ArrayList<>(builder.tools.size());
+            for (Tool tool : builder.tools) {
+                tools.add(recording.tool(tool));
+            }
+            this.clock = recording.clock(builder.name);
+        } else {
+            this.llm = builder.llm;
+            this.tools = builder.tools;
+            this.clock = builder.clock;
+        }
         this.maxIterations = builder.maxIterations;
         this.systemPrompt = builder.systemPrompt;
         this.policy = builder.policy != null ? builder.policy : ToolExecutionPolicy.allowAll();
+        this.name = builder.name;
+        this.tracer = builder.tracer;
     }
 
     @Override
     public S execute(S state) throws Exception {
         log.info("AutoNode executing with {} tools available", tools.size());
+        CancellationToken cancellationToken = state.getCancellationToken();
 
         // Build prompt with context
         String prompt = buildPrompt(state);
@@ -45,58 +70,66 @@ public class AutoNode<S extends AgentState> implements Node<S> {
         while (shouldContinue && iteration < maxIterations) {
             iteration++;
             log.debug("AutoNode iteration {}/{}", iteration, maxIterations);
+            Object iterationEvent = JfrEvents.beginAutoNodeIteration(state.getExecutionId(), name, iteration);
+            int toolCallsBefore = totalToolCalls;
+            try {
+                cancellationToken.throwIfCancelled();
+
+                // Call LLM with available tools
+                ToolCallingLLM.LLMResponse response = generate(state, prompt, cancellationToken);
+
+                // Store LLM response
+                state.setLLMResponse(response.getText());
+
+                // Check if LLM wants to call tools
+                if (response.hasToolCalls()) {
+                    int toolCallsThisIteration = response.getToolCalls().size();
+                    log.info("LLM requested {} tool calls", toolCallsThisIteration);
+
+                    // Check iteration limit
+                    if (toolCallsThisIteration > policy.getMaxToolCallsPerIteration()) {
+                        log.warn("Tool calls ({}) exceed per-iteration limit ({})",
+                                toolCallsThisIteration, policy.getMaxToolCallsPerIteration());
+                        toolCallsThisIteration = policy.getMaxToolCallsPerIteration();
+                    }
 
-            // Call LLM with available tools
-            ToolCallingLLM.LLMResponse response = llm.generate(prompt, tools);
-
-            // Store LLM response
-            state.setLLMResponse(response.getText());
-
-            // Check if LLM wants to call tools
-            if (response.hasToolCalls()) {
-                int toolCallsThisIteration = response.getToolCalls().size();
-                log.info("LLM requested {} tool calls", toolCallsThisIteration);
-
-                // Check iteration limit
-                if (toolCallsThisIteration > policy.getMaxToolCallsPerIteration()) {
-                    log.warn("Tool calls ({}) exceed per-iteration limit ({})",
-                            toolCallsThisIteration, policy.getMaxToolCallsPerIteration());
-                    toolCallsThisIteration = policy.getMaxToolCallsPerIteration();
-                }
-
-                // Check total limit
-                if (totalToolCalls + toolCallsThisIteration > policy.getMaxTotalToolCalls()) {
-                    log.warn("Would exceed total tool call limit ({})", policy.getMaxTotalToolCalls());
-                    toolCallsThisIteration = policy.getMaxTotalToolCalls() - totalToolCalls;
-                }
-
-                // Execute each tool call with policy checks
-                StringBuilder toolResults = new StringBuilder();
-                int executedCount = 0;
-
-                for (ToolCallingLLM.ToolCallRequest toolCall : response.getToolCalls()) {
-                    if (executedCount >= toolCallsThisIteration) {
-                        break;
+                    // Check total limit
+                    if (totalToolCalls + toolCallsThisIteration > policy.getMaxTotalToolCalls()) {
+                        log.warn("Would exceed total tool call limit ({})", policy.getMaxTotalToolCalls());
+                        toolCallsThisIteration = policy.getMaxTotalToolCalls() - totalToolCalls;
                     }
 
-                    String result = executeToolCallWithPolicy(state, toolCall, iteration, totalToolCalls);
-                    if (result != null) {
-                        toolResults.append("\n[").append(toolCall.getToolName())
-                                   .append(" result]: ").append(result);
-                        executedCount++;
-                        totalToolCalls++;
+                    // Execute each tool call with policy checks
+                    StringBuilder toolResults = new StringBuilder();
+                    int executedCount = 0;
+
+                    for (ToolCallingLLM.ToolCallRequest toolCall : response.getToolCalls()) {
+                        if (executedCount >= toolCallsThisIteration) {
+                            break;
+                        }
+                        cancellationToken.throwIfCancelled();
+
+                        String result = executeToolCallWithPolicy(state, toolCall, iteration, totalToolCalls);
+                        if (result != null) {
+                            toolResults.append("\n[").append(toolCall.getToolName())
+                                       .append(" result]: ").append(result);
+                            executedCount++;
+                            totalToolCalls++;
+                        }
                     }
-                }
 
-                // Update prompt with tool results for next iteration
-                prompt = prompt + "\n\nTool execution results:" + toolResults.toString() +
-                         "\n\nBased on these results, what should we do next?";
+                    // Update prompt with tool results for next iteration
+                    prompt = prompt + "\n\nTool execution results:" + toolResults.toString() +
+                             "\n\nBased on these results, what should we do next?";
 
-                shouldContinue = !response.isFinished() && totalToolCalls < policy.getMaxTotalToolCalls();
-            } else {
-                // No more tool calls, we're done
-                log.info("AutoNode completed, no more tool calls");
-                shouldContinue = false;
+                    shouldContinue = !response.isFinished() && totalToolCalls < policy.getMaxTotalToolCalls();
+                } else {
+                    // No more tool calls, we're done
+                    log.info("AutoNode completed, no more tool calls");
+                    shouldContinue = false;
+                }
+            } finally {
+                JfrEvents.endAutoNodeIteration(iterationEvent, totalToolCalls - toolCallsBefore);
             }
         }
 
@@ -113,6 +146,41 @@ public class AutoNode<S extends AgentState> implements Node<S> {
         return state;
     }
 
+    private ToolCallingLLM.LLMResponse generate(S state, String prompt, CancellationToken cancellationToken)
+            throws Exception {
+        Object event = JfrEvents.beginLlmCall(state.getExecutionId(), tools.size());
+        Span span = startSpan(Tracer.LLM_SPAN, state);
+        boolean success = false;
+        int toolCalls = 0;
+        try {
+            ToolCallingLLM.LLMResponse response = llm.generate(prompt, tools, cancellationToken);
+            toolCalls = response.hasToolCalls() ? response.getToolCalls().size() : 0;
+            success = true;
+            return response;
+        } catch (Exception e) {
+            if (span != null) {
+                span.recordError(e);
+            }
+            throw e;
+        } finally {
+            JfrEvents.endLlmCall(event, toolCalls, success);
+            if (span != null) {
+                span.setAttribute(Tracer.TOOL_CALLS, toolCalls).end();
+            }
+        }
+    }
+
+    /**
+     * Child span of the node's span, which the graph propagates through the state
+     */
+    private Span startSpan(String spanName, S state) {
+        if (tracer == null) {
+            return null;
+        }
+        return tracer.startSpan(spanName, SpanContext.fromState(state))
+                .setAttribute(Tracer.NODE, name);
+    }
+
     /**
      * Execute a single tool call with policy checks
      */
@@ -125,7 +193,7 @@ public class AutoNode<S extends AgentState> implements Node<S> {
         if (!policy.isToolAllowed(toolName)) {
             String error = "Tool not allowed by policy: " + toolName;
             log.warn(error);
-            state.addToolCall(toolName, toolCall.getParameters(), error);
+            state.addToolCall(toolName, toolCall.getParameters(), error, clock.millis());
             return null; // Skip this tool
         }
 
@@ -138,7 +206,7 @@ public class AutoNode<S extends AgentState> implements Node<S> {
         if (!policy.beforeToolExecution(context)) {
             String error = "Tool execution blocked by policy: " + toolName;
             log.warn(error);
-            state.addToolCall(toolName, toolCall.getParameters(), error);
+            state.addToolCall(toolName, toolCall.getParameters(), error, clock.millis());
             return null;
         }
 
@@ -149,12 +217,29 @@ public class AutoNode<S extends AgentState> implements Node<S> {
                 String error = "Tool not found: " + toolName;
                 log.error(error);
                 context.setError(new IllegalArgumentException(error));
-                state.addToolCall(toolName, toolCall.getParameters(), error);
+                state.addToolCall(toolName, toolCall.getParameters(), error, clock.millis());
                 return error;
             }
 
             // Execute the tool
-            String result = tool.execute(toolCall.getParameters());
+            Object event = JfrEvents.beginToolCall(state.getExecutionId(), toolName);
+            Span span = startSpan(Tracer.TOOL_SPAN, state);
+            boolean success = false;
+            String result;
+            try {
+                result = tool.execute(toolCall.getParameters(), state.getCancellationToken());
+                success = true;
+            } catch (Exception e) {
+                if (span != null) {
+                    span.recordError(e);
+                }
+                throw e;
+            } finally {
+                JfrEvents.endToolCall(event, success);
+                if (span != null) {
+                    span.setAttribute(Tracer.TOOL, toolName).end();
+                }
+            }
             log.info("Tool {} executed successfully", toolName);
 
             context.setResult(result);
@@ -165,14 +250,17 @@ public class AutoNode<S extends AgentState> implements Node<S> {
             }
 
             // Record the tool call
-            state.addToolCall(toolName, toolCall.getParameters(), result);
+            state.addToolCall(toolName, toolCall.getParameters(), result, clock.millis());
 
             return result;
+        } catch (CancellationException e) {
+            // The execution was cancelled; do not feed this back to the LLM as a tool error
+            throw e;
         } catch (Exception e) {
             String error = "Tool execution failed: " + e.getMessage();
             log.error("Tool {} failed: {}", toolName, e.getMessage());
             context.setError(e);
-            state.addToolCall(toolName, toolCall.getParameters(), error);
+            state.addToolCall(toolName, toolCall.getParameters(), error, clock.millis());
             return error;
         }
     }
@@ -239,6 +327,10 @@ public class AutoNode<S extends AgentState> implements Node<S> {
         private int maxIterations = 5;
         private String systemPrompt = "";
         private ToolExecutionPolicy policy;
+        private String name = "AutoNode";
+        private Tracer tracer;
+        private Clock clock = Clock.systemUTC();
+        private Recording recording;
 
         public Builder<S> llm(ToolCallingLLM llm) {
             this.llm = llm;
@@ -270,8 +362,43 @@ public class AutoNode<S extends AgentState> implements Node<S> {
             return this;
         }
 
+        /**
+         * Trace LLM and tool calls as children of the node's span
+         */
+        public Builder<S> tracer(Tracer tracer) {
+            this.tracer = tracer;
+            return this;
+        }
+
+        /**
+         * Clock that timestamps tool call records
+         */
+        public Builder<S> clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Record LLM responses, tool results and timestamps, or replay them without calling the
+         * LLM or the tools
+         * Entries are keyed on {@link #name}, which must be unique among the recorded nodes.
+         * When replaying, {@link #llm} may be omitted.
+         */
+        public Builder<S> recording(Recording recording) {
+            this.recording = recording;
+            return this;
+        }
+
+        /**
+         * Name reported in Flight Recorder events and spans; typically the node's name in the graph
+         */
+        public Builder<S> name(String name) {
+            this.name = name;
+            return this;
+        }
+
         public AutoNode<S> build() {
-            if (llm == null) {
+            if (llm == null && (recording == null || recording.getMode() != Recording.Mode.REPLAY)) {
                 throw new IllegalStateException("LLM is required");
             }
             if (tools.isEmpty()) {
@@ -1,5 +1,7 @@
 package io.github.fal1winter.langgraph4j.agent;
 
+import io.github.fal1winter.langgraph4j.core.CancellationToken;
+
 /**
  * Tool interface for auto nodes
  * Similar to LangChain4j's @Tool annotation
@@ -16,6 +18,14 @@ public interface Tool {
      */
     String execute(Object parameters) throws Exception;
 
+    /**
+     * Execute the tool, giving up once {@code cancellationToken} is cancelled
+     * Long-running tools should override this and check the token; the default ignores it.
+     */
+    default String execute(Object parameters, CancellationToken cancellationToken) throws Exception {
+        return execute(parameters);
+    }
+
     /**
      * Get tool name
      */
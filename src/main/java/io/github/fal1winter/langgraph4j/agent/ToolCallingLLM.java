@@ -1,5 +1,7 @@
 package io.github.fal1winter.langgraph4j.agent;
 
+import io.github.fal1winter.langgraph4j.core.CancellationToken;
+
 /**
  * Interface for LLM that can call tools
  * Abstracts away the specific LLM implementation
@@ -15,6 +17,15 @@ public interface ToolCallingLLM {
      */
     LLMResponse generate(String prompt, java.util.List<Tool> availableTools);
 
+    /**
+     * Generate a response, giving up once {@code cancellationToken} is cancelled
+     * Implementations that stream or poll should check the token; the default ignores it.
+     */
+    default LLMResponse generate(String prompt, java.util.List<Tool> availableTools,
+                                 CancellationToken cancellationToken) {
+        return generate(prompt, availableTools);
+    }
+
     /**
      * LLM response containing text and optional tool calls
      */
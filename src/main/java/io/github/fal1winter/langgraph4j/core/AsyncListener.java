@@ -0,0 +1,439 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers the events of a {@link GraphListener} on its own thread, off the execution hot path
+ * Executions publish events into a bounded lock-free ring buffer of preallocated
+ * slots; a dedicated thread drains it and calls the wrapped listener, so a slow
+ * listener no longer adds latency to every node. The wrapped listener is only
+ * ever called from that thread and need not be thread-safe.
+ *
+ * When the buffer is full, step events (before/after node, transitions, retries,
+ * fan-out joins) follow the {@link OverflowPolicy}. Lifecycle events (start,
+ * error, human input, complete) are never dropped; they wait for space.
+ *
+ * Unless {@link Builder#snapshotState(boolean)} is set, the listener receives
+ * the live state, which may have moved on by the time the event is delivered.
+ *
+ * @param <S> the state type
+ */
+public final class AsyncListener<S extends State> implements GraphListener<S>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncListener.class);
+
+    /**
+     * What happens to a step event when the buffer is full
+     */
+    public enum OverflowPolicy {
+        /** Wait for the listener to catch up */
+        BLOCK,
+        /** Discard the event */
+        DROP,
+        /** Past half full, keep only every n-th event; discard the rest */
+        SAMPLE
+    }
+
+    private static final int START = 0;
+    private static final int BEFORE_NODE = 1;
+    private static final int AFTER_NODE = 2;
+    private static final int TRANSITION = 3;
+    private static final int FAN_OUT_COMPLETE = 4;
+    private static final int HUMAN_INPUT = 5;
+    private static final int RETRY = 6;
+    private static final int ERROR = 7;
+    private static final int COMPLETE = 8;
+    private static final int CONDITION = 9;
+
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final GraphListener<S> listener;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final boolean snapshotState;
+    private final int mask;
+    private final Slot<S>[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong sampled = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread consumer;
+    private volatile boolean consumerWaiting;
+    private volatile boolean closed;
+    private volatile long lagNanos;
+    private volatile long maxLagNanos;
+
+    @SuppressWarnings("unchecked")
+    private AsyncListener(Builder<S> builder) {
+        int size = 1;
+        while (size < builder.bufferSize) {
+            size <<= 1;
+        }
+        this.listener = builder.listener;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.sampleRate = builder.sampleRate;
+        this.snapshotState = builder.snapshotState;
+        this.mask = size - 1;
+        this.slots = new Slot[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot<>();
+            sequences.set(i, i);
+        }
+        this.consumer = new Thread(this::drain, builder.threadName);
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void onStart(S state) {
+        publish(START, null, null, state, null, 0, 0, 0);
+    }
+
+    @Override
+    public void onBeforeNode(String nodeName, S state) {
+        publish(BEFORE_NODE, nodeName, null, state, null, 0, 0, 0);
+    }
+
+    @Override
+    public void onAfterNode(String nodeName, S state, long durationNanos) {
+        publish(AFTER_NODE, nodeName, null, state, null, 0, durationNanos, 0);
+    }
+
+    @Override
+    public void onTransition(String from, String to, S state) {
+        publish(TRANSITION, from, to, state, null, 0, 0, 0);
+    }
+
+    @Override
+    public void onConditionEvaluated(String from, String to, S state, long durationNanos, boolean matched) {
+        publish(CONDITION, from, to, state, null, matched ? 1 : 0, durationNanos, 0);
+    }
+
+    @Override
+    public void onFanOutComplete(String fromNode, String joinNode, S state, long durationNanos) {
+        publish(FAN_OUT_COMPLETE, fromNode, joinNode, state, null, 0, durationNanos, 0);
+    }
+
+    @Override
+    public void onHumanInputRequired(String nodeName, S state) {
+        publish(HUMAN_INPUT, nodeName, null, state, null, 0, 0, 0);
+    }
+
+    @Override
+    public void onRetry(String nodeName, S state, int attempt, Exception error,
+                        long attemptNanos, long backoffNanos) {
+        publish(RETRY, nodeName, null, state, error, attempt, attemptNanos, backoffNanos);
+    }
+
+    @Override
+    public void onError(String nodeName, S state, Exception error) {
+        publish(ERROR, nodeName, null, state, error, 0, 0, 0);
+    }
+
+    @Override
+    public void onComplete(S state) {
+        publish(COMPLETE, null, null, state, null, 0, 0, 0);
+    }
+
+    private static boolean isLifecycle(int kind) {
+        return kind == START || kind == HUMAN_INPUT || kind == ERROR || kind == COMPLETE;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void publish(int kind, String name, String other, S state, Exception error,
+                         int attempt, long first, long second) {
+        if (closed) {
+            dropped.increment();
+            return;
+        }
+        boolean lifecycle = isLifecycle(kind);
+        if (overflowPolicy == OverflowPolicy.SAMPLE && !lifecycle
+                && getPending() > mask / 2 && sampled.getAndIncrement() % sampleRate != 0) {
+            dropped.increment();
+            return;
+        }
+
+        // Claim a slot: its sequence equals the position once the consumer has freed it
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                if ((!lifecycle && overflowPolicy != OverflowPolicy.BLOCK) || closed) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            }
+        }
+
+        Slot<S> slot = slots[index];
+        slot.kind = kind;
+        slot.name = name;
+        slot.other = other;
+        slot.state = snapshotState && state != null ? (S) state.copy() : state;
+        slot.error = error;
+        slot.attempt = attempt;
+        slot.first = first;
+        slot.second = second;
+        slot.publishNanos = System.nanoTime();
+        sequences.set(index, position + 1);
+
+        if (consumerWaiting) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Consumer loop; runs until closed and the buffer is empty
+     */
+    private void drain() {
+        while (true) {
+            long position = head.get();
+            int index = (int) (position & mask);
+            if (sequences.get(index) == position + 1) {
+                deliver(slots[index]);
+                sequences.set(index, position + mask + 1);
+                head.lazySet(position + 1);
+                continue;
+            }
+            if (closed) {
+                if (tail.get() == position) {
+                    return;
+                }
+                // A producer claimed the slot but has not filled it yet
+                Thread.yield();
+                continue;
+            }
+            consumerWaiting = true;
+            if (sequences.get(index) != position + 1 && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            consumerWaiting = false;
+        }
+    }
+
+    private void deliver(Slot<S> slot) {
+        long lag = System.nanoTime() - slot.publishNanos;
+        lagNanos = lag;
+        if (lag > maxLagNanos) {
+            maxLagNanos = lag;
+        }
+        try {
+            switch (slot.kind) {
+                case START:
+                    listener.onStart(slot.state);
+                    break;
+                case BEFORE_NODE:
+                    listener.onBeforeNode(slot.name, slot.state);
+                    break;
+                case AFTER_NODE:
+                    listener.onAfterNode(slot.name, slot.state, slot.first);
+                    break;
+                case TRANSITION:
+                    listener.onTransition(slot.name, slot.other, slot.state);
+                    break;
+                case CONDITION:
+                    listener.onConditionEvaluated(slot.name, slot.other, slot.state, slot.first, slot.attempt != 0);
+                    break;
+                case FAN_OUT_COMPLETE:
+                    listener.onFanOutComplete(slot.name, slot.other, slot.state, slot.first);
+                    break;
+                case HUMAN_INPUT:
+                    listener.onHumanInputRequired(slot.name, slot.state);
+                    break;
+                case RETRY:
+                    listener.onRetry(slot.name, slot.state, slot.attempt, slot.error, slot.first, slot.second);
+                    break;
+                case ERROR:
+                    listener.onError(slot.name, slot.state, slot.error);
+                    break;
+                case COMPLETE:
+                    listener.onComplete(slot.state);
+                    break;
+                default:
+                    break;
+            }
+        } catch (Exception e) {
+            log.warn("Listener error in async dispatch", e);
+        }
+        slot.name = null;
+        slot.other = null;
+        slot.state = null;
+        slot.error = null;
+    }
+
+    /**
+     * Events accepted into the buffer so far
+     */
+    public long getPublished() {
+        return tail.get();
+    }
+
+    /**
+     * Events handed to the listener so far
+     */
+    public long getDelivered() {
+        return head.get();
+    }
+
+    /**
+     * Events discarded by the overflow policy or published after close
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Events waiting in the buffer
+     */
+    public long getPending() {
+        return Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * Time the most recently delivered event spent in the buffer
+     */
+    public long getLagNanos() {
+        return lagNanos;
+    }
+
+    /**
+     * Longest time any event spent in the buffer
+     */
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    public int getBufferSize() {
+        return mask + 1;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Stop accepting events, deliver the ones already buffered and stop the listener thread
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        LockSupport.unpark(consumer);
+        if (Thread.currentThread() != consumer) {
+            consumer.join();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncListener{" +
+                "listener=" + listener +
+                ", overflowPolicy=" + overflowPolicy +
+                ", pending=" + getPending() +
+                ", dropped=" + getDropped() +
+                ", lagMicros=" + TimeUnit.NANOSECONDS.toMicros(lagNanos) +
+                '}';
+    }
+
+    /**
+     * Preallocated event holder, reused for every pass of the ring
+     */
+    private static final class Slot<S> {
+        int kind;
+        String name;
+        String other;
+        S state;
+        Exception error;
+        int attempt;
+        long first;
+        long second;
+        long publishNanos;
+    }
+
+    /**
+     * Builder for AsyncListener
+     */
+    public static <S extends State> Builder<S> builder(GraphListener<S> listener) {
+        return new Builder<>(listener);
+    }
+
+    public static class Builder<S extends State> {
+        private final GraphListener<S> listener;
+        private int bufferSize = 1024;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private int sampleRate = 10;
+        private boolean snapshotState;
+        private String threadName = "langgraph4j-listener";
+
+        private Builder(GraphListener<S> listener) {
+            if (listener == null) {
+                throw new IllegalArgumentException("Listener cannot be null");
+            }
+            this.listener = listener;
+        }
+
+        /**
+         * Number of buffered events, rounded up to a power of two
+         */
+        public Builder<S> bufferSize(int bufferSize) {
+            if (bufferSize < 2) {
+                throw new IllegalArgumentException("Buffer size must be at least 2");
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        public Builder<S> overflowPolicy(OverflowPolicy overflowPolicy) {
+            if (overflowPolicy == null) {
+                throw new IllegalArgumentException("Overflow policy cannot be null");
+            }
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Under {@link OverflowPolicy#SAMPLE}, keep one of every {@code sampleRate} step events
+         */
+        public Builder<S> sampleRate(int sampleRate) {
+            if (sampleRate <= 0) {
+                throw new IllegalArgumentException("Sample rate must be positive");
+            }
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Hand the listener a copy of the state taken when the event was published
+         */
+        public Builder<S> snapshotState(boolean snapshotState) {
+            this.snapshotState = snapshotState;
+            return this;
+        }
+
+        public Builder<S> threadName(String threadName) {
+            this.threadName = threadName;
+            return this;
+        }
+
+        public AsyncListener<S> build() {
+            return new AsyncListener<>(this);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Functional interface representing a non-blocking workflow node
+ * The returned future completes when the node's I/O finishes, so no thread
+ * is parked while the node waits.
+ *
+ * @param <S> the state type
+ */
+@FunctionalInterface
+public interface AsyncNode<S extends State> {
+
+    /**
+     * Start the node logic
+     *
+     * @param state the current state
+     * @return a future completing with the updated state
+     */
+    CompletableFuture<S> executeAsync(S state);
+}
@@ -0,0 +1,37 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Lets an {@link AsyncNode} be stored and run as a regular {@link Node}
+ * Synchronous execution waits for the future; asynchronous execution uses it directly.
+ *
+ * @param <S> the state type
+ */
+final class AsyncNodeAdapter<S extends State> implements Node<S>, AsyncNode<S> {
+
+    private final AsyncNode<S> delegate;
+
+    AsyncNodeAdapter(AsyncNode<S> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public S execute(S state) throws Exception {
+        try {
+            return delegate.executeAsync(state).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<S> executeAsync(S state) {
+        return delegate.executeAsync(state);
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import io.github.fal1winter.langgraph4j.metrics.LatencyHistogram;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limit on how many runs of a node may be in progress at once, across all executions
+ * Runs beyond {@code maxConcurrent} wait in a FIFO queue of at most {@code maxQueued};
+ * further runs fail with a {@link BulkheadFullException}. A waiting run is a pending
+ * future, not a blocked thread, in async executions. Time spent waiting counts
+ * against the node's timeout and the execution deadline.
+ *
+ * One instance can be set on several nodes, e.g. all nodes that call the same
+ * rate-limited backend, to bound them together.
+ */
+public final class Bulkhead {
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+
+    private final Object lock = new Object();
+    // Guarded by lock
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private int active;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+
+    private static final class Waiter {
+        final CompletableFuture<Void> permit = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+    }
+
+    /**
+     * Bulkhead whose waiting queue is unbounded
+     */
+    public Bulkhead(int maxConcurrent) {
+        this(maxConcurrent, Integer.MAX_VALUE);
+    }
+
+    public Bulkhead(int maxConcurrent, int maxQueued) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("maxQueued must not be negative");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Future that completes once the caller holds a slot
+     * Completes exceptionally with a {@link BulkheadFullException} if the queue is
+     * full. Cancelling the future gives up the place in the queue; a holder must
+     * call {@link #release()} exactly once.
+     */
+    CompletableFuture<Void> acquire() {
+        Waiter waiter;
+        synchronized (lock) {
+            if (active < maxConcurrent && waiters.isEmpty()) {
+                active++;
+                acquired.increment();
+                waitTime.record(0);
+                return CompletableFuture.completedFuture(null);
+            }
+            if (waiters.size() >= maxQueued) {
+                rejected.increment();
+                CompletableFuture<Void> full = new CompletableFuture<>();
+                full.completeExceptionally(new BulkheadFullException(
+                        "Bulkhead full: " + active + " running, " + waiters.size() + " queued"));
+                return full;
+            }
+            waiter = new Waiter();
+            waiters.add(waiter);
+        }
+        waiter.permit.whenComplete((ignored, error) -> {
+            if (waiter.permit.isCancelled()) {
+                synchronized (lock) {
+                    waiters.remove(waiter);
+                }
+            }
+        });
+        return waiter.permit;
+    }
+
+    /**
+     * Give a slot back, handing it to the longest waiting run if there is one
+     */
+    void release() {
+        while (true) {
+            Waiter next;
+            synchronized (lock) {
+                next = waiters.poll();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            // A waiter cancelled since it was polled passes the slot on
+            if (next.permit.complete(null)) {
+                acquired.increment();
+                waitTime.record(System.nanoTime() - next.enqueuedAt);
+                return;
+            }
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    /**
+     * Runs currently holding a slot
+     */
+    public int getActive() {
+        synchronized (lock) {
+            return active;
+        }
+    }
+
+    /**
+     * Runs currently waiting for a slot
+     */
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return waiters.size();
+        }
+    }
+
+    /**
+     * Time runs waited for their slot, including the ones that got it at once
+     */
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    public long getAcquired() {
+        return acquired.sum();
+    }
+
+    /**
+     * Runs turned away because the queue was full
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a node run finds its {@link Bulkhead} at capacity with a full queue
+ */
+public class BulkheadFullException extends RejectedExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
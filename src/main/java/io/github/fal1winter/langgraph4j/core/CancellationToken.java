@@ -0,0 +1,172 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cooperative cancellation signal for a workflow execution
+ * Every execution gets its own token, reachable from nodes through
+ * {@link State#getCancellationToken()}. Long-running nodes, tools and LLM
+ * calls should check it and stop early. A token is cancelled explicitly,
+ * when its deadline passes, or when its parent is cancelled.
+ */
+public final class CancellationToken {
+
+    private final CancellationToken parent;
+    private final long deadlineNanos;
+    private final boolean hasDeadline;
+    private final boolean execution;
+    private volatile String reason;
+    private List<Runnable> callbacks;
+
+    public CancellationToken() {
+        this(null, 0, false, false);
+    }
+
+    private CancellationToken(CancellationToken parent, long deadlineNanos, boolean hasDeadline, boolean execution) {
+        this.parent = parent;
+        this.deadlineNanos = deadlineNanos;
+        this.hasDeadline = hasDeadline;
+        this.execution = execution;
+    }
+
+    /**
+     * Token that cancels itself once {@code timeout} has passed
+     */
+    public static CancellationToken withTimeout(Duration timeout) {
+        return new CancellationToken(null, System.nanoTime() + timeout.toNanos(), true, false);
+    }
+
+    /**
+     * Token for one execution, chained to a token supplied by the caller
+     * Tokens of earlier executions of the same state are skipped, so chains do not grow.
+     */
+    static CancellationToken forExecution(CancellationToken current, long timeoutNanos) {
+        CancellationToken parent = current != null && current.execution ? current.parent : current;
+        return timeoutNanos > 0
+                ? new CancellationToken(parent, System.nanoTime() + timeoutNanos, true, true)
+                : new CancellationToken(parent, 0, false, true);
+    }
+
+    /**
+     * Token for one attempt of a node, cancelled on its own when the attempt times out
+     */
+    static CancellationToken forAttempt(CancellationToken execution) {
+        return new CancellationToken(execution, 0, false, false);
+    }
+
+    public void cancel() {
+        cancel("Cancelled");
+    }
+
+    /**
+     * Cancel with a reason; only the first reason is kept
+     */
+    public void cancel(String reason) {
+        List<Runnable> fired;
+        synchronized (this) {
+            if (this.reason != null) {
+                return;
+            }
+            this.reason = reason;
+            fired = callbacks;
+            callbacks = null;
+        }
+        if (fired != null) {
+            fired.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Run {@code action} once this token or a parent is cancelled explicitly, returning
+     * a handle that removes it again
+     * Deadlines fire no callback; callers waiting with a time limit already cover them.
+     * The action runs right away if a token in the chain is cancelled already.
+     */
+    Runnable onCancel(Runnable action) {
+        List<CancellationToken> registered = new ArrayList<>();
+        for (CancellationToken token = this; token != null; token = token.parent) {
+            if (!token.register(action)) {
+                registered.forEach(t -> t.unregister(action));
+                action.run();
+                return () -> { };
+            }
+            registered.add(token);
+        }
+        return () -> registered.forEach(t -> t.unregister(action));
+    }
+
+    private synchronized boolean register(Runnable action) {
+        if (reason != null) {
+            return false;
+        }
+        if (callbacks == null) {
+            callbacks = new ArrayList<>(2);
+        }
+        callbacks.add(action);
+        return true;
+    }
+
+    private synchronized void unregister(Runnable action) {
+        if (callbacks != null) {
+            callbacks.remove(action);
+        }
+    }
+
+    public boolean isCancelled() {
+        return reason != null
+                || hasDeadline && System.nanoTime() - deadlineNanos >= 0
+                || parent != null && parent.isCancelled();
+    }
+
+    /**
+     * Why the token was cancelled, or null if it is not
+     */
+    public String getReason() {
+        if (reason != null) {
+            return reason;
+        }
+        if (hasDeadline && System.nanoTime() - deadlineNanos >= 0) {
+            return "Deadline exceeded";
+        }
+        return parent != null ? parent.getReason() : null;
+    }
+
+    /**
+     * Whether anything but an explicit {@link #cancel} on this token can cancel it: a deadline or a parent
+     */
+    boolean isExternallyCancellable() {
+        return hasDeadline || parent != null;
+    }
+
+    public boolean hasDeadline() {
+        return hasDeadline || parent != null && parent.hasDeadline();
+    }
+
+    /**
+     * Time left until the nearest deadline; {@link Long#MAX_VALUE} without one
+     */
+    public long remainingNanos() {
+        long remaining = hasDeadline ? Math.max(deadlineNanos - System.nanoTime(), 0) : Long.MAX_VALUE;
+        return parent != null ? Math.min(remaining, parent.remainingNanos()) : remaining;
+    }
+
+    /**
+     * Throw a {@link CancellationException} if the token is cancelled
+     */
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException(getReason());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CancellationToken{" +
+                "cancelled=" + isCancelled() +
+                ", reason='" + getReason() + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,1985 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import io.github.fal1winter.langgraph4j.jfr.JfrEvents;
+import io.github.fal1winter.langgraph4j.persistence.Checkpoint;
+import io.github.fal1winter.langgraph4j.persistence.Checkpointer;
+import io.github.fal1winter.langgraph4j.persistence.ExecutionJournal;
+import io.github.fal1winter.langgraph4j.tracing.Span;
+import io.github.fal1winter.langgraph4j.tracing.SpanContext;
+import io.github.fal1winter.langgraph4j.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable, compiled form of a {@link Graph}
+ * Node names are resolved to int ids at compile time, so the step loop only
+ * walks arrays. All fields are final and never mutated after construction,
+ * apart from the lock-free edge profiles of adaptive edge ordering, which
+ * makes an instance safe to share and execute from many threads.
+ *
+ * @param <S> the state type
+ */
+public final class CompiledGraph<S extends State> {
+
+    private static final Logger log = LoggerFactory.getLogger(CompiledGraph.class);
+
+    /**
+     * Node id used for {@link Graph#END}
+     */
+    static final int END_ID = -1;
+
+    /**
+     * Marks a checkpoint whose next node still has to be routed
+     */
+    private static final int UNROUTED = -2;
+
+    /**
+     * Time limit of a node without timeout or deadline
+     */
+    private static final long NO_LIMIT = -1;
+
+    /**
+     * Per-node features, resolved at compile time; a node with none of them runs straight
+     */
+    private static final int RETRY = 1;
+    private static final int TIMEOUT = 2;
+    private static final int CACHE = 4;
+    private static final int BULKHEAD = 8;
+
+    private final String[] nodeNames;
+    private final Node<S>[] nodes;
+    private final AsyncNode<S>[] asyncNodes;
+    private final Router<S>[] routers;
+    private final Edge<S>[][] edges;
+    private final int[][] edgeTargets;
+    private final EdgeProfile[] edgeProfiles;
+    private final int[][] fanOutBranches;
+    private final int[] fanOutJoins;
+    private final Map<String, Integer> nodeIds;
+    private final int[] entryRedirects;
+    private final int[] subgraphExits;
+    private final GraphListener<S>[] listeners;
+    private final int entryPoint;
+    private final int maxIterations;
+    private final boolean enableLogging;
+    private final ExecutorService fanOutExecutor;
+    private final int fanOutParallelism;
+    private final Executor nodeExecutor;
+    private final Checkpointer<S> checkpointer;
+    private final ExecutionJournal<S> journal;
+    private final long[] nodeTimeouts;
+    private final Bulkhead[] bulkheads;
+    private final RetryPolicy[] retryPolicies;
+    private final String[][] cacheInputKeys;
+    private final String[][] cacheOutputKeys;
+    private final int[] nodeFeatures;
+    private final NodeCache nodeCache;
+    private final long executionTimeoutNanos;
+    private final FlightRecorder flightRecorder;
+    private final Tracer tracer;
+
+    @SuppressWarnings("unchecked")
+    CompiledGraph(Graph<S> graph) {
+        Map<String, Node<S>> nodeMap = graph.nodes();
+        int size = nodeMap.size();
+        this.nodeNames = new String[size];
+        this.nodes = (Node<S>[]) new Node[size];
+        this.asyncNodes = (AsyncNode<S>[]) new AsyncNode[size];
+        this.routers = (Router<S>[]) new Router[size];
+        this.edges = (Edge<S>[][]) new Edge[size][];
+        this.edgeTargets = new int[size][];
+        this.edgeProfiles = new EdgeProfile[size];
+        this.fanOutBranches = new int[size][];
+        this.fanOutJoins = new int[size];
+        this.nodeTimeouts = new long[size];
+        this.bulkheads = new Bulkhead[size];
+        this.retryPolicies = new RetryPolicy[size];
+        this.cacheInputKeys = new String[size][];
+        this.cacheOutputKeys = new String[size][];
+        this.nodeFeatures = new int[size];
+
+        Map<String, Integer> ids = new HashMap<>(size * 2);
+        int id = 0;
+        for (Map.Entry<String, Node<S>> entry : nodeMap.entrySet()) {
+            nodeNames[id] = entry.getKey();
+            nodes[id] = entry.getValue();
+            if (entry.getValue() instanceof AsyncNode) {
+                asyncNodes[id] = (AsyncNode<S>) entry.getValue();
+            }
+            ids.put(entry.getKey(), id);
+            id++;
+        }
+        this.nodeIds = Collections.unmodifiableMap(ids);
+
+        // Inlined subgraphs: their name stands for their entry node, and their inner
+        // nodes leave through the subgraph's own edges when they reach END
+        this.entryRedirects = new int[size];
+        this.subgraphExits = new int[size];
+        for (int i = 0; i < size; i++) {
+            entryRedirects[i] = i;
+            subgraphExits[i] = END_ID;
+        }
+        for (Map.Entry<String, String> entry : graph.subgraphEntries().entrySet()) {
+            entryRedirects[ids.get(entry.getKey())] = ids.get(entry.getValue());
+        }
+        for (int i = 0; i < size; i++) {
+            // A subgraph whose entry is itself a subgraph
+            while (entryRedirects[entryRedirects[i]] != entryRedirects[i]) {
+                entryRedirects[i] = entryRedirects[entryRedirects[i]];
+            }
+        }
+        for (Map.Entry<String, String> entry : graph.subgraphExits().entrySet()) {
+            subgraphExits[ids.get(entry.getKey())] = ids.get(entry.getValue());
+        }
+
+        for (int i = 0; i < size; i++) {
+            routers[i] = graph.routers().get(nodeNames[i]);
+            if (routers[i] != null && graph.getRecording() != null) {
+                routers[i] = graph.getRecording().router(nodeNames[i], routers[i]);
+            }
+            nodeTimeouts[i] = graph.nodeTimeouts().getOrDefault(nodeNames[i], 0L);
+            bulkheads[i] = graph.bulkheads().get(nodeNames[i]);
+            retryPolicies[i] = graph.retryPolicies().get(nodeNames[i]);
+            cacheInputKeys[i] = graph.cacheInputKeys().get(nodeNames[i]);
+            cacheOutputKeys[i] = graph.cacheOutputKeys().get(nodeNames[i]);
+            nodeFeatures[i] = (retryPolicies[i] != null ? RETRY : 0)
+                    | (nodeTimeouts[i] > 0 ? TIMEOUT : 0)
+                    | (cacheInputKeys[i] != null ? CACHE : 0)
+                    | (bulkheads[i] != null ? BULKHEAD : 0);
+            List<Edge<S>> nodeEdges = graph.edges().get(nodeNames[i]);
+            if (nodeEdges == null) {
+                edges[i] = (Edge<S>[]) new Edge[0];
+                edgeTargets[i] = new int[0];
+            } else {
+                edges[i] = nodeEdges.toArray((Edge<S>[]) new Edge[0]);
+                edgeTargets[i] = new int[edges[i].length];
+                for (int e = 0; e < edges[i].length; e++) {
+                    edgeTargets[i][e] = resolveNodeId(edges[i][e].getToNode());
+                }
+                if (graph.isAdaptiveEdgeOrdering() && edges[i].length > 0 && edges[i][0].isConditional()) {
+                    edgeProfiles[i] = new EdgeProfile(edges[i], graph.exclusiveEdges().contains(nodeNames[i]));
+                }
+            }
+
+            List<String> branches = graph.fanOutBranches().get(nodeNames[i]);
+            fanOutJoins[i] = END_ID;
+            if (branches != null) {
+                fanOutBranches[i] = new int[branches.size()];
+                for (int b = 0; b < branches.size(); b++) {
+                    fanOutBranches[i][b] = resolveNodeId(branches.get(b));
+                }
+                fanOutJoins[i] = resolveNodeId(graph.fanOutJoins().get(nodeNames[i]));
+            }
+        }
+
+        this.listeners = graph.listeners().toArray((GraphListener<S>[]) new GraphListener[0]);
+        this.entryPoint = resolveNodeId(graph.getEntryPoint());
+        this.maxIterations = graph.getMaxIterations();
+        this.enableLogging = graph.isLogging();
+        this.fanOutExecutor = graph.getFanOutExecutor() != null
+                ? graph.getFanOutExecutor() : DefaultExecutor.INSTANCE;
+        this.fanOutParallelism = graph.getFanOutParallelism();
+        this.nodeExecutor = graph.getNodeExecutor() != null
+                ? graph.getNodeExecutor() : DefaultExecutor.INSTANCE;
+        this.checkpointer = graph.getCheckpointer();
+        this.journal = graph.getJournal();
+        this.executionTimeoutNanos = graph.getExecutionTimeoutNanos();
+        this.nodeCache = graph.getNodeCache();
+        this.flightRecorder = graph.getFlightRecorder();
+        this.tracer = graph.getTracer();
+    }
+
+    /**
+     * Copy of {@code source} with one more listener; all other tables are shared
+     */
+    private CompiledGraph(CompiledGraph<S> source, GraphListener<S> listener) {
+        this(source, listener, source.nodeExecutor);
+    }
+
+    /**
+     * Copy of {@code source} with another node executor and, if not null, one more listener
+     */
+    @SuppressWarnings("unchecked")
+    private CompiledGraph(CompiledGraph<S> source, GraphListener<S> listener, Executor nodeExecutor) {
+        this.nodeNames = source.nodeNames;
+        this.nodes = source.nodes;
+        this.asyncNodes = source.asyncNodes;
+        this.routers = source.routers;
+        this.edges = source.edges;
+        this.edgeTargets = source.edgeTargets;
+        this.edgeProfiles = source.edgeProfiles;
+        this.fanOutBranches = source.fanOutBranches;
+        this.fanOutJoins = source.fanOutJoins;
+        this.nodeIds = source.nodeIds;
+        this.entryRedirects = source.entryRedirects;
+        this.subgraphExits = source.subgraphExits;
+        if (listener != null) {
+            this.listeners = Arrays.copyOf(source.listeners, source.listeners.length + 1);
+            this.listeners[source.listeners.length] = listener;
+        } else {
+            this.listeners = source.listeners;
+        }
+        this.entryPoint = source.entryPoint;
+        this.maxIterations = source.maxIterations;
+        this.enableLogging = source.enableLogging;
+        this.fanOutExecutor = source.fanOutExecutor;
+        this.fanOutParallelism = source.fanOutParallelism;
+        this.nodeExecutor = nodeExecutor;
+        this.checkpointer = source.checkpointer;
+        this.journal = source.journal;
+        this.nodeTimeouts = source.nodeTimeouts;
+        this.bulkheads = source.bulkheads;
+        this.retryPolicies = source.retryPolicies;
+        this.cacheInputKeys = source.cacheInputKeys;
+        this.cacheOutputKeys = source.cacheOutputKeys;
+        this.nodeFeatures = source.nodeFeatures;
+        this.nodeCache = source.nodeCache;
+        this.executionTimeoutNanos = source.executionTimeoutNanos;
+        this.flightRecorder = source.flightRecorder;
+        this.tracer = source.tracer;
+    }
+
+    /**
+     * Copy of this graph whose synchronous nodes run on {@code executor} during {@link #executeAsync}
+     */
+    public CompiledGraph<S> withNodeExecutor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Node executor cannot be null");
+        }
+        return new CompiledGraph<>(this, null, executor);
+    }
+
+    /**
+     * Execute the workflow
+     * Every call is a new execution with a fresh id, even for a state that ran before;
+     * only {@link #resume} and {@link #executeStep} continue an existing execution id.
+     */
+    public S execute(S initialState) throws Exception {
+        ExecutionContext ctx = newContext(entryPoint, null, initialState);
+        notifyStart(initialState);
+
+        if (enableLogging) {
+            log.info("Starting workflow execution [{}] from: {}", ctx.getExecutionId(), nodeNames[entryPoint]);
+        }
+        beginJournal(ctx, initialState, null, null);
+        return run(ctx, initialState);
+    }
+
+    /**
+     * Continue an execution from its last checkpoint
+     */
+    public S resume(String checkpointId) throws Exception {
+        Checkpoint<S> checkpoint = loadCheckpoint(checkpointId);
+        return resume(checkpoint, checkpoint.getState());
+    }
+
+    /**
+     * Continue an execution from the position of its last checkpoint with the given state
+     * Typically the state returned by a paused execution, after {@link State#setHumanInput}.
+     */
+    public S resume(String checkpointId, S state) throws Exception {
+        return resume(loadCheckpoint(checkpointId), state);
+    }
+
+    /**
+     * Continue an execution from a checkpoint, such as one recovered from an {@link ExecutionJournal}
+     * A checkpoint without a node name is continued from its next node, or the entry point.
+     */
+    public S resume(Checkpoint<S> checkpoint) throws Exception {
+        return resume(checkpoint, checkpoint.getState());
+    }
+
+    /**
+     * Run one step of an execution: {@code nodeName}, or the entry point if null, then routing
+     * Lets each step of an execution run on a different worker or process. Listeners see
+     * the step as they would inside {@link #execute}; {@code onStart} is reported with the
+     * first step ({@code iterations == 0}) and {@code onComplete} when the execution ends.
+     * Traces, spans and JFR events cover the step only, ending {@code HANDED_OFF} when
+     * more steps follow. The execution timeout and cancellation token only cover this step.
+     *
+     * @param executionId id of the execution, or null to keep the state's own (or assign a new one)
+     * @param iterations steps the execution has taken before this one
+     */
+    public StepResult<S> executeStep(String executionId, String nodeName, S state, int iterations) throws Exception {
+        return executeStep(executionId, nodeName, state, iterations, 1);
+    }
+
+    /**
+     * Run one step of an execution that may have been delivered before
+     * Queues that deliver steps at least once pass how often this one was handed out,
+     * so a redelivered first step does not report {@code onStart} again.
+     *
+     * @param delivery 1 for the first delivery of the step, higher for redeliveries
+     */
+    public StepResult<S> executeStep(String executionId, String nodeName, S state, int iterations, int delivery)
+            throws Exception {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("Iterations cannot be negative");
+        }
+        if (delivery < 1) {
+            throw new IllegalArgumentException("Delivery must be positive");
+        }
+        int nodeId = nodeName == null ? entryPoint : resolveNodeId(nodeName);
+        if (nodeId == END_ID) {
+            throw new IllegalArgumentException("Cannot execute a step at " + Graph.END);
+        }
+        ExecutionContext ctx = newContext(nodeId, executionId != null ? executionId : state.getExecutionId(), state);
+        ctx.iterations = iterations;
+        ctx.stepLimit = iterations + 1;
+        if (iterations == 0 && delivery == 1) {
+            notifyStart(state);
+        }
+
+        S result = run(ctx, state);
+        ExecutionTrace.Status status;
+        if (result.isNeedsHumanInput()) {
+            status = ExecutionTrace.Status.PAUSED;
+        } else if (ctx.currentNode == END_ID) {
+            status = ExecutionTrace.Status.COMPLETED;
+        } else if (ctx.iterations >= maxIterations) {
+            status = ExecutionTrace.Status.MAX_ITERATIONS;
+        } else {
+            status = ExecutionTrace.Status.RUNNING;
+        }
+        return new StepResult<>(result, nodeNames[nodeId],
+                status == ExecutionTrace.Status.RUNNING ? nodeNames[ctx.currentNode] : null, ctx.iterations, status);
+    }
+
+    private Checkpoint<S> loadCheckpoint(String checkpointId) throws Exception {
+        if (checkpointer == null) {
+            throw new IllegalStateException("No checkpointer configured");
+        }
+        return checkpointer.load(checkpointId);
+    }
+
+    private S resume(Checkpoint<S> checkpoint, S state) throws Exception {
+        if (checkpoint.getNodeName() == null) {
+            // No step completed before the checkpoint
+            int startNode = checkpoint.getNextNode() != null ? resolveNodeId(checkpoint.getNextNode()) : entryPoint;
+            ExecutionContext ctx = newContext(startNode, checkpoint.getCheckpointId(), state);
+            ctx.iterations = checkpoint.getIterations();
+            notifyStart(state);
+            if (enableLogging) {
+                log.info("Resuming workflow execution [{}] from: {}", ctx.getExecutionId(), nodeNames[startNode]);
+            }
+            beginJournal(ctx, state, null, nodeNames[startNode]);
+            return run(ctx, state);
+        }
+        int lastNode = resolveNodeId(checkpoint.getNodeName());
+        ExecutionContext ctx = newContext(END_ID, checkpoint.getCheckpointId(), state);
+        ctx.iterations = checkpoint.getIterations();
+        notifyStart(state);
+
+        if (enableLogging) {
+            log.info("Resuming workflow execution [{}] after node: {}", ctx.getExecutionId(), nodeNames[lastNode]);
+        }
+        beginJournal(ctx, state, checkpoint.getNodeName(), checkpoint.getNextNode());
+
+        try {
+            if (state.isNeedsHumanInput()) {
+                return pause(ctx, lastNode, UNROUTED, state);
+            }
+            if (checkpoint.getNextNode() != null) {
+                ctx.currentNode = resolveNodeId(checkpoint.getNextNode());
+            } else if (!advance(ctx, lastNode, state)) {
+                return pause(ctx, lastNode, ctx.currentNode, state);
+            }
+        } catch (Exception e) {
+            failExecution(ctx, e);
+            throw e;
+        }
+        return run(ctx, state);
+    }
+
+    private ExecutionContext newContext(int startNode, String executionId, S state) {
+        ExecutionContext ctx = new ExecutionContext(startNode, executionId);
+        ctx.cancellationToken = CancellationToken.forExecution(state.peekCancellationToken(), executionTimeoutNanos);
+        ctx.cancellable = ctx.cancellationToken.isExternallyCancellable();
+        state.setExecutionId(ctx.getExecutionId());
+        state.setCancellationToken(ctx.cancellationToken);
+        ctx.jfrExecution = JfrEvents.beginExecution(ctx.getExecutionId());
+        if (tracer != null) {
+            // An incoming traceparent makes the execution part of the caller's trace
+            ctx.span = tracer.startSpan(Tracer.EXECUTION_SPAN, SpanContext.fromState(state))
+                    .setAttribute(Tracer.EXECUTION_ID, ctx.getExecutionId());
+            propagate(ctx.span, state);
+        }
+        if (flightRecorder != null) {
+            ctx.trace = flightRecorder.newTrace(ctx.getExecutionId(), nodeNames);
+        }
+        return ctx;
+    }
+
+    /**
+     * The step loop, from {@code ctx.currentNode} until END, a pause, or the iteration limit
+     */
+    private S run(ExecutionContext ctx, S state) throws Exception {
+        try {
+            while (ctx.currentNode != END_ID && ctx.iterations < maxIterations) {
+                if (ctx.iterations >= ctx.stepLimit) {
+                    // The rest of the execution continues elsewhere
+                    endExecution(ctx, ExecutionTrace.Status.HANDED_OFF, null);
+                    return state;
+                }
+                ctx.iterations++;
+                int currentNode = ctx.currentNode;
+                String nodeName = nodeNames[currentNode];
+
+                if (enableLogging) {
+                    log.info("Executing node [{}] (iteration {})", nodeName, ctx.iterations);
+                }
+
+                beginStep(ctx, currentNode, state);
+                if (ctx.cancellable) {
+                    checkCancelled(currentNode, state);
+                }
+                state = executeNode(currentNode, state, ctx.cancellable);
+
+                // Check for human input requirement
+                if (state.isNeedsHumanInput()) {
+                    endStep(ctx, ExecutionTrace.StepOutcome.PAUSED);
+                    return pause(ctx, currentNode, UNROUTED, state);
+                }
+                if (checkpointer != null && checkpointer.isDue(ctx.iterations)) {
+                    checkpoint(ctx, currentNode, UNROUTED, state);
+                }
+
+                if (!advance(ctx, currentNode, state)) {
+                    endStep(ctx, ExecutionTrace.StepOutcome.PAUSED);
+                    return pause(ctx, currentNode, ctx.currentNode, state);
+                }
+                endStep(ctx, ExecutionTrace.StepOutcome.COMPLETED);
+            }
+
+            return complete(ctx, state);
+        } catch (Exception e) {
+            failExecution(ctx, e);
+            throw e;
+        }
+    }
+
+    private void beginStep(ExecutionContext ctx, int nodeId, S state) {
+        ctx.jfrStep = JfrEvents.beginNodeStep(ctx.getExecutionId(), nodeNames[nodeId], ctx.iterations);
+        if (ctx.span != null) {
+            ctx.stepSpan = tracer.startSpan(nodeNames[nodeId], ctx.span.getContext())
+                    .setAttribute(Tracer.NODE, nodeNames[nodeId])
+                    .setAttribute(Tracer.ITERATION, ctx.iterations);
+            propagate(ctx.stepSpan, state);
+        }
+        if (ctx.trace != null) {
+            ctx.stepNode = nodeId;
+            ctx.stepStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Record the open step, if any; a fan-out's branches are part of the step that fanned out
+     */
+    private void endStep(ExecutionContext ctx, ExecutionTrace.StepOutcome outcome) {
+        if (ctx.jfrStep != null) {
+            JfrEvents.endNodeStep(ctx.jfrStep, outcome.name());
+            ctx.jfrStep = null;
+        }
+        if (ctx.stepSpan != null) {
+            ctx.stepSpan.setAttribute(Tracer.OUTCOME, outcome.name());
+            ctx.stepSpan.end();
+            ctx.stepSpan = null;
+        }
+        if (ctx.trace != null && ctx.stepNode != END_ID) {
+            ctx.trace.record(ctx.stepNode, ctx.stepStart, outcome);
+            ctx.stepNode = END_ID;
+        }
+    }
+
+    /**
+     * Put the span's context in the state, so nodes can pass it on to the services they call
+     */
+    private static void propagate(Span span, State state) {
+        SpanContext context = span.getContext();
+        if (context != null) {
+            context.inject(state);
+        }
+    }
+
+    /**
+     * Close the execution's trace, span and JFR event; only the first call counts
+     */
+    private void endExecution(ExecutionContext ctx, ExecutionTrace.Status status, Throwable error) {
+        if (ctx.jfrExecution != null) {
+            JfrEvents.endExecution(ctx.jfrExecution, status.name(), ctx.iterations);
+            ctx.jfrExecution = null;
+        }
+        if (ctx.span != null) {
+            ctx.span.setAttribute(Tracer.STATUS, status.name());
+            if (error != null) {
+                ctx.span.recordError(error);
+            }
+            ctx.span.end();
+            ctx.span = null;
+        }
+        ExecutionTrace trace = ctx.trace;
+        if (trace == null || trace.getStatus() != ExecutionTrace.Status.RUNNING) {
+            return;
+        }
+        trace.end(status, error);
+        if (flightRecorder != null) {
+            flightRecorder.finish(trace);
+        }
+    }
+
+    private void failExecution(ExecutionContext ctx, Throwable error) {
+        if (ctx.stepSpan != null) {
+            ctx.stepSpan.recordError(error);
+        }
+        endStep(ctx, ExecutionTrace.StepOutcome.FAILED);
+        endExecution(ctx, ExecutionTrace.Status.FAILED, error);
+        endJournal(ctx);
+    }
+
+    /**
+     * Journal that the execution ended, so it is not recovered; failed executions end too
+     */
+    private void endJournal(ExecutionContext ctx) {
+        if (!ctx.journaled) {
+            return;
+        }
+        ctx.journaled = false;
+        try {
+            journal.end(ctx.getExecutionId());
+        } catch (Exception e) {
+            log.warn("Failed to journal the end of execution {}", ctx.getExecutionId(), e);
+        }
+    }
+
+    /**
+     * Move {@code ctx.currentNode} past a completed node; false if a fan-out branch paused
+     */
+    private boolean advance(ExecutionContext ctx, int nodeId, S state) throws Exception {
+        if (fanOutBranches[nodeId] != null) {
+            executeFanOut(nodeId, state, ctx.cancellable);
+            ctx.currentNode = fanOutJoins[nodeId];
+            if (state.isNeedsHumanInput()) {
+                return false;
+            }
+            if (checkpointer != null && checkpointer.isDue(ctx.iterations)) {
+                checkpoint(ctx, nodeId, ctx.currentNode, state);
+            }
+            journalStep(ctx, nodeId, ctx.currentNode, state);
+            return true;
+        }
+
+        int nextNode = determineNextNode(nodeId, state);
+        if (enableLogging) {
+            log.info("Transitioning: {} -> {}", nodeNames[nodeId], nameOf(nextNode));
+        }
+        notifyTransition(nodeNames[nodeId], nameOf(nextNode), state);
+        ctx.currentNode = nextNode;
+        journalStep(ctx, nodeId, nextNode, state);
+        return true;
+    }
+
+    /**
+     * Save the position after {@code nodeId}; {@code nextNode} is UNROUTED if routing happens on resume
+     */
+    private void checkpoint(ExecutionContext ctx, int nodeId, int nextNode, S state) {
+        String nodeName = nodeNames[nodeId];
+        try {
+            checkpointer.save(ctx.getExecutionId(), state, nodeName,
+                    nextNode == UNROUTED ? null : nameOf(nextNode), ctx.iterations);
+            if (enableLogging) {
+                log.debug("Checkpoint [{}] saved after node [{}]", ctx.getExecutionId(), nodeName);
+            }
+        } catch (Exception e) {
+            if (enableLogging) {
+                log.error("Checkpoint after node [{}] failed: {}", nodeName, e.getMessage());
+            }
+            state.setError("Checkpoint after node " + nodeName + " failed: " + e.getMessage());
+            notifyError(nodeName, state, e);
+            throw new IllegalStateException("Failed to save checkpoint " + ctx.getExecutionId(), e);
+        }
+    }
+
+    /**
+     * Journal the start or continuation of an execution; later steps are journaled too
+     */
+    private void beginJournal(ExecutionContext ctx, S state, String nodeName, String nextNode) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.begin(ctx.getExecutionId(), state, nodeName, nextNode, ctx.iterations);
+            ctx.journaled = true;
+        } catch (Exception e) {
+            IllegalStateException error = new IllegalStateException(
+                    "Failed to journal execution " + ctx.getExecutionId(), e);
+            failExecution(ctx, error);
+            throw error;
+        }
+    }
+
+    /**
+     * Journal a completed step; {@code nextNode} is UNROUTED if routing happens on resume
+     */
+    private void journalStep(ExecutionContext ctx, int nodeId, int nextNode, S state) {
+        if (!ctx.journaled) {
+            return;
+        }
+        String nodeName = nodeNames[nodeId];
+        try {
+            journal.step(ctx.getExecutionId(), state, nodeName,
+                    nextNode == UNROUTED ? null : nameOf(nextNode), ctx.iterations);
+        } catch (Exception e) {
+            if (enableLogging) {
+                log.error("Journaling node [{}] failed: {}", nodeName, e.getMessage());
+            }
+            state.setError("Journaling node " + nodeName + " failed: " + e.getMessage());
+            notifyError(nodeName, state, e);
+            throw new IllegalStateException("Failed to journal execution " + ctx.getExecutionId(), e);
+        }
+    }
+
+    /**
+     * Execute the workflow without blocking the calling thread
+     * Asynchronous nodes are chained on their futures; synchronous nodes run on the node executor.
+     */
+    public CompletableFuture<S> executeAsync(S initialState) {
+        ExecutionContext ctx = newContext(entryPoint, null, initialState);
+        AsyncWalk walk = new AsyncWalk(ctx, END_ID, null, entryPoint, initialState);
+        try {
+            notifyStart(initialState);
+            if (enableLogging) {
+                log.info("Starting async workflow execution [{}] from: {}", ctx.getExecutionId(), nodeNames[entryPoint]);
+            }
+            if (journal != null) {
+                journal.begin(ctx.getExecutionId(), initialState, null, null, 0);
+                ctx.journaled = true;
+            }
+            walk.run();
+        } catch (Throwable e) {
+            walk.fail(e);
+        }
+        return walk.result;
+    }
+
+    /**
+     * Execute the workflow in the background and stream a {@link StepEvent} as each node completes
+     * Uses a buffer of {@value StepStream#DEFAULT_BUFFER_SIZE} events.
+     */
+    public Stream<StepEvent<S>> stream(S initialState) {
+        return stream(initialState, StepStream.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Execute the workflow in the background and stream a {@link StepEvent} as each node completes
+     * When {@code bufferSize} events are waiting, the execution blocks until the consumer catches up
+     * or its deadline passes. Close the stream when not reading it to the end; closing early
+     * interrupts the execution.
+     */
+    public Stream<StepEvent<S>> stream(S initialState, int bufferSize) {
+        StepStream<S> steps = new StepStream<>(bufferSize);
+        CompiledGraph<S> streaming = new CompiledGraph<>(this, steps);
+        steps.start(() -> streaming.execute(initialState), nodeExecutor);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(steps, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(steps::close);
+    }
+
+    /**
+     * Finish an execution that reached END or its iteration limit
+     */
+    private S complete(ExecutionContext ctx, S state) {
+        if (ctx.iterations >= maxIterations) {
+            String error = "Workflow exceeded maximum iterations: " + maxIterations;
+            if (enableLogging) {
+                log.error(error);
+            }
+            state.setError(error);
+            endExecution(ctx, ExecutionTrace.Status.MAX_ITERATIONS, null);
+        } else {
+            endExecution(ctx, ExecutionTrace.Status.COMPLETED, null);
+            if (enableLogging) {
+                log.info("Workflow completed successfully after {} iterations", ctx.iterations);
+                if (ctx.trace != null) {
+                    log.info("Execution path: {}", ctx.trace.formatPath());
+                }
+            }
+        }
+
+        if (checkpointer != null) {
+            try {
+                checkpointer.delete(ctx.getExecutionId());
+            } catch (Exception e) {
+                log.warn("Failed to delete checkpoint {}", ctx.getExecutionId(), e);
+            }
+        }
+        endJournal(ctx);
+
+        notifyComplete(state);
+        return state;
+    }
+
+    /**
+     * Run a single node with listener notifications, retrying it if it has a retry policy
+     *
+     * @param cancellable whether the execution has a deadline or a token supplied by the caller
+     */
+    private S executeNode(int nodeId, S state, boolean cancellable) throws Exception {
+        if (nodeFeatures[nodeId] == 0 && !cancellable) {
+            return executePlainNode(nodeId, state);
+        }
+        String nodeName = nodeNames[nodeId];
+        notifyBeforeNode(nodeName, state);
+        long start = listeners.length > 0 ? System.nanoTime() : 0;
+        NodeCache.Key cacheKey = cacheKey(nodeId, state);
+        if (cacheKey != null && serveFromCache(nodeId, cacheKey, state, start)) {
+            return state;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            long attemptStart = (nodeFeatures[nodeId] & RETRY) != 0 ? System.nanoTime() : 0;
+            Map<String, Object> base = isolatesAttempts(nodeId, state) ? state.getData() : null;
+            S input = base != null ? attemptState(state) : state;
+            try {
+                S result = invoke(nodeId, input);
+                if (base != null) {
+                    state.applyAttempt(base, result);
+                    result = state;
+                }
+                cacheResult(nodeId, cacheKey, result);
+                notifyAfterNode(nodeName, result, System.nanoTime() - start);
+
+                if (enableLogging) {
+                    log.info("Node [{}] completed successfully", nodeName);
+                }
+                return result;
+            } catch (Exception e) {
+                long backoff = retryBackoffNanos(nodeId, state, e, attempt, System.nanoTime() - attemptStart);
+                if (backoff < 0) {
+                    failNode(nodeId, state, e, attempt);
+                    throw e;
+                }
+                try {
+                    // The executing thread is the execution itself; only async executions avoid blocking here
+                    TimeUnit.NANOSECONDS.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    failNode(nodeId, state, interrupted, attempt);
+                    throw interrupted;
+                }
+            }
+        }
+    }
+
+    /**
+     * Run a node without retry, timeout, cache or bulkhead, in an execution without a time limit
+     * It runs straight on the calling thread and is only timed when listeners take the duration.
+     */
+    private S executePlainNode(int nodeId, S state) throws Exception {
+        String nodeName = nodeNames[nodeId];
+        notifyBeforeNode(nodeName, state);
+        long start = listeners.length > 0 ? System.nanoTime() : 0;
+        S result;
+        try {
+            result = nodes[nodeId].execute(state);
+        } catch (Exception e) {
+            failNode(nodeId, state, e, 1);
+            throw e;
+        }
+        if (listeners.length > 0) {
+            notifyAfterNode(nodeName, result, System.nanoTime() - start);
+        }
+        if (enableLogging) {
+            log.info("Node [{}] completed successfully", nodeName);
+        }
+        return result;
+    }
+
+    /**
+     * Whether each attempt of the node runs on its own copy of the state
+     * An attempt that can be retried or abandoned on timeout must not leave partial
+     * writes behind, nor keep writing to the state the next attempt runs on.
+     */
+    private boolean isolatesAttempts(int nodeId, S state) {
+        return (nodeFeatures[nodeId] & RETRY) != 0 || timeLimitNanos(nodeId, state) != NO_LIMIT;
+    }
+
+    /**
+     * Copy of the state for one attempt, with a token that is cancelled if the attempt times out
+     */
+    private S attemptState(S state) {
+        S copy = state.copy();
+        copy.setCancellationToken(CancellationToken.forAttempt(state.getCancellationToken()));
+        return copy;
+    }
+
+    /**
+     * Cache key of a cacheable node run, taken before the node changes the state; null if not cacheable
+     */
+    private NodeCache.Key cacheKey(int nodeId, S state) {
+        return cacheInputKeys[nodeId] != null ? nodeCache.key(nodes[nodeId], cacheInputKeys[nodeId], state) : null;
+    }
+
+    private boolean serveFromCache(int nodeId, NodeCache.Key cacheKey, S state, long start) {
+        if (!nodeCache.apply(cacheKey, state)) {
+            return false;
+        }
+        if (enableLogging) {
+            log.info("Node [{}] served from cache", nodeNames[nodeId]);
+        }
+        notifyAfterNode(nodeNames[nodeId], state, System.nanoTime() - start);
+        return true;
+    }
+
+    private void cacheResult(int nodeId, NodeCache.Key cacheKey, S result) {
+        // Pauses and soft errors depend on more than the declared inputs
+        if (cacheKey != null && !result.hasError() && !result.isNeedsHumanInput()) {
+            nodeCache.put(cacheKey, cacheOutputKeys[nodeId], result);
+        }
+    }
+
+    /**
+     * Backoff before retrying a failed attempt, reported to listeners; -1 if the node should fail
+     */
+    private long retryBackoffNanos(int nodeId, S state, Throwable error, int attempt, long attemptNanos) {
+        RetryPolicy policy = retryPolicies[nodeId];
+        if (policy == null || !(error instanceof Exception) || !policy.shouldRetry(error, attempt)
+                || state.getCancellationToken().isCancelled()) {
+            return -1;
+        }
+        long backoff = policy.backoffNanos(attempt);
+        String nodeName = nodeNames[nodeId];
+        if (enableLogging) {
+            log.warn("Node [{}] attempt {} failed: {}, retrying in {} ms", nodeName, attempt,
+                    error.getMessage(), TimeUnit.NANOSECONDS.toMillis(backoff));
+        }
+        notifyRetry(nodeName, state, attempt, (Exception) error, attemptNanos, backoff);
+        return backoff;
+    }
+
+    /**
+     * Record a node's final failure on the state and report it
+     */
+    private void failNode(int nodeId, S state, Throwable error, int attempts) {
+        String nodeName = nodeNames[nodeId];
+        if (enableLogging) {
+            log.error("Node [{}] failed: {}", nodeName, error.getMessage());
+        }
+        if (error instanceof NodeTimeoutException) {
+            // Let the abandoned node, and anything else still running for the execution, see it stopped
+            state.getCancellationToken().cancel(error.getMessage());
+        }
+        state.setError("Node " + nodeName + " failed"
+                + (attempts > 1 ? " after " + attempts + " attempts" : "") + ": " + error.getMessage());
+        notifyError(nodeName, state, error instanceof Exception
+                ? (Exception) error : new ExecutionException(error));
+    }
+
+    /**
+     * Run a node, first taking a slot of its bulkhead if it has one
+     * Synchronous executions wait for the slot on the calling thread.
+     */
+    private S invoke(int nodeId, S state) throws Exception {
+        Bulkhead bulkhead = bulkheads[nodeId];
+        long limit = timeLimitNanos(nodeId, state);
+        if (bulkhead == null) {
+            return invoke(nodeId, state, limit, null);
+        }
+        long waited = awaitSlot(bulkhead, nodeId, state, limit);
+        return invoke(nodeId, state, limit == NO_LIMIT ? NO_LIMIT : limit - waited, bulkhead);
+    }
+
+    /**
+     * Block until the bulkhead grants a slot, returning how long that took
+     * The wait ends early when the time limit passes or the token is cancelled.
+     */
+    private long awaitSlot(Bulkhead bulkhead, int nodeId, S state, long limit) throws Exception {
+        CompletableFuture<Void> permit = bulkhead.acquire();
+        long start = System.nanoTime();
+        CancellationToken token = state.getCancellationToken();
+        Runnable unregister = token.onCancel(() -> permit.cancel(false));
+        try {
+            try {
+                if (limit == NO_LIMIT) {
+                    permit.get();
+                } else {
+                    permit.get(limit, TimeUnit.NANOSECONDS);
+                }
+                return System.nanoTime() - start;
+            } catch (TimeoutException e) {
+                throw timedOut(nodeId, state);
+            } catch (CancellationException e) {
+                // Left the queue because the token was cancelled
+                throw new CancellationException(token.getReason());
+            } catch (ExecutionException e) {
+                Throwable cause = unwrap(e);
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                throw (Error) cause;
+            }
+        } catch (Exception | Error e) {
+            if (!permit.cancel(false) && !permit.isCompletedExceptionally()) {
+                // The slot was granted while giving up
+                bulkhead.release();
+            }
+            throw e;
+        } finally {
+            unregister.run();
+        }
+    }
+
+    /**
+     * Run a node on the calling thread, or on the node executor when it has a time limit
+     * On timeout the calling thread stops waiting; the node is interrupted and left behind,
+     * holding its bulkhead slot until it actually returns.
+     */
+    private S invoke(int nodeId, S state, long limit, Bulkhead slot) throws Exception {
+        if (limit == NO_LIMIT) {
+            try {
+                return nodes[nodeId].execute(state);
+            } finally {
+                release(slot);
+            }
+        }
+
+        Future<S> future;
+        if (asyncNodes[nodeId] != null) {
+            future = startAsyncNode(nodeId, state, slot);
+        } else {
+            NodeTask task = new NodeTask(nodeId, state, slot);
+            task.start();
+            future = task;
+        }
+
+        try {
+            return future.get(limit, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            NodeTimeoutException error = timedOut(nodeId, state);
+            // The state is this attempt's copy, so only the abandoned attempt sees the cancellation
+            state.getCancellationToken().cancel(error.getMessage());
+            future.cancel(true);
+            throw error;
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Start an async node, releasing its bulkhead slot once the returned future completes
+     */
+    private CompletableFuture<S> startAsyncNode(int nodeId, S input, Bulkhead slot) {
+        CompletableFuture<S> future;
+        try {
+            future = asyncNodes[nodeId].executeAsync(input);
+        } catch (RuntimeException | Error e) {
+            release(slot);
+            throw e;
+        }
+        if (future == null) {
+            release(slot);
+            throw new IllegalStateException("Async node returned no future: " + nodeNames[nodeId]);
+        }
+        if (slot != null) {
+            future.whenComplete((result, error) -> slot.release());
+        }
+        return future;
+    }
+
+    private static void release(Bulkhead slot) {
+        if (slot != null) {
+            slot.release();
+        }
+    }
+
+    /**
+     * A synchronous node run on the node executor
+     * Its bulkhead slot is released when the node returns, or when the task is
+     * cancelled before it started; a caller that stops waiting keeps the slot taken.
+     */
+    private final class NodeTask extends FutureTask<S> {
+        final CompletableFuture<S> result = new CompletableFuture<>();
+        private final Bulkhead slot;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean started;
+
+        NodeTask(int nodeId, S input, Bulkhead slot) {
+            super(() -> nodes[nodeId].execute(input));
+            this.slot = slot;
+        }
+
+        void start() {
+            try {
+                nodeExecutor.execute(this);
+            } catch (RuntimeException e) {
+                cancel(false);
+                throw e;
+            }
+        }
+
+        @Override
+        public void run() {
+            started = true;
+            try {
+                super.run();
+            } finally {
+                if (isCancelled()) {
+                    // Interrupted or cancelled mid-run; the node has returned by now
+                    releaseSlot();
+                }
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (!isCancelled() || !started) {
+                releaseSlot();
+            }
+            try {
+                result.complete(get());
+            } catch (ExecutionException e) {
+                result.completeExceptionally(e.getCause());
+            } catch (CancellationException | InterruptedException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void releaseSlot() {
+            if (released.compareAndSet(false, true)) {
+                release(slot);
+            }
+        }
+    }
+
+    /**
+     * The node's timeout, shortened to what is left of the execution deadline
+     */
+    private long timeLimitNanos(int nodeId, S state) {
+        long limit = nodeTimeouts[nodeId] > 0 ? nodeTimeouts[nodeId] : NO_LIMIT;
+        CancellationToken token = state.getCancellationToken();
+        if (token.hasDeadline()) {
+            long remaining = token.remainingNanos();
+            limit = limit == NO_LIMIT ? remaining : Math.min(limit, remaining);
+        }
+        return limit;
+    }
+
+    private NodeTimeoutException timedOut(int nodeId, S state) {
+        String nodeName = nodeNames[nodeId];
+        CancellationToken token = state.getCancellationToken();
+        String message = token.hasDeadline() && token.remainingNanos() == 0
+                ? "Node " + nodeName + " exceeded the execution deadline"
+                : "Node " + nodeName + " timed out after " + TimeUnit.NANOSECONDS.toMillis(nodeTimeouts[nodeId]) + " ms";
+        return new NodeTimeoutException(nodeName, message);
+    }
+
+    /**
+     * Fail the execution before a node runs if its token is cancelled
+     */
+    private void checkCancelled(int nodeId, S state) {
+        CancellationToken token = state.getCancellationToken();
+        if (!token.isCancelled()) {
+            return;
+        }
+        String nodeName = nodeNames[nodeId];
+        String reason = token.getReason();
+        if (enableLogging) {
+            log.error("Execution cancelled before node [{}]: {}", nodeName, reason);
+        }
+        CancellationException error = new CancellationException(reason);
+        state.setError("Execution cancelled before node " + nodeName + ": " + reason);
+        notifyError(nodeName, state, error);
+        throw error;
+    }
+
+    /**
+     * Start a single node with listener notifications
+     * Synchronous nodes are handed to the node executor.
+     */
+    private CompletableFuture<S> executeNodeAsync(int nodeId, S state) {
+        notifyBeforeNode(nodeNames[nodeId], state);
+        NodeCache.Key cacheKey = cacheKey(nodeId, state);
+        if (cacheKey != null && serveFromCache(nodeId, cacheKey, state, System.nanoTime())) {
+            return CompletableFuture.completedFuture(state);
+        }
+        AsyncNodeRun run = new AsyncNodeRun(nodeId, state, cacheKey);
+        run.attempt();
+        return run.completion;
+    }
+
+    /**
+     * Attempts of one node in an async execution
+     * Retries are scheduled on the timer after their backoff, so no thread waits in between.
+     */
+    private final class AsyncNodeRun {
+        private final int nodeId;
+        private final S state;
+        private final NodeCache.Key cacheKey;
+        private final long start = System.nanoTime();
+        private final CompletableFuture<S> completion = new CompletableFuture<>();
+        private volatile CompletableFuture<S> source;
+        private volatile NodeTask task;
+        private volatile ScheduledFuture<?> backoff;
+        private volatile CompletableFuture<Void> permit;
+        private int attempt;
+
+        AsyncNodeRun(int nodeId, S state, NodeCache.Key cacheKey) {
+            this.nodeId = nodeId;
+            this.state = state;
+            this.cacheKey = cacheKey;
+            completion.whenComplete((result, error) -> {
+                if (completion.isCancelled()) {
+                    cancel();
+                }
+            });
+        }
+
+        void attempt() {
+            if (completion.isDone()) {
+                return;
+            }
+            attempt++;
+            long attemptStart = System.nanoTime();
+            Map<String, Object> base = isolatesAttempts(nodeId, state) ? state.getData() : null;
+            S input = base != null ? attemptState(state) : state;
+            CompletableFuture<S> current = startAttempt(input);
+            current.whenComplete((attemptResult, error) -> {
+                if (error == null) {
+                    S result = attemptResult;
+                    if (base != null) {
+                        state.applyAttempt(base, attemptResult);
+                        result = state;
+                    }
+                    cacheResult(nodeId, cacheKey, result);
+                    notifyAfterNode(nodeNames[nodeId], result, System.nanoTime() - start);
+                    if (enableLogging) {
+                        log.info("Node [{}] completed successfully", nodeNames[nodeId]);
+                    }
+                    completion.complete(result);
+                    return;
+                }
+                Throwable cause = unwrap(error);
+                long delay = completion.isDone()
+                        ? -1 : retryBackoffNanos(nodeId, state, cause, attempt, System.nanoTime() - attemptStart);
+                if (delay >= 0) {
+                    backoff = Timer.INSTANCE.schedule(this::attempt, delay, TimeUnit.NANOSECONDS);
+                    return;
+                }
+                failNode(nodeId, state, cause, attempt);
+                completion.completeExceptionally(cause);
+            });
+        }
+
+        /**
+         * Start an attempt, once a slot is free if the node has a bulkhead
+         * A queued attempt holds no thread; one that times out or is cancelled
+         * while queued leaves the queue.
+         */
+        private CompletableFuture<S> startAttempt(S input) {
+            Bulkhead bulkhead = bulkheads[nodeId];
+            CompletableFuture<S> current;
+            if (bulkhead == null) {
+                current = run(input, null);
+            } else {
+                CompletableFuture<S> attempt = new CompletableFuture<>();
+                CompletableFuture<Void> permit = bulkhead.acquire();
+                this.permit = permit;
+                attempt.whenComplete((result, error) -> permit.cancel(false));
+                permit.whenComplete((ignored, refused) -> {
+                    if (permit.isCancelled()) {
+                        // Abandoned while queued
+                        return;
+                    }
+                    if (refused != null) {
+                        attempt.completeExceptionally(unwrap(refused));
+                        return;
+                    }
+                    if (attempt.isDone()) {
+                        bulkhead.release();
+                        return;
+                    }
+                    CompletableFuture<S> running = run(input, bulkhead);
+                    running.whenComplete((result, error) -> {
+                        if (error == null) {
+                            attempt.complete(result);
+                        } else {
+                            attempt.completeExceptionally(unwrap(error));
+                        }
+                    });
+                    attempt.whenComplete((result, error) -> running.cancel(true));
+                });
+                current = attempt;
+            }
+            source = current;
+
+            long limit = timeLimitNanos(nodeId, input);
+            if (limit != NO_LIMIT && !current.isDone()) {
+                CompletableFuture<S> watched = current;
+                ScheduledFuture<?> timer = Timer.INSTANCE.schedule(() -> {
+                    if (watched.isDone()) {
+                        return;
+                    }
+                    // Leave the bulkhead queue before anyone sees the attempt fail
+                    leaveQueue();
+                    NodeTimeoutException error = timedOut(nodeId, input);
+                    // The input is this attempt's copy, so only the abandoned attempt sees the cancellation
+                    input.getCancellationToken().cancel(error.getMessage());
+                    watched.completeExceptionally(error);
+                    // Only this attempt's task can still be running
+                    NodeTask interruptible = task;
+                    if (interruptible != null) {
+                        interruptible.cancel(true);
+                    }
+                }, limit, TimeUnit.NANOSECONDS);
+                current.whenComplete((result, error) -> timer.cancel(false));
+            }
+            return current;
+        }
+
+        /**
+         * Run one attempt, handing it the bulkhead slot it took, if any
+         */
+        private CompletableFuture<S> run(S input, Bulkhead slot) {
+            CompletableFuture<S> current;
+            try {
+                if (asyncNodes[nodeId] != null) {
+                    current = startAsyncNode(nodeId, input, slot);
+                } else {
+                    NodeTask running = new NodeTask(nodeId, input, slot);
+                    task = running;
+                    running.start();
+                    current = running.result;
+                }
+            } catch (Exception e) {
+                current = new CompletableFuture<>();
+                current.completeExceptionally(e);
+            }
+            return current;
+        }
+
+        private void leaveQueue() {
+            CompletableFuture<Void> queued = permit;
+            if (queued != null) {
+                queued.cancel(false);
+            }
+        }
+
+        private void cancel() {
+            leaveQueue();
+            ScheduledFuture<?> pendingRetry = backoff;
+            if (pendingRetry != null) {
+                pendingRetry.cancel(false);
+            }
+            CompletableFuture<S> current = source;
+            if (current != null) {
+                current.cancel(true);
+            }
+            NodeTask running = task;
+            if (running != null) {
+                running.cancel(true);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private S pause(ExecutionContext ctx, int nodeId, int nextNode, S state) {
+        String nodeName = nodeNames[nodeId];
+        if (checkpointer != null) {
+            checkpoint(ctx, nodeId, nextNode, state);
+        }
+        journalStep(ctx, nodeId, nextNode, state);
+        if (enableLogging) {
+            log.info("Node [{}] requires human input, pausing execution", nodeName);
+        }
+        endExecution(ctx, ExecutionTrace.Status.PAUSED, null);
+        notifyHumanInputRequired(nodeName, state);
+        return state;
+    }
+
+    /**
+     * Run all branches of a fan-out on their own state copies and merge them back
+     * The superstep takes as long as its slowest branch, not the sum of all branches.
+     */
+    private void executeFanOut(int fromNode, S state, boolean cancellable) throws Exception {
+        int[] branches = fanOutBranches[fromNode];
+        int join = fanOutJoins[fromNode];
+        Map<String, Object> base = state.getData();
+        long start = System.nanoTime();
+        notifyFanOutTransitions(fromNode, state);
+
+        Object[] results = new Object[branches.length];
+        List<Future<Integer>> futures = new ArrayList<>(branches.length);
+        CompletionService<Integer> completion = new ExecutorCompletionService<>(fanOutExecutor);
+        int submitted = 0;
+        int completed = 0;
+        try {
+            while (completed < branches.length) {
+                while (submitted < branches.length && submitted - completed < fanOutParallelism) {
+                    final int index = submitted++;
+                    final S view = state.copy();
+                    futures.add(completion.submit(() -> {
+                        results[index] = executeBranch(branches[index], join, view, cancellable);
+                        return index;
+                    }));
+                }
+                completion.take().get();
+                completed++;
+            }
+        } catch (ExecutionException e) {
+            cancelAll(futures);
+            Throwable cause = e.getCause();
+            state.setError("Fan-out from " + nodeNames[fromNode] + " failed: " + cause.getMessage());
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        } catch (InterruptedException e) {
+            cancelAll(futures);
+            throw e;
+        }
+
+        joinFanOut(fromNode, state, base, results, start);
+    }
+
+    /**
+     * Run all branches of a fan-out as non-blocking walks
+     */
+    private CompletableFuture<Void> executeFanOutAsync(int fromNode, S state) {
+        AsyncFanOut fanOut = new AsyncFanOut(fromNode, state);
+        notifyFanOutTransitions(fromNode, state);
+        fanOut.start();
+        return fanOut.done;
+    }
+
+    private void notifyFanOutTransitions(int fromNode, S state) {
+        String fromName = nodeNames[fromNode];
+        for (int branch : fanOutBranches[fromNode]) {
+            if (enableLogging) {
+                log.info("Transitioning: {} -> {} (fan-out)", fromName, nodeNames[branch]);
+            }
+            notifyTransition(fromName, nodeNames[branch], state);
+        }
+    }
+
+    /**
+     * Merge branch results in declaration order and report the superstep time
+     */
+    private void joinFanOut(int fromNode, S state, Map<String, Object> base, Object[] results, long start) {
+        for (Object result : results) {
+            @SuppressWarnings("unchecked")
+            S branchState = (S) result;
+            state.applyChanges(base, branchState);
+        }
+
+        String fromName = nodeNames[fromNode];
+        String joinName = nameOf(fanOutJoins[fromNode]);
+        long duration = System.nanoTime() - start;
+        if (enableLogging) {
+            log.info("Fan-out from [{}] joined at [{}] after {} ms", fromName, joinName,
+                    TimeUnit.NANOSECONDS.toMillis(duration));
+        }
+        notifyFanOutComplete(fromName, joinName, state, duration);
+    }
+
+    /**
+     * Walk one branch until it reaches the join node, END, or a pause
+     */
+    private S executeBranch(int startNode, int join, S state, boolean cancellable) throws Exception {
+        int currentNode = startNode;
+        int steps = 0;
+        while (currentNode != join && currentNode != END_ID) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Fan-out branch cancelled");
+            }
+            if (++steps > maxIterations) {
+                throw new IllegalStateException("Fan-out branch exceeded maximum iterations: " + maxIterations);
+            }
+            if (cancellable) {
+                checkCancelled(currentNode, state);
+            }
+
+            String nodeName = nodeNames[currentNode];
+            if (enableLogging) {
+                log.info("Executing node [{}] (branch step {})", nodeName, steps);
+            }
+            state = executeNode(currentNode, state, cancellable);
+            if (state.isNeedsHumanInput()) {
+                return state;
+            }
+
+            int nextNode;
+            if (fanOutBranches[currentNode] != null) {
+                executeFanOut(currentNode, state, cancellable);
+                nextNode = fanOutJoins[currentNode];
+            } else {
+                nextNode = determineNextNode(currentNode, state);
+                notifyTransition(nodeName, nameOf(nextNode), state);
+            }
+            currentNode = nextNode;
+        }
+        return state;
+    }
+
+    private static void cancelAll(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * A walk over the graph that resumes from future callbacks instead of blocking
+     * The main walk runs until END; a fan-out branch runs until its join node.
+     */
+    private final class AsyncWalk {
+        private final ExecutionContext ctx;
+        private final int stopNode;
+        private final AtomicBoolean cancelled;
+        private final CompletableFuture<S> result = new CompletableFuture<>();
+        private volatile CompletableFuture<?> pending;
+        private int currentNode;
+        private int steps;
+        private S state;
+
+        AsyncWalk(ExecutionContext ctx, int stopNode, AtomicBoolean cancelled, int startNode, S state) {
+            this.ctx = ctx;
+            this.stopNode = stopNode;
+            this.cancelled = cancelled;
+            this.currentNode = startNode;
+            this.state = state;
+        }
+
+        private boolean isBranch() {
+            return ctx == null;
+        }
+
+        /**
+         * Run steps until one has to wait; its callback resumes the walk
+         */
+        void run() {
+            try {
+                while (true) {
+                    if (currentNode == END_ID || currentNode == stopNode) {
+                        finish();
+                        return;
+                    }
+                    if (steps >= maxIterations) {
+                        if (isBranch()) {
+                            throw new IllegalStateException("Fan-out branch exceeded maximum iterations: " + maxIterations);
+                        }
+                        finish();
+                        return;
+                    }
+                    if (cancelled != null && cancelled.get()) {
+                        throw new CancellationException("Fan-out branch cancelled");
+                    }
+
+                    steps++;
+                    String nodeName = nodeNames[currentNode];
+                    if (!isBranch()) {
+                        ctx.iterations = steps;
+                        ctx.currentNode = currentNode;
+                        beginStep(ctx, currentNode, state);
+                        if (enableLogging) {
+                            log.info("Executing node [{}] (iteration {})", nodeName, steps);
+                        }
+                    } else if (enableLogging) {
+                        log.info("Executing node [{}] (branch step {})", nodeName, steps);
+                    }
+
+                    checkCancelled(currentNode, state);
+                    CompletableFuture<S> node = executeNodeAsync(currentNode, state);
+                    if (!node.isDone()) {
+                        pending = node;
+                        node.whenComplete((next, error) -> resume(() -> afterNode(node)));
+                        return;
+                    }
+                    if (!afterNode(node)) {
+                        return;
+                    }
+                }
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+
+        private void resume(BooleanSupplier step) {
+            try {
+                if (!step.getAsBoolean()) {
+                    return;
+                }
+            } catch (Throwable e) {
+                fail(e);
+                return;
+            }
+            run();
+        }
+
+        void fail(Throwable error) {
+            if (!isBranch()) {
+                failExecution(ctx, error);
+            }
+            result.completeExceptionally(error);
+        }
+
+        private void endStep(ExecutionTrace.StepOutcome outcome) {
+            if (!isBranch()) {
+                CompiledGraph.this.endStep(ctx, outcome);
+            }
+        }
+
+        /**
+         * Route after the current node finished; false if the walk has to wait or is done
+         */
+        private boolean afterNode(CompletableFuture<S> node) {
+            if (failed(node)) {
+                return false;
+            }
+            state = node.getNow(null);
+            int nodeId = currentNode;
+            String nodeName = nodeNames[nodeId];
+
+            if (state.isNeedsHumanInput()) {
+                pauseWalk(nodeId, UNROUTED);
+                return false;
+            }
+            if (!isBranch() && checkpointer != null && checkpointer.isDue(steps)) {
+                checkpoint(ctx, nodeId, UNROUTED, state);
+            }
+
+            if (fanOutBranches[nodeId] != null) {
+                CompletableFuture<Void> fanOut = executeFanOutAsync(nodeId, state);
+                if (!fanOut.isDone()) {
+                    pending = fanOut;
+                    fanOut.whenComplete((ignored, error) -> resume(() -> afterFanOut(fanOut, nodeId)));
+                    return false;
+                }
+                return afterFanOut(fanOut, nodeId);
+            }
+
+            int nextNode = determineNextNode(nodeId, state);
+            if (enableLogging && !isBranch()) {
+                log.info("Transitioning: {} -> {}", nodeName, nameOf(nextNode));
+            }
+            notifyTransition(nodeName, nameOf(nextNode), state);
+            if (!isBranch()) {
+                journalStep(ctx, nodeId, nextNode, state);
+            }
+            endStep(ExecutionTrace.StepOutcome.COMPLETED);
+            currentNode = nextNode;
+            return true;
+        }
+
+        private boolean afterFanOut(CompletableFuture<Void> fanOut, int fromNode) {
+            if (failed(fanOut)) {
+                return false;
+            }
+            currentNode = fanOutJoins[fromNode];
+            if (state.isNeedsHumanInput()) {
+                pauseWalk(fromNode, currentNode);
+                return false;
+            }
+            if (!isBranch() && checkpointer != null && checkpointer.isDue(steps)) {
+                checkpoint(ctx, fromNode, currentNode, state);
+            }
+            if (!isBranch()) {
+                journalStep(ctx, fromNode, currentNode, state);
+            }
+            endStep(ExecutionTrace.StepOutcome.COMPLETED);
+            return true;
+        }
+
+        /**
+         * Fail the walk if a completed future failed
+         */
+        private boolean failed(CompletableFuture<?> future) {
+            if (!future.isCompletedExceptionally()) {
+                return false;
+            }
+            try {
+                future.join();
+            } catch (CompletionException | CancellationException e) {
+                fail(unwrap(e));
+            }
+            return true;
+        }
+
+        private void pauseWalk(int nodeId, int nextNode) {
+            endStep(ExecutionTrace.StepOutcome.PAUSED);
+            result.complete(isBranch() ? state : pause(ctx, nodeId, nextNode, state));
+        }
+
+        private void finish() {
+            result.complete(isBranch() ? state : complete(ctx, state));
+        }
+
+        void cancel() {
+            CompletableFuture<?> waiting = pending;
+            if (waiting != null) {
+                waiting.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Launches the branch walks of one fan-out, at most {@code fanOutParallelism} at a time
+     */
+    private final class AsyncFanOut {
+        private final int fromNode;
+        private final S state;
+        private final Map<String, Object> base;
+        private final long start = System.nanoTime();
+        private final Object[] results;
+        private final List<AsyncWalk> walks = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicInteger nextBranch = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        AsyncFanOut(int fromNode, S state) {
+            this.fromNode = fromNode;
+            this.state = state;
+            this.base = state.getData();
+            this.results = new Object[fanOutBranches[fromNode].length];
+            this.remaining = new AtomicInteger(results.length);
+            done.whenComplete((ignored, error) -> {
+                if (done.isCancelled()) {
+                    cancelBranches();
+                }
+            });
+        }
+
+        void start() {
+            int initial = Math.min(fanOutParallelism, results.length);
+            for (int i = 0; i < initial; i++) {
+                launchNext();
+            }
+        }
+
+        private void launchNext() {
+            int index = nextBranch.getAndIncrement();
+            if (index >= results.length || cancelled.get()) {
+                return;
+            }
+            AsyncWalk walk = new AsyncWalk(null, fanOutJoins[fromNode], cancelled,
+                    fanOutBranches[fromNode][index], state.copy());
+            walks.add(walk);
+            walk.result.whenComplete((branchState, error) -> onBranchDone(index, branchState, error));
+            walk.run();
+        }
+
+        private void onBranchDone(int index, S branchState, Throwable error) {
+            if (error != null) {
+                if (cancelled.compareAndSet(false, true)) {
+                    cancelBranches();
+                    Throwable cause = unwrap(error);
+                    state.setError("Fan-out from " + nodeNames[fromNode] + " failed: " + cause.getMessage());
+                    done.completeExceptionally(cause);
+                }
+                return;
+            }
+            results[index] = branchState;
+            if (remaining.decrementAndGet() == 0) {
+                try {
+                    joinFanOut(fromNode, state, base, results, start);
+                    done.complete(null);
+                } catch (Throwable e) {
+                    done.completeExceptionally(e);
+                }
+            } else {
+                launchNext();
+            }
+        }
+
+        private void cancelBranches() {
+            cancelled.set(true);
+            for (AsyncWalk walk : walks) {
+                walk.cancel();
+            }
+        }
+    }
+
+    /**
+     * Determine the next node id based on edges and routers
+     * A node of an inlined subgraph that routes to END leaves the subgraph, so
+     * routing continues from the node that stands for the subgraph.
+     */
+    private int determineNextNode(int currentNode, S state) {
+        int nextNode = routeFrom(currentNode, state);
+        while (nextNode == END_ID && subgraphExits[currentNode] != END_ID) {
+            currentNode = subgraphExits[currentNode];
+            nextNode = routeFrom(currentNode, state);
+        }
+        return nextNode;
+    }
+
+    private int routeFrom(int currentNode, S state) {
+        // Check router first
+        Router<S> router = routers[currentNode];
+        if (router != null) {
+            String nextNode = router.route(state);
+            if (enableLogging) {
+                log.debug("Router selected: {}", nextNode);
+            }
+            return resolveNodeId(nextNode);
+        }
+
+        // Find first matching edge
+        Edge<S>[] nodeEdges = edges[currentNode];
+        EdgeProfile profile = edgeProfiles[currentNode];
+        if (profile != null) {
+            return determineProfiledNextNode(currentNode, state, nodeEdges, profile);
+        }
+        for (int i = 0; i < nodeEdges.length; i++) {
+            if (nodeEdges[i].shouldTransition(state)) {
+                if (enableLogging && nodeEdges[i].isConditional()) {
+                    log.debug("Conditional edge matched: {}", nodeEdges[i]);
+                }
+                return edgeTargets[currentNode][i];
+            }
+        }
+
+        // No matching edge
+        if (enableLogging) {
+            log.debug("No matching edges from {}, ending workflow", nodeNames[currentNode]);
+        }
+        return END_ID;
+    }
+
+    /**
+     * Edge matching in the profile's order, timing each predicate and counting the edge taken
+     */
+    private int determineProfiledNextNode(int currentNode, S state, Edge<S>[] nodeEdges, EdgeProfile profile) {
+        for (int i : profile.order()) {
+            Edge<S> edge = nodeEdges[i];
+            boolean matched = true;
+            if (edge.isConditional()) {
+                long start = System.nanoTime();
+                matched = edge.shouldTransition(state);
+                notifyConditionEvaluated(nodeNames[currentNode], edge.getToNode(), state,
+                        System.nanoTime() - start, matched);
+            }
+            if (matched) {
+                if (enableLogging && edge.isConditional()) {
+                    log.debug("Conditional edge matched: {}", edge);
+                }
+                profile.hit(i);
+                return edgeTargets[currentNode][i];
+            }
+        }
+
+        if (enableLogging) {
+            log.debug("No matching edges from {}, ending workflow", nodeNames[currentNode]);
+        }
+        return END_ID;
+    }
+
+    /**
+     * Resolve a node name to the id of the node that runs next, entering subgraphs at their entry
+     */
+    private int resolveNodeId(String nodeName) {
+        int id = lookupNodeId(nodeName);
+        return id == END_ID ? END_ID : entryRedirects[id];
+    }
+
+    private int lookupNodeId(String nodeName) {
+        if (Graph.END.equals(nodeName)) {
+            return END_ID;
+        }
+        Integer id = nodeIds.get(nodeName);
+        if (id == null) {
+            throw new IllegalStateException("Node not found: " + nodeName);
+        }
+        return id;
+    }
+
+    private String nameOf(int nodeId) {
+        return nodeId == END_ID ? Graph.END : nodeNames[nodeId];
+    }
+
+    // Listener notifications
+
+    private void notifyStart(S state) {
+        for (GraphListener<S> listener : listeners) {
+            try {
+                listener.onStart(state);
+            } catch (Exception e) {
+                log.warn("Listener error in onStart", e);
+            }
+        }
+    }
+
+    private void notifyBeforeNode(String nodeName, S state) {
+        for (GraphListener<S> listener : listeners) {
+            try {
+                listener.onBeforeNode(nodeName, state);
+            } catch (Exception e) {
+                log.warn("Listener error in onBeforeNode", e);
+            }
+        }
+    }
+
+    private void notifyAfterNode(String nodeName, S state, long durationNanos) {
+        for (GraphListener<S> listener : listeners) {
+            try {
+                listener.onAfterNode(nodeName, state, durationNanos);
+            } catch (Exception e) {
+                log.warn("Listener error in onAfterNode", e);
+            }
+        }
+    }
+
+    private void notifyRetry(String nodeName, S state, int attempt, Exception error,
+                             long attemptNanos, long backoffNanos) {
+        for (GraphListener<S> listener : listeners) {
+            try {
+                listener.onRetry(nodeName, state, attempt, error, attemptNanos, backoffNanos);
+            } catch (Exception e) {
+                log.warn("Listener error in onRetry", e);
+            }
+        }
+    }
+
+    private void notifyTransition(String from, String to, S state) {
+        for (GraphListener<S> listener : listeners) {
+            try {
+                listener.onTransition(from, to, state);
+            } catch (Exception e) {
+                log.warn("Listener error in onTransition", e);
+            }
+        }
+    }
+
+    private void notifyConditionEvaluated(String from, String to, S state, long durationNanos, boolean matched) {
+        for (GraphListener<S> listener : listeners) {
+            try {
+                listener.onConditionEvaluated(from, to, state, durationNanos, matched);
+            } catch (Exception e) {
+                log.warn("Listener error in onConditionEvaluated", e);
+            }
+        }
+    }
+
+    private void notifyHumanInputRequired(String nodeName, S state) {
+        for (GraphListener<S> listener : listeners) {
+            try {
+                listener.onHumanInputRequired(nodeName, state);
+            } catch (Exception e) {
+                log.warn("Listener error in onHumanInputRequired", e);
+            }
+        }
+    }
+
+    private void notifyError(String nodeName, S state, Exception error) {
+        for (GraphListener<S> listener : listeners) {
+            try {
+                listener.onError(nodeName, state, error);
+            } catch (Exception e) {
+                log.warn("Listener error in onError", e);
+            }
+        }
+    }
+
+    private void notifyFanOutComplete(String from, String join, S state, long durationNanos) {
+        for (GraphListener<S> listener : listeners) {
+            try {
+                listener.onFanOutComplete(from, join, state, durationNanos);
+            } catch (Exception e) {
+                log.warn("Listener error in onFanOutComplete", e);
+            }
+        }
+    }
+
+    private void notifyComplete(S state) {
+        for (GraphListener<S> listener : listeners) {
+            try {
+                listener.onComplete(state);
+            } catch (Exception e) {
+                log.warn("Listener error in onComplete", e);
+            }
+        }
+    }
+
+    /**
+     * Shared pool used when a graph has no fan-out or node executor of its own
+     */
+    private static final class DefaultExecutor {
+        static final ExecutorService INSTANCE = Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "langgraph4j-worker-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Fires node timeouts of async executions
+     */
+    private static final class Timer {
+        static final ScheduledExecutorService INSTANCE = newTimer();
+
+        private static ScheduledExecutorService newTimer() {
+            ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "langgraph4j-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.setRemoveOnCancelPolicy(true);
+            return timer;
+        }
+    }
+
+    // Getters for introspection
+
+    public Set<String> getNodeNames() {
+        return new LinkedHashSet<>(Arrays.asList(nodeNames));
+    }
+
+    public String getEntryPoint() {
+        return nodeNames[entryPoint];
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Outgoing edges of {@code nodeName} in the order they are currently evaluated
+     * This is the declaration order unless adaptive edge ordering has reordered them.
+     */
+    public List<Edge<S>> getEdgeOrder(String nodeName) {
+        int id = lookupNodeId(nodeName);
+        if (id == END_ID) {
+            return Collections.emptyList();
+        }
+        EdgeProfile profile = edgeProfiles[id];
+        List<Edge<S>> ordered = new ArrayList<>(edges[id].length);
+        for (int i = 0; i < edges[id].length; i++) {
+            ordered.add(edges[id][profile != null ? profile.order()[i] : i]);
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.fal1winter.langgraph4j.core;
+
+/**
+ * Key of a {@code double} value in a {@link StateSchema}, stored unboxed
+ * Reading a key that was never set returns 0.0.
+ */
+public final class DoubleKey extends SlotKey {
+
+    DoubleKey(StateSchema schema, String name, int slot) {
+        super(schema, name, slot);
+    }
+
+    @Override
+    void putBoxed(State state, Object value) {
+        if (value == null) {
+            state.removeSlot(slot);
+        } else if (value instanceof Number) {
+            state.putPrimitive(slot, Double.doubleToRawLongBits(((Number) value).doubleValue()));
+        } else {
+            throw new IllegalArgumentException("Key " + name + " holds double, not " + value.getClass().getName());
+        }
+    }
+
+    @Override
+    Object getBoxed(State state) {
+        return state.hasSlot(slot) ? (Object) Double.longBitsToDouble(state.getPrimitive(slot)) : null;
+    }
+}
@@ -62,6 +62,13 @@ public class Edge<S extends State> {
         return condition != null;
     }
 
+    /**
+     * The same condition and label between two other nodes
+     */
+    Edge<S> withNodes(String fromNode, String toNode) {
+        return new Edge<>(fromNode, toNode, condition, label);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
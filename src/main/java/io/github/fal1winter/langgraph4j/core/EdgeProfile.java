@@ -0,0 +1,106 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts which outgoing edge of a node fires and keeps an evaluation order for them
+ * Only the leading run of conditional edges of a node declared exclusive is
+ * reordered, most-taken first: at most one of those predicates can hold for a
+ * state, so the order they are tested in does not change which edge fires.
+ * Edges after the first unconditional edge keep their declared order.
+ *
+ * The order is recomputed every {@link #REORDER_INTERVAL} decisions a thread
+ * makes, after which the counts are halved so the order follows shifts in
+ * traffic. Hits go to striped counters and decisions to per-thread counters,
+ * so concurrent executions sharing a profile do not contend on one cache line.
+ */
+final class EdgeProfile {
+
+    static final int REORDER_INTERVAL = 1024;
+
+    private final int reorderable;
+    private final LongAdder[] hits;
+    private final ThreadLocal<int[]> decisions = ThreadLocal.withInitial(() -> new int[1]);
+    private final AtomicBoolean reordering = new AtomicBoolean();
+    private volatile int[] order;
+
+    EdgeProfile(Edge<?>[] edges, boolean exclusive) {
+        int leadingConditional = 0;
+        while (leadingConditional < edges.length && edges[leadingConditional].isConditional()) {
+            leadingConditional++;
+        }
+        this.reorderable = exclusive ? leadingConditional : 0;
+        this.hits = new LongAdder[edges.length];
+        this.order = new int[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            hits[i] = new LongAdder();
+            order[i] = i;
+        }
+    }
+
+    /**
+     * Edge indexes in the order they should be evaluated; never modified once published
+     */
+    int[] order() {
+        return order;
+    }
+
+    /**
+     * Record that edge {@code edge} fired
+     */
+    void hit(int edge) {
+        hits[edge].increment();
+        int[] count = decisions.get();
+        if (++count[0] == REORDER_INTERVAL) {
+            count[0] = 0;
+            reorder();
+        }
+    }
+
+    long getHits(int edge) {
+        return hits[edge].sum();
+    }
+
+    /**
+     * Whether any edges of this node may be evaluated out of declaration order
+     */
+    boolean isAdaptive() {
+        return reorderable > 1;
+    }
+
+    /**
+     * Rank the reorderable edges by their counts; skipped while another thread is reordering
+     */
+    void reorder() {
+        if (!isAdaptive() || !reordering.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rank();
+        } finally {
+            reordering.set(false);
+        }
+    }
+
+    private void rank() {
+        Integer[] ranked = new Integer[reorderable];
+        long[] counts = new long[reorderable];
+        for (int i = 0; i < reorderable; i++) {
+            ranked[i] = i;
+            counts[i] = hits[i].sum();
+        }
+        // Stable sort, so ties keep declaration order
+        Arrays.sort(ranked, (a, b) -> Long.compare(counts[b], counts[a]));
+        int[] next = order.clone();
+        for (int i = 0; i < reorderable; i++) {
+            next[i] = ranked[i];
+        }
+        order = next;
+        for (LongAdder count : hits) {
+            long sum = count.sum();
+            count.add((sum >> 1) - sum);
+        }
+    }
+}
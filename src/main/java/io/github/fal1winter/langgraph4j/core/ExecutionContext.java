@@ -0,0 +1,86 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import io.github.fal1winter.langgraph4j.tracing.Span;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-execution bookkeeping for a {@link CompiledGraph} run
+ * Every execution gets its own context, so concurrent executions of the
+ * same graph never mutate shared fields.
+ */
+public final class ExecutionContext {
+
+    private static final String ID_PREFIX = UUID.randomUUID().toString().substring(0, 8);
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+
+    private final String executionId;
+
+    CancellationToken cancellationToken;
+    /**
+     * Whether the execution has a deadline or a caller's token; without either,
+     * nothing outside the execution can cancel it and the step loop skips the checks
+     */
+    boolean cancellable;
+    int iterations;
+    int currentNode;
+    ExecutionTrace trace;
+    int stepNode = CompiledGraph.END_ID;
+    long stepStart;
+    Object jfrExecution;
+    Object jfrStep;
+    Span span;
+    Span stepSpan;
+    int stepLimit = Integer.MAX_VALUE;
+    boolean journaled;
+
+    ExecutionContext(int entryPoint) {
+        this(entryPoint, null);
+    }
+
+    /**
+     * Context for an execution continuing under an existing id, or a new one if {@code executionId} is null
+     */
+    ExecutionContext(int entryPoint, String executionId) {
+        this.executionId = executionId != null
+                ? executionId : ID_PREFIX + "-" + ID_SEQUENCE.incrementAndGet();
+        this.currentNode = entryPoint;
+    }
+
+    /**
+     * Unique id of this execution
+     */
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    /**
+     * Token cancelled when the execution is cancelled or runs past its deadline
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Number of steps executed so far
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Steps recorded so far; null unless a flight recorder is set
+     */
+    public ExecutionTrace getTrace() {
+        return trace;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionContext{" +
+                "executionId='" + executionId + '\'' +
+                ", iterations=" + iterations +
+                '}';
+    }
+}
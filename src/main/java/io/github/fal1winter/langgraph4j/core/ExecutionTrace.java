@@ -0,0 +1,192 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded record of the steps of one execution
+ * Steps are kept in primitive ring buffers, so only the most recent
+ * {@link #getCapacity()} steps survive and recording never allocates.
+ * Steps of fan-out branches are not recorded individually; they are part of
+ * the step of the node that fanned out.
+ */
+public final class ExecutionTrace {
+
+    /**
+     * How a recorded step ended
+     */
+    public enum StepOutcome {
+        COMPLETED, PAUSED, FAILED
+    }
+
+    /**
+     * How the execution ended
+     * A step run with {@link CompiledGraph#executeStep} that leaves the rest of the
+     * execution to a later step ends {@code HANDED_OFF}.
+     */
+    public enum Status {
+        RUNNING, COMPLETED, PAUSED, FAILED, MAX_ITERATIONS, HANDED_OFF
+    }
+
+    private static final StepOutcome[] OUTCOMES = StepOutcome.values();
+
+    private final String executionId;
+    private final String[] nodeNames;
+    private final int mask;
+    private final int[] nodeIds;
+    private final long[] startNanos;
+    private final long[] durationNanos;
+    private final byte[] outcomes;
+    private final long executionStartNanos = System.nanoTime();
+    private long totalSteps;
+    private long executionEndNanos;
+    private Status status = Status.RUNNING;
+    private String error;
+
+    ExecutionTrace(String executionId, String[] nodeNames, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        // Round up to a power of two, so slots are found with a mask
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.executionId = executionId;
+        this.nodeNames = nodeNames;
+        this.mask = size - 1;
+        this.nodeIds = new int[size];
+        this.startNanos = new long[size];
+        this.durationNanos = new long[size];
+        this.outcomes = new byte[size];
+    }
+
+    /**
+     * Record a step that started at {@code start} and ends now
+     */
+    void record(int nodeId, long start, StepOutcome outcome) {
+        int slot = (int) (totalSteps++ & mask);
+        nodeIds[slot] = nodeId;
+        startNanos[slot] = start;
+        durationNanos[slot] = System.nanoTime() - start;
+        outcomes[slot] = (byte) outcome.ordinal();
+    }
+
+    void end(Status status, Throwable error) {
+        this.status = status;
+        this.error = error != null ? error.toString() : null;
+        this.executionEndNanos = System.nanoTime();
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * The error that failed the execution, if any
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Number of steps the ring buffer can hold
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Number of steps executed, including ones no longer retained
+     */
+    public long getTotalSteps() {
+        return totalSteps;
+    }
+
+    /**
+     * Number of retained steps
+     */
+    public int size() {
+        return (int) Math.min(totalSteps, mask + 1);
+    }
+
+    /**
+     * Name of the i-th retained step's node, oldest first
+     */
+    public String getNodeName(int i) {
+        return nodeNames[nodeIds[slot(i)]];
+    }
+
+    /**
+     * Start of the i-th retained step, relative to the start of the execution
+     */
+    public long getStartOffsetNanos(int i) {
+        return startNanos[slot(i)] - executionStartNanos;
+    }
+
+    public long getDurationNanos(int i) {
+        return durationNanos[slot(i)];
+    }
+
+    public StepOutcome getOutcome(int i) {
+        return OUTCOMES[outcomes[slot(i)]];
+    }
+
+    private int slot(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("Step " + i + " of " + size());
+        }
+        return (int) ((totalSteps - size() + i) & mask);
+    }
+
+    /**
+     * Retained node names joined with arrows
+     */
+    public String formatPath() {
+        StringBuilder path = new StringBuilder();
+        if (totalSteps > size()) {
+            path.append("... (").append(totalSteps - size()).append(" earlier steps) -> ");
+        }
+        for (int i = 0; i < size(); i++) {
+            if (i > 0) {
+                path.append(" -> ");
+            }
+            path.append(getNodeName(i));
+        }
+        return path.toString();
+    }
+
+    /**
+     * One line per retained step, with offsets and durations in microseconds
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append("Execution ").append(executionId).append(' ').append(status);
+        if (executionEndNanos != 0) {
+            out.append(" after ").append(TimeUnit.NANOSECONDS.toMicros(executionEndNanos - executionStartNanos)).append(" us");
+        }
+        out.append(", ").append(totalSteps).append(" steps");
+        if (error != null) {
+            out.append(", error: ").append(error);
+        }
+        for (int i = 0; i < size(); i++) {
+            out.append("\n  +").append(TimeUnit.NANOSECONDS.toMicros(getStartOffsetNanos(i))).append(" us ")
+                    .append(getNodeName(i)).append(' ')
+                    .append(TimeUnit.NANOSECONDS.toMicros(getDurationNanos(i))).append(" us ")
+                    .append(getOutcome(i));
+        }
+        return out.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionTrace{" +
+                "executionId='" + executionId + '\'' +
+                ", status=" + status +
+                ", totalSteps=" + totalSteps +
+                '}';
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the traces of the last executions of a graph and dumps them when one goes wrong
+ * Each execution records its steps into its own {@link ExecutionTrace}; when it
+ * ends, the trace replaces the oldest one in a fixed ring. When an execution
+ * fails or exceeds its iteration limit, the retained traces are dumped, by
+ * default to the log.
+ */
+public class FlightRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorder.class);
+
+    private final AtomicReferenceArray<ExecutionTrace> executions;
+    private final AtomicLong written = new AtomicLong();
+    private final int stepsPerExecution;
+    private final Consumer<String> dumpHandler;
+
+    private FlightRecorder(Builder builder) {
+        this.executions = new AtomicReferenceArray<>(builder.executions);
+        this.stepsPerExecution = builder.stepsPerExecution;
+        this.dumpHandler = builder.dumpHandler;
+    }
+
+    ExecutionTrace newTrace(String executionId, String[] nodeNames) {
+        return new ExecutionTrace(executionId, nodeNames, stepsPerExecution);
+    }
+
+    /**
+     * Retain a finished trace, dumping the recorder if the execution went wrong
+     */
+    void finish(ExecutionTrace trace) {
+        long index = written.getAndIncrement();
+        executions.set((int) (index % executions.length()), trace);
+
+        ExecutionTrace.Status status = trace.getStatus();
+        if (status == ExecutionTrace.Status.FAILED || status == ExecutionTrace.Status.MAX_ITERATIONS) {
+            try {
+                dumpHandler.accept("Flight recorder dump after execution " + trace.getExecutionId()
+                        + " ended " + status + ":\n" + dump());
+            } catch (Exception e) {
+                log.warn("Flight recorder dump handler failed", e);
+            }
+        }
+    }
+
+    /**
+     * Retained traces, oldest first
+     */
+    public List<ExecutionTrace> getRecentExecutions() {
+        int capacity = executions.length();
+        long end = written.get();
+        long start = Math.max(0, end - capacity);
+        List<ExecutionTrace> traces = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            ExecutionTrace trace = executions.get((int) (i % capacity));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    /**
+     * All retained traces, formatted oldest first
+     */
+    public String dump() {
+        StringBuilder out = new StringBuilder();
+        for (ExecutionTrace trace : getRecentExecutions()) {
+            if (out.length() > 0) {
+                out.append('\n');
+            }
+            out.append(trace.format());
+        }
+        return out.toString();
+    }
+
+    public int getStepsPerExecution() {
+        return stepsPerExecution;
+    }
+
+    /**
+     * Builder for FlightRecorder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int executions = 32;
+        private int stepsPerExecution = 64;
+        private Consumer<String> dumpHandler = log::error;
+
+        /**
+         * Number of recent executions to retain
+         */
+        public Builder executions(int executions) {
+            if (executions <= 0) {
+                throw new IllegalArgumentException("Executions must be positive");
+            }
+            this.executions = executions;
+            return this;
+        }
+
+        /**
+         * Number of most recent steps retained per execution
+         */
+        public Builder stepsPerExecution(int stepsPerExecution) {
+            if (stepsPerExecution <= 0) {
+                throw new IllegalArgumentException("Steps per execution must be positive");
+            }
+            this.stepsPerExecution = stepsPerExecution;
+            return this;
+        }
+
+        /**
+         * Where dumps go; defaults to the error log
+         */
+        public Builder onDump(Consumer<String> dumpHandler) {
+            this.dumpHandler = dumpHandler;
+            return this;
+        }
+
+        public FlightRecorder build() {
+            return new FlightRecorder(this);
+        }
+    }
+}
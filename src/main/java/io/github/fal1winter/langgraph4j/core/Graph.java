@@ -1,15 +1,29 @@
 package io.github.fal1winter.langgraph4j.core;
 
+import io.github.fal1winter.langgraph4j.persistence.Checkpoint;
+import io.github.fal1winter.langgraph4j.persistence.Checkpointer;
+import io.github.fal1winter.langgraph4j.persistence.ExecutionJournal;
+import io.github.fal1winter.langgraph4j.replay.Recording;
+import io.github.fal1winter.langgraph4j.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * The main workflow graph class
  * Provides a fluent API for building and executing stateful workflows
  *
+ * Building a graph is not thread-safe. Once it is built, {@link #execute}
+ * runs on an immutable {@link CompiledGraph} snapshot that is rebuilt after
+ * every modification, so concurrent executions never share mutable fields.
+ *
  * @param <S> the state type
  */
 public class Graph<S extends State> {
@@ -18,14 +32,43 @@ public class Graph<S extends State> {
 
     public static final String END = "__END__";
 
+    /**
+     * Separates a subgraph's name from the names of its inlined nodes, e.g. {@code review/lint}
+     */
+    public static final String SUBGRAPH_SEPARATOR = "/";
+
     private final Map<String, Node<S>> nodes = new LinkedHashMap<>();
     private final Map<String, List<Edge<S>>> edges = new HashMap<>();
     private final Map<String, Router<S>> routers = new HashMap<>();
+    private final Map<String, List<String>> fanOutBranches = new HashMap<>();
+    private final Map<String, String> fanOutJoins = new HashMap<>();
     private final List<GraphListener<S>> listeners = new ArrayList<>();
+    private final Map<String, Long> nodeTimeouts = new HashMap<>();
+    private final Map<String, Bulkhead> bulkheads = new HashMap<>();
+    private final Map<String, RetryPolicy> retryPolicies = new HashMap<>();
+    private final Map<String, String[]> cacheInputKeys = new HashMap<>();
+    private final Map<String, String[]> cacheOutputKeys = new HashMap<>();
+    private final Set<String> exclusiveEdges = new HashSet<>();
+    private final Map<String, Graph<S>> subgraphs = new LinkedHashMap<>();
+    private final Map<String, String> subgraphEntries = new HashMap<>();
+    private final Map<String, String> subgraphExits = new HashMap<>();
 
     private String entryPoint;
     private int maxIterations = 100;
     private boolean enableLogging = true;
+    private ExecutorService fanOutExecutor;
+    private Executor nodeExecutor;
+    private int fanOutParallelism = Integer.MAX_VALUE;
+    private Checkpointer<S> checkpointer;
+    private ExecutionJournal<S> journal;
+    private long executionTimeoutNanos;
+    private NodeCache nodeCache;
+    private FlightRecorder flightRecorder;
+    private Tracer tracer;
+    private Recording recording;
+    private boolean adaptiveEdgeOrdering;
+
+    private volatile CompiledGraph<S> compiled;
 
     /**
      * Add a node to the graph
@@ -41,6 +84,47 @@ public class Graph<S extends State> {
         if (enableLogging) {
             log.debug("Added node: {}", name);
         }
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Add a non-blocking node to the graph
+     * {@link #executeAsync} chains on its future without parking a thread;
+     * {@link #execute} waits for it.
+     */
+    public Graph<S> addAsyncNode(String name, AsyncNode<S> node) {
+        return addNode(name, new AsyncNodeAdapter<>(node));
+    }
+
+    /**
+     * Add a subgraph that behaves like a single node named {@code name}
+     * Its nodes are inlined into this graph at compile time as {@code name/<node>},
+     * so they run in the same step loop and are reported to this graph's listeners,
+     * metrics and checkpointer. Edges into {@code name} enter the subgraph at its
+     * entry point; when the subgraph reaches {@link #END}, execution continues along
+     * the edges or router leaving {@code name}.
+     *
+     * Node-level settings of the subgraph (timeouts, retries, caching, fan-outs,
+     * exclusive edges) are kept; graph-level ones (listeners, checkpointer,
+     * iteration limit, executors) are those of this graph. The subgraph is read
+     * when this graph is compiled, so finish building it before executing this graph.
+     */
+    public Graph<S> addSubgraph(String name, Graph<S> subgraph) {
+        if (subgraph == null) {
+            throw new IllegalArgumentException("Subgraph cannot be null");
+        }
+        if (subgraph == this) {
+            throw new IllegalArgumentException("A graph cannot be its own subgraph");
+        }
+        if (subgraph.getEntryPoint() == null) {
+            throw new IllegalArgumentException("Subgraph has no entry point: " + name);
+        }
+        if (name != null && name.contains(SUBGRAPH_SEPARATOR)) {
+            throw new IllegalArgumentException("Subgraph name cannot contain '" + SUBGRAPH_SEPARATOR + "': " + name);
+        }
+        addNode(name, subgraph::execute);
+        subgraphs.put(name, subgraph);
         return this;
     }
 
@@ -55,6 +139,7 @@ public class Graph<S extends State> {
         if (enableLogging) {
             log.debug("Set entry point: {}", nodeName);
         }
+        compiled = null;
         return this;
     }
 
@@ -71,6 +156,7 @@ public class Graph<S extends State> {
         if (enableLogging) {
             log.debug("Added edge: {} -> {}", from, to);
         }
+        compiled = null;
         return this;
     }
 
@@ -94,6 +180,7 @@ public class Graph<S extends State> {
         if (enableLogging) {
             log.debug("Added conditional edge: {} -> {} [{}]", from, to, label != null ? label : "unlabeled");
         }
+        compiled = null;
         return this;
     }
 
@@ -106,6 +193,227 @@ public class Graph<S extends State> {
         if (enableLogging) {
             log.debug("Added router at node: {}", from);
         }
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Declare that at most one conditional edge leaving {@code from} can match any state
+     * With {@link #setAdaptiveEdgeOrdering adaptive edge ordering} enabled, the leading
+     * conditional edges of such a node are evaluated most-taken first instead of in
+     * declaration order. An unconditional edge added after them stays the fallback.
+     */
+    public Graph<S> setExclusiveEdges(String from) {
+        validateNodeExists(from);
+        exclusiveEdges.add(from);
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Profile conditional edges while executing
+     * Every predicate evaluation is timed and reported to listeners through
+     * {@link GraphListener#onConditionEvaluated}, the edge taken from each node is
+     * counted, and the edges of nodes declared with {@link #setExclusiveEdges} are
+     * reordered by how often they fire. Disabled by default.
+     */
+    public Graph<S> setAdaptiveEdgeOrdering(boolean enabled) {
+        this.adaptiveEdgeOrdering = enabled;
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Add a fan-out: after {@code from} completes, every branch runs at the same time
+     * on its own copy of the state. Each branch follows its edges until it reaches
+     * {@code join}, which acts as a barrier. Branch changes are merged into the state
+     * in declaration order before {@code join} executes. If a branch fails, the
+     * remaining branches are cancelled and the failure is rethrown.
+     */
+    public Graph<S> addFanOut(String from, String join, String... branches) {
+        validateNodeExists(from);
+        validateNodeExists(join);
+        if (branches.length == 0) {
+            throw new IllegalArgumentException("Fan-out needs at least one branch");
+        }
+        for (String branch : branches) {
+            validateNodeExists(branch);
+        }
+        fanOutBranches.put(from, Arrays.asList(branches.clone()));
+        fanOutJoins.put(from, join);
+        if (enableLogging) {
+            log.debug("Added fan-out: {} -> {} -> {}", from, Arrays.toString(branches), join);
+        }
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Set the executor that runs fan-out branches
+     * Defaults to a shared pool of daemon threads.
+     */
+    public Graph<S> setFanOutExecutor(ExecutorService executor) {
+        this.fanOutExecutor = executor;
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Set the executor that runs synchronous nodes during {@link #executeAsync}
+     * Defaults to a shared pool of daemon threads.
+     */
+    public Graph<S> setNodeExecutor(Executor executor) {
+        this.nodeExecutor = executor;
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Limit how many branches of one fan-out run at the same time
+     */
+    public Graph<S> setFanOutParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Fan-out parallelism must be positive");
+        }
+        this.fanOutParallelism = parallelism;
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Fail a node, and its execution, if it runs longer than {@code timeout}
+     * A timed-out node is interrupted and its execution's cancellation token cancelled;
+     * the executing thread moves on without waiting for it.
+     */
+    public Graph<S> setNodeTimeout(String nodeName, Duration timeout) {
+        validateNodeExists(nodeName);
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        nodeTimeouts.put(nodeName, timeout.toNanos());
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Limit how many runs of a node may be in progress at once across all executions
+     * Share one {@link Bulkhead} between nodes to bound them together. Each retry
+     * attempt takes a slot of its own.
+     */
+    public Graph<S> setBulkhead(String nodeName, Bulkhead bulkhead) {
+        validateNodeExists(nodeName);
+        if (bulkhead == null) {
+            bulkheads.remove(nodeName);
+        } else {
+            bulkheads.put(nodeName, bulkhead);
+        }
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Retry a node according to {@code policy} when it fails
+     * Each attempt gets the node's full timeout; a cancelled execution is not retried.
+     */
+    public Graph<S> setRetryPolicy(String nodeName, RetryPolicy policy) {
+        validateNodeExists(nodeName);
+        if (policy == null) {
+            retryPolicies.remove(nodeName);
+        } else {
+            retryPolicies.put(nodeName, policy);
+        }
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Memoize a node that is a pure function of {@code inputKeys}
+     * When the same input values come again, the node is skipped and the values it
+     * wrote to {@code outputKeys} are restored from the node cache.
+     */
+    public Graph<S> setCacheable(String nodeName, Collection<String> inputKeys, Collection<String> outputKeys) {
+        validateNodeExists(nodeName);
+        if (outputKeys.isEmpty()) {
+            throw new IllegalArgumentException("Cacheable node needs at least one output key");
+        }
+        cacheInputKeys.put(nodeName, inputKeys.toArray(new String[0]));
+        cacheOutputKeys.put(nodeName, outputKeys.toArray(new String[0]));
+        if (nodeCache == null) {
+            nodeCache = new NodeCache();
+        }
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Use the given cache for cacheable nodes, e.g. to change its size or share it
+     */
+    public Graph<S> setNodeCache(NodeCache nodeCache) {
+        if (nodeCache == null) {
+            throw new IllegalArgumentException("Node cache cannot be null");
+        }
+        this.nodeCache = nodeCache;
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Deadline for a whole execution, measured from its start
+     * The deadline is carried by the execution's {@link CancellationToken}.
+     */
+    public Graph<S> setExecutionTimeout(Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        this.executionTimeoutNanos = timeout.toNanos();
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Save progress while executing, so a paused or failed run can be resumed
+     */
+    public Graph<S> setCheckpointer(Checkpointer<S> checkpointer) {
+        this.checkpointer = checkpointer;
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Journal every step durably, so executions in flight can be recovered after a crash
+     */
+    public Graph<S> setJournal(ExecutionJournal<S> journal) {
+        this.journal = journal;
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Record the steps of every execution into {@code flightRecorder}, which dumps them when one fails
+     */
+    public Graph<S> setFlightRecorder(FlightRecorder flightRecorder) {
+        this.flightRecorder = flightRecorder;
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Trace every execution with a root span and a child span per node step
+     * The current span is propagated through the state as a W3C {@code traceparent}.
+     */
+    public Graph<S> setTracer(Tracer tracer) {
+        this.tracer = tracer;
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Record the decisions of every router, or replay them without calling the routers
+     * LLMs and tools are recorded where they are used, e.g. {@code AutoNode.Builder.recording}.
+     */
+    public Graph<S> setRecording(Recording recording) {
+        this.recording = recording;
+        compiled = null;
         return this;
     }
 
@@ -114,6 +422,7 @@ public class Graph<S extends State> {
      */
     public Graph<S> addListener(GraphListener<S> listener) {
         listeners.add(listener);
+        compiled = null;
         return this;
     }
 
@@ -125,6 +434,7 @@ public class Graph<S extends State> {
             throw new IllegalArgumentException("Max iterations must be positive");
         }
         this.maxIterations = maxIterations;
+        compiled = null;
         return this;
     }
 
@@ -133,217 +443,187 @@ public class Graph<S extends State> {
      */
     public Graph<S> setLogging(boolean enabled) {
         this.enableLogging = enabled;
+        compiled = null;
         return this;
     }
 
     /**
-     * Execute the workflow
+     * Freeze this graph into an immutable {@link CompiledGraph}
+     * Later changes to this builder do not affect the returned instance.
      */
-    public S execute(S initialState) throws Exception {
+    public CompiledGraph<S> compile() {
         if (entryPoint == null) {
             throw new IllegalStateException("Entry point not set");
         }
+        return new CompiledGraph<>(inlineSubgraphs(Collections.newSetFromMap(new IdentityHashMap<>())));
+    }
 
-        S state = initialState;
-        String currentNode = entryPoint;
-        Set<String> visitedNodes = new HashSet<>();
-        List<String> executionPath = new ArrayList<>();
-        int iterations = 0;
-
-        notifyStart(state);
-
-        if (enableLogging) {
-            log.info("Starting workflow execution from: {}", entryPoint);
+    /**
+     * This graph, or a copy of it with the nodes of every subgraph inlined
+     *
+     * @param enclosing graphs currently being inlined, to reject a graph that contains itself
+     */
+    private Graph<S> inlineSubgraphs(Set<Graph<?>> enclosing) {
+        if (subgraphs.isEmpty()) {
+            return this;
         }
-
-        while (!END.equals(currentNode) && iterations < maxIterations) {
-            iterations++;
-            executionPath.add(currentNode);
-
-            if (enableLogging) {
-                log.info("Executing node [{}] (iteration {})", currentNode, iterations);
-            }
-
-            // Execute node
-            Node<S> node = nodes.get(currentNode);
-            if (node == null) {
-                throw new IllegalStateException("Node not found: " + currentNode);
-            }
-
-            notifyBeforeNode(currentNode, state);
-
-            try {
-                state = node.execute(state);
-                notifyAfterNode(currentNode, state);
-
-                if (enableLogging) {
-                    log.info("Node [{}] completed successfully", currentNode);
-                }
-            } catch (Exception e) {
-                if (enableLogging) {
-                    log.error("Node [{}] failed: {}", currentNode, e.getMessage());
-                }
-                state.setError("Node " + currentNode + " failed: " + e.getMessage());
-                notifyError(currentNode, state, e);
-                throw e;
-            }
-
-            // Check for human input requirement
-            if (state.isNeedsHumanInput()) {
-                if (enableLogging) {
-                    log.info("Node [{}] requires human input, pausing execution", currentNode);
-                }
-                notifyHumanInputRequired(currentNode, state);
-                return state;
-            }
-
-            // Determine next node
-            visitedNodes.add(currentNode);
-            String nextNode = determineNextNode(currentNode, state);
-
-            if (enableLogging) {
-                log.info("Transitioning: {} -> {}", currentNode, nextNode);
-            }
-
-            notifyTransition(currentNode, nextNode, state);
-            currentNode = nextNode;
+        if (!enclosing.add(this)) {
+            throw new IllegalStateException("Subgraphs form a cycle");
         }
-
-        if (iterations >= maxIterations) {
-            String error = "Workflow exceeded maximum iterations: " + maxIterations;
-            if (enableLogging) {
-                log.error(error);
-            }
-            state.setError(error);
-        } else {
-            if (enableLogging) {
-                log.info("Workflow completed successfully after {} iterations", iterations);
-                log.info("Execution path: {}", String.join(" -> ", executionPath));
-            }
+        Graph<S> flat = new Graph<>();
+        flat.nodes.putAll(nodes);
+        edges.forEach((from, list) -> flat.edges.put(from, new ArrayList<>(list)));
+        flat.routers.putAll(routers);
+        flat.fanOutBranches.putAll(fanOutBranches);
+        flat.fanOutJoins.putAll(fanOutJoins);
+        flat.listeners.addAll(listeners);
+        flat.nodeTimeouts.putAll(nodeTimeouts);
+        flat.bulkheads.putAll(bulkheads);
+        flat.retryPolicies.putAll(retryPolicies);
+        flat.cacheInputKeys.putAll(cacheInputKeys);
+        flat.cacheOutputKeys.putAll(cacheOutputKeys);
+        flat.exclusiveEdges.addAll(exclusiveEdges);
+        flat.entryPoint = entryPoint;
+        flat.maxIterations = maxIterations;
+        flat.enableLogging = enableLogging;
+        flat.fanOutExecutor = fanOutExecutor;
+        flat.nodeExecutor = nodeExecutor;
+        flat.fanOutParallelism = fanOutParallelism;
+        flat.checkpointer = checkpointer;
+        flat.journal = journal;
+        flat.executionTimeoutNanos = executionTimeoutNanos;
+        flat.nodeCache = nodeCache;
+        flat.flightRecorder = flightRecorder;
+        flat.tracer = tracer;
+        flat.recording = recording;
+        flat.adaptiveEdgeOrdering = adaptiveEdgeOrdering;
+
+        for (Map.Entry<String, Graph<S>> entry : subgraphs.entrySet()) {
+            inline(flat, entry.getKey(), entry.getValue().inlineSubgraphs(enclosing));
         }
-
-        notifyComplete(state);
-        return state;
+        enclosing.remove(this);
+        return flat;
     }
 
     /**
-     * Determine the next node based on edges and routers
+     * Copy the nodes of {@code inner}, already flattened, into {@code flat} under {@code name/}
      */
-    private String determineNextNode(String currentNode, S state) {
-        // Check router first
-        if (routers.containsKey(currentNode)) {
-            Router<S> router = routers.get(currentNode);
-            String nextNode = router.route(state);
-            if (enableLogging) {
-                log.debug("Router selected: {}", nextNode);
+    private static <S extends State> void inline(Graph<S> flat, String name, Graph<S> inner) {
+        String prefix = name + SUBGRAPH_SEPARATOR;
+        for (Map.Entry<String, Node<S>> node : inner.nodes.entrySet()) {
+            String inlined = prefix + node.getKey();
+            if (flat.nodes.containsKey(inlined)) {
+                throw new IllegalStateException("Inlined node name already in use: " + inlined);
             }
-            return nextNode;
+            flat.nodes.put(inlined, node.getValue());
+            // Inner nodes that reach END leave the subgraph through the parent's node
+            String exit = inner.subgraphExits.get(node.getKey());
+            flat.subgraphExits.put(inlined, exit != null ? prefix + exit : name);
         }
-
-        // Check edges
-        List<Edge<S>> nodeEdges = edges.get(currentNode);
-        if (nodeEdges == null || nodeEdges.isEmpty()) {
-            if (enableLogging) {
-                log.debug("No outgoing edges from {}, ending workflow", currentNode);
+        for (Map.Entry<String, List<Edge<S>>> entry : inner.edges.entrySet()) {
+            List<Edge<S>> inlined = new ArrayList<>(entry.getValue().size());
+            for (Edge<S> edge : entry.getValue()) {
+                inlined.add(edge.withNodes(prefix + edge.getFromNode(), prefixed(prefix, edge.getToNode())));
             }
-            return END;
+            flat.edges.put(prefix + entry.getKey(), inlined);
         }
-
-        // Find first matching edge
-        for (Edge<S> edge : nodeEdges) {
-            if (edge.shouldTransition(state)) {
-                if (enableLogging && edge.isConditional()) {
-                    log.debug("Conditional edge matched: {}", edge);
-                }
-                return edge.getToNode();
+        for (Map.Entry<String, Router<S>> entry : inner.routers.entrySet()) {
+            Router<S> router = entry.getValue();
+            flat.routers.put(prefix + entry.getKey(), state -> prefixed(prefix, router.route(state)));
+        }
+        for (Map.Entry<String, List<String>> entry : inner.fanOutBranches.entrySet()) {
+            List<String> branches = new ArrayList<>(entry.getValue().size());
+            for (String branch : entry.getValue()) {
+                branches.add(prefix + branch);
             }
+            flat.fanOutBranches.put(prefix + entry.getKey(), branches);
+            flat.fanOutJoins.put(prefix + entry.getKey(), prefix + inner.fanOutJoins.get(entry.getKey()));
         }
-
-        // No matching edge
-        if (enableLogging) {
-            log.debug("No matching edges from {}, ending workflow", currentNode);
+        inner.nodeTimeouts.forEach((node, timeout) -> flat.nodeTimeouts.put(prefix + node, timeout));
+        inner.bulkheads.forEach((node, bulkhead) -> flat.bulkheads.put(prefix + node, bulkhead));
+        inner.retryPolicies.forEach((node, policy) -> flat.retryPolicies.put(prefix + node, policy));
+        inner.cacheInputKeys.forEach((node, keys) -> flat.cacheInputKeys.put(prefix + node, keys));
+        inner.cacheOutputKeys.forEach((node, keys) -> flat.cacheOutputKeys.put(prefix + node, keys));
+        inner.exclusiveEdges.forEach(node -> flat.exclusiveEdges.add(prefix + node));
+        inner.subgraphEntries.forEach((node, entry) -> flat.subgraphEntries.put(prefix + node, prefix + entry));
+        flat.subgraphEntries.put(name, prefix + inner.entryPoint);
+        if (flat.nodeCache == null) {
+            flat.nodeCache = inner.nodeCache;
         }
-        return END;
+    }
+
+    private static String prefixed(String prefix, String nodeName) {
+        return END.equals(nodeName) ? END : prefix + nodeName;
     }
 
     /**
-     * Validate that a node exists
+     * Execute the workflow
      */
-    private void validateNodeExists(String nodeName) {
-        if (!nodes.containsKey(nodeName)) {
-            throw new IllegalArgumentException("Node does not exist: " + nodeName);
-        }
+    public S execute(S initialState) throws Exception {
+        return compiled().execute(initialState);
     }
 
-    // Listener notifications
+    /**
+     * Continue an execution from its last checkpoint
+     */
+    public S resume(String checkpointId) throws Exception {
+        return compiled().resume(checkpointId);
+    }
 
-    private void notifyStart(S state) {
-        for (GraphListener<S> listener : listeners) {
-            try {
-                listener.onStart(state);
-            } catch (Exception e) {
-                log.warn("Listener error in onStart", e);
-            }
-        }
+    /**
+     * Continue an execution from its last checkpoint with an updated state
+     */
+    public S resume(String checkpointId, S state) throws Exception {
+        return compiled().resume(checkpointId, state);
     }
 
-    private void notifyBeforeNode(String nodeName, S state) {
-        for (GraphListener<S> listener : listeners) {
-            try {
-                listener.onBeforeNode(nodeName, state);
-            } catch (Exception e) {
-                log.warn("Listener error in onBeforeNode", e);
-            }
-        }
+    /**
+     * Continue an execution from a checkpoint, such as one recovered from an {@link ExecutionJournal}
+     */
+    public S resume(Checkpoint<S> checkpoint) throws Exception {
+        return compiled().resume(checkpoint);
     }
 
-    private void notifyAfterNode(String nodeName, S state) {
-        for (GraphListener<S> listener : listeners) {
-            try {
-                listener.onAfterNode(nodeName, state);
-            } catch (Exception e) {
-                log.warn("Listener error in onAfterNode", e);
-            }
-        }
+    /**
+     * Execute the workflow without blocking the calling thread
+     */
+    public CompletableFuture<S> executeAsync(S initialState) {
+        return compiled().executeAsync(initialState);
     }
 
-    private void notifyTransition(String from, String to, S state) {
-        for (GraphListener<S> listener : listeners) {
-            try {
-                listener.onTransition(from, to, state);
-            } catch (Exception e) {
-                log.warn("Listener error in onTransition", e);
-            }
-        }
+    /**
+     * Execute the workflow in the background and stream a {@link StepEvent} as each node completes
+     */
+    public Stream<StepEvent<S>> stream(S initialState) {
+        return compiled().stream(initialState);
     }
 
-    private void notifyHumanInputRequired(String nodeName, S state) {
-        for (GraphListener<S> listener : listeners) {
-            try {
-                listener.onHumanInputRequired(nodeName, state);
-            } catch (Exception e) {
-                log.warn("Listener error in onHumanInputRequired", e);
-            }
-        }
+    /**
+     * Execute the workflow in the background and stream a {@link StepEvent} as each node completes,
+     * buffering at most {@code bufferSize} events
+     */
+    public Stream<StepEvent<S>> stream(S initialState, int bufferSize) {
+        return compiled().stream(initialState, bufferSize);
     }
 
-    private void notifyError(String nodeName, S state, Exception error) {
-        for (GraphListener<S> listener : listeners) {
-            try {
-                listener.onError(nodeName, state, error);
-            } catch (Exception e) {
-                log.warn("Listener error in onError", e);
-            }
+    /**
+     * Get the compiled snapshot of this graph, compiling it on first use
+     */
+    private CompiledGraph<S> compiled() {
+        CompiledGraph<S> snapshot = compiled;
+        if (snapshot == null) {
+            snapshot = compile();
+            compiled = snapshot;
         }
+        return snapshot;
     }
 
-    private void notifyComplete(S state) {
-        for (GraphListener<S> listener : listeners) {
-            try {
-                listener.onComplete(state);
-            } catch (Exception e) {
-                log.warn("Listener error in onComplete", e);
-            }
+    /**
+     * Validate that a node exists
+     */
+    private void validateNodeExists(String nodeName) {
+        if (!nodes.containsKey(nodeName)) {
+            throw new IllegalArgumentException("Node does not exist: " + nodeName);
         }
     }
 
@@ -366,4 +646,119 @@ public class Graph<S extends State> {
     public int getMaxIterations() {
         return maxIterations;
     }
+
+    // Compilation inputs
+
+    Map<String, Node<S>> nodes() {
+        return nodes;
+    }
+
+    Map<String, List<Edge<S>>> edges() {
+        return edges;
+    }
+
+    Map<String, Router<S>> routers() {
+        return routers;
+    }
+
+    Map<String, List<String>> fanOutBranches() {
+        return fanOutBranches;
+    }
+
+    Map<String, String> fanOutJoins() {
+        return fanOutJoins;
+    }
+
+    List<GraphListener<S>> listeners() {
+        return listeners;
+    }
+
+    boolean isLogging() {
+        return enableLogging;
+    }
+
+    ExecutorService getFanOutExecutor() {
+        return fanOutExecutor;
+    }
+
+    Executor getNodeExecutor() {
+        return nodeExecutor;
+    }
+
+    int getFanOutParallelism() {
+        return fanOutParallelism;
+    }
+
+    Checkpointer<S> getCheckpointer() {
+        return checkpointer;
+    }
+
+    ExecutionJournal<S> getJournal() {
+        return journal;
+    }
+
+    Map<String, Long> nodeTimeouts() {
+        return nodeTimeouts;
+    }
+
+    Map<String, Bulkhead> bulkheads() {
+        return bulkheads;
+    }
+
+    Map<String, String[]> cacheInputKeys() {
+        return cacheInputKeys;
+    }
+
+    Map<String, String[]> cacheOutputKeys() {
+        return cacheOutputKeys;
+    }
+
+    /**
+     * Cache used by cacheable nodes, or null if there are none
+     */
+    public NodeCache getNodeCache() {
+        return nodeCache;
+    }
+
+    Map<String, RetryPolicy> retryPolicies() {
+        return retryPolicies;
+    }
+
+    long getExecutionTimeoutNanos() {
+        return executionTimeoutNanos;
+    }
+
+    FlightRecorder getFlightRecorder() {
+        return flightRecorder;
+    }
+
+    Tracer getTracer() {
+        return tracer;
+    }
+
+    Recording getRecording() {
+        return recording;
+    }
+
+    boolean isAdaptiveEdgeOrdering() {
+        return adaptiveEdgeOrdering;
+    }
+
+    Set<String> exclusiveEdges() {
+        return exclusiveEdges;
+    }
+
+    /**
+     * Entry node of each inlined subgraph, by the subgraph's name
+     */
+    Map<String, String> subgraphEntries() {
+        return subgraphEntries;
+    }
+
+    /**
+     * Node whose edges are followed when an inlined node reaches END, by inlined node name
+     */
+    Map<String, String> subgraphExits() {
+        return subgraphExits;
+    }
 }
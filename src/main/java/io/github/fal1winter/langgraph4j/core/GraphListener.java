@@ -3,6 +3,8 @@ package io.github.fal1winter.langgraph4j.core;
 /**
  * Listener interface for graph execution events
  * Allows monitoring and reacting to workflow execution
+ * Implementations must be thread-safe when the graph is executed concurrently
+ * or uses fan-out branches, which report their events from worker threads.
  *
  * @param <S> the state type
  */
@@ -23,18 +25,48 @@ public interface GraphListener<S extends State> {
      */
     default void onAfterNode(String nodeName, S state) {}
 
+    /**
+     * Called after a node executes successfully, with the time it took
+     * The default implementation delegates to {@link #onAfterNode(String, State)}.
+     */
+    default void onAfterNode(String nodeName, S state, long durationNanos) {
+        onAfterNode(nodeName, state);
+    }
+
     /**
      * Called when transitioning between nodes
      */
     default void onTransition(String from, String to, S state) {}
 
+    /**
+     * Called after a conditional edge's predicate was evaluated, when adaptive edge ordering is enabled
+     *
+     * @param matched whether the predicate held, so the edge to {@code to} is taken
+     */
+    default void onConditionEvaluated(String from, String to, S state, long durationNanos, boolean matched) {}
+
+    /**
+     * Called when all branches of a fan-out have joined
+     * The duration is the wall time of the superstep, i.e. its slowest branch.
+     */
+    default void onFanOutComplete(String fromNode, String joinNode, S state, long durationNanos) {}
+
     /**
      * Called when a node requires human input
      */
     default void onHumanInputRequired(String nodeName, S state) {}
 
     /**
-     * Called when a node execution fails
+     * Called when a node attempt failed and will be retried after {@code backoffNanos}
+     *
+     * @param attempt the failed attempt, starting at 1
+     * @param attemptNanos how long the failed attempt took
+     */
+    default void onRetry(String nodeName, S state, int attempt, Exception error,
+                         long attemptNanos, long backoffNanos) {}
+
+    /**
+     * Called when a node execution fails, after any retries
      */
     default void onError(String nodeName, S state, Exception error) {}
 
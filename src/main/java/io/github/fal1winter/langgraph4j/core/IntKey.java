@@ -0,0 +1,28 @@
+package io.github.fal1winter.langgraph4j.core;
+
+/**
+ * Key of an {@code int} value in a {@link StateSchema}, stored unboxed
+ * Reading a key that was never set returns 0.
+ */
+public final class IntKey extends SlotKey {
+
+    IntKey(StateSchema schema, String name, int slot) {
+        super(schema, name, slot);
+    }
+
+    @Override
+    void putBoxed(State state, Object value) {
+        if (value == null) {
+            state.removeSlot(slot);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            state.putPrimitive(slot, ((Number) value).intValue());
+        } else {
+            throw new IllegalArgumentException("Key " + name + " holds int, not " + value.getClass().getName());
+        }
+    }
+
+    @Override
+    Object getBoxed(State state) {
+        return state.hasSlot(slot) ? (Object) (int) state.getPrimitive(slot) : null;
+    }
+}
@@ -0,0 +1,259 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded cache of node outputs, keyed on the node and the values of its input keys
+ * Entries are weighed by their estimated size in bytes, and the least recently
+ * used ones are evicted once the total weight exceeds the limit. A cache may be
+ * shared between graphs; entries of different node instances never mix.
+ *
+ * Cached values are shared between executions, so inputs and outputs of
+ * cacheable nodes should be immutable.
+ */
+public class NodeCache {
+
+    /**
+     * Default weight limit, in estimated bytes
+     */
+    public static final long DEFAULT_MAX_WEIGHT = 32L * 1024 * 1024;
+
+    private static final long ENTRY_OVERHEAD = 96;
+    private static final Object ABSENT = new Object();
+
+    private final long maxWeight;
+    private final ToLongFunction<Object> weigher;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public NodeCache() {
+        this(DEFAULT_MAX_WEIGHT);
+    }
+
+    public NodeCache(long maxWeight) {
+        this(maxWeight, NodeCache::estimateSize);
+    }
+
+    /**
+     * Cache with a custom weigher, returning the size of a single value
+     */
+    public NodeCache(long maxWeight, ToLongFunction<Object> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Max weight must be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Key for a node run: the node instance and the values of its input keys
+     */
+    Key key(Node<?> node, String[] inputKeys, State state) {
+        Object[] values = new Object[inputKeys.length];
+        for (int i = 0; i < inputKeys.length; i++) {
+            values[i] = state.has(inputKeys[i]) ? state.get(inputKeys[i]) : ABSENT;
+        }
+        return new Key(node, values);
+    }
+
+    /**
+     * Apply cached outputs to the state; false on a miss
+     */
+    boolean apply(Key key, State state) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        for (int i = 0; i < entry.outputKeys.length; i++) {
+            if (entry.outputs[i] == ABSENT) {
+                state.remove(entry.outputKeys[i]);
+            } else {
+                state.put(entry.outputKeys[i], entry.outputs[i]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Store the output keys of a completed node run
+     */
+    void put(Key key, String[] outputKeys, State result) {
+        Object[] outputs = new Object[outputKeys.length];
+        long entryWeight = ENTRY_OVERHEAD;
+        for (Object value : key.values) {
+            entryWeight += weigh(value);
+        }
+        for (int i = 0; i < outputKeys.length; i++) {
+            outputs[i] = result.has(outputKeys[i]) ? result.get(outputKeys[i]) : ABSENT;
+            entryWeight += weigh(outputs[i]);
+        }
+        if (entryWeight > maxWeight) {
+            return;
+        }
+
+        Entry entry = new Entry(outputKeys, outputs, entryWeight);
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += entryWeight;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private long weigh(Object value) {
+        return value == ABSENT || value == null ? 8 : weigher.applyAsLong(value);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Share of lookups served from the cache
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Estimated size of all entries, in bytes
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "NodeCache{" +
+                "size=" + size() +
+                ", weight=" + getWeight() +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", evictions=" + getEvictions() +
+                '}';
+    }
+
+    /**
+     * Rough size in bytes of a value, following strings, arrays, collections and maps
+     */
+    public static long estimateSize(Object value) {
+        if (value == null) {
+            return 8;
+        }
+        if (value instanceof CharSequence) {
+            return 40 + 2L * ((CharSequence) value).length();
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return 16;
+        }
+        if (value instanceof Collection) {
+            long size = 40;
+            for (Object element : (Collection<?>) value) {
+                size += 8 + estimateSize(element);
+            }
+            return size;
+        }
+        if (value instanceof Map) {
+            long size = 48;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += 32 + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+            return size;
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            if (value.getClass().getComponentType().isPrimitive()) {
+                return 16 + 8L * length;
+            }
+            long size = 16;
+            for (int i = 0; i < length; i++) {
+                size += 8 + estimateSize(Array.get(value, i));
+            }
+            return size;
+        }
+        return 64;
+    }
+
+    static final class Key {
+        private final Node<?> node;
+        private final Object[] values;
+        private final int hash;
+
+        Key(Node<?> node, Object[] values) {
+            this.node = node;
+            this.values = values;
+            this.hash = 31 * System.identityHashCode(node) + Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return node == other.node && hash == other.hash && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final String[] outputKeys;
+        private final Object[] outputs;
+        private final long weight;
+
+        Entry(String[] outputKeys, Object[] outputs, long weight) {
+            this.outputKeys = outputKeys;
+            this.outputs = outputs;
+            this.weight = weight;
+        }
+    }
+}
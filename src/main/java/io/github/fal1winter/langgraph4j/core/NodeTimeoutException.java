@@ -0,0 +1,20 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Thrown when a node runs past its timeout or past the workflow deadline
+ */
+public class NodeTimeoutException extends TimeoutException {
+
+    private final String nodeName;
+
+    public NodeTimeoutException(String nodeName, String message) {
+        super(message);
+        this.nodeName = nodeName;
+    }
+
+    public String getNodeName() {
+        return nodeName;
+    }
+}
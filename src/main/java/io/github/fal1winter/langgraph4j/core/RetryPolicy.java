@@ -0,0 +1,175 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * How the engine retries a failing node
+ * Delays grow exponentially from the initial backoff up to the maximum, with
+ * random jitter so that many executions failing together do not retry in lockstep.
+ * Cancellation and interruption are never retried.
+ *
+ * Every attempt runs on its own copy of the state; only the changes of the
+ * attempt that succeeds are applied to the execution's state.
+ *
+ * {@code executeAsync} and {@code GraphExecutor} wait out the backoff on a timer.
+ * A synchronous {@code execute} runs on the caller's thread, which sleeps through it.
+ */
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final double multiplier;
+    private final double jitter;
+    private final Predicate<Throwable> retryable;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffNanos = builder.initialBackoff.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+        this.multiplier = builder.multiplier;
+        this.jitter = builder.jitter;
+        this.retryable = builder.retryable;
+    }
+
+    /**
+     * Retry any exception up to {@code maxAttempts} attempts in total, with default backoff
+     */
+    public static RetryPolicy maxAttempts(int maxAttempts) {
+        return builder().maxAttempts(maxAttempts).build();
+    }
+
+    /**
+     * Whether a failed attempt (1-based) should be followed by another one
+     */
+    public boolean shouldRetry(Throwable error, int attempt) {
+        if (attempt >= maxAttempts
+                || error instanceof CancellationException
+                || error instanceof InterruptedException) {
+            return false;
+        }
+        return retryable.test(error);
+    }
+
+    /**
+     * Delay before the attempt following failed attempt {@code attempt} (1-based)
+     */
+    public long backoffNanos(int attempt) {
+        double delay = Math.min(initialBackoffNanos * Math.pow(multiplier, attempt - 1), maxBackoffNanos);
+        if (jitter > 0) {
+            delay *= 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        }
+        return (long) Math.max(delay, 0);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+                "maxAttempts=" + maxAttempts +
+                ", initialBackoffMillis=" + initialBackoffNanos / 1_000_000 +
+                ", maxBackoffMillis=" + maxBackoffNanos / 1_000_000 +
+                ", multiplier=" + multiplier +
+                ", jitter=" + jitter +
+                '}';
+    }
+
+    /**
+     * Builder for RetryPolicy
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+        private double multiplier = 2.0;
+        private double jitter = 0.2;
+        private Predicate<Throwable> retryable = error -> true;
+
+        /**
+         * Total number of attempts, including the first
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("Max attempts must be positive");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder backoff(Duration initialBackoff) {
+            if (initialBackoff.isNegative()) {
+                throw new IllegalArgumentException("Backoff cannot be negative");
+            }
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        public Builder maxBackoff(Duration maxBackoff) {
+            if (maxBackoff.isNegative()) {
+                throw new IllegalArgumentException("Backoff cannot be negative");
+            }
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Factor applied to the backoff after every failed attempt
+         */
+        public Builder multiplier(double multiplier) {
+            if (multiplier < 1) {
+                throw new IllegalArgumentException("Multiplier must be at least 1");
+            }
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * Random spread of each delay, as a fraction of it (0 disables jitter)
+         */
+        public Builder jitter(double jitter) {
+            if (jitter < 0 || jitter > 1) {
+                throw new IllegalArgumentException("Jitter must be between 0 and 1");
+            }
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Only retry errors of the given types
+         */
+        @SafeVarargs
+        public final Builder retryOn(Class<? extends Throwable>... types) {
+            Class<? extends Throwable>[] retryableTypes = types.clone();
+            return retryIf(error -> {
+                for (Class<? extends Throwable> type : retryableTypes) {
+                    if (type.isInstance(error)) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+        }
+
+        /**
+         * Only retry errors matching the classifier
+         */
+        public Builder retryIf(Predicate<Throwable> retryable) {
+            this.retryable = retryable;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.fal1winter.langgraph4j.core;
+
+/**
+ * Key registered in a {@link StateSchema}, bound to a fixed slot of the states it describes
+ * States of the schema's class and its subclasses store the value in an array slot;
+ * on any other state the key falls back to the string key of the same name.
+ */
+public abstract class SlotKey {
+
+    final StateSchema schema;
+    final String name;
+    final int slot;
+
+    SlotKey(StateSchema schema, String name, int slot) {
+        this.schema = schema;
+        this.name = name;
+        this.slot = slot;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Store a value given through the string API, converting it to the key's type
+     */
+    abstract void putBoxed(State state, Object value);
+
+    /**
+     * The value of the slot as the string API returns it
+     */
+    abstract Object getBoxed(State state);
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + name + ")";
+    }
+}
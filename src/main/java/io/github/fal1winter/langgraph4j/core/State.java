@@ -1,15 +1,41 @@
 package io.github.fal1winter.langgraph4j.core;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Base state class for workflow execution
- * Provides a flexible key-value store for workflow data
+ * Provides a flexible key-value store for workflow data. Keys registered in the
+ * {@link StateSchema} of the state's class live in array slots instead of the map;
+ * they can be read and written through typed keys or, boxed, through their names.
  */
-public class State {
+public class State implements Cloneable, Serializable {
 
-    private final Map<String, Object> data = new HashMap<>();
+    private static final long serialVersionUID = 1L;
+
+    // Slot markers: a primitive slot that is set, and an object slot set to null
+    private static final Object PRESENT = new Object();
+    private static final Object NULL = new Object();
+
+    private Map<String, Object> data = new HashMap<>();
+
+    // Serialized as part of data, by name, so slot numbers never reach the wire
+    private transient StateSchema schema = StateSchema.of(getClass());
+    private transient Object[] slots;
+    private transient long[] primitives;
+
+    private String executionId;
+    private transient CancellationToken cancellationToken;
 
     private String error;
     private boolean needsHumanInput = false;
@@ -19,7 +45,7 @@ public class State {
      * Put a value into the state
      */
     public void put(String key, Object value) {
-        data.put(key, value);
+        store(key, value);
     }
 
     /**
@@ -27,37 +53,126 @@ public class State {
      */
     @SuppressWarnings("unchecked")
     public <T> T get(String key) {
-        return (T) data.get(key);
+        SlotKey slotKey = schema.find(key);
+        return (T) (slotKey != null ? slotKey.getBoxed(this) : data.get(key));
     }
 
     /**
      * Get a value with default
      */
-    @SuppressWarnings("unchecked")
     public <T> T get(String key, T defaultValue) {
-        Object value = data.get(key);
-        return value != null ? (T) value : defaultValue;
+        T value = get(key);
+        return value != null ? value : defaultValue;
     }
 
     /**
      * Check if key exists
      */
     public boolean has(String key) {
-        return data.containsKey(key);
+        SlotKey slotKey = schema.find(key);
+        return slotKey != null ? hasSlot(slotKey.slot) : data.containsKey(key);
     }
 
     /**
      * Remove a key
      */
     public void remove(String key) {
-        data.remove(key);
+        delete(key);
+    }
+
+    // Typed keys
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(StateKey<T> key) {
+        return schema.contains(key) ? (T) getSlot(key.slot) : get(key.name);
+    }
+
+    public <T> T get(StateKey<T> key, T defaultValue) {
+        T value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public <T> void put(StateKey<T> key, T value) {
+        if (schema.contains(key)) {
+            putSlot(key.slot, value);
+        } else {
+            store(key.name, value);
+        }
+    }
+
+    public int get(IntKey key) {
+        if (schema.contains(key)) {
+            return (int) getPrimitive(key.slot);
+        }
+        Object value = get(key.name);
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    public void put(IntKey key, int value) {
+        if (schema.contains(key)) {
+            putPrimitive(key.slot, value);
+        } else {
+            store(key.name, value);
+        }
+    }
+
+    public long get(LongKey key) {
+        if (schema.contains(key)) {
+            return getPrimitive(key.slot);
+        }
+        Object value = get(key.name);
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    public void put(LongKey key, long value) {
+        if (schema.contains(key)) {
+            putPrimitive(key.slot, value);
+        } else {
+            store(key.name, value);
+        }
+    }
+
+    public double get(DoubleKey key) {
+        if (schema.contains(key)) {
+            return Double.longBitsToDouble(getPrimitive(key.slot));
+        }
+        Object value = get(key.name);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    public void put(DoubleKey key, double value) {
+        if (schema.contains(key)) {
+            putPrimitive(key.slot, Double.doubleToRawLongBits(value));
+        } else {
+            store(key.name, value);
+        }
+    }
+
+    public boolean has(SlotKey key) {
+        return schema.contains(key) ? hasSlot(key.slot) : has(key.name);
+    }
+
+    public void remove(SlotKey key) {
+        if (schema.contains(key)) {
+            removeSlot(key.slot);
+        } else {
+            delete(key.name);
+        }
     }
 
     /**
      * Get all data
      */
     public Map<String, Object> getData() {
-        return new HashMap<>(data);
+        Map<String, Object> all = new HashMap<>(data);
+        if (slots != null) {
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null) {
+                    all.put(schema.keyAt(i).name, schema.keyAt(i).getBoxed(this));
+                }
+            }
+        }
+        return all;
     }
 
     /**
@@ -65,6 +180,191 @@ public class State {
      */
     public void clear() {
         data.clear();
+        slots = null;
+        primitives = null;
+    }
+
+    private void store(String key, Object value) {
+        SlotKey slotKey = schema.find(key);
+        if (slotKey != null) {
+            slotKey.putBoxed(this, value);
+        } else {
+            data.put(key, value);
+        }
+    }
+
+    private void delete(String key) {
+        SlotKey slotKey = schema.find(key);
+        if (slotKey != null) {
+            removeSlot(slotKey.slot);
+        } else {
+            data.remove(key);
+        }
+    }
+
+    boolean hasSlot(int slot) {
+        Object[] current = slots;
+        return current != null && slot < current.length && current[slot] != null;
+    }
+
+    Object getSlot(int slot) {
+        Object[] current = slots;
+        Object value = current != null && slot < current.length ? current[slot] : null;
+        return value == NULL || value == PRESENT ? null : value;
+    }
+
+    void putSlot(int slot, Object value) {
+        ensureSlot(slot);
+        slots[slot] = value != null ? value : NULL;
+    }
+
+    /**
+     * Raw bits of a primitive slot; 0 when it is not set
+     */
+    long getPrimitive(int slot) {
+        long[] current = primitives;
+        return current != null && slot < current.length ? current[slot] : 0L;
+    }
+
+    void putPrimitive(int slot, long bits) {
+        ensureSlot(slot);
+        if (primitives == null || slot >= primitives.length) {
+            primitives = primitives == null
+                    ? new long[slots.length] : Arrays.copyOf(primitives, slots.length);
+        }
+        primitives[slot] = bits;
+        slots[slot] = PRESENT;
+    }
+
+    void removeSlot(int slot) {
+        if (slots != null && slot < slots.length) {
+            slots[slot] = null;
+        }
+        if (primitives != null && slot < primitives.length) {
+            primitives[slot] = 0L;
+        }
+    }
+
+    private void ensureSlot(int slot) {
+        if (slots == null) {
+            slots = new Object[Math.max(schema.size(), slot + 1)];
+        } else if (slot >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(schema.size(), slot + 1));
+        }
+    }
+
+    /**
+     * Create a copy of this state with its own data map
+     * Values are shared, not cloned, so a copy should replace values instead of mutating them.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends State> T copy() {
+        try {
+            State copy = (State) super.clone();
+            copy.data = new HashMap<>(data);
+            copy.slots = slots != null ? slots.clone() : null;
+            copy.primitives = primitives != null ? primitives.clone() : null;
+            return (T) copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("State is not cloneable", e);
+        }
+    }
+
+    /**
+     * Apply the changes a copy made relative to base data.
+     * A list the copy extended is appended to one an earlier copy already extended.
+     */
+    void applyChanges(Map<String, Object> base, State changed) {
+        Map<String, Object> changedData = changed.getData();
+        for (Map.Entry<String, Object> entry : changedData.entrySet()) {
+            String key = entry.getKey();
+            if (!base.containsKey(key) || !Objects.equals(base.get(key), entry.getValue())) {
+                store(key, appended(base.get(key), get(key), entry.getValue()));
+            }
+        }
+        for (String key : base.keySet()) {
+            if (!changedData.containsKey(key)) {
+                delete(key);
+            }
+        }
+        if (changed.hasError()) {
+            error = changed.error;
+        }
+        if (changed.needsHumanInput) {
+            needsHumanInput = true;
+        }
+    }
+
+    /**
+     * Both lists extended the base list: keep the current one and add the new elements
+     */
+    private static Object appended(Object base, Object current, Object value) {
+        if (!(current instanceof List) || !(value instanceof List) || Objects.equals(current, base)
+                || (base != null && !(base instanceof List))) {
+            return value;
+        }
+        List<?> prefix = base != null ? (List<?>) base : Collections.emptyList();
+        List<?> currentList = (List<?>) current;
+        List<?> valueList = (List<?>) value;
+        if (!startsWith(currentList, prefix) || !startsWith(valueList, prefix)) {
+            return value;
+        }
+        List<Object> merged = new ArrayList<>(currentList);
+        merged.addAll(valueList.subList(prefix.size(), valueList.size()));
+        return merged;
+    }
+
+    private static boolean startsWith(List<?> list, List<?> prefix) {
+        return list.size() >= prefix.size() && list.subList(0, prefix.size()).equals(prefix);
+    }
+
+    /**
+     * Take over the data and flags of a node attempt that ran on a copy of this state
+     */
+    void applyAttempt(Map<String, Object> base, State attempt) {
+        applyChanges(base, attempt);
+        error = attempt.error;
+        needsHumanInput = attempt.needsHumanInput;
+        humanInput = attempt.humanInput;
+    }
+
+    /**
+     * Id of the execution this state belongs to, also used as its checkpoint id
+     * Each {@code execute} assigns a new one; resuming keeps the checkpoint's.
+     */
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    void setExecutionId(String executionId) {
+        this.executionId = executionId;
+    }
+
+    /**
+     * Cancellation token of the running execution
+     * Long-running nodes should check it and stop once it is cancelled.
+     */
+    public CancellationToken getCancellationToken() {
+        CancellationToken token = cancellationToken;
+        if (token == null) {
+            token = new CancellationToken();
+            cancellationToken = token;
+        }
+        return token;
+    }
+
+    /**
+     * The token set on the state, without creating one; null if there is none
+     */
+    CancellationToken peekCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Supply a token before executing, to cancel the execution from outside
+     */
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
     }
 
     // Error handling
@@ -100,10 +400,43 @@ public class State {
         this.needsHumanInput = false;
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("data", slots != null ? getData() : data);
+        fields.put("executionId", executionId);
+        fields.put("error", error);
+        fields.put("needsHumanInput", needsHumanInput);
+        fields.put("humanInput", humanInput);
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        schema = StateSchema.of(getClass());
+        executionId = (String) fields.get("executionId", null);
+        error = (String) fields.get("error", null);
+        needsHumanInput = fields.get("needsHumanInput", false);
+        humanInput = (String) fields.get("humanInput", null);
+        Map<String, Object> stored = (Map<String, Object>) fields.get("data", null);
+        data = new HashMap<>();
+        if (stored != null) {
+            try {
+                for (Map.Entry<String, Object> entry : stored.entrySet()) {
+                    store(entry.getKey(), entry.getValue());
+                }
+            } catch (IllegalArgumentException e) {
+                InvalidObjectException invalid = new InvalidObjectException(e.getMessage());
+                invalid.initCause(e);
+                throw invalid;
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return "State{" +
-                "data=" + data +
+                "data=" + getData() +
                 ", error='" + error + '\'' +
                 ", needsHumanInput=" + needsHumanInput +
                 '}';
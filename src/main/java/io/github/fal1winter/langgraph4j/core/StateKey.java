@@ -0,0 +1,34 @@
+package io.github.fal1winter.langgraph4j.core;
+
+/**
+ * Typed key of an object value in a {@link StateSchema}
+ *
+ * @param <T> the value type
+ */
+public final class StateKey<T> extends SlotKey {
+
+    private final Class<T> type;
+
+    StateKey(StateSchema schema, String name, int slot, Class<T> type) {
+        super(schema, name, slot);
+        this.type = type;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    @Override
+    void putBoxed(State state, Object value) {
+        if (value != null && !type.isInstance(value)) {
+            throw new IllegalArgumentException("Key " + name + " holds " + type.getName()
+                    + ", not " + value.getClass().getName());
+        }
+        state.putSlot(slot, value);
+    }
+
+    @Override
+    Object getBoxed(State state) {
+        return state.getSlot(slot);
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Typed keys of a state class, each mapped to an array slot of its states
+ *
+ * Register keys as constants of the state class:
+ *
+ * <pre>
+ * class PipelineState extends State {
+ *     static final StateSchema SCHEMA = StateSchema.of(PipelineState.class);
+ *     static final StateKey&lt;String&gt; RAW_DATA = SCHEMA.key("rawData", String.class);
+ *     static final IntKey RETRY_COUNT = SCHEMA.intKey("retryCount");
+ * }
+ * </pre>
+ *
+ * Reading or writing a key is then an array access, and {@link IntKey}, {@link LongKey}
+ * and {@link DoubleKey} values are stored unboxed. The string API keeps working:
+ * {@code state.get("retryCount")} reads the same slot, boxed. A subclass starts with
+ * its superclass's keys in the same slots; once it does, the superclass's schema
+ * takes no more keys, so register keys in static initializers.
+ */
+public final class StateSchema {
+
+    private static final ClassValue<StateSchema> SCHEMAS = new ClassValue<StateSchema>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected StateSchema computeValue(Class<?> type) {
+            Class<?> parent = type.getSuperclass();
+            StateSchema inherited = parent != null && State.class.isAssignableFrom(parent)
+                    ? of((Class<? extends State>) parent) : null;
+            return new StateSchema(type, inherited);
+        }
+    };
+
+    private final Class<?> stateClass;
+    // Copy-on-write, so states read them without locking; byName is null while there are no keys
+    private volatile SlotKey[] keys;
+    private volatile Map<String, SlotKey> byName;
+    private boolean sealed;
+
+    private StateSchema(Class<?> stateClass, StateSchema parent) {
+        this.stateClass = stateClass;
+        if (parent == null) {
+            this.keys = new SlotKey[0];
+        } else {
+            synchronized (parent) {
+                parent.sealed = true;
+                this.keys = parent.keys;
+                this.byName = parent.byName;
+            }
+        }
+    }
+
+    /**
+     * The schema of {@code stateClass}, created on first use
+     */
+    public static StateSchema of(Class<? extends State> stateClass) {
+        return SCHEMAS.get(stateClass);
+    }
+
+    public <T> StateKey<T> key(String name, Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Key type is required");
+        }
+        return register(name, slot -> new StateKey<>(this, name, slot, type));
+    }
+
+    public IntKey intKey(String name) {
+        return register(name, slot -> new IntKey(this, name, slot));
+    }
+
+    public LongKey longKey(String name) {
+        return register(name, slot -> new LongKey(this, name, slot));
+    }
+
+    public DoubleKey doubleKey(String name) {
+        return register(name, slot -> new DoubleKey(this, name, slot));
+    }
+
+    private synchronized <K extends SlotKey> K register(String name, IntFunction<K> factory) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Key name is required");
+        }
+        if (sealed) {
+            throw new IllegalStateException("Keys of " + stateClass.getName()
+                    + " must be registered before states of its subclasses are used: " + name);
+        }
+        if (byName != null && byName.containsKey(name)) {
+            throw new IllegalArgumentException("Key already registered for " + stateClass.getName() + ": " + name);
+        }
+        K key = factory.apply(keys.length);
+        Map<String, SlotKey> names = byName != null ? new HashMap<>(byName) : new HashMap<>();
+        names.put(key.name, key);
+        SlotKey[] slots = Arrays.copyOf(keys, keys.length + 1);
+        slots[key.slot] = key;
+        byName = names;
+        keys = slots;
+        return key;
+    }
+
+    /**
+     * Whether states of this schema keep {@code key} in its slot
+     */
+    boolean contains(SlotKey key) {
+        if (key.schema == this) {
+            return true;
+        }
+        SlotKey[] slots = keys;
+        return key.slot < slots.length && slots[key.slot] == key;
+    }
+
+    /**
+     * The key registered under {@code name}, or null
+     */
+    SlotKey find(String name) {
+        Map<String, SlotKey> names = byName;
+        return names != null ? names.get(name) : null;
+    }
+
+    SlotKey keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Number of keys, including inherited ones
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    public Class<?> getStateClass() {
+        return stateClass;
+    }
+}
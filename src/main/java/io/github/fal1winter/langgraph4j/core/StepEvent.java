@@ -0,0 +1,68 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A completed node, as delivered by {@link Graph#stream}
+ * The state is a copy taken when the node completed, so it can be read
+ * while the execution keeps going.
+ *
+ * @param <S> the state type
+ */
+public final class StepEvent<S extends State> {
+
+    private final String nodeName;
+    private final int iteration;
+    private final S state;
+    private final long durationNanos;
+    private final long elapsedNanos;
+
+    StepEvent(String nodeName, int iteration, S state, long durationNanos, long elapsedNanos) {
+        this.nodeName = nodeName;
+        this.iteration = iteration;
+        this.state = state;
+        this.durationNanos = durationNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    /**
+     * 1-based number of this step within the execution
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Copy of the state right after the node completed
+     */
+    public S getState() {
+        return state;
+    }
+
+    /**
+     * Time the node took
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Time since the execution started
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "StepEvent{" +
+                "nodeName='" + nodeName + '\'' +
+                ", iteration=" + iteration +
+                ", durationMillis=" + TimeUnit.NANOSECONDS.toMillis(durationNanos) +
+                '}';
+    }
+}
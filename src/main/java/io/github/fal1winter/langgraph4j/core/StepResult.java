@@ -0,0 +1,72 @@
+package io.github.fal1winter.langgraph4j.core;
+
+/**
+ * Outcome of running a single step with {@link CompiledGraph#executeStep}
+ * While the status is {@link ExecutionTrace.Status#RUNNING}, the execution
+ * continues by calling {@code executeStep} with {@link #getNextNode()}, the
+ * returned state and {@link #getIterations()}, possibly in another process.
+ *
+ * @param <S> the state type
+ */
+public final class StepResult<S extends State> {
+
+    private final S state;
+    private final String nodeName;
+    private final String nextNode;
+    private final int iterations;
+    private final ExecutionTrace.Status status;
+
+    StepResult(S state, String nodeName, String nextNode, int iterations, ExecutionTrace.Status status) {
+        this.state = state;
+        this.nodeName = nodeName;
+        this.nextNode = nextNode;
+        this.iterations = iterations;
+        this.status = status;
+    }
+
+    public S getState() {
+        return state;
+    }
+
+    /**
+     * Node that ran in this step
+     */
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    /**
+     * Node the next step runs, or null once the execution is done
+     */
+    public String getNextNode() {
+        return nextNode;
+    }
+
+    /**
+     * Steps executed so far, including this one
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * RUNNING if more steps follow, otherwise how the execution ended
+     */
+    public ExecutionTrace.Status getStatus() {
+        return status;
+    }
+
+    public boolean isDone() {
+        return status != ExecutionTrace.Status.RUNNING;
+    }
+
+    @Override
+    public String toString() {
+        return "StepResult{" +
+                "nodeName='" + nodeName + '\'' +
+                ", nextNode='" + nextNode + '\'' +
+                ", iterations=" + iterations +
+                ", status=" + status +
+                '}';
+    }
+}
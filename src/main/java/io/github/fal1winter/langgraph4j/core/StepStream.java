@@ -0,0 +1,162 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded hand-off between a background execution and a {@link StepEvent} consumer
+ * The execution side is a listener; when the buffer is full it waits, so a
+ * slow consumer slows the execution down instead of growing memory.
+ * The wait ends at the execution's deadline or on {@link #close}, so a consumer
+ * that stops reading early must close the stream.
+ *
+ * @param <S> the state type
+ */
+final class StepStream<S extends State> implements GraphListener<S>, Iterator<StepEvent<S>>, AutoCloseable {
+
+    static final int DEFAULT_BUFFER_SIZE = 16;
+
+    private static final Object END_OF_STREAM = new Object();
+    private static final long OFFER_TIMEOUT_MILLIS = 50;
+
+    private final BlockingQueue<Object> buffer;
+    private final AtomicInteger iterations = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+    private final Object lock = new Object();
+
+    private volatile boolean closed;
+    private volatile Object outcome;
+    private Thread producer;
+
+    private StepEvent<S> next;
+    private boolean finished;
+
+    StepStream(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    /**
+     * Run the execution on the executor, publishing its outcome when done
+     */
+    void start(Callable<?> execution, Executor executor) {
+        executor.execute(() -> {
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                producer = Thread.currentThread();
+            }
+            Object result = END_OF_STREAM;
+            try {
+                execution.call();
+            } catch (Throwable e) {
+                result = new Failure(e);
+            } finally {
+                synchronized (lock) {
+                    producer = null;
+                    // Do not leak an interrupt from close() into the pool thread
+                    Thread.interrupted();
+                }
+            }
+            // Never wait for room: a consumer finds the outcome once the buffer is drained
+            outcome = result;
+            buffer.offer(result);
+        });
+    }
+
+    @Override
+    public void onAfterNode(String nodeName, S state, long durationNanos) {
+        if (closed) {
+            return;
+        }
+        publish(new StepEvent<>(nodeName, iterations.incrementAndGet(), state.copy(),
+                durationNanos, System.nanoTime() - startNanos), state.peekCancellationToken());
+    }
+
+    /**
+     * Wait for room in the buffer until the stream is closed or the execution is cancelled
+     */
+    private void publish(Object item, CancellationToken token) {
+        try {
+            while (!closed && (token == null || !token.isCancelled())) {
+                if (buffer.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+
+        Object item;
+        try {
+            while ((item = buffer.poll(OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                if (outcome != null && buffer.isEmpty()) {
+                    item = outcome;
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new CompletionException(e);
+        }
+
+        if (item == END_OF_STREAM) {
+            finished = true;
+            return false;
+        }
+        if (item instanceof Failure) {
+            finished = true;
+            throw new CompletionException(((Failure) item).error);
+        }
+        next = (StepEvent<S>) item;
+        return true;
+    }
+
+    @Override
+    public StepEvent<S> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        StepEvent<S> event = next;
+        next = null;
+        return event;
+    }
+
+    /**
+     * Stop delivering events and interrupt the execution if it is still running
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            if (producer != null) {
+                producer.interrupt();
+            }
+        }
+    }
+
+    private static final class Failure {
+        private final Throwable error;
+
+        Failure(Throwable error) {
+            this.error = error;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package io.github.fal1winter.langgraph4j.examples;
 
 import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.IntKey;
 import io.github.fal1winter.langgraph4j.core.State;
+import io.github.fal1winter.langgraph4j.core.StateKey;
+import io.github.fal1winter.langgraph4j.core.StateSchema;
+
+import java.util.Collections;
 
 /**
  * Advanced example: Multi-step data processing pipeline
@@ -10,46 +15,53 @@ import io.github.fal1winter.langgraph4j.core.State;
 public class DataPipelineExample {
 
     static class PipelineState extends State {
+        // Typed keys live in array slots; the retry count is stored unboxed
+        static final StateSchema SCHEMA = StateSchema.of(PipelineState.class);
+        static final StateKey<String> RAW_DATA = SCHEMA.key("rawData", String.class);
+        static final StateKey<String> CLEANED_DATA = SCHEMA.key("cleanedData", String.class);
+        static final StateKey<Boolean> VALID = SCHEMA.key("valid", Boolean.class);
+        static final IntKey RETRY_COUNT = SCHEMA.intKey("retryCount");
+        static final StateKey<String> RESULT = SCHEMA.key("result", String.class);
+
         public PipelineState(String rawData) {
-            put("rawData", rawData);
-            put("retryCount", 0);
+            put(RAW_DATA, rawData);
+            put(RETRY_COUNT, 0);
         }
 
         public String getRawData() {
-            return get("rawData");
+            return get(RAW_DATA);
         }
 
         public void setCleanedData(String data) {
-            put("cleanedData", data);
+            put(CLEANED_DATA, data);
         }
 
         public String getCleanedData() {
-            return get("cleanedData");
+            return get(CLEANED_DATA);
         }
 
         public void setValidationResult(boolean valid) {
-            put("valid", valid);
+            put(VALID, valid);
         }
 
         public boolean isValid() {
-            return get("valid", false);
+            return get(VALID, false);
         }
 
         public void incrementRetry() {
-            int count = get("retryCount", 0);
-            put("retryCount", count + 1);
+            put(RETRY_COUNT, get(RETRY_COUNT) + 1);
         }
 
         public int getRetryCount() {
-            return get("retryCount", 0);
+            return get(RETRY_COUNT);
         }
 
         public void setResult(String result) {
-            put("result", result);
+            put(RESULT, result);
         }
 
         public String getResult() {
-            return get("result");
+            return get(RESULT);
         }
     }
 
@@ -106,6 +118,9 @@ public class DataPipelineExample {
             .addEdge("retry_clean", "validate") // Loop
             .addEdge("process", Graph.END)
             .addEdge("handle_invalid", Graph.END)
+            // Cleaning and validation only depend on their input, so repeated inputs are memoized
+            .setCacheable("clean", Collections.singletonList("rawData"), Collections.singletonList("cleanedData"))
+            .setCacheable("validate", Collections.singletonList("cleanedData"), Collections.singletonList("valid"))
             .setMaxIterations(10);
 
         // Test case 1: Valid data
@@ -119,5 +134,11 @@ public class DataPipelineExample {
         PipelineState state2 = new PipelineState("err");
         PipelineState result2 = pipeline.execute(state2);
         System.out.println("Result: " + result2.getResult());
+
+        // Test case 3: Same input again, served from the node cache
+        System.out.println("\n=== Test 3: Repeated Input (cached) ===");
+        PipelineState result3 = pipeline.execute(new PipelineState("  Hello World  "));
+        System.out.println("Result: " + result3.getResult());
+        System.out.println("Cache: " + pipeline.getNodeCache());
     }
 }
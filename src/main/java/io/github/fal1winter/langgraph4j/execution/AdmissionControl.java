@@ -0,0 +1,365 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import io.github.fal1winter.langgraph4j.metrics.LatencyHistogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Front door that bounds how many executions run and wait at once
+ *
+ * At most {@code maxInFlight} executions run; further ones wait in a FIFO queue of
+ * at most {@code maxQueued}, without holding a thread. An execution is rejected
+ * with an {@link AdmissionRejectedException} instead of being queued when:
+ * <ul>
+ *   <li>the queue is full ({@link Reason#QUEUE_FULL});</li>
+ *   <li>the oldest queued execution has already waited longer than
+ *       {@code maxQueueWait}, a standing queue that new arrivals would only
+ *       lengthen ({@link Reason#QUEUE_WAIT}); queued executions that exceed it
+ *       are shed when they reach the front;</li>
+ *   <li>the heap is still fuller than {@code maxHeapUsage} after the last garbage
+ *       collection ({@link Reason#HEAP_PRESSURE}).</li>
+ * </ul>
+ * One instance can be shared by several {@link GraphExecutor}s to bound them together.
+ */
+public final class AdmissionControl {
+
+    /**
+     * Why an execution was rejected
+     */
+    public enum Reason {
+        QUEUE_FULL,
+        QUEUE_WAIT,
+        HEAP_PRESSURE
+    }
+
+    private static final long HEAP_SAMPLE_INTERVAL_NANOS = 50_000_000L;
+
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final long maxQueueWaitNanos;
+    private final double maxHeapUsage;
+    private final DoubleSupplier heapUsage;
+
+    private final Object lock = new Object();
+    // Guarded by lock
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private int inFlight;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder[] rejected = new LongAdder[Reason.values().length];
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+
+    private volatile double sampledHeapUsage;
+    private volatile long heapSampledAt = System.nanoTime() - HEAP_SAMPLE_INTERVAL_NANOS;
+
+    private static final class Pending {
+        final Supplier<? extends CompletionStage<?>> task;
+        final Executor executor;
+        final Consumer<? super RejectedExecutionException> rejected;
+        final long enqueuedAt = System.nanoTime();
+
+        Pending(Supplier<? extends CompletionStage<?>> task, Executor executor,
+                Consumer<? super RejectedExecutionException> rejected) {
+            this.task = task;
+            this.executor = executor;
+            this.rejected = rejected;
+        }
+    }
+
+    private AdmissionControl(Builder builder) {
+        this.maxInFlight = builder.maxInFlight;
+        this.maxQueued = builder.maxQueued;
+        this.maxQueueWaitNanos = builder.maxQueueWait != null ? builder.maxQueueWait.toNanos() : Long.MAX_VALUE;
+        this.maxHeapUsage = builder.maxHeapUsage;
+        this.heapUsage = builder.heapUsage != null ? builder.heapUsage : AdmissionControl::heapUsageAfterGc;
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Start {@code task} on {@code executor} once admitted, or hand the rejection to {@code rejected}
+     * The task returns the execution it started, which keeps its slot until it completes.
+     */
+    void submit(Supplier<? extends CompletionStage<?>> task, Executor executor,
+                Consumer<? super RejectedExecutionException> rejected) {
+        Reason reason = null;
+        boolean run = false;
+        // Under heap pressure keep one execution running, so the backlog still drains
+        boolean heapPressure = maxHeapUsage < 1.0 && currentHeapUsage() > maxHeapUsage;
+        synchronized (lock) {
+            if (heapPressure && inFlight > 0) {
+                reason = Reason.HEAP_PRESSURE;
+            } else if (inFlight < maxInFlight && queue.isEmpty()) {
+                inFlight++;
+                run = true;
+            } else if (queue.size() >= maxQueued) {
+                reason = Reason.QUEUE_FULL;
+            } else if (!queue.isEmpty() && System.nanoTime() - queue.peekFirst().enqueuedAt > maxQueueWaitNanos) {
+                reason = Reason.QUEUE_WAIT;
+            } else {
+                queue.addLast(new Pending(task, executor, rejected));
+            }
+        }
+        if (run) {
+            queueWait.record(0);
+            dispatch(task, executor, rejected);
+        } else if (reason != null) {
+            reject(reason, rejected);
+        }
+    }
+
+    private void dispatch(Supplier<? extends CompletionStage<?>> task, Executor executor,
+                          Consumer<? super RejectedExecutionException> rejected) {
+        admitted.increment();
+        try {
+            executor.execute(() -> {
+                CompletionStage<?> execution;
+                try {
+                    execution = task.get();
+                } catch (Throwable e) {
+                    release();
+                    throw e;
+                }
+                execution.whenComplete((result, error) -> release());
+            });
+        } catch (RejectedExecutionException e) {
+            release();
+            rejected.accept(e);
+        }
+    }
+
+    /**
+     * Free the slot of a finished execution and start the next queued one that has not waited too long
+     */
+    private void release() {
+        List<Pending> expired = null;
+        Pending next = null;
+        long waited = 0;
+        synchronized (lock) {
+            inFlight--;
+            while (inFlight < maxInFlight && !queue.isEmpty()) {
+                Pending pending = queue.pollFirst();
+                waited = System.nanoTime() - pending.enqueuedAt;
+                if (waited > maxQueueWaitNanos) {
+                    if (expired == null) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(pending);
+                    continue;
+                }
+                inFlight++;
+                next = pending;
+                break;
+            }
+        }
+        if (expired != null) {
+            for (Pending pending : expired) {
+                reject(Reason.QUEUE_WAIT, pending.rejected);
+            }
+        }
+        if (next != null) {
+            queueWait.record(waited);
+            dispatch(next.task, next.executor, next.rejected);
+        }
+    }
+
+    private void reject(Reason reason, Consumer<? super RejectedExecutionException> rejected) {
+        this.rejected[reason.ordinal()].increment();
+        String message;
+        switch (reason) {
+            case QUEUE_FULL:
+                message = "Admission queue is full (" + maxQueued + " waiting)";
+                break;
+            case QUEUE_WAIT:
+                message = "Admission queue wait exceeded " + Duration.ofNanos(maxQueueWaitNanos);
+                break;
+            default:
+                message = "Heap usage after GC is above " + maxHeapUsage;
+                break;
+        }
+        rejected.accept(new AdmissionRejectedException(reason, message));
+    }
+
+    private double currentHeapUsage() {
+        long now = System.nanoTime();
+        if (now - heapSampledAt >= HEAP_SAMPLE_INTERVAL_NANOS) {
+            sampledHeapUsage = heapUsage.getAsDouble();
+            heapSampledAt = now;
+        }
+        return sampledHeapUsage;
+    }
+
+    /**
+     * Fraction of the heap still in use after the last collection of its old generation
+     * Live data, not garbage waiting to be collected, so it does not trip on allocation bursts.
+     * Falls back to the current heap usage if the collector does not report it.
+     */
+    static double heapUsageAfterGc() {
+        double usage = -1;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            // Only old generations support usage thresholds; eden and survivor spaces do not
+            if (pool.getType() != MemoryType.HEAP || !pool.isUsageThresholdSupported()) {
+                continue;
+            }
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            long max = pool.getUsage().getMax();
+            if (afterGc == null || max <= 0) {
+                continue;
+            }
+            usage = Math.max(usage, (double) afterGc.getUsed() / max);
+        }
+        if (usage < 0) {
+            Runtime runtime = Runtime.getRuntime();
+            usage = (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+        }
+        return usage;
+    }
+
+    /**
+     * Executions running now
+     */
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    /**
+     * Executions waiting for a slot
+     */
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * How long the oldest queued execution has been waiting, in nanoseconds; 0 if none is
+     */
+    public long getOldestQueueWaitNanos() {
+        synchronized (lock) {
+            Pending oldest = queue.peekFirst();
+            return oldest == null ? 0 : System.nanoTime() - oldest.enqueuedAt;
+        }
+    }
+
+    /**
+     * Time admitted executions spent queued; immediately admitted ones count as zero
+     */
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejected(Reason reason) {
+        return rejected[reason.ordinal()].sum();
+    }
+
+    public long getRejected() {
+        long total = 0;
+        for (LongAdder count : rejected) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    /**
+     * Builder for AdmissionControl
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int maxInFlight = Runtime.getRuntime().availableProcessors();
+        private int maxQueued = 1024;
+        private Duration maxQueueWait;
+        private double maxHeapUsage = 1.0;
+        private DoubleSupplier heapUsage;
+
+        private Builder() {
+        }
+
+        /**
+         * Executions that may run at once
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight <= 0) {
+                throw new IllegalArgumentException("Max in-flight must be positive");
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Executions that may wait for a slot; 0 rejects whenever all slots are taken
+         */
+        public Builder maxQueued(int maxQueued) {
+            if (maxQueued < 0) {
+                throw new IllegalArgumentException("Max queued cannot be negative");
+            }
+            this.maxQueued = maxQueued;
+            return this;
+        }
+
+        /**
+         * Shed executions that would wait longer than this for a slot; unlimited by default
+         */
+        public Builder maxQueueWait(Duration maxQueueWait) {
+            if (maxQueueWait.isNegative()) {
+                throw new IllegalArgumentException("Max queue wait cannot be negative");
+            }
+            this.maxQueueWait = maxQueueWait;
+            return this;
+        }
+
+        /**
+         * Shed new executions while more than this fraction of the heap survives garbage collection
+         */
+        public Builder maxHeapUsage(double maxHeapUsage) {
+            if (maxHeapUsage <= 0 || maxHeapUsage > 1) {
+                throw new IllegalArgumentException("Max heap usage must be in (0, 1]");
+            }
+            this.maxHeapUsage = maxHeapUsage;
+            return this;
+        }
+
+        /**
+         * Source of the heap usage fraction; defaults to the old generation's usage after GC
+         */
+        public Builder heapUsage(DoubleSupplier heapUsage) {
+            this.heapUsage = heapUsage;
+            return this;
+        }
+
+        public AdmissionControl build() {
+            return new AdmissionControl(this);
+        }
+    }
+}
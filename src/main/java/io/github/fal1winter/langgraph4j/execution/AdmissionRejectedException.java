@@ -0,0 +1,24 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An execution was shed by {@link AdmissionControl} instead of being run
+ * Rejections are immediate, or as soon as a queued execution is found to have
+ * waited too long, so callers can back off or fail over without waiting for a timeout.
+ */
+public class AdmissionRejectedException extends RejectedExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AdmissionControl.Reason reason;
+
+    public AdmissionRejectedException(AdmissionControl.Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public AdmissionControl.Reason getReason() {
+        return reason;
+    }
+}
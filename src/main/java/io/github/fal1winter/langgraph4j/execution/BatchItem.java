@@ -0,0 +1,68 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import io.github.fal1winter.langgraph4j.core.State;
+
+/**
+ * Outcome of one input of a batch
+ * A failed item carries its error; it never fails the rest of the batch.
+ *
+ * @param <S> the state type
+ */
+public final class BatchItem<S extends State> {
+
+    private final int index;
+    private final S input;
+    private final S result;
+    private final Throwable error;
+    private final long latencyNanos;
+
+    BatchItem(int index, S input, S result, Throwable error, long latencyNanos) {
+        this.index = index;
+        this.input = input;
+        this.result = result;
+        this.error = error;
+        this.latencyNanos = latencyNanos;
+    }
+
+    /**
+     * Position of the input in the batch
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public S getInput() {
+        return input;
+    }
+
+    /**
+     * Final state, or null if the execution failed
+     */
+    public S getResult() {
+        return result;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Time the execution took, excluding time queued for a worker
+     */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchItem{" +
+                "index=" + index +
+                ", success=" + isSuccess() +
+                ", latencyNanos=" + latencyNanos +
+                '}';
+    }
+}
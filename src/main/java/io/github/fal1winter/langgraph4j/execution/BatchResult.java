@@ -0,0 +1,54 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import io.github.fal1winter.langgraph4j.core.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Items of a finished batch, in input order, with aggregate stats
+ *
+ * @param <S> the state type
+ */
+public final class BatchResult<S extends State> {
+
+    private final List<BatchItem<S>> items;
+    private final BatchStats stats;
+
+    BatchResult(List<BatchItem<S>> items, BatchStats stats) {
+        this.items = Collections.unmodifiableList(items);
+        this.stats = stats;
+    }
+
+    public List<BatchItem<S>> getItems() {
+        return items;
+    }
+
+    /**
+     * Final states of the successful items
+     */
+    public List<S> getResults() {
+        List<S> results = new ArrayList<>(stats.getSucceeded());
+        for (BatchItem<S> item : items) {
+            if (item.isSuccess()) {
+                results.add(item.getResult());
+            }
+        }
+        return results;
+    }
+
+    public List<BatchItem<S>> getFailures() {
+        List<BatchItem<S>> failures = new ArrayList<>(stats.getFailed());
+        for (BatchItem<S> item : items) {
+            if (!item.isSuccess()) {
+                failures.add(item);
+            }
+        }
+        return failures;
+    }
+
+    public BatchStats getStats() {
+        return stats;
+    }
+}
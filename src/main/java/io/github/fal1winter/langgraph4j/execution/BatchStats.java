@@ -0,0 +1,99 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate throughput and latency of a finished batch
+ */
+public final class BatchStats {
+
+    private final int succeeded;
+    private final int failed;
+    private final long elapsedNanos;
+    private final long[] sortedLatencies;
+
+    BatchStats(int succeeded, int failed, long elapsedNanos, long[] latencies, int count) {
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.elapsedNanos = elapsedNanos;
+        this.sortedLatencies = Arrays.copyOf(latencies, count);
+        Arrays.sort(sortedLatencies);
+    }
+
+    public int getTotal() {
+        return succeeded + failed;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Wall-clock time of the whole batch
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Completed executions per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getTotal() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Latency at the given percentile (0-100), nearest-rank
+     */
+    public long getLatencyPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.length);
+        return sortedLatencies[Math.max(rank - 1, 0)];
+    }
+
+    public long getMedianLatencyNanos() {
+        return getLatencyPercentileNanos(50);
+    }
+
+    public long getP99LatencyNanos() {
+        return getLatencyPercentileNanos(99);
+    }
+
+    public long getMaxLatencyNanos() {
+        return sortedLatencies.length == 0 ? 0 : sortedLatencies[sortedLatencies.length - 1];
+    }
+
+    public double getMeanLatencyNanos() {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (long latency : sortedLatencies) {
+            sum += latency;
+        }
+        return sum / sortedLatencies.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchStats{total=%d, failed=%d, elapsed=%d ms, throughput=%.1f/s, "
+                        + "p50=%.3f ms, p90=%.3f ms, p99=%.3f ms, max=%.3f ms}",
+                getTotal(), failed, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getThroughput(),
+                millis(getMedianLatencyNanos()), millis(getLatencyPercentileNanos(90)),
+                millis(getP99LatencyNanos()), millis(getMaxLatencyNanos()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,360 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import io.github.fal1winter.langgraph4j.core.CompiledGraph;
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.State;
+import io.github.fal1winter.langgraph4j.core.StepResult;
+import io.github.fal1winter.langgraph4j.persistence.StateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs executions of one graph step by step on workers that share a {@link WorkQueue}
+ *
+ * Every step is a {@link StepTask} in the queue. A worker leases a task, loads the
+ * step's input state from the {@link StateStore}, runs the step with
+ * {@link CompiledGraph#executeStep}, saves the resulting state and queues the next
+ * step before completing its lease. The next step prefers the same worker, but any
+ * idle worker may take it. Executors in several JVMs, or several executors in one
+ * JVM, drain the same executions when they share the queue and the store.
+ *
+ * While a step runs its lease is extended every half visibility timeout; if the
+ * worker dies, the lease expires and another worker runs the step again. Steps are
+ * therefore delivered at least once, and nodes with side effects should be
+ * idempotent. A step that keeps being abandoned fails its execution after
+ * {@link Builder#maxDeliveries} attempts.
+ *
+ * When an execution completes, pauses for human input, fails or exceeds its
+ * iteration limit, its final state is saved under {@link #resultKey}. Failures are
+ * reported through {@link State#getError()}.
+ *
+ * @param <S> the state type
+ */
+public class DistributedExecutor<S extends State> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DistributedExecutor.class);
+
+    private final CompiledGraph<S> graph;
+    private final WorkQueue queue;
+    private final StateStore<S> store;
+    private final Duration visibilityTimeout;
+    private final long pollIntervalNanos;
+    private final int maxDeliveries;
+    private final List<Thread> workers = new ArrayList<>();
+    private final ScheduledExecutorService heartbeats;
+    private final LongAdder stepsExecuted = new LongAdder();
+    private final LongAdder executionsFinished = new LongAdder();
+    private final LongAdder leasesLost = new LongAdder();
+    private volatile boolean running = true;
+
+    private DistributedExecutor(Builder<S> builder) {
+        this.graph = builder.graph;
+        this.queue = builder.queue;
+        this.store = builder.store;
+        this.visibilityTimeout = builder.visibilityTimeout;
+        this.pollIntervalNanos = builder.pollInterval.toNanos();
+        this.maxDeliveries = builder.maxDeliveries;
+        this.heartbeats = builder.workers > 0
+                ? Executors.newSingleThreadScheduledExecutor(
+                        GraphExecutor.daemonThreadFactory(builder.workerIdPrefix + "-heartbeat-"))
+                : null;
+        for (int i = 1; i <= builder.workers; i++) {
+            String workerId = builder.workerIdPrefix + "-" + i;
+            Thread thread = new Thread(() -> work(workerId), "langgraph4j-" + workerId);
+            thread.setDaemon(true);
+            workers.add(thread);
+        }
+        for (Thread thread : workers) {
+            thread.start();
+        }
+    }
+
+    /**
+     * Queue a new execution, returning its id
+     */
+    public String submit(S initialState) throws Exception {
+        if (!running) {
+            throw new IllegalStateException("Executor is closed");
+        }
+        String executionId = UUID.randomUUID().toString();
+        StepTask task = new StepTask(executionId, null, 0, null);
+        store.save(task.getStateKey(), initialState.copy());
+        queue.offer(task);
+        return executionId;
+    }
+
+    /**
+     * Whether the execution has finished and its final state is available
+     */
+    public boolean isDone(String executionId) {
+        return store.exists(resultKey(executionId));
+    }
+
+    /**
+     * Wait for an execution to finish, which may happen on any worker sharing the queue
+     *
+     * @throws TimeoutException if it has not finished within {@code timeout}
+     */
+    public S awaitResult(String executionId, Duration timeout) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!isDone(executionId)) {
+            if (System.nanoTime() - deadline >= 0) {
+                throw new TimeoutException("Execution " + executionId + " did not finish within " + timeout);
+            }
+            LockSupport.parkNanos(pollIntervalNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return store.load(resultKey(executionId));
+    }
+
+    /**
+     * State store key of an execution's final state
+     */
+    public static String resultKey(String executionId) {
+        return executionId + "-result";
+    }
+
+    private void work(String workerId) {
+        while (running) {
+            Lease lease;
+            try {
+                lease = queue.poll(workerId, visibilityTimeout);
+            } catch (Exception e) {
+                log.warn("Worker {} failed to poll the work queue", workerId, e);
+                lease = null;
+            }
+            if (lease == null) {
+                LockSupport.parkNanos(pollIntervalNanos);
+                continue;
+            }
+            process(lease);
+        }
+    }
+
+    private void process(Lease lease) {
+        StepTask task = lease.getTask();
+        long heartbeatMillis = Math.max(1, visibilityTimeout.toMillis() / 2);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(() -> {
+            try {
+                queue.extend(lease, visibilityTimeout);
+            } catch (Exception e) {
+                log.warn("Failed to extend lease of {}", task.getTaskId(), e);
+            }
+        }, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        try {
+            // Work on a copy, so a redelivered step starts from the same input
+            S state = store.load(task.getStateKey()).copy();
+            state.setCancellationToken(null);
+            if (lease.getDeliveries() > maxDeliveries) {
+                state.setError("Step " + task.getIterations() + " abandoned after "
+                        + maxDeliveries + " deliveries");
+                finish(task, state);
+            } else {
+                runStep(lease, task, state);
+            }
+            heartbeat.cancel(false);
+            if (queue.complete(lease)) {
+                store.delete(task.getStateKey());
+            } else {
+                leasesLost.increment();
+                log.warn("Lease of {} expired before the step finished", task.getTaskId());
+            }
+        } catch (Exception e) {
+            // The queue or store failed; let another worker try again
+            log.warn("Step {} could not be handed off", task.getTaskId(), e);
+            heartbeat.cancel(false);
+            try {
+                queue.release(lease);
+            } catch (Exception releaseError) {
+                log.warn("Failed to release lease of {}", task.getTaskId(), releaseError);
+            }
+        }
+    }
+
+    private void runStep(Lease lease, StepTask task, S state) throws Exception {
+        StepResult<S> result;
+        try {
+            result = graph.executeStep(task.getExecutionId(), task.getNodeName(), state,
+                    task.getIterations(), lease.getDeliveries());
+        } catch (Exception e) {
+            stepsExecuted.increment();
+            if (!state.hasError()) {
+                state.setError(e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+            finish(task, state);
+            return;
+        }
+        stepsExecuted.increment();
+        if (result.isDone()) {
+            finish(task, result.getState());
+            return;
+        }
+        StepTask next = new StepTask(task.getExecutionId(), result.getNextNode(),
+                result.getIterations(), lease.getWorkerId());
+        store.save(next.getStateKey(), result.getState());
+        queue.offer(next);
+    }
+
+    private void finish(StepTask task, S state) throws Exception {
+        store.save(resultKey(task.getExecutionId()), state);
+        executionsFinished.increment();
+    }
+
+    /**
+     * Steps run by this executor's workers
+     */
+    public long getStepsExecuted() {
+        return stepsExecuted.sum();
+    }
+
+    /**
+     * Executions whose last step ran on this executor's workers
+     */
+    public long getExecutionsFinished() {
+        return executionsFinished.sum();
+    }
+
+    /**
+     * Steps whose lease expired while they ran, so another worker may have run them too
+     */
+    public long getLeasesLost() {
+        return leasesLost.sum();
+    }
+
+    public CompiledGraph<S> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Stop the workers once their current step is handed off; queued steps stay in the queue
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        for (Thread thread : workers) {
+            LockSupport.unpark(thread);
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+    }
+
+    /**
+     * Builder for DistributedExecutor
+     */
+    public static <S extends State> Builder<S> builder(CompiledGraph<S> graph) {
+        return new Builder<>(graph);
+    }
+
+    public static <S extends State> Builder<S> builder(Graph<S> graph) {
+        return new Builder<>(graph.compile());
+    }
+
+    public static class Builder<S extends State> {
+        private final CompiledGraph<S> graph;
+        private WorkQueue queue;
+        private StateStore<S> store;
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private String workerIdPrefix = ManagementFactory.getRuntimeMXBean().getName();
+        private Duration visibilityTimeout = Duration.ofSeconds(30);
+        private Duration pollInterval = Duration.ofMillis(10);
+        private int maxDeliveries = 3;
+
+        private Builder(CompiledGraph<S> graph) {
+            if (graph == null) {
+                throw new IllegalArgumentException("Graph cannot be null");
+            }
+            this.graph = graph;
+        }
+
+        public Builder<S> queue(WorkQueue queue) {
+            this.queue = queue;
+            return this;
+        }
+
+        /**
+         * Store the states are handed off through; must be shared by all executors
+         */
+        public Builder<S> stateStore(StateStore<S> store) {
+            this.store = store;
+            return this;
+        }
+
+        /**
+         * Number of worker threads; 0 makes an executor that only submits and awaits executions
+         */
+        public Builder<S> workers(int workers) {
+            if (workers < 0) {
+                throw new IllegalArgumentException("Workers cannot be negative");
+            }
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Prefix of the worker ids, which must be unique across all executors sharing the queue;
+         * defaults to the JVM's {@code pid@host}
+         */
+        public Builder<S> workerIdPrefix(String workerIdPrefix) {
+            this.workerIdPrefix = workerIdPrefix;
+            return this;
+        }
+
+        /**
+         * How long a leased step stays hidden from other workers without a heartbeat
+         */
+        public Builder<S> visibilityTimeout(Duration visibilityTimeout) {
+            if (visibilityTimeout.isNegative() || visibilityTimeout.isZero()) {
+                throw new IllegalArgumentException("Visibility timeout must be positive");
+            }
+            this.visibilityTimeout = visibilityTimeout;
+            return this;
+        }
+
+        /**
+         * How long an idle worker waits before polling the queue again
+         */
+        public Builder<S> pollInterval(Duration pollInterval) {
+            if (pollInterval.isNegative() || pollInterval.isZero()) {
+                throw new IllegalArgumentException("Poll interval must be positive");
+            }
+            this.pollInterval = pollInterval;
+            return this;
+        }
+
+        /**
+         * Deliveries of one step before its execution is failed
+         */
+        public Builder<S> maxDeliveries(int maxDeliveries) {
+            if (maxDeliveries <= 0) {
+                throw new IllegalArgumentException("Max deliveries must be positive");
+            }
+            this.maxDeliveries = maxDeliveries;
+            return this;
+        }
+
+        public DistributedExecutor<S> build() {
+            if (queue == null) {
+                throw new IllegalStateException("Work queue is required");
+            }
+            if (store == null) {
+                throw new IllegalStateException("State store is required");
+            }
+            return new DistributedExecutor<>(this);
+        }
+    }
+}
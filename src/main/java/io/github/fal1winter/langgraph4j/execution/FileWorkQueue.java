@@ -0,0 +1,209 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * {@link WorkQueue} in a directory, shared by processes on one host or a network file system
+ * Every task is a file. Leasing, extending, completing and reclaiming are single
+ * atomic renames, so when several workers race for the same file exactly one wins:
+ *
+ * <pre>
+ * ready/&lt;taskId&gt;.&lt;deliveries&gt;.task
+ * leased/&lt;taskId&gt;.&lt;deliveries&gt;.&lt;token&gt;.&lt;expiresAtMillis&gt;.lease
+ * </pre>
+ *
+ * Ready tasks are leased oldest first; task affinity is not used, and any worker
+ * takes over tasks whose lease expired. Every poll lists the directories, so this
+ * queue suits local testing and moderate volumes rather than peak traffic.
+ */
+public class FileWorkQueue implements WorkQueue {
+
+    private static final String TASK_SUFFIX = ".task";
+    private static final String LEASE_SUFFIX = ".lease";
+
+    private final Path ready;
+    private final Path leased;
+    private final Path incoming;
+
+    public FileWorkQueue(String directory) {
+        Path root = Paths.get(directory);
+        this.ready = root.resolve("ready");
+        this.leased = root.resolve("leased");
+        this.incoming = root.resolve("incoming");
+        try {
+            Files.createDirectories(ready);
+            Files.createDirectories(leased);
+            Files.createDirectories(incoming);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create queue directory: " + directory, e);
+        }
+    }
+
+    @Override
+    public boolean offer(StepTask task) throws IOException {
+        String taskId = task.getTaskId();
+        if (taskId.indexOf('.') >= 0 || taskId.indexOf('/') >= 0 || taskId.indexOf('\\') >= 0) {
+            throw new IllegalArgumentException("Task id cannot contain '.', '/' or '\\': " + taskId);
+        }
+        if (find(ready, taskId, TASK_SUFFIX) != null || find(leased, taskId, LEASE_SUFFIX) != null) {
+            return false;
+        }
+        // Write elsewhere first, so a task only becomes visible once complete
+        Path file = incoming.resolve(taskId + "." + UUID.randomUUID());
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeObject(task);
+        }
+        Files.move(file, ready.resolve(taskId + ".0" + TASK_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    @Override
+    public Lease poll(String workerId, Duration visibilityTimeout) throws IOException {
+        long now = System.currentTimeMillis();
+        reclaimExpired(now);
+
+        for (Path file : oldestFirst(ready)) {
+            String[] parts = split(file, TASK_SUFFIX);
+            if (parts.length != 2) {
+                continue;
+            }
+            int deliveries = Integer.parseInt(parts[1]) + 1;
+            String token = UUID.randomUUID().toString().replace("-", "");
+            long expiresAt = now + visibilityTimeout.toMillis();
+            Path claimed = leased.resolve(parts[0] + "." + deliveries + "." + token + "." + expiresAt + LEASE_SUFFIX);
+            try {
+                Files.move(file, claimed, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                // Another worker leased it first
+                continue;
+            }
+            StepTask task;
+            try {
+                task = read(claimed);
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Unreadable task: " + file, e);
+            }
+            return new Lease(task, workerId, token, deliveries, expiresAt);
+        }
+        return null;
+    }
+
+    private void reclaimExpired(long now) throws IOException {
+        for (Path file : list(leased)) {
+            String[] parts = split(file, LEASE_SUFFIX);
+            if (parts.length != 4 || Long.parseLong(parts[3]) > now) {
+                continue;
+            }
+            try {
+                Files.move(file, ready.resolve(parts[0] + "." + parts[1] + TASK_SUFFIX),
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                // Completed, extended or reclaimed concurrently
+            }
+        }
+    }
+
+    @Override
+    public boolean extend(Lease lease, Duration visibilityTimeout) throws IOException {
+        long now = System.currentTimeMillis();
+        if (lease.getExpiresAtMillis() <= now) {
+            return false;
+        }
+        long expiresAt = now + visibilityTimeout.toMillis();
+        try {
+            Files.move(leaseFile(lease, lease.getExpiresAtMillis()), leaseFile(lease, expiresAt), StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        lease.setExpiresAtMillis(expiresAt);
+        return true;
+    }
+
+    @Override
+    public boolean complete(Lease lease) throws IOException {
+        if (lease.getExpiresAtMillis() <= System.currentTimeMillis()) {
+            return false;
+        }
+        return Files.deleteIfExists(leaseFile(lease, lease.getExpiresAtMillis()));
+    }
+
+    @Override
+    public void release(Lease lease) throws IOException {
+        StepTask task = lease.getTask();
+        try {
+            Path file = ready.resolve(task.getTaskId() + "." + lease.getDeliveries() + TASK_SUFFIX);
+            Files.move(leaseFile(lease, lease.getExpiresAtMillis()), file, StandardCopyOption.ATOMIC_MOVE);
+            // Back to the front of the queue
+            Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+        } catch (NoSuchFileException e) {
+            // Already expired and reclaimed
+        }
+    }
+
+    @Override
+    public int size() {
+        try {
+            return list(ready).size() + list(leased).size();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private Path leaseFile(Lease lease, long expiresAt) {
+        return leased.resolve(lease.getTask().getTaskId() + "." + lease.getDeliveries() + "."
+                + lease.getToken() + "." + expiresAt + LEASE_SUFFIX);
+    }
+
+    private static StepTask read(Path file) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            return (StepTask) in.readObject();
+        }
+    }
+
+    private static Path find(Path directory, String taskId, String suffix) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, taskId + ".*" + suffix)) {
+            for (Path file : files) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private static List<Path> oldestFirst(Path directory) throws IOException {
+        Map<Path, Long> modified = new HashMap<>();
+        for (Path file : list(directory)) {
+            try {
+                modified.put(file, Files.getLastModifiedTime(file).toMillis());
+            } catch (NoSuchFileException e) {
+                // Leased by another worker while listing
+            }
+        }
+        List<Path> sorted = new ArrayList<>(modified.keySet());
+        sorted.sort(Comparator.<Path>comparingLong(modified::get).thenComparing(Path::toString));
+        return sorted;
+    }
+
+    private static String[] split(Path file, String suffix) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(suffix)) {
+            return new String[0];
+        }
+        return name.substring(0, name.length() - suffix.length()).split("\\.");
+    }
+}
@@ -0,0 +1,406 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import io.github.fal1winter.langgraph4j.core.CompiledGraph;
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.State;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Runs many executions of one graph in parallel over a worker pool
+ *
+ * The executor holds a single immutable {@link CompiledGraph}; every
+ * submitted state gets its own execution context, so any number of
+ * executions may run at the same time. States themselves must not be
+ * shared between concurrent submissions.
+ *
+ * Executions run through {@link CompiledGraph#executeAsync}: synchronous nodes
+ * run on the worker pool, in place of the graph's own node executor, while retry
+ * backoff and bulkhead queues wait on timers and futures without holding a
+ * worker thread.
+ *
+ * On Java 21 and newer, {@link Builder#virtualThreads(boolean)} runs every
+ * node on its own virtual thread instead of a fixed pool, which makes
+ * blocking nodes cheap enough to keep thousands of executions in flight.
+ *
+ * {@code executeBatch} runs a whole data set through the graph with a bounded
+ * number of executions in flight, isolating failures per item.
+ *
+ * With {@link Builder#admissionControl}, every execution, including batch items,
+ * passes through an {@link AdmissionControl} that bounds the executions running
+ * and waiting and sheds load with an {@link AdmissionRejectedException}.
+ *
+ * @param <S> the state type
+ */
+public class GraphExecutor<S extends State> implements AutoCloseable {
+
+    private static final int DEFAULT_MAX_BATCH_WINDOW = 1024;
+
+    private final CompiledGraph<S> graph;
+    // The graph with its synchronous nodes running on the worker pool
+    private final CompiledGraph<S> running;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int parallelism;
+    private final int batchWindow;
+    private final AdmissionControl admission;
+
+    private GraphExecutor(Builder<S> builder) {
+        this.graph = builder.graph;
+        this.admission = builder.admission;
+        this.parallelism = builder.virtualThreads && builder.executor == null
+                ? Integer.MAX_VALUE : builder.parallelism;
+        this.batchWindow = builder.batchWindow > 0
+                ? builder.batchWindow : (int) Math.min(2L * parallelism, DEFAULT_MAX_BATCH_WINDOW);
+        if (builder.executor != null) {
+            this.executor = builder.executor;
+            this.ownsExecutor = false;
+        } else if (builder.virtualThreads) {
+            this.executor = VirtualThreads.newThreadPerTaskExecutor(builder.threadNamePrefix);
+            this.ownsExecutor = true;
+        } else {
+            this.executor = Executors.newFixedThreadPool(builder.parallelism,
+                    daemonThreadFactory(builder.threadNamePrefix));
+            this.ownsExecutor = true;
+        }
+        this.running = graph.withNodeExecutor(executor);
+    }
+
+    /**
+     * Submit an execution, returning a future for its final state
+     */
+    public CompletableFuture<S> submit(S initialState) {
+        CompletableFuture<S> future = new CompletableFuture<>();
+        dispatch(() -> {
+            if (future.isDone()) {
+                return future;
+            }
+            start(initialState).whenComplete((result, error) -> {
+                if (error == null) {
+                    future.complete(result);
+                } else {
+                    future.completeExceptionally(unwrap(error));
+                }
+            });
+            return future;
+        }, future::completeExceptionally);
+        return future;
+    }
+
+    /**
+     * Start an execution on the calling worker; it continues on the pool and on timers
+     */
+    private CompletableFuture<S> start(S initialState) {
+        try {
+            return running.executeAsync(initialState);
+        } catch (Throwable e) {
+            CompletableFuture<S> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Start an execution on the pool, through admission control if configured
+     * The task returns the execution's future; admission control holds its slot until that completes.
+     */
+    private void dispatch(Supplier<? extends CompletionStage<?>> task,
+                          Consumer<? super RejectedExecutionException> rejected) {
+        if (admission != null) {
+            admission.submit(task, executor, rejected);
+            return;
+        }
+        try {
+            executor.execute(task::get);
+        } catch (RejectedExecutionException e) {
+            rejected.accept(e);
+        }
+    }
+
+    /**
+     * Submit one execution per state
+     */
+    public List<CompletableFuture<S>> submitAll(Collection<? extends S> initialStates) {
+        List<CompletableFuture<S>> futures = new ArrayList<>(initialStates.size());
+        for (S state : initialStates) {
+            futures.add(submit(state));
+        }
+        return futures;
+    }
+
+    /**
+     * Execute on the pool and wait for the result
+     *
+     * @throws AdmissionRejectedException if admission control shed the execution
+     */
+    public S execute(S initialState) throws Exception {
+        try {
+            return submit(initialState).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Run every input through the graph and wait for all of them
+     * Items are returned in input order; a failing item does not affect the others.
+     */
+    public BatchResult<S> executeBatch(Collection<? extends S> inputs) throws InterruptedException {
+        return executeBatch(inputs.stream());
+    }
+
+    /**
+     * Run every input through the graph and wait for all of them
+     * Inputs are pulled lazily, so at most the batch window of them is in flight.
+     */
+    public BatchResult<S> executeBatch(Stream<? extends S> inputs) throws InterruptedException {
+        List<BatchItem<S>> items = new ArrayList<>();
+        BatchStats stats = executeBatch(inputs, true, items::add);
+        return new BatchResult<>(items, stats);
+    }
+
+    /**
+     * Run every input through the graph, handing each item to {@code consumer} as it is delivered
+     * Items are not retained, so this scales to inputs that do not fit in memory. The consumer
+     * is called on the calling thread, in input order if {@code ordered}, otherwise in
+     * completion order.
+     */
+    public BatchStats executeBatch(Stream<? extends S> inputs, boolean ordered,
+                                   Consumer<? super BatchItem<S>> consumer) throws InterruptedException {
+        Batch batch = new Batch(ordered, consumer);
+        Iterator<? extends S> iterator = inputs.iterator();
+        while (iterator.hasNext()) {
+            batch.submit(iterator.next());
+        }
+        return batch.finish();
+    }
+
+
+    public CompiledGraph<S> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Parallelism of the worker pool; unbounded when running on virtual threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Maximum number of batch items submitted but not yet delivered
+     */
+    public int getBatchWindow() {
+        return batchWindow;
+    }
+
+    /**
+     * Admission control in front of the pool, or null if executions are never shed
+     */
+    public AdmissionControl getAdmissionControl() {
+        return admission;
+    }
+
+    /**
+     * Whether this runtime can run executions on virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * Stop accepting executions; running ones are allowed to finish
+     * An executor supplied through the builder is left untouched.
+     */
+    public void shutdown() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Wait for running executions to finish after {@link #shutdown()}
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+    }
+
+    static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One running batch; all bookkeeping happens on the calling thread
+     */
+    private final class Batch {
+        private final boolean ordered;
+        private final Consumer<? super BatchItem<S>> consumer;
+        private final BlockingQueue<BatchItem<S>> completed = new LinkedBlockingQueue<>();
+        private final Map<Integer, BatchItem<S>> reorder = new HashMap<>();
+        private final long start = System.nanoTime();
+        private long[] latencies = new long[64];
+        private int submitted;
+        private int delivered;
+        private int succeeded;
+        private int failed;
+
+        Batch(boolean ordered, Consumer<? super BatchItem<S>> consumer) {
+            this.ordered = ordered;
+            this.consumer = consumer;
+        }
+
+        void submit(S input) throws InterruptedException {
+            // In ordered mode items wait in the reorder map until delivered, so they count as in flight
+            while (submitted - delivered >= batchWindow) {
+                accept(completed.take());
+            }
+            int index = submitted++;
+            dispatch(() -> {
+                long started = System.nanoTime();
+                return start(input).whenComplete((result, error) -> completed.add(new BatchItem<>(index, input,
+                        result, error != null ? unwrap(error) : null, System.nanoTime() - started)));
+            }, e -> completed.add(new BatchItem<>(index, input, null, e, 0)));
+        }
+
+        BatchStats finish() throws InterruptedException {
+            while (delivered < submitted) {
+                accept(completed.take());
+            }
+            return new BatchStats(succeeded, failed, System.nanoTime() - start, latencies, delivered);
+        }
+
+        private void accept(BatchItem<S> item) {
+            if (!ordered) {
+                deliver(item);
+                return;
+            }
+            reorder.put(item.getIndex(), item);
+            BatchItem<S> next;
+            while ((next = reorder.remove(delivered)) != null) {
+                deliver(next);
+            }
+        }
+
+        private void deliver(BatchItem<S> item) {
+            if (delivered == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[delivered++] = item.getLatencyNanos();
+            if (item.isSuccess()) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+            consumer.accept(item);
+        }
+    }
+
+    /**
+     * Builder for GraphExecutor
+     */
+    public static <S extends State> Builder<S> builder(CompiledGraph<S> graph) {
+        return new Builder<>(graph);
+    }
+
+    public static <S extends State> Builder<S> builder(Graph<S> graph) {
+        return new Builder<>(graph.compile());
+    }
+
+    public static class Builder<S extends State> {
+        private final CompiledGraph<S> graph;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private ExecutorService executor;
+        private boolean virtualThreads;
+        private String threadNamePrefix = "langgraph4j-executor-";
+        private int batchWindow;
+        private AdmissionControl admission;
+
+        private Builder(CompiledGraph<S> graph) {
+            if (graph == null) {
+                throw new IllegalArgumentException("Graph cannot be null");
+            }
+            this.graph = graph;
+        }
+
+        /**
+         * Number of worker threads in the default pool
+         */
+        public Builder<S> parallelism(int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("Parallelism must be positive");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Use an existing executor instead of creating a pool
+         */
+        public Builder<S> executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Run each execution on its own virtual thread (Java 21+)
+         */
+        public Builder<S> virtualThreads(boolean virtualThreads) {
+            if (virtualThreads && !VirtualThreads.isSupported()) {
+                throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+            }
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Maximum number of batch items in flight; defaults to twice the parallelism
+         */
+        public Builder<S> batchWindow(int batchWindow) {
+            if (batchWindow <= 0) {
+                throw new IllegalArgumentException("Batch window must be positive");
+            }
+            this.batchWindow = batchWindow;
+            return this;
+        }
+
+        /**
+         * Bound running and queued executions and shed load beyond them
+         */
+        public Builder<S> admissionControl(AdmissionControl admission) {
+            this.admission = admission;
+            return this;
+        }
+
+        public Builder<S> threadNamePrefix(String threadNamePrefix) {
+            this.threadNamePrefix = threadNamePrefix;
+            return this;
+        }
+
+        public GraphExecutor<S> build() {
+            return new GraphExecutor<>(this);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link WorkQueue} for workers in one JVM, e.g. several executors in a test
+ * Tasks with an affinity go to that worker's own deque, the others to a shared
+ * FIFO queue. A worker takes from its own deque first, then from the shared
+ * queue, and when both are empty steals the oldest task from the longest deque
+ * of another worker. Expired leases are returned to the shared queue the next
+ * time any worker polls.
+ */
+public class InMemoryWorkQueue implements WorkQueue {
+
+    private final Map<String, Deque<Entry>> local = new HashMap<>();
+    private final Deque<Entry> shared = new ArrayDeque<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Entry> leased = new HashMap<>();
+    private final AtomicLong tokens = new AtomicLong();
+    private long stolen;
+    private long expired;
+
+    @Override
+    public synchronized boolean offer(StepTask task) {
+        if (entries.containsKey(task.getTaskId())) {
+            return false;
+        }
+        Entry entry = new Entry(task);
+        entries.put(task.getTaskId(), entry);
+        if (task.getAffinity() != null) {
+            local.computeIfAbsent(task.getAffinity(), worker -> new ArrayDeque<>()).addLast(entry);
+        } else {
+            shared.addLast(entry);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized Lease poll(String workerId, Duration visibilityTimeout) {
+        long now = System.currentTimeMillis();
+        reclaimExpired(now);
+
+        Deque<Entry> own = local.get(workerId);
+        Entry entry = own != null ? own.pollFirst() : null;
+        if (entry == null) {
+            entry = shared.pollFirst();
+        }
+        if (entry == null) {
+            entry = steal(workerId);
+        }
+        if (entry == null) {
+            return null;
+        }
+        entry.deliveries++;
+        entry.lease = new Lease(entry.task, workerId, Long.toString(tokens.incrementAndGet()),
+                entry.deliveries, now + visibilityTimeout.toMillis());
+        leased.put(entry.task.getTaskId(), entry);
+        return entry.lease;
+    }
+
+    private Entry steal(String workerId) {
+        Deque<Entry> victim = null;
+        for (Map.Entry<String, Deque<Entry>> candidate : local.entrySet()) {
+            if (!candidate.getKey().equals(workerId)
+                    && (victim == null || candidate.getValue().size() > victim.size())) {
+                victim = candidate.getValue();
+            }
+        }
+        // The owner works from the head, so take the task it would reach last
+        Entry entry = victim != null ? victim.pollLast() : null;
+        if (entry != null) {
+            stolen++;
+        }
+        return entry;
+    }
+
+    private void reclaimExpired(long now) {
+        if (leased.isEmpty()) {
+            return;
+        }
+        Iterator<Entry> iterator = leased.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.lease.getExpiresAtMillis() <= now) {
+                iterator.remove();
+                entry.lease = null;
+                shared.addLast(entry);
+                expired++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean extend(Lease lease, Duration visibilityTimeout) {
+        Entry entry = holding(lease);
+        if (entry == null) {
+            return false;
+        }
+        lease.setExpiresAtMillis(System.currentTimeMillis() + visibilityTimeout.toMillis());
+        return true;
+    }
+
+    @Override
+    public synchronized boolean complete(Lease lease) {
+        Entry entry = holding(lease);
+        if (entry == null) {
+            return false;
+        }
+        leased.remove(lease.getTask().getTaskId());
+        entries.remove(lease.getTask().getTaskId());
+        return true;
+    }
+
+    @Override
+    public synchronized void release(Lease lease) {
+        Entry entry = holding(lease);
+        if (entry != null) {
+            leased.remove(lease.getTask().getTaskId());
+            entry.lease = null;
+            shared.addFirst(entry);
+        }
+    }
+
+    /**
+     * The task's entry if {@code lease} is its current, unexpired lease
+     */
+    private Entry holding(Lease lease) {
+        Entry entry = leased.get(lease.getTask().getTaskId());
+        if (entry == null || entry.lease != lease) {
+            return null;
+        }
+        if (lease.getExpiresAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry;
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Tasks taken from another worker's deque
+     */
+    public synchronized long getStolen() {
+        return stolen;
+    }
+
+    /**
+     * Leases that expired and made their task visible again
+     */
+    public synchronized long getExpired() {
+        return expired;
+    }
+
+    private static final class Entry {
+        final StepTask task;
+        int deliveries;
+        Lease lease;
+
+        Entry(StepTask task) {
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+/**
+ * A worker's claim on a {@link StepTask}
+ * Until the lease expires, the task is invisible to other workers. A lease that
+ * is neither extended nor completed in time makes the task visible again, so
+ * another worker picks it up if its holder died.
+ */
+public final class Lease {
+
+    private final StepTask task;
+    private final String workerId;
+    private final String token;
+    private final int deliveries;
+    private volatile long expiresAtMillis;
+
+    public Lease(StepTask task, String workerId, String token, int deliveries, long expiresAtMillis) {
+        this.task = task;
+        this.workerId = workerId;
+        this.token = token;
+        this.deliveries = deliveries;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public StepTask getTask() {
+        return task;
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * Identifies this lease among all leases of the same task
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * How many times the task has been leased, including this time
+     */
+    public int getDeliveries() {
+        return deliveries;
+    }
+
+    /**
+     * Wall-clock time at which the task becomes visible again
+     */
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    void setExpiresAtMillis(long expiresAtMillis) {
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "Lease{" +
+                "task=" + task.getTaskId() +
+                ", workerId='" + workerId + '\'' +
+                ", deliveries=" + deliveries +
+                ", expiresAtMillis=" + expiresAtMillis +
+                '}';
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import java.io.Serializable;
+
+/**
+ * One step of a distributed execution, as handed between workers through a {@link WorkQueue}
+ * The state the step starts from is kept in a {@code StateStore} under {@link #getStateKey()}.
+ */
+public final class StepTask implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String executionId;
+    private final String nodeName;
+    private final int iterations;
+    private final String affinity;
+
+    /**
+     * @param nodeName node to run, or null for the graph's entry point
+     * @param iterations steps the execution has taken before this one
+     * @param affinity worker that should preferably run the step, or null for any
+     */
+    public StepTask(String executionId, String nodeName, int iterations, String affinity) {
+        if (executionId == null || executionId.isEmpty()) {
+            throw new IllegalArgumentException("Execution id cannot be empty");
+        }
+        if (iterations < 0) {
+            throw new IllegalArgumentException("Iterations cannot be negative");
+        }
+        this.executionId = executionId;
+        this.nodeName = nodeName;
+        this.iterations = iterations;
+        this.affinity = affinity;
+    }
+
+    /**
+     * Unique per execution and step, so a step offered twice is queued once
+     */
+    public String getTaskId() {
+        return executionId + "-step-" + iterations;
+    }
+
+    /**
+     * State store key of the state this step starts from
+     */
+    public String getStateKey() {
+        return getTaskId();
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String getAffinity() {
+        return affinity;
+    }
+
+    @Override
+    public String toString() {
+        return "StepTask{" +
+                "executionId='" + executionId + '\'' +
+                ", nodeName='" + nodeName + '\'' +
+                ", iterations=" + iterations +
+                '}';
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads
+ * This is the Java 8 baseline, which has none. The multi-release JAR ships a
+ * Java 21 version of this class under {@code META-INF/versions/21}.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    static ExecutorService newThreadPerTaskExecutor(String threadNamePrefix) {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import java.time.Duration;
+
+/**
+ * Queue of execution steps shared by the workers of one or more {@link DistributedExecutor}s
+ * Tasks are leased rather than removed: a leased task is hidden from other workers
+ * for a visibility timeout and becomes visible again unless its lease is extended
+ * or completed, so steps are delivered at least once.
+ */
+public interface WorkQueue {
+
+    /**
+     * Add a task; ignored if a task with the same id is already queued or leased
+     *
+     * @return whether the task was added
+     */
+    boolean offer(StepTask task) throws Exception;
+
+    /**
+     * Lease the next task for {@code workerId}, hiding it for {@code visibilityTimeout}
+     *
+     * @return the lease, or null if no task is visible
+     */
+    Lease poll(String workerId, Duration visibilityTimeout) throws Exception;
+
+    /**
+     * Keep a task hidden for another {@code visibilityTimeout}
+     *
+     * @return false if the lease already expired, in which case another worker may hold the task
+     */
+    boolean extend(Lease lease, Duration visibilityTimeout) throws Exception;
+
+    /**
+     * Remove a leased task once its step is done
+     *
+     * @return false if the lease already expired
+     */
+    boolean complete(Lease lease) throws Exception;
+
+    /**
+     * Give a leased task back, making it visible again right away
+     */
+    void release(Lease lease) throws Exception;
+
+    /**
+     * Number of tasks queued or leased
+     */
+    int size();
+}
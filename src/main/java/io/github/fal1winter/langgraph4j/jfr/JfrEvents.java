@@ -0,0 +1,60 @@
+package io.github.fal1winter.langgraph4j.jfr;
+
+/**
+ * Hooks that emit JDK Flight Recorder events for executions, node steps,
+ * AutoNode iterations, tool calls and LLM calls
+ * This is the Java 8 baseline, where every hook is a no-op. The multi-release
+ * JAR ships a Java 11 version of this class under {@code META-INF/versions/11}
+ * that emits the events. When an event type is disabled in the recording,
+ * its {@code begin} hook returns null without allocating.
+ *
+ * The hooks are called by the library itself; {@code begin} returns an opaque
+ * handle to pass to the matching {@code end} hook.
+ */
+public final class JfrEvents {
+
+    private JfrEvents() {
+    }
+
+    /**
+     * Whether this runtime emits the events
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    public static Object beginExecution(String executionId) {
+        return null;
+    }
+
+    public static void endExecution(Object event, String status, int steps) {
+    }
+
+    public static Object beginNodeStep(String executionId, String nodeName, int iteration) {
+        return null;
+    }
+
+    public static void endNodeStep(Object event, String outcome) {
+    }
+
+    public static Object beginAutoNodeIteration(String executionId, String nodeName, int iteration) {
+        return null;
+    }
+
+    public static void endAutoNodeIteration(Object event, int toolCalls) {
+    }
+
+    public static Object beginToolCall(String executionId, String toolName) {
+        return null;
+    }
+
+    public static void endToolCall(Object event, boolean success) {
+    }
+
+    public static Object beginLlmCall(String executionId, int availableTools) {
+        return null;
+    }
+
+    public static void endLlmCall(Object event, int toolCalls, boolean success) {
+    }
+}
@@ -0,0 +1,574 @@
+package io.github.fal1winter.langgraph4j.metrics;
+
+import io.github.fal1winter.langgraph4j.core.Bulkhead;
+import io.github.fal1winter.langgraph4j.core.GraphListener;
+import io.github.fal1winter.langgraph4j.core.State;
+import io.github.fal1winter.langgraph4j.execution.AdmissionControl;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Listener that keeps execution metrics for a graph
+ * Records a {@link LatencyHistogram} per node, transition counts per edge,
+ * errors, retries, human-input pauses and the executions in flight. With
+ * adaptive edge ordering enabled on the graph, it also records how long each
+ * conditional edge's predicate takes and how often it matches. With
+ * {@link #monitor(AdmissionControl)}, it also exports the admission queue's
+ * depth, wait time and rejections, the signals to autoscale on, and with
+ * {@link #monitor(String, Bulkhead)} the same for a node's bulkhead. Counters
+ * are created the first time a node or edge is seen; after that, recording a
+ * step is a map lookup and a few atomic increments, without allocating.
+ *
+ * Metrics can be read directly, exposed over JMX with {@link #registerMBean()},
+ * or scraped in the Prometheus text format through {@link #scrape()} or a
+ * {@link PrometheusEndpoint}.
+ *
+ * @param <S> the state type
+ */
+public class GraphMetrics<S extends State> implements GraphListener<S>, GraphMetricsMBean {
+
+    static final String JMX_DOMAIN = "io.github.fal1winter.langgraph4j";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final String graphName;
+    private final ConcurrentMap<String, NodeMetrics> nodes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> transitions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, ConditionMetrics>> conditions = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder pauses = new LongAdder();
+    private volatile ObjectName objectName;
+    private volatile AdmissionControl admission;
+    private final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public GraphMetrics() {
+        this("default");
+    }
+
+    /**
+     * Metrics labelled with {@code graphName}, which tells graphs apart in a shared export
+     */
+    public GraphMetrics(String graphName) {
+        if (graphName == null || graphName.isEmpty()) {
+            throw new IllegalArgumentException("Graph name cannot be empty");
+        }
+        this.graphName = graphName;
+    }
+
+    @Override
+    public void onStart(S state) {
+        started.increment();
+        inFlight.add(state.getExecutionId());
+    }
+
+    @Override
+    public void onAfterNode(String nodeName, S state, long durationNanos) {
+        node(nodeName).latency.record(durationNanos);
+    }
+
+    @Override
+    public void onTransition(String from, String to, S state) {
+        ConcurrentMap<String, LongAdder> targets = transitions.get(from);
+        if (targets == null) {
+            targets = transitions.computeIfAbsent(from, name -> new ConcurrentHashMap<>());
+        }
+        LongAdder count = targets.get(to);
+        if (count == null) {
+            count = targets.computeIfAbsent(to, name -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    @Override
+    public void onConditionEvaluated(String from, String to, S state, long durationNanos, boolean matched) {
+        ConcurrentMap<String, ConditionMetrics> targets = conditions.get(from);
+        if (targets == null) {
+            targets = conditions.computeIfAbsent(from, name -> new ConcurrentHashMap<>());
+        }
+        ConditionMetrics metrics = targets.get(to);
+        if (metrics == null) {
+            metrics = targets.computeIfAbsent(to, name -> new ConditionMetrics());
+        }
+        metrics.latency.record(durationNanos);
+        if (matched) {
+            metrics.matches.increment();
+        }
+    }
+
+    @Override
+    public void onRetry(String nodeName, S state, int attempt, Exception error,
+                        long attemptNanos, long backoffNanos) {
+        node(nodeName).retries.increment();
+    }
+
+    @Override
+    public void onHumanInputRequired(String nodeName, S state) {
+        node(nodeName).pauses.increment();
+        pauses.increment();
+        inFlight.remove(state.getExecutionId());
+    }
+
+    @Override
+    public void onError(String nodeName, S state, Exception error) {
+        node(nodeName).errors.increment();
+        // Failing fan-out branches report one error each; the execution fails once
+        if (inFlight.remove(state.getExecutionId())) {
+            failed.increment();
+        }
+    }
+
+    @Override
+    public void onComplete(S state) {
+        completed.increment();
+        inFlight.remove(state.getExecutionId());
+    }
+
+    private NodeMetrics node(String nodeName) {
+        NodeMetrics metrics = nodes.get(nodeName);
+        return metrics != null ? metrics : nodes.computeIfAbsent(nodeName, name -> new NodeMetrics());
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+
+    /**
+     * Evaluation time of the predicate on the edge {@code from -> to}, or null if it has not been evaluated
+     */
+    public LatencyHistogram getConditionLatency(String from, String to) {
+        ConditionMetrics metrics = condition(from, to);
+        return metrics != null ? metrics.latency : null;
+    }
+
+    private ConditionMetrics condition(String from, String to) {
+        Map<String, ConditionMetrics> targets = conditions.get(from);
+        return targets != null ? targets.get(to) : null;
+    }
+
+    /**
+     * Latency histogram of {@code nodeName}, or null if it has not completed yet
+     */
+    public LatencyHistogram getNodeLatency(String nodeName) {
+        NodeMetrics metrics = nodes.get(nodeName);
+        return metrics != null ? metrics.latency : null;
+    }
+
+    @Override
+    public long getExecutionsStarted() {
+        return started.sum();
+    }
+
+    @Override
+    public long getExecutionsCompleted() {
+        return completed.sum();
+    }
+
+    @Override
+    public long getExecutionsFailed() {
+        return failed.sum();
+    }
+
+    @Override
+    public long getExecutionsInFlight() {
+        return inFlight.size();
+    }
+
+    @Override
+    public long getHumanInputPauses() {
+        return pauses.sum();
+    }
+
+    @Override
+    public String[] getNodeNames() {
+        return new TreeSet<>(nodes.keySet()).toArray(new String[0]);
+    }
+
+    @Override
+    public long getNodeCount(String nodeName) {
+        NodeMetrics metrics = nodes.get(nodeName);
+        return metrics != null ? metrics.latency.getCount() : 0;
+    }
+
+    @Override
+    public long getNodeErrors(String nodeName) {
+        NodeMetrics metrics = nodes.get(nodeName);
+        return metrics != null ? metrics.errors.sum() : 0;
+    }
+
+    @Override
+    public long getNodeRetries(String nodeName) {
+        NodeMetrics metrics = nodes.get(nodeName);
+        return metrics != null ? metrics.retries.sum() : 0;
+    }
+
+    @Override
+    public long getNodeLatencyPercentileNanos(String nodeName, double percentile) {
+        NodeMetrics metrics = nodes.get(nodeName);
+        return metrics != null ? metrics.latency.getValueAtPercentile(percentile) : 0;
+    }
+
+    @Override
+    public long getTransitionCount(String from, String to) {
+        Map<String, LongAdder> targets = transitions.get(from);
+        LongAdder count = targets != null ? targets.get(to) : null;
+        return count != null ? count.sum() : 0;
+    }
+
+    @Override
+    public long getConditionEvaluations(String from, String to) {
+        ConditionMetrics metrics = condition(from, to);
+        return metrics != null ? metrics.latency.getCount() : 0;
+    }
+
+    @Override
+    public long getConditionMatches(String from, String to) {
+        ConditionMetrics metrics = condition(from, to);
+        return metrics != null ? metrics.matches.sum() : 0;
+    }
+
+    @Override
+    public long getConditionLatencyPercentileNanos(String from, String to, double percentile) {
+        ConditionMetrics metrics = condition(from, to);
+        return metrics != null ? metrics.latency.getValueAtPercentile(percentile) : 0;
+    }
+
+    /**
+     * Export the queue and rejection metrics of the admission control in front of this graph
+     */
+    public GraphMetrics<S> monitor(AdmissionControl admission) {
+        this.admission = admission;
+        return this;
+    }
+
+    @Override
+    public long getAdmissionInFlight() {
+        AdmissionControl admission = this.admission;
+        return admission != null ? admission.getInFlight() : 0;
+    }
+
+    @Override
+    public long getAdmissionQueueDepth() {
+        AdmissionControl admission = this.admission;
+        return admission != null ? admission.getQueueDepth() : 0;
+    }
+
+    @Override
+    public long getAdmissionQueueWaitPercentileNanos(double percentile) {
+        AdmissionControl admission = this.admission;
+        return admission != null ? admission.getQueueWait().getValueAtPercentile(percentile) : 0;
+    }
+
+    @Override
+    public long getAdmissionRejected() {
+        AdmissionControl admission = this.admission;
+        return admission != null ? admission.getRejected() : 0;
+    }
+
+    /**
+     * Export the slot, queue and rejection metrics of the bulkhead set on {@code node}
+     */
+    public GraphMetrics<S> monitor(String node, Bulkhead bulkhead) {
+        bulkheads.put(node, bulkhead);
+        return this;
+    }
+
+    @Override
+    public long getBulkheadQueueDepth(String node) {
+        Bulkhead bulkhead = bulkheads.get(node);
+        return bulkhead != null ? bulkhead.getQueueDepth() : 0;
+    }
+
+    @Override
+    public long getBulkheadWaitPercentileNanos(String node, double percentile) {
+        Bulkhead bulkhead = bulkheads.get(node);
+        return bulkhead != null ? bulkhead.getWaitTime().getValueAtPercentile(percentile) : 0;
+    }
+
+    @Override
+    public long getBulkheadRejected(String node) {
+        Bulkhead bulkhead = bulkheads.get(node);
+        return bulkhead != null ? bulkhead.getRejected() : 0;
+    }
+
+    /**
+     * Register this instance with the platform MBean server under
+     * {@code io.github.fal1winter.langgraph4j:type=GraphMetrics,name=<graph name>}
+     */
+    public ObjectName registerMBean() {
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=GraphMetrics,name=" + ObjectName.quote(graphName));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            objectName = name;
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register metrics MBean for graph " + graphName, e);
+        }
+    }
+
+    /**
+     * Remove the MBean registered by {@link #registerMBean()}, if any
+     */
+    public void unregisterMBean() {
+        ObjectName name = objectName;
+        if (name == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            objectName = null;
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to unregister metrics MBean for graph " + graphName, e);
+        }
+    }
+
+    @Override
+    public String scrape() {
+        return scrape(Collections.<GraphMetrics<?>>singletonList(this));
+    }
+
+    /**
+     * Metrics of several graphs in one Prometheus text exposition, one family at a time
+     */
+    public static String scrape(Collection<? extends GraphMetrics<?>> registries) {
+        StringBuilder out = new StringBuilder();
+
+        family(out, "langgraph4j_executions_started_total", "counter", "Executions started, including resumes");
+        for (GraphMetrics<?> metrics : registries) {
+            sample(out, "langgraph4j_executions_started_total", metrics.labels(), metrics.getExecutionsStarted());
+        }
+        family(out, "langgraph4j_executions_completed_total", "counter", "Executions that reached END or their iteration limit");
+        for (GraphMetrics<?> metrics : registries) {
+            sample(out, "langgraph4j_executions_completed_total", metrics.labels(), metrics.getExecutionsCompleted());
+        }
+        family(out, "langgraph4j_executions_failed_total", "counter", "Executions that ended with an error");
+        for (GraphMetrics<?> metrics : registries) {
+            sample(out, "langgraph4j_executions_failed_total", metrics.labels(), metrics.getExecutionsFailed());
+        }
+        family(out, "langgraph4j_executions_in_flight", "gauge", "Executions currently running");
+        for (GraphMetrics<?> metrics : registries) {
+            sample(out, "langgraph4j_executions_in_flight", metrics.labels(), metrics.getExecutionsInFlight());
+        }
+
+        family(out, "langgraph4j_node_duration_seconds", "summary", "Node execution time");
+        for (GraphMetrics<?> metrics : registries) {
+            for (Map.Entry<String, NodeMetrics> node : new TreeMap<>(metrics.nodes).entrySet()) {
+                LatencyHistogram latency = node.getValue().latency;
+                String labels = metrics.labels("node", node.getKey());
+                for (double quantile : QUANTILES) {
+                    sample(out, "langgraph4j_node_duration_seconds",
+                            labels + ",quantile=\"" + quantile + "\"",
+                            seconds(latency.getValueAtPercentile(quantile * 100)));
+                }
+                sample(out, "langgraph4j_node_duration_seconds_sum", labels, seconds(latency.getSum()));
+                sample(out, "langgraph4j_node_duration_seconds_count", labels, latency.getCount());
+            }
+        }
+        nodeCounter(out, registries, "langgraph4j_node_errors_total", "Node failures after retries", metrics -> metrics.errors);
+        nodeCounter(out, registries, "langgraph4j_node_retries_total", "Node attempts that failed and were retried", metrics -> metrics.retries);
+        nodeCounter(out, registries, "langgraph4j_human_input_pauses_total", "Executions paused for human input", metrics -> metrics.pauses);
+
+        family(out, "langgraph4j_transitions_total", "counter", "Transitions taken per edge");
+        for (GraphMetrics<?> metrics : registries) {
+            for (Map.Entry<String, ConcurrentMap<String, LongAdder>> from : new TreeMap<>(metrics.transitions).entrySet()) {
+                for (Map.Entry<String, LongAdder> to : new TreeMap<>(from.getValue()).entrySet()) {
+                    sample(out, "langgraph4j_transitions_total",
+                            metrics.labels("from", from.getKey()) + ",to=\"" + escape(to.getKey()) + "\"",
+                            to.getValue().sum());
+                }
+            }
+        }
+
+        family(out, "langgraph4j_condition_duration_seconds", "summary", "Conditional edge predicate evaluation time");
+        for (GraphMetrics<?> metrics : registries) {
+            for (Map.Entry<String, ConcurrentMap<String, ConditionMetrics>> from : new TreeMap<>(metrics.conditions).entrySet()) {
+                for (Map.Entry<String, ConditionMetrics> to : new TreeMap<>(from.getValue()).entrySet()) {
+                    LatencyHistogram latency = to.getValue().latency;
+                    String labels = metrics.labels("from", from.getKey()) + ",to=\"" + escape(to.getKey()) + "\"";
+                    for (double quantile : QUANTILES) {
+                        sample(out, "langgraph4j_condition_duration_seconds",
+                                labels + ",quantile=\"" + quantile + "\"",
+                                seconds(latency.getValueAtPercentile(quantile * 100)));
+                    }
+                    sample(out, "langgraph4j_condition_duration_seconds_sum", labels, seconds(latency.getSum()));
+                    sample(out, "langgraph4j_condition_duration_seconds_count", labels, latency.getCount());
+                }
+            }
+        }
+        family(out, "langgraph4j_condition_matches_total", "counter", "Conditional edge predicate evaluations that matched");
+        for (GraphMetrics<?> metrics : registries) {
+            for (Map.Entry<String, ConcurrentMap<String, ConditionMetrics>> from : new TreeMap<>(metrics.conditions).entrySet()) {
+                for (Map.Entry<String, ConditionMetrics> to : new TreeMap<>(from.getValue()).entrySet()) {
+                    sample(out, "langgraph4j_condition_matches_total",
+                            metrics.labels("from", from.getKey()) + ",to=\"" + escape(to.getKey()) + "\"",
+                            to.getValue().matches.sum());
+                }
+            }
+        }
+        admission(out, registries);
+        bulkheads(out, registries);
+        return out.toString();
+    }
+
+    private static void bulkheads(StringBuilder out, Collection<? extends GraphMetrics<?>> registries) {
+        boolean any = false;
+        for (GraphMetrics<?> metrics : registries) {
+            any |= !metrics.bulkheads.isEmpty();
+        }
+        if (!any) {
+            return;
+        }
+        family(out, "langgraph4j_bulkhead_active", "gauge", "Node runs holding a bulkhead slot");
+        for (GraphMetrics<?> metrics : registries) {
+            for (Map.Entry<String, Bulkhead> node : new TreeMap<>(metrics.bulkheads).entrySet()) {
+                sample(out, "langgraph4j_bulkhead_active", metrics.labels("node", node.getKey()),
+                        node.getValue().getActive());
+            }
+        }
+        family(out, "langgraph4j_bulkhead_queue_depth", "gauge", "Node runs waiting for a bulkhead slot");
+        for (GraphMetrics<?> metrics : registries) {
+            for (Map.Entry<String, Bulkhead> node : new TreeMap<>(metrics.bulkheads).entrySet()) {
+                sample(out, "langgraph4j_bulkhead_queue_depth", metrics.labels("node", node.getKey()),
+                        node.getValue().getQueueDepth());
+            }
+        }
+        family(out, "langgraph4j_bulkhead_wait_seconds", "summary", "Time node runs waited for a bulkhead slot");
+        for (GraphMetrics<?> metrics : registries) {
+            for (Map.Entry<String, Bulkhead> node : new TreeMap<>(metrics.bulkheads).entrySet()) {
+                LatencyHistogram wait = node.getValue().getWaitTime();
+                String labels = metrics.labels("node", node.getKey());
+                for (double quantile : QUANTILES) {
+                    sample(out, "langgraph4j_bulkhead_wait_seconds",
+                            labels + ",quantile=\"" + quantile + "\"",
+                            seconds(wait.getValueAtPercentile(quantile * 100)));
+                }
+                sample(out, "langgraph4j_bulkhead_wait_seconds_sum", labels, seconds(wait.getSum()));
+                sample(out, "langgraph4j_bulkhead_wait_seconds_count", labels, wait.getCount());
+            }
+        }
+        family(out, "langgraph4j_bulkhead_rejected_total", "counter", "Node runs rejected by a full bulkhead queue");
+        for (GraphMetrics<?> metrics : registries) {
+            for (Map.Entry<String, Bulkhead> node : new TreeMap<>(metrics.bulkheads).entrySet()) {
+                sample(out, "langgraph4j_bulkhead_rejected_total", metrics.labels("node", node.getKey()),
+                        node.getValue().getRejected());
+            }
+        }
+    }
+
+    private static void admission(StringBuilder out, Collection<? extends GraphMetrics<?>> registries) {
+        List<GraphMetrics<?>> monitored = new ArrayList<>();
+        for (GraphMetrics<?> metrics : registries) {
+            if (metrics.admission != null) {
+                monitored.add(metrics);
+            }
+        }
+        if (monitored.isEmpty()) {
+            return;
+        }
+        family(out, "langgraph4j_admission_in_flight", "gauge", "Executions admitted and running");
+        for (GraphMetrics<?> metrics : monitored) {
+            sample(out, "langgraph4j_admission_in_flight", metrics.labels(), metrics.admission.getInFlight());
+        }
+        family(out, "langgraph4j_admission_queue_depth", "gauge", "Executions waiting for admission");
+        for (GraphMetrics<?> metrics : monitored) {
+            sample(out, "langgraph4j_admission_queue_depth", metrics.labels(), metrics.admission.getQueueDepth());
+        }
+        family(out, "langgraph4j_admission_oldest_wait_seconds", "gauge", "How long the oldest queued execution has waited");
+        for (GraphMetrics<?> metrics : monitored) {
+            sample(out, "langgraph4j_admission_oldest_wait_seconds", metrics.labels(),
+                    seconds(metrics.admission.getOldestQueueWaitNanos()));
+        }
+        family(out, "langgraph4j_admission_queue_wait_seconds", "summary", "Time admitted executions spent queued");
+        for (GraphMetrics<?> metrics : monitored) {
+            LatencyHistogram wait = metrics.admission.getQueueWait();
+            for (double quantile : QUANTILES) {
+                sample(out, "langgraph4j_admission_queue_wait_seconds",
+                        metrics.labels() + ",quantile=\"" + quantile + "\"",
+                        seconds(wait.getValueAtPercentile(quantile * 100)));
+            }
+            sample(out, "langgraph4j_admission_queue_wait_seconds_sum", metrics.labels(), seconds(wait.getSum()));
+            sample(out, "langgraph4j_admission_queue_wait_seconds_count", metrics.labels(), wait.getCount());
+        }
+        family(out, "langgraph4j_admission_rejected_total", "counter", "Executions shed by admission control");
+        for (GraphMetrics<?> metrics : monitored) {
+            for (AdmissionControl.Reason reason : AdmissionControl.Reason.values()) {
+                sample(out, "langgraph4j_admission_rejected_total", metrics.labels("reason", reason.name()),
+                        metrics.admission.getRejected(reason));
+            }
+        }
+    }
+
+    private static void nodeCounter(StringBuilder out, Collection<? extends GraphMetrics<?>> registries,
+                                    String name, String help, Function<NodeMetrics, LongAdder> selector) {
+        family(out, name, "counter", help);
+        for (GraphMetrics<?> metrics : registries) {
+            for (Map.Entry<String, NodeMetrics> node : new TreeMap<>(metrics.nodes).entrySet()) {
+                sample(out, name, metrics.labels("node", node.getKey()), selector.apply(node.getValue()).sum());
+            }
+        }
+    }
+
+    private String labels() {
+        return "graph=\"" + escape(graphName) + "\"";
+    }
+
+    private String labels(String name, String value) {
+        return labels() + "," + name + "=\"" + escape(value) + "\"";
+    }
+
+    private static void family(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    @Override
+    public String toString() {
+        return "GraphMetrics{" +
+                "graphName='" + graphName + '\'' +
+                ", started=" + getExecutionsStarted() +
+                ", inFlight=" + getExecutionsInFlight() +
+                ", nodes=" + nodes.size() +
+                '}';
+    }
+
+    private static final class NodeMetrics {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder pauses = new LongAdder();
+    }
+
+    private static final class ConditionMetrics {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder matches = new LongAdder();
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.fal1winter.langgraph4j.metrics;
+
+/**
+ * JMX view of a {@link GraphMetrics}
+ */
+public interface GraphMetricsMBean {
+
+    long getExecutionsStarted();
+
+    long getExecutionsCompleted();
+
+    long getExecutionsFailed();
+
+    long getExecutionsInFlight();
+
+    long getHumanInputPauses();
+
+    /**
+     * Nodes that have reported at least one event
+     */
+    String[] getNodeNames();
+
+    long getNodeCount(String nodeName);
+
+    long getNodeErrors(String nodeName);
+
+    long getNodeRetries(String nodeName);
+
+    /**
+     * Latency of {@code nodeName} at the given percentile (0-100), in nanoseconds
+     */
+    long getNodeLatencyPercentileNanos(String nodeName, double percentile);
+
+    long getTransitionCount(String from, String to);
+
+    /**
+     * Evaluations of the predicate on the edge {@code from -> to}; recorded with adaptive edge ordering
+     */
+    long getConditionEvaluations(String from, String to);
+
+    long getConditionMatches(String from, String to);
+
+    /**
+     * Predicate evaluation time of the edge {@code from -> to} at the given percentile (0-100), in nanoseconds
+     */
+    long getConditionLatencyPercentileNanos(String from, String to, double percentile);
+
+    /**
+     * Executions running under the monitored admission control; 0 if none is monitored
+     */
+    long getAdmissionInFlight();
+
+    long getAdmissionQueueDepth();
+
+    /**
+     * Admission queue wait at the given percentile (0-100), in nanoseconds
+     */
+    long getAdmissionQueueWaitPercentileNanos(double percentile);
+
+    long getAdmissionRejected();
+
+    /**
+     * Runs of {@code node} waiting for a slot of its monitored bulkhead; 0 if none is monitored
+     */
+    long getBulkheadQueueDepth(String node);
+
+    /**
+     * Bulkhead wait of {@code node} at the given percentile (0-100), in nanoseconds
+     */
+    long getBulkheadWaitPercentileNanos(String node, double percentile);
+
+    long getBulkheadRejected(String node);
+
+    /**
+     * All metrics in the Prometheus text exposition format
+     */
+    String scrape();
+}
@@ -0,0 +1,85 @@
+package io.github.fal1winter.langgraph4j.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Minimal HTTP endpoint serving {@link GraphMetrics} in the Prometheus text format
+ * Built on the JDK's own HTTP server, so it needs no extra dependencies.
+ * Scrapes are answered on a single background thread.
+ */
+public final class PrometheusEndpoint implements AutoCloseable {
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+    private final List<GraphMetrics<?>> registries;
+
+    private PrometheusEndpoint(HttpServer server, List<GraphMetrics<?>> registries) {
+        this.server = server;
+        this.registries = registries;
+    }
+
+    /**
+     * Serve the given metrics on {@code http://<host>:<port>/metrics}; port 0 picks a free port
+     */
+    public static PrometheusEndpoint start(int port, GraphMetrics<?>... registries) throws IOException {
+        return start(new InetSocketAddress(port), "/metrics", registries);
+    }
+
+    public static PrometheusEndpoint start(InetSocketAddress address, String path,
+                                           GraphMetrics<?>... registries) throws IOException {
+        if (registries.length == 0) {
+            throw new IllegalArgumentException("At least one GraphMetrics is required");
+        }
+        HttpServer server = HttpServer.create(address, 0);
+        PrometheusEndpoint endpoint = new PrometheusEndpoint(server, Arrays.asList(registries.clone()));
+        server.createContext(path, exchange -> {
+            try {
+                if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+                byte[] body = endpoint.scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                if ("HEAD".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(200, -1);
+                    return;
+                }
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        return endpoint;
+    }
+
+    /**
+     * The text a scrape would return right now
+     */
+    public String scrape() {
+        return GraphMetrics.scrape(registries);
+    }
+
+    /**
+     * Port the endpoint listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.fal1winter.langgraph4j.persistence;
+
+import io.github.fal1winter.langgraph4j.core.State;
+
+/**
+ * A saved position in a workflow execution
+ *
+ * @param <S> the state type
+ */
+public final class Checkpoint<S extends State> {
+
+    private final String checkpointId;
+    private final S state;
+    private final String nodeName;
+    private final String nextNode;
+    private final int iterations;
+
+    Checkpoint(String checkpointId, S state, String nodeName, String nextNode, int iterations) {
+        this.checkpointId = checkpointId;
+        this.state = state;
+        this.nodeName = nodeName;
+        this.nextNode = nextNode;
+        this.iterations = iterations;
+    }
+
+    public String getCheckpointId() {
+        return checkpointId;
+    }
+
+    public S getState() {
+        return state;
+    }
+
+    /**
+     * Last node that completed before the checkpoint, or null if none has
+     */
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    /**
+     * Node to continue with, or null if it still has to be routed from {@link #getNodeName()}
+     */
+    public String getNextNode() {
+        return nextNode;
+    }
+
+    /**
+     * Number of steps executed before the checkpoint
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String toString() {
+        return "Checkpoint{" +
+                "checkpointId='" + checkpointId + '\'' +
+                ", nodeName='" + nodeName + '\'' +
+                ", nextNode='" + nextNode + '\'' +
+                ", iterations=" + iterations +
+                '}';
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.fal1winter.langgraph4j.persistence;
+
+import io.github.fal1winter.langgraph4j.core.State;
+
+/**
+ * Saves workflow progress to a {@link StateStore} while a graph executes
+ * A checkpoint is written after steps chosen by the policy and always when the
+ * workflow pauses for human input. It is stored under the execution id and
+ * removed once the workflow completes, so a failed or interrupted run can be
+ * continued with {@code Graph.resume}.
+ *
+ * @param <S> the state type
+ */
+public class Checkpointer<S extends State> {
+
+    static final String NODE_KEY = "__checkpoint_node__";
+    static final String NEXT_KEY = "__checkpoint_next__";
+    static final String ITERATIONS_KEY = "__checkpoint_iterations__";
+
+    private final StateStore<S> store;
+    private final int interval;
+
+    private Checkpointer(StateStore<S> store, int interval) {
+        if (store == null) {
+            throw new IllegalArgumentException("State store cannot be null");
+        }
+        this.store = store;
+        this.interval = interval;
+    }
+
+    /**
+     * Checkpoint after every step
+     */
+    public static <S extends State> Checkpointer<S> everyStep(StateStore<S> store) {
+        return new Checkpointer<>(store, 1);
+    }
+
+    /**
+     * Checkpoint after every {@code steps} steps
+     */
+    public static <S extends State> Checkpointer<S> everySteps(StateStore<S> store, int steps) {
+        if (steps <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+        return new Checkpointer<>(store, steps);
+    }
+
+    /**
+     * Checkpoint only when the workflow pauses for human input
+     */
+    public static <S extends State> Checkpointer<S> onPause(StateStore<S> store) {
+        return new Checkpointer<>(store, 0);
+    }
+
+    /**
+     * Whether a checkpoint is due after the given number of steps
+     */
+    public boolean isDue(int iterations) {
+        return interval > 0 && iterations % interval == 0;
+    }
+
+    /**
+     * Save a snapshot of the state and the position in the graph
+     */
+    public void save(String checkpointId, S state, String nodeName, String nextNode, int iterations) throws Exception {
+        S snapshot = state.copy();
+        snapshot.put(NODE_KEY, nodeName);
+        snapshot.put(ITERATIONS_KEY, iterations);
+        if (nextNode != null) {
+            snapshot.put(NEXT_KEY, nextNode);
+        }
+        store.save(checkpointId, snapshot);
+    }
+
+    /**
+     * Load a checkpoint; the returned state is a fresh copy without the position keys
+     */
+    public Checkpoint<S> load(String checkpointId) throws Exception {
+        S state = store.load(checkpointId).copy();
+        String nodeName = state.get(NODE_KEY);
+        if (nodeName == null) {
+            throw new IllegalStateException("Not a workflow checkpoint: " + checkpointId);
+        }
+        String nextNode = state.get(NEXT_KEY);
+        int iterations = state.get(ITERATIONS_KEY, 0);
+        state.remove(NODE_KEY);
+        state.remove(NEXT_KEY);
+        state.remove(ITERATIONS_KEY);
+        return new Checkpoint<>(checkpointId, state, nodeName, nextNode, iterations);
+    }
+
+    public boolean exists(String checkpointId) {
+        return store.exists(checkpointId);
+    }
+
+    public void delete(String checkpointId) throws Exception {
+        store.delete(checkpointId);
+    }
+
+    public StateStore<S> getStore() {
+        return store;
+    }
+}
@@ -0,0 +1,408 @@
+package io.github.fal1winter.langgraph4j.persistence;
+
+import io.github.fal1winter.langgraph4j.core.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durable write-ahead journal of workflow executions
+ * The graph appends a record when an execution starts, after every step and when
+ * it ends. A step record holds only the node, the routed next node and the state
+ * keys the step changed, so journaling every step costs far less than saving the
+ * whole state. Records from concurrent executions share one fsync (group commit);
+ * by default a step does not proceed until its record is durable.
+ *
+ * After a crash, {@link #recover()} rebuilds every execution that had neither
+ * completed nor failed from the journal, as checkpoints to continue with {@code Graph.resume}. Old
+ * segments are periodically compacted into one snapshot per execution still in
+ * flight, so the journal stays proportional to the work in progress.
+ *
+ * Changes are detected by comparing values with the previous step. Values other
+ * than strings, boxed primitives and enums are written again whenever the same
+ * instance is still in the state, since they may have been mutated in place.
+ * Values must be serializable.
+ *
+ * @param <S> the state type
+ */
+public class ExecutionJournal<S extends State> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionJournal.class);
+
+    private static final byte SNAPSHOT = 1;
+    private static final byte STEP = 2;
+    private static final byte END = 3;
+
+    private final JournalLog journal;
+    private final boolean waitForCommit;
+    private final int compactAfterSegments;
+    private final Map<String, Tracked> executions = new ConcurrentHashMap<>();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    // Held while reading or rewriting sealed segments, so recovery never sees a half-compacted journal
+    private final Object segmentsLock = new Object();
+    // Guarded by segmentsLock
+    private boolean closed;
+    private final LongAdder records = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    /**
+     * Last journaled contents of an execution's state, to compute the next step's delta
+     */
+    private static final class Tracked {
+        Map<String, Object> data;
+    }
+
+    /**
+     * An execution as rebuilt from the journal
+     */
+    private static final class Replayed<S extends State> {
+        S state;
+        String nodeName;
+        String nextNode;
+        int iterations;
+    }
+
+    private ExecutionJournal(Builder<S> builder) throws IOException {
+        this.waitForCommit = builder.waitForCommit;
+        this.compactAfterSegments = builder.compactAfterSegments;
+        this.journal = new JournalLog(builder.directory, builder.segmentBytes,
+                builder.commitInterval.toNanos(), builder.maxBatchBytes, rolled -> maybeCompact());
+        maybeCompact();
+    }
+
+    /**
+     * Record the start of an execution, or its continuation from a checkpoint
+     *
+     * @param nodeName last node completed before this point, or null if none has
+     * @param nextNode node to continue with, or null to start at the entry point or route from {@code nodeName}
+     */
+    public void begin(String executionId, S state, String nodeName, String nextNode, int iterations) throws IOException {
+        Tracked tracked = new Tracked();
+        tracked.data = new HashMap<>(state.getData());
+        executions.put(executionId, tracked);
+        write(snapshot(executionId, state, nodeName, nextNode, iterations));
+    }
+
+    /**
+     * Record a completed step and where the execution goes next
+     *
+     * @param nextNode routed next node, or null if routing happens on resume
+     */
+    public void step(String executionId, S state, String nodeName, String nextNode, int iterations) throws IOException {
+        Tracked tracked = executions.get(executionId);
+        if (tracked == null) {
+            // Not begun in this journal, so there is nothing to apply a delta to
+            begin(executionId, state, nodeName, nextNode, iterations);
+            return;
+        }
+        Map<String, Object> current = state.getData();
+        Map<String, Object> changed = new HashMap<>();
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            Object previous = tracked.data.get(entry.getKey());
+            Object value = entry.getValue();
+            if (previous == null && !tracked.data.containsKey(entry.getKey())
+                    || (previous == value ? !isImmutable(value) : !Objects.equals(previous, value))) {
+                changed.put(entry.getKey(), value);
+            }
+        }
+        ArrayList<String> removed = new ArrayList<>();
+        for (String key : tracked.data.keySet()) {
+            if (!current.containsKey(key)) {
+                removed.add(key);
+            }
+        }
+        tracked.data = new HashMap<>(current);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeByte(STEP);
+            out.writeUTF(executionId);
+            out.writeObject(nodeName);
+            out.writeObject(nextNode);
+            out.writeInt(iterations);
+            out.writeObject(changed);
+            out.writeObject(removed);
+            out.writeObject(state.getError());
+            out.writeBoolean(state.isNeedsHumanInput());
+            out.writeObject(state.getHumanInput());
+        }
+        write(buffer.toByteArray());
+    }
+
+    /**
+     * Record that an execution completed or failed, so it is not recovered
+     */
+    public void end(String executionId) throws IOException {
+        executions.remove(executionId);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeByte(END);
+            out.writeUTF(executionId);
+        }
+        write(buffer.toByteArray());
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value == null || value instanceof String || value instanceof Integer || value instanceof Long
+                || value instanceof Double || value instanceof Float || value instanceof Short
+                || value instanceof Byte || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum;
+    }
+
+    private byte[] snapshot(String executionId, S state, String nodeName, String nextNode, int iterations)
+            throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeByte(SNAPSHOT);
+            out.writeUTF(executionId);
+            out.writeObject(nodeName);
+            out.writeObject(nextNode);
+            out.writeInt(iterations);
+            out.writeObject(state);
+        }
+        return buffer.toByteArray();
+    }
+
+    private void write(byte[] payload) throws IOException {
+        long sequence = journal.append(payload);
+        records.increment();
+        bytes.add(payload.length);
+        if (waitForCommit) {
+            journal.awaitCommit(sequence);
+        }
+    }
+
+    /**
+     * Executions that started but did not end, rebuilt from the journal
+     * Continue each with {@code Graph.resume(checkpoint)}; discard the ones that should not
+     * be continued with {@link #end}. Call before starting new executions on this journal.
+     */
+    public List<Checkpoint<S>> recover() throws IOException {
+        Map<String, Replayed<S>> replayed;
+        synchronized (segmentsLock) {
+            replayed = replay(journal.segments());
+        }
+        List<Checkpoint<S>> checkpoints = new ArrayList<>(replayed.size());
+        for (Map.Entry<String, Replayed<S>> entry : replayed.entrySet()) {
+            Replayed<S> execution = entry.getValue();
+            Tracked tracked = new Tracked();
+            tracked.data = new HashMap<>(execution.state.getData());
+            executions.put(entry.getKey(), tracked);
+            checkpoints.add(new Checkpoint<>(entry.getKey(), execution.state.copy(),
+                    execution.nodeName, execution.nextNode, execution.iterations));
+        }
+        if (!checkpoints.isEmpty()) {
+            log.info("Recovered {} in-flight executions from the journal", checkpoints.size());
+        }
+        return checkpoints;
+    }
+
+    /**
+     * Rewrite the sealed segments as one snapshot per execution still in flight
+     */
+    public void compact() throws IOException {
+        synchronized (segmentsLock) {
+            List<Path> sealed = journal.sealedSegments();
+            Map<String, Replayed<S>> replayed = replay(sealed);
+            List<byte[]> snapshots = new ArrayList<>(replayed.size());
+            for (Map.Entry<String, Replayed<S>> entry : replayed.entrySet()) {
+                Replayed<S> execution = entry.getValue();
+                snapshots.add(snapshot(entry.getKey(), execution.state,
+                        execution.nodeName, execution.nextNode, execution.iterations));
+            }
+            journal.replace(sealed, snapshots);
+            log.debug("Compacted {} journal segments into {} snapshots", sealed.size(), snapshots.size());
+        }
+    }
+
+    private void maybeCompact() {
+        if (compactAfterSegments <= 0 || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                synchronized (segmentsLock) {
+                    if (!closed && journal.sealedSegments().size() >= compactAfterSegments) {
+                        compact();
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Journal compaction failed", e);
+            } finally {
+                compacting.set(false);
+            }
+        }, "langgraph4j-journal-compaction");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private Map<String, Replayed<S>> replay(List<Path> segments) throws IOException {
+        Map<String, Replayed<S>> replayed = new LinkedHashMap<>();
+        for (Path segment : segments) {
+            JournalLog.read(segment, payload -> apply(replayed, payload));
+        }
+        return replayed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(Map<String, Replayed<S>> replayed, byte[] payload) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            byte type = in.readByte();
+            String executionId = in.readUTF();
+            if (type == END) {
+                replayed.remove(executionId);
+                return;
+            }
+            String nodeName = (String) in.readObject();
+            String nextNode = (String) in.readObject();
+            int iterations = in.readInt();
+            Replayed<S> execution;
+            if (type == SNAPSHOT) {
+                execution = new Replayed<>();
+                execution.state = (S) in.readObject();
+                replayed.put(executionId, execution);
+            } else {
+                execution = replayed.get(executionId);
+                if (execution == null) {
+                    // Its snapshot was compacted away after it ended
+                    return;
+                }
+                Map<String, Object> changed = (Map<String, Object>) in.readObject();
+                List<String> removed = (List<String>) in.readObject();
+                for (Map.Entry<String, Object> entry : changed.entrySet()) {
+                    execution.state.put(entry.getKey(), entry.getValue());
+                }
+                for (String key : removed) {
+                    execution.state.remove(key);
+                }
+                execution.state.setError((String) in.readObject());
+                boolean needsHumanInput = in.readBoolean();
+                execution.state.setHumanInput((String) in.readObject());
+                execution.state.setNeedsHumanInput(needsHumanInput);
+            }
+            execution.nodeName = nodeName;
+            execution.nextNode = nextNode;
+            execution.iterations = iterations;
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Corrupt journal record", e);
+        }
+    }
+
+    /**
+     * Records appended since the journal was opened
+     */
+    public long getRecordsWritten() {
+        return records.sum();
+    }
+
+    /**
+     * Group commits (one write and fsync each) since the journal was opened
+     */
+    public long getCommits() {
+        return journal.getCommits();
+    }
+
+    /**
+     * Payload bytes appended since the journal was opened
+     */
+    public long getBytesWritten() {
+        return bytes.sum();
+    }
+
+    /**
+     * Commit pending records and close the journal, after any compaction in progress
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (segmentsLock) {
+            closed = true;
+        }
+        journal.close();
+    }
+
+    /**
+     * Builder for ExecutionJournal
+     */
+    public static <S extends State> Builder<S> builder(String directory) {
+        return new Builder<>(Paths.get(directory));
+    }
+
+    public static class Builder<S extends State> {
+        private final Path directory;
+        private Duration commitInterval = Duration.ZERO;
+        private int maxBatchBytes = 1024 * 1024;
+        private boolean waitForCommit = true;
+        private long segmentBytes = 64L * 1024 * 1024;
+        private int compactAfterSegments = 4;
+
+        private Builder(Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * How long the committer waits for more records before an fsync
+         * With zero, records that arrive while an fsync is in progress share the next one.
+         */
+        public Builder<S> commitInterval(Duration commitInterval) {
+            if (commitInterval.isNegative()) {
+                throw new IllegalArgumentException("Commit interval cannot be negative");
+            }
+            this.commitInterval = commitInterval;
+            return this;
+        }
+
+        /**
+         * Commit early once this many bytes are pending
+         */
+        public Builder<S> maxBatchBytes(int maxBatchBytes) {
+            if (maxBatchBytes <= 0) {
+                throw new IllegalArgumentException("Max batch bytes must be positive");
+            }
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
+        /**
+         * Whether a step waits until its record is fsynced; without it a crash may lose
+         * the steps of the last commit interval
+         */
+        public Builder<S> waitForCommit(boolean waitForCommit) {
+            this.waitForCommit = waitForCommit;
+            return this;
+        }
+
+        /**
+         * Size after which a new segment is started
+         */
+        public Builder<S> segmentBytes(long segmentBytes) {
+            if (segmentBytes <= 0) {
+                throw new IllegalArgumentException("Segment bytes must be positive");
+            }
+            this.segmentBytes = segmentBytes;
+            return this;
+        }
+
+        /**
+         * Compact once this many sealed segments have accumulated; 0 compacts only on {@link #compact()}
+         */
+        public Builder<S> compactAfterSegments(int compactAfterSegments) {
+            if (compactAfterSegments < 0) {
+                throw new IllegalArgumentException("Compaction threshold cannot be negative");
+            }
+            this.compactAfterSegments = compactAfterSegments;
+            return this;
+        }
+
+        public ExecutionJournal<S> build() throws IOException {
+            return new ExecutionJournal<>(this);
+        }
+    }
+}
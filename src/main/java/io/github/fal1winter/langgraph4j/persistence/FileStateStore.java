@@ -3,9 +3,13 @@ package io.github.fal1winter.langgraph4j.persistence;
 import io.github.fal1winter.langgraph4j.core.State;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -13,15 +17,31 @@ import java.util.stream.Collectors;
 /**
  * File-based state store implementation
  * Stores state as serialized objects in the filesystem
+ * A save writes a temporary file of its own and renames it over the previous one,
+ * so a reader never sees a partly written checkpoint, and concurrent saves of the
+ * same id do not write into each other. With {@code sync} enabled the file is
+ * forced to disk before the rename, and the rename before the save returns.
+ * For saving every step of many executions, {@link ExecutionJournal} is much cheaper.
  *
  * @param <S> the state type
  */
 public class FileStateStore<S extends State> implements StateStore<S> {
 
+    private static final int BUFFER_SIZE = 8192;
+
     private final Path storageDir;
+    private final boolean sync;
 
     public FileStateStore(String storagePath) {
+        this(storagePath, false);
+    }
+
+    /**
+     * @param sync whether each save is forced to disk before it returns
+     */
+    public FileStateStore(String storagePath, boolean sync) {
         this.storageDir = Paths.get(storagePath);
+        this.sync = sync;
         try {
             Files.createDirectories(storageDir);
         } catch (IOException e) {
@@ -32,9 +52,24 @@ public class FileStateStore<S extends State> implements StateStore<S> {
     @Override
     public void save(String checkpointId, S state) throws Exception {
         Path filePath = getFilePath(checkpointId);
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(filePath.toFile()))) {
-            oos.writeObject(state);
+        Path tempPath = Files.createTempFile(storageDir, checkpointId + ".", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                ObjectOutputStream oos = new ObjectOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+                oos.writeObject(state);
+                oos.flush();
+                if (sync) {
+                    channel.force(false);
+                }
+            }
+            Files.move(tempPath, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+        if (sync) {
+            JournalLog.forceDirectory(storageDir);
         }
     }
 
@@ -46,7 +81,7 @@ public class FileStateStore<S extends State> implements StateStore<S> {
             throw new FileNotFoundException("Checkpoint not found: " + checkpointId);
         }
         try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream(filePath.toFile()))) {
+                new BufferedInputStream(Files.newInputStream(filePath), BUFFER_SIZE))) {
             return (S) ois.readObject();
         }
     }
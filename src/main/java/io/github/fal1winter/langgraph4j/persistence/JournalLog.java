@@ -0,0 +1,357 @@
+package io.github.fal1winter.langgraph4j.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of framed records in numbered segment files, written with group commit
+ * Appending threads hand their records to a single committer thread, which writes
+ * everything that has accumulated since the last fsync in one write and one
+ * {@code force}. Each record is framed as length, CRC-32 and payload, so a torn
+ * write at the end of a segment is detected and cut off when the log is opened.
+ */
+final class JournalLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalLog.class);
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 256 * 1024 * 1024;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long commitIntervalNanos;
+    private final int maxBatchBytes;
+    private final Consumer<JournalLog> onRoll;
+
+    private final Object lock = new Object();
+    // Guarded by lock
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appended;
+    private long committed;
+    private IOException failure;
+    private boolean closed;
+
+    // Owned by the committer thread once it runs
+    private FileChannel channel;
+    private long activeSize;
+    private volatile long activeSegment;
+    private volatile long commits;
+
+    private final Thread committer;
+
+    JournalLog(Path directory, long segmentBytes, long commitIntervalNanos, int maxBatchBytes,
+               Consumer<JournalLog> onRoll) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.commitIntervalNanos = commitIntervalNanos;
+        this.maxBatchBytes = maxBatchBytes;
+        this.onRoll = onRoll;
+        Files.createDirectories(directory);
+        List<Path> segments = segments();
+        for (Path segment : segments) {
+            truncateTornTail(segment);
+        }
+        long last = segments.isEmpty() ? 0 : segmentNumber(segments.get(segments.size() - 1));
+        openSegment(last + 1);
+        this.committer = new Thread(this::commitLoop, "langgraph4j-journal-" + directory.getFileName());
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Queue a record; the returned sequence number is durable once {@link #awaitCommit} returns
+     */
+    long append(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (failure != null) {
+                throw new IOException("Journal failed to commit", failure);
+            }
+            writeInt(pending, payload.length);
+            writeInt(pending, (int) crc.getValue());
+            pending.write(payload, 0, payload.length);
+            appended++;
+            if (appended == committed + 1 || pending.size() >= maxBatchBytes) {
+                lock.notifyAll();
+            }
+            return appended;
+        }
+    }
+
+    /**
+     * Block until the record with the given sequence number has been fsynced
+     */
+    void awaitCommit(long sequence) throws IOException {
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (committed < sequence && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    // The record is already queued; finish waiting so the caller knows its fate
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (committed < sequence) {
+                throw new IOException("Journal failed to commit", failure);
+            }
+        }
+    }
+
+    private void commitLoop() {
+        while (true) {
+            byte[] batch;
+            long sequence;
+            synchronized (lock) {
+                try {
+                    while (pending.size() == 0 && !closed) {
+                        lock.wait();
+                    }
+                    // Give other threads a chance to join this fsync
+                    long deadline = System.nanoTime() + commitIntervalNanos;
+                    long remaining;
+                    while (!closed && pending.size() < maxBatchBytes
+                            && (remaining = deadline - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (pending.size() == 0) {
+                    return;
+                }
+                batch = pending.toByteArray();
+                pending = new ByteArrayOutputStream(Math.min(batch.length, maxBatchBytes));
+                sequence = appended;
+            }
+            try {
+                write(batch);
+            } catch (IOException e) {
+                log.error("Journal commit failed in {}", directory, e);
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+            synchronized (lock) {
+                committed = sequence;
+                commits++;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void write(byte[] batch) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(batch);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        activeSize += batch.length;
+        if (activeSize >= segmentBytes) {
+            channel.close();
+            openSegment(activeSegment + 1);
+            onRoll.accept(this);
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        channel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        forceDirectory(directory);
+        activeSize = 0;
+        activeSegment = number;
+    }
+
+    /**
+     * Make file creations and renames in a directory durable
+     * Not every platform can open a directory; there the rename itself is all we get.
+     */
+    static void forceDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            log.debug("Cannot force directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * All segments, oldest first, including the one being written
+     */
+    List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files
+                    .filter(path -> isSegment(path.getFileName().toString()))
+                    .collect(Collectors.toList());
+            segments.sort((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)));
+            return segments;
+        }
+    }
+
+    /**
+     * Segments that are no longer written to, oldest first
+     */
+    List<Path> sealedSegments() throws IOException {
+        long active = activeSegment;
+        List<Path> sealed = new ArrayList<>();
+        for (Path segment : segments()) {
+            if (segmentNumber(segment) < active) {
+                sealed.add(segment);
+            }
+        }
+        return sealed;
+    }
+
+    /**
+     * Replace sealed segments with one holding the given records
+     * The new segment takes the place of the newest one it replaces, so segments
+     * written later still replay after it. Older segments are deleted only after
+     * it is durable; if that is interrupted, replaying them first is harmless as
+     * long as the records in the new segment supersede theirs.
+     */
+    void replace(List<Path> sealed, List<byte[]> payloads) throws IOException {
+        if (sealed.isEmpty()) {
+            return;
+        }
+        Path target = sealed.get(sealed.size() - 1);
+        Path temp = target.resolveSibling(target.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteArrayOutputStream frames = new ByteArrayOutputStream();
+            for (byte[] payload : payloads) {
+                CRC32 crc = new CRC32();
+                crc.update(payload, 0, payload.length);
+                writeInt(frames, payload.length);
+                writeInt(frames, (int) crc.getValue());
+                frames.write(payload, 0, payload.length);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(frames.toByteArray());
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(false);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(directory);
+        for (Path segment : sealed.subList(0, sealed.size() - 1)) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    /**
+     * Read the intact records of a segment, returning the length of its intact prefix
+     */
+    static long read(Path segment, Consumer<byte[]> consumer) throws IOException {
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            while (true) {
+                int length;
+                int checksum;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                } catch (EOFException e) {
+                    return valid;
+                }
+                if (length < 0 || length > MAX_RECORD_BYTES) {
+                    return valid;
+                }
+                byte[] payload = new byte[length];
+                try {
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    return valid;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    return valid;
+                }
+                consumer.accept(payload);
+                valid += HEADER_BYTES + length;
+            }
+        }
+    }
+
+    private static void truncateTornTail(Path segment) throws IOException {
+        long valid = read(segment, payload -> { });
+        long size = Files.size(segment);
+        if (valid < size) {
+            log.warn("Truncating {} torn bytes at the end of {}", size - valid, segment);
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+    }
+
+    long getCommits() {
+        return commits;
+    }
+
+    /**
+     * Commit what is pending and stop the committer thread
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        synchronized (lock) {
+            if (failure != null) {
+                throw new IOException("Journal failed to commit", failure);
+            }
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(PREFIX + String.format("%016d", number) + SUFFIX);
+    }
+
+    private static boolean isSegment(String name) {
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+}
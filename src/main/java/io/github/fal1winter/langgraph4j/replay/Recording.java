@@ -0,0 +1,504 @@
+package io.github.fal1winter.langgraph4j.replay;
+
+import io.github.fal1winter.langgraph4j.agent.Tool;
+import io.github.fal1winter.langgraph4j.agent.ToolCallingLLM;
+import io.github.fal1winter.langgraph4j.core.CancellationToken;
+import io.github.fal1winter.langgraph4j.core.Router;
+import io.github.fal1winter.langgraph4j.core.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Record of the nondeterministic inputs of a run, for reproducing it offline
+ *
+ * In {@link Mode#RECORD} mode, the wrappers returned by {@link #llm}, {@link #tool},
+ * {@link #router} and {@link #clock} call through and append what they returned to
+ * a file. In {@link Mode#REPLAY} mode they return the recorded values in the same
+ * order without calling anything, so a run is reproduced at CPU speed and without
+ * network access. Each LLM and tool record carries a fingerprint of its prompt or
+ * parameters; a replay that asks something else fails with an
+ * {@link IllegalStateException} at the first point where it diverges.
+ *
+ * Records are kept in one sequence per LLM, tool, router and clock name, so record
+ * one execution at a time, or executions whose steps do not interleave.
+ * The file is complete once the recording is closed.
+ */
+public final class Recording implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(Recording.class);
+
+    private static final int MAGIC = 0x4c47_5243; // "LGRC"
+    private static final int VERSION = 1;
+
+    private static final byte END = 0;
+    private static final byte LLM = 1;
+    private static final byte TOOL = 2;
+    private static final byte ROUTE = 3;
+    private static final byte TIME = 4;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte SERIALIZED = 2;
+
+    /**
+     * Whether the wrappers call through and record, or return what was recorded
+     */
+    public enum Mode {
+        RECORD,
+        REPLAY
+    }
+
+    private final Mode mode;
+    private final Path file;
+
+    // Record mode, guarded by this
+    private DataOutputStream out;
+    private final Map<String, Integer> keyIds = new HashMap<>();
+
+    // Replay mode, guarded by this
+    private final Map<String, ArrayDeque<Entry>> recorded = new HashMap<>();
+
+    private long entries;
+    private boolean closed;
+
+    private static final class Entry {
+        final byte kind;
+        final int fingerprint;
+        final Object value;
+        final boolean failed;
+
+        Entry(byte kind, int fingerprint, Object value, boolean failed) {
+            this.kind = kind;
+            this.fingerprint = fingerprint;
+            this.value = value;
+            this.failed = failed;
+        }
+    }
+
+    private Recording(Mode mode, Path file) throws IOException {
+        this.mode = mode;
+        this.file = file;
+        if (mode == Mode.RECORD) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file))));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+        } else {
+            load();
+        }
+    }
+
+    /**
+     * Start recording to {@code file}, replacing it if it exists
+     */
+    public static Recording record(Path file) throws IOException {
+        return new Recording(Mode.RECORD, file);
+    }
+
+    /**
+     * Load a recording made by {@link #record(Path)} for replay
+     */
+    public static Recording replay(Path file) throws IOException {
+        return new Recording(Mode.REPLAY, file);
+    }
+
+    /**
+     * LLM whose responses are recorded, or replayed without calling {@code delegate}
+     * When replaying, {@code delegate} may be null.
+     */
+    public ToolCallingLLM llm(String name, ToolCallingLLM delegate) {
+        String key = "llm:" + name;
+        return new ToolCallingLLM() {
+            @Override
+            public LLMResponse generate(String prompt, List<Tool> availableTools) {
+                return generate(prompt, availableTools, null);
+            }
+
+            @Override
+            public LLMResponse generate(String prompt, List<Tool> availableTools,
+                                        CancellationToken cancellationToken) {
+                int fingerprint = fingerprint(prompt);
+                if (mode == Mode.REPLAY) {
+                    return (LLMResponse) next(key, LLM, fingerprint).value;
+                }
+                LLMResponse response = cancellationToken != null
+                        ? delegate.generate(prompt, availableTools, cancellationToken)
+                        : delegate.generate(prompt, availableTools);
+                append(key, LLM, fingerprint, response, false);
+                return response;
+            }
+        };
+    }
+
+    /**
+     * Tool whose results, and failures, are recorded, or replayed without running {@code delegate}
+     * The name and description always come from {@code delegate}. A replayed failure
+     * is thrown as a plain {@link Exception} with the recorded message.
+     */
+    public Tool tool(Tool delegate) {
+        String key = "tool:" + delegate.getName();
+        return new Tool() {
+            @Override
+            public String execute(Object parameters) throws Exception {
+                return execute(parameters, null);
+            }
+
+            @Override
+            public String execute(Object parameters, CancellationToken cancellationToken) throws Exception {
+                int fingerprint = fingerprint(String.valueOf(parameters));
+                if (mode == Mode.REPLAY) {
+                    Entry entry = next(key, TOOL, fingerprint);
+                    if (entry.failed) {
+                        throw new Exception((String) entry.value);
+                    }
+                    return (String) entry.value;
+                }
+                String result;
+                try {
+                    result = cancellationToken != null
+                            ? delegate.execute(parameters, cancellationToken)
+                            : delegate.execute(parameters);
+                } catch (Exception e) {
+                    // Cancellation is not an outcome of the tool, so it is not replayed
+                    if (!(e instanceof CancellationException)) {
+                        append(key, TOOL, fingerprint, e.getMessage(), true);
+                    }
+                    throw e;
+                }
+                append(key, TOOL, fingerprint, result, false);
+                return result;
+            }
+
+            @Override
+            public String getName() {
+                return delegate.getName();
+            }
+
+            @Override
+            public String getDescription() {
+                return delegate.getDescription();
+            }
+        };
+    }
+
+    /**
+     * Router whose decisions are recorded, or replayed without calling {@code delegate}
+     */
+    public <S extends State> Router<S> router(String name, Router<S> delegate) {
+        String key = "route:" + name;
+        return state -> {
+            if (mode == Mode.REPLAY) {
+                return (String) next(key, ROUTE, 0).value;
+            }
+            String route = delegate.route(state);
+            append(key, ROUTE, 0, route, false);
+            return route;
+        };
+    }
+
+    /**
+     * Clock whose readings are recorded, or replayed in order
+     * Only {@link Clock#millis()} and {@link Clock#instant()} read the recording.
+     */
+    public Clock clock(String name) {
+        return new RecordedClock("clock:" + name, ZoneOffset.UTC);
+    }
+
+    private final class RecordedClock extends Clock {
+        private final String key;
+        private final ZoneId zone;
+
+        RecordedClock(String key, ZoneId zone) {
+            this.key = key;
+            this.zone = zone;
+        }
+
+        @Override
+        public long millis() {
+            if (mode == Mode.REPLAY) {
+                return (Long) next(key, TIME, 0).value;
+            }
+            long now = System.currentTimeMillis();
+            append(key, TIME, 0, now, false);
+            return now;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new RecordedClock(key, zone);
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Entries recorded so far, or replayed so far
+     */
+    public synchronized long getEntries() {
+        return entries;
+    }
+
+    /**
+     * Entries loaded for replay that were not asked for yet
+     */
+    public synchronized int getRemaining() {
+        int remaining = 0;
+        for (ArrayDeque<Entry> queue : recorded.values()) {
+            remaining += queue.size();
+        }
+        return remaining;
+    }
+
+    private synchronized void append(String key, byte kind, int fingerprint, Object value, boolean failed) {
+        if (closed) {
+            throw new IllegalStateException("Recording is closed: " + file);
+        }
+        try {
+            out.writeByte(kind);
+            Integer id = keyIds.get(key);
+            if (id == null) {
+                // First use of a key defines it inline; later records refer to it by number
+                id = keyIds.size();
+                keyIds.put(key, id);
+                writeVarInt(out, id);
+                writeString(out, key);
+            } else {
+                writeVarInt(out, id);
+            }
+            switch (kind) {
+                case LLM:
+                    out.writeInt(fingerprint);
+                    writeResponse(out, (ToolCallingLLM.LLMResponse) value);
+                    break;
+                case TOOL:
+                    out.writeInt(fingerprint);
+                    out.writeBoolean(failed);
+                    writeString(out, (String) value);
+                    break;
+                case ROUTE:
+                    writeString(out, (String) value);
+                    break;
+                default:
+                    out.writeLong((Long) value);
+                    break;
+            }
+            entries++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write recording " + file, e);
+        }
+    }
+
+    private synchronized Entry next(String key, byte kind, int fingerprint) {
+        ArrayDeque<Entry> queue = recorded.get(key);
+        Entry entry = queue != null ? queue.poll() : null;
+        if (entry == null) {
+            throw new IllegalStateException("Replay diverged: no more recorded entries for " + key);
+        }
+        if (entry.kind != kind || entry.fingerprint != fingerprint) {
+            throw new IllegalStateException("Replay diverged at " + key + ": the "
+                    + (kind == LLM ? "prompt" : "parameters") + " differ from the recording");
+        }
+        entries++;
+        return entry;
+    }
+
+    private void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                throw new IOException("Not a recording: " + file);
+            }
+            List<String> keys = new ArrayList<>();
+            while (true) {
+                byte kind;
+                try {
+                    kind = in.readByte();
+                } catch (EOFException e) {
+                    log.warn("Recording {} was not closed; replaying the entries it has", file);
+                    return;
+                }
+                if (kind == END) {
+                    return;
+                }
+                int id = readVarInt(in);
+                if (id == keys.size()) {
+                    keys.add(readString(in));
+                }
+                Entry entry;
+                switch (kind) {
+                    case LLM:
+                        entry = new Entry(kind, in.readInt(), readResponse(in), false);
+                        break;
+                    case TOOL: {
+                        int fingerprint = in.readInt();
+                        boolean failed = in.readBoolean();
+                        entry = new Entry(kind, fingerprint, readString(in), failed);
+                        break;
+                    }
+                    case ROUTE:
+                        entry = new Entry(kind, 0, readString(in), false);
+                        break;
+                    case TIME:
+                        entry = new Entry(kind, 0, in.readLong(), false);
+                        break;
+                    default:
+                        throw new IOException("Corrupt recording " + file + ": unknown entry kind " + kind);
+                }
+                recorded.computeIfAbsent(keys.get(id), k -> new ArrayDeque<>()).add(entry);
+            }
+        } catch (EOFException e) {
+            log.warn("Recording {} ends in a partial entry; replaying the entries before it", file);
+        }
+    }
+
+    private static int fingerprint(String text) {
+        return text != null ? text.hashCode() : 0;
+    }
+
+    private static void writeResponse(DataOutputStream out, ToolCallingLLM.LLMResponse response) throws IOException {
+        writeString(out, response.getText());
+        out.writeBoolean(response.isFinished());
+        List<ToolCallingLLM.ToolCallRequest> calls = response.getToolCalls();
+        writeVarInt(out, calls.size());
+        for (ToolCallingLLM.ToolCallRequest call : calls) {
+            writeString(out, call.getToolName());
+            writeValue(out, call.getParameters());
+        }
+    }
+
+    private static ToolCallingLLM.LLMResponse readResponse(DataInputStream in) throws IOException {
+        String text = readString(in);
+        boolean finished = in.readBoolean();
+        int count = readVarInt(in);
+        List<ToolCallingLLM.ToolCallRequest> calls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            calls.add(new ToolCallingLLM.ToolCallRequest(readString(in), readValue(in)));
+        }
+        return new ToolCallingLLM.LLMResponse(text, calls, finished);
+    }
+
+    /**
+     * Tool parameters: strings inline, anything else Java-serialized
+     */
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (ObjectOutputStream objects = new ObjectOutputStream(buffer)) {
+                objects.writeObject(value);
+            }
+            out.writeByte(SERIALIZED);
+            writeVarInt(out, buffer.size());
+            buffer.writeTo(out);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        if (tag == NULL) {
+            return null;
+        }
+        if (tag == STRING) {
+            return readString(in);
+        }
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return objects.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Recorded tool parameters of unknown class", e);
+        }
+    }
+
+    /**
+     * UTF-8 prefixed with its length plus one, or 0 for null; unlike writeUTF, not limited to 64 KB
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt recording: malformed length");
+    }
+
+    /**
+     * Finish the file; a replaying recording warns about entries that were never asked for
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (mode == Mode.RECORD) {
+            out.writeByte(END);
+            out.close();
+        } else if (getRemaining() > 0) {
+            log.warn("Replay of {} finished with {} recorded entries unused", file, getRemaining());
+        }
+    }
+}
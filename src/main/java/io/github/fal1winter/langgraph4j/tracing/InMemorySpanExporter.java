@@ -0,0 +1,41 @@
+package io.github.fal1winter.langgraph4j.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exporter that keeps finished spans in memory, for tests and debugging
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final List<SpanData> spans = new ArrayList<>();
+
+    @Override
+    public synchronized void export(SpanData span) {
+        spans.add(span);
+    }
+
+    /**
+     * Spans exported so far, in the order they ended
+     */
+    public synchronized List<SpanData> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    /**
+     * Exported spans with the given name
+     */
+    public synchronized List<SpanData> getSpans(String name) {
+        List<SpanData> matching = new ArrayList<>();
+        for (SpanData span : spans) {
+            if (span.getName().equals(name)) {
+                matching.add(span);
+            }
+        }
+        return matching;
+    }
+
+    public synchronized void reset() {
+        spans.clear();
+    }
+}
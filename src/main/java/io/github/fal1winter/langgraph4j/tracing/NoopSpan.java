@@ -0,0 +1,45 @@
+package io.github.fal1winter.langgraph4j.tracing;
+
+/**
+ * Span that records nothing and carries an existing context, possibly none
+ */
+final class NoopSpan implements Span {
+
+    static final Tracer TRACER = (name, parent) -> parent == null ? NoopSpan.EMPTY : new NoopSpan(parent);
+
+    static final NoopSpan EMPTY = new NoopSpan(null);
+
+    private final SpanContext context;
+
+    NoopSpan(SpanContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public SpanContext getContext() {
+        return context;
+    }
+
+    @Override
+    public boolean isRecording() {
+        return false;
+    }
+
+    @Override
+    public Span setAttribute(String key, String value) {
+        return this;
+    }
+
+    @Override
+    public Span setAttribute(String key, long value) {
+        return this;
+    }
+
+    @Override
+    public void recordError(Throwable error) {
+    }
+
+    @Override
+    public void end() {
+    }
+}
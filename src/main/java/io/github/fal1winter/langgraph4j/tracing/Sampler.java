@@ -0,0 +1,61 @@
+package io.github.fal1winter.langgraph4j.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether a new trace is recorded
+ * Consulted only for traces started here; spans with a parent follow the
+ * parent's sampled flag, so a trace is recorded either completely or not at all.
+ */
+@FunctionalInterface
+public interface Sampler {
+
+    boolean shouldSample();
+
+    static Sampler always() {
+        return () -> true;
+    }
+
+    static Sampler never() {
+        return () -> false;
+    }
+
+    /**
+     * Record a random {@code ratio} (0-1) of traces
+     */
+    static Sampler ratio(double ratio) {
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("Ratio must be between 0 and 1");
+        }
+        return () -> ThreadLocalRandom.current().nextDouble() < ratio;
+    }
+
+    /**
+     * Record at most {@code tracesPerSecond} traces per second, with bursts of up to one second's worth
+     * Bounds tracing overhead no matter how many executions run.
+     */
+    static Sampler rateLimited(double tracesPerSecond) {
+        if (tracesPerSecond <= 0) {
+            throw new IllegalArgumentException("Traces per second must be positive");
+        }
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / tracesPerSecond);
+        long burst = Math.max(TimeUnit.SECONDS.toNanos(1), interval);
+        // Time until which the sampled traces have used up the budget; at most one burst ahead of now
+        AtomicLong busyUntil = new AtomicLong(System.nanoTime());
+        return () -> {
+            long now = System.nanoTime();
+            while (true) {
+                long current = busyUntil.get();
+                long start = current - now > 0 ? current : now;
+                if (start + interval - now > burst) {
+                    return false;
+                }
+                if (busyUntil.compareAndSet(current, start + interval)) {
+                    return true;
+                }
+            }
+        };
+    }
+}
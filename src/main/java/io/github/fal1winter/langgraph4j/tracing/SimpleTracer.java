@@ -0,0 +1,138 @@
+package io.github.fal1winter.langgraph4j.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Self-contained {@link Tracer} that hands finished spans to a {@link SpanExporter}
+ * New traces are sampled by the {@link Sampler}; a span that is not sampled
+ * still propagates its context, with the sampled flag cleared, but records
+ * and exports nothing.
+ */
+public class SimpleTracer implements Tracer {
+
+    private static final Logger log = LoggerFactory.getLogger(SimpleTracer.class);
+
+    private final Sampler sampler;
+    private final SpanExporter exporter;
+
+    private SimpleTracer(Builder builder) {
+        this.sampler = builder.sampler;
+        this.exporter = builder.exporter;
+    }
+
+    @Override
+    public Span startSpan(String name, SpanContext parent) {
+        if (parent == null) {
+            boolean sampled = sampler.shouldSample();
+            SpanContext context = SpanContext.newTrace(sampled);
+            return sampled ? new RecordingSpan(name, context, null) : new NoopSpan(context);
+        }
+        if (!parent.isSampled()) {
+            // Unsampled traces reuse the parent's context rather than minting ids nobody records
+            return new NoopSpan(parent);
+        }
+        return new RecordingSpan(name, parent.newChild(true), parent.getSpanId());
+    }
+
+    private final class RecordingSpan implements Span {
+        private final String name;
+        private final SpanContext context;
+        private final String parentSpanId;
+        private final long startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+        private final AtomicBoolean ended = new AtomicBoolean();
+        private String error;
+
+        RecordingSpan(String name, SpanContext context, String parentSpanId) {
+            this.name = name;
+            this.context = context;
+            this.parentSpanId = parentSpanId;
+        }
+
+        @Override
+        public SpanContext getContext() {
+            return context;
+        }
+
+        @Override
+        public boolean isRecording() {
+            return !ended.get();
+        }
+
+        @Override
+        public synchronized Span setAttribute(String key, String value) {
+            attributes.put(key, value);
+            return this;
+        }
+
+        @Override
+        public synchronized Span setAttribute(String key, long value) {
+            attributes.put(key, value);
+            return this;
+        }
+
+        @Override
+        public synchronized void recordError(Throwable error) {
+            this.error = error.toString();
+        }
+
+        @Override
+        public void end() {
+            if (!ended.compareAndSet(false, true)) {
+                return;
+            }
+            SpanData data;
+            synchronized (this) {
+                data = new SpanData(name, context, parentSpanId, startEpochMicros,
+                        System.nanoTime() - startNanos, new LinkedHashMap<>(attributes), error);
+            }
+            try {
+                exporter.export(data);
+            } catch (Exception e) {
+                log.warn("Span exporter failed", e);
+            }
+        }
+    }
+
+    /**
+     * Builder for SimpleTracer
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private Sampler sampler = Sampler.always();
+        private SpanExporter exporter;
+
+        /**
+         * Which new traces to record; defaults to all of them
+         */
+        public Builder sampler(Sampler sampler) {
+            if (sampler == null) {
+                throw new IllegalArgumentException("Sampler cannot be null");
+            }
+            this.sampler = sampler;
+            return this;
+        }
+
+        public Builder exporter(SpanExporter exporter) {
+            this.exporter = exporter;
+            return this;
+        }
+
+        public SimpleTracer build() {
+            if (exporter == null) {
+                throw new IllegalStateException("Exporter is required");
+            }
+            return new SimpleTracer(this);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.fal1winter.langgraph4j.tracing;
+
+/**
+ * A timed operation within a trace, started by a {@link Tracer}
+ */
+public interface Span {
+
+    /**
+     * Identity of this span; children and outgoing calls use it as their parent
+     */
+    SpanContext getContext();
+
+    /**
+     * Whether attributes and timing are recorded and exported
+     */
+    boolean isRecording();
+
+    Span setAttribute(String key, String value);
+
+    Span setAttribute(String key, long value);
+
+    /**
+     * Mark the span as failed
+     */
+    void recordError(Throwable error);
+
+    /**
+     * Finish the span; further calls are ignored
+     */
+    void end();
+}
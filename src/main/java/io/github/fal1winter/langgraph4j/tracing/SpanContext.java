@@ -0,0 +1,181 @@
+package io.github.fal1winter.langgraph4j.tracing;
+
+import io.github.fal1winter.langgraph4j.core.State;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Identity of a span, as carried by a W3C {@code traceparent} header
+ * Executions propagate the current span through the state under
+ * {@link #STATE_KEY}, so nodes can forward it to the services they call,
+ * and an incoming {@code traceparent} placed there makes the execution part
+ * of the caller's trace.
+ */
+public final class SpanContext {
+
+    /**
+     * State key holding the {@code traceparent} of the current span
+     */
+    public static final String STATE_KEY = "traceparent";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean sampled;
+    private String traceparent;
+
+    public SpanContext(String traceId, String spanId, boolean sampled) {
+        if (!isValidId(traceId, 32) || !isValidId(spanId, 16)) {
+            throw new IllegalArgumentException("Invalid trace or span id: " + traceId + "/" + spanId);
+        }
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * A new random trace with a random root span id
+     */
+    static SpanContext newTrace(boolean sampled) {
+        return new SpanContext(randomId(2), randomId(1), sampled);
+    }
+
+    /**
+     * A random span id in this context's trace
+     */
+    SpanContext newChild(boolean sampled) {
+        return new SpanContext(traceId, randomId(1), sampled);
+    }
+
+    /**
+     * Lowercase hex of {@code longs} random non-zero 64-bit values
+     */
+    private static String randomId(int longs) {
+        char[] id = new char[longs * 16];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < longs; i++) {
+            long value;
+            do {
+                value = random.nextLong();
+            } while (value == 0);
+            for (int j = 15; j >= 0; j--) {
+                id[i * 16 + j] = HEX[(int) (value & 0xF)];
+                value >>>= 4;
+            }
+        }
+        return new String(id);
+    }
+
+    private static boolean isValidId(String id, int length) {
+        if (id == null || id.length() != length) {
+            return false;
+        }
+        boolean nonZero = false;
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+            nonZero |= c != '0';
+        }
+        return nonZero;
+    }
+
+    /**
+     * Parse a {@code traceparent} header; null if it is missing or malformed
+     */
+    public static SpanContext parse(String traceparent) {
+        if (traceparent == null || traceparent.length() < 55) {
+            return null;
+        }
+        String version = traceparent.substring(0, 2);
+        // Version ff is invalid; version 00 has exactly four fields, later versions may append more
+        if ("ff".equals(version) || ("00".equals(version) && traceparent.length() != 55)
+                || traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-'
+                || (traceparent.length() > 55 && traceparent.charAt(55) != '-')) {
+            return null;
+        }
+        String traceId = traceparent.substring(3, 35);
+        String spanId = traceparent.substring(36, 52);
+        String flags = traceparent.substring(53, 55);
+        if (!isValidId(traceId, 32) || !isValidId(spanId, 16) || !isHex(version) || !isHex(flags)) {
+            return null;
+        }
+        return new SpanContext(traceId, spanId, (Integer.parseInt(flags, 16) & 1) != 0);
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The context propagated in {@code state}, or null
+     */
+    public static SpanContext fromState(State state) {
+        Object value = state.get(STATE_KEY);
+        return value instanceof String ? parse((String) value) : null;
+    }
+
+    /**
+     * Propagate this context through {@code state}
+     */
+    public void inject(State state) {
+        state.put(STATE_KEY, toTraceparent());
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Whether the trace is being recorded
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * This context as a version 00 {@code traceparent} header value
+     */
+    public String toTraceparent() {
+        String value = traceparent;
+        if (value == null) {
+            value = "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+            traceparent = value;
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SpanContext)) {
+            return false;
+        }
+        SpanContext other = (SpanContext) o;
+        return sampled == other.sampled && traceId.equals(other.traceId) && spanId.equals(other.spanId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * traceId.hashCode() + spanId.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toTraceparent();
+    }
+}
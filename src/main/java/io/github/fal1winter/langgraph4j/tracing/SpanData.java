@@ -0,0 +1,95 @@
+package io.github.fal1winter.langgraph4j.tracing;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable record of a finished span
+ */
+public final class SpanData {
+
+    private final String name;
+    private final SpanContext context;
+    private final String parentSpanId;
+    private final long startEpochMicros;
+    private final long durationNanos;
+    private final Map<String, Object> attributes;
+    private final String error;
+
+    SpanData(String name, SpanContext context, String parentSpanId, long startEpochMicros,
+             long durationNanos, Map<String, Object> attributes, String error) {
+        this.name = name;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.startEpochMicros = startEpochMicros;
+        this.durationNanos = durationNanos;
+        this.attributes = Collections.unmodifiableMap(attributes);
+        this.error = error;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SpanContext getContext() {
+        return context;
+    }
+
+    public String getTraceId() {
+        return context.getTraceId();
+    }
+
+    public String getSpanId() {
+        return context.getSpanId();
+    }
+
+    /**
+     * Span id of the parent, or null for the root of a trace
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    /**
+     * Wall-clock start, in microseconds since the epoch
+     */
+    public long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    public Object getAttribute(String key) {
+        return attributes.get(key);
+    }
+
+    /**
+     * The error recorded on the span, if any
+     */
+    public String getError() {
+        return error;
+    }
+
+    public boolean hasError() {
+        return error != null;
+    }
+
+    @Override
+    public String toString() {
+        return "SpanData{" +
+                "name='" + name + '\'' +
+                ", traceId=" + getTraceId() +
+                ", spanId=" + getSpanId() +
+                ", parentSpanId=" + parentSpanId +
+                ", durationNanos=" + durationNanos +
+                ", attributes=" + attributes +
+                (error != null ? ", error='" + error + '\'' : "") +
+                '}';
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.fal1winter.langgraph4j.tracing;
+
+/**
+ * Receives the spans finished by a {@link SimpleTracer}
+ * Called on the thread that ends the span; implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface SpanExporter {
+
+    void export(SpanData span);
+}
@@ -0,0 +1,38 @@
+package io.github.fal1winter.langgraph4j.tracing;
+
+/**
+ * Service provider interface for tracing
+ * Set on a graph with {@code Graph.setTracer}, a tracer gets a root span per
+ * execution and a child span per node step; {@code AutoNode} adds child
+ * spans per LLM call and tool call. Implementations may bridge to a tracing
+ * library, or use {@link SimpleTracer} with a {@link SpanExporter}.
+ */
+public interface Tracer {
+
+    /** Name of the root span of an execution; node spans are named after their node */
+    String EXECUTION_SPAN = "langgraph4j.execution";
+    String LLM_SPAN = "langgraph4j.llm";
+    String TOOL_SPAN = "langgraph4j.tool";
+
+    String EXECUTION_ID = "langgraph4j.execution_id";
+    String NODE = "langgraph4j.node";
+    String ITERATION = "langgraph4j.iteration";
+    String OUTCOME = "langgraph4j.outcome";
+    String STATUS = "langgraph4j.status";
+    String TOOL = "langgraph4j.tool";
+    String TOOL_CALLS = "langgraph4j.tool_calls";
+
+    /**
+     * Start a span
+     *
+     * @param parent the parent span, or null to start a new trace
+     */
+    Span startSpan(String name, SpanContext parent);
+
+    /**
+     * Tracer whose spans record nothing and carry their parent's context
+     */
+    static Tracer noop() {
+        return NoopSpan.TRACER;
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.fal1winter.langgraph4j.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.github.fal1winter.langgraph4j.AutoNodeIteration")
+@Label("AutoNode Iteration")
+@Category("LangGraph4j")
+@Description("One LLM round trip of an AutoNode, including the tool calls it requested")
+@StackTrace(false)
+final class AutoNodeIterationEvent extends Event {
+
+    @Label("Execution Id")
+    String executionId;
+
+    @Label("Node")
+    String nodeName;
+
+    @Label("Iteration")
+    int iteration;
+
+    @Label("Tool Calls")
+    int toolCalls;
+}
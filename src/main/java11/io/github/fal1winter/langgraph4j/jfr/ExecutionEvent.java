@@ -0,0 +1,25 @@
+package io.github.fal1winter.langgraph4j.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.github.fal1winter.langgraph4j.Execution")
+@Label("Graph Execution")
+@Category("LangGraph4j")
+@Description("One execution of a graph, from its start until it completes, pauses or fails")
+@StackTrace(false)
+final class ExecutionEvent extends Event {
+
+    @Label("Execution Id")
+    String executionId;
+
+    @Label("Status")
+    String status;
+
+    @Label("Steps")
+    int steps;
+}
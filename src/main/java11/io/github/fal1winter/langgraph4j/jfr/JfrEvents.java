@@ -0,0 +1,164 @@
+package io.github.fal1winter.langgraph4j.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * Hooks that emit JDK Flight Recorder events for executions, node steps,
+ * AutoNode iterations, tool calls and LLM calls
+ * Java 11 version, loaded from {@code META-INF/versions/11} of the multi-release
+ * JAR. Each {@code begin} hook checks whether its event type is enabled and
+ * returns null, without allocating, if it is not. Runtimes without the
+ * {@code jdk.jfr} module fall back to no-ops.
+ */
+public final class JfrEvents {
+
+    private static final boolean SUPPORTED = isJfrPresent();
+
+    private JfrEvents() {
+    }
+
+    private static boolean isJfrPresent() {
+        try {
+            Class.forName("jdk.jfr.Event", false, JfrEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Event types, resolved only once the {@code jdk.jfr} module is known to be present
+     */
+    private static final class Types {
+        static final EventType EXECUTION = EventType.getEventType(ExecutionEvent.class);
+        static final EventType NODE_STEP = EventType.getEventType(NodeStepEvent.class);
+        static final EventType AUTO_NODE_ITERATION = EventType.getEventType(AutoNodeIterationEvent.class);
+        static final EventType TOOL_CALL = EventType.getEventType(ToolCallEvent.class);
+        static final EventType LLM_CALL = EventType.getEventType(LlmCallEvent.class);
+    }
+
+    /**
+     * Whether this runtime emits the events
+     */
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    public static Object beginExecution(String executionId) {
+        if (!SUPPORTED || !Types.EXECUTION.isEnabled()) {
+            return null;
+        }
+        ExecutionEvent event = new ExecutionEvent();
+        event.executionId = executionId;
+        event.begin();
+        return event;
+    }
+
+    public static void endExecution(Object handle, String status, int steps) {
+        if (handle == null) {
+            return;
+        }
+        ExecutionEvent event = (ExecutionEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.status = status;
+            event.steps = steps;
+            event.commit();
+        }
+    }
+
+    public static Object beginNodeStep(String executionId, String nodeName, int iteration) {
+        if (!SUPPORTED || !Types.NODE_STEP.isEnabled()) {
+            return null;
+        }
+        NodeStepEvent event = new NodeStepEvent();
+        event.executionId = executionId;
+        event.nodeName = nodeName;
+        event.iteration = iteration;
+        event.begin();
+        return event;
+    }
+
+    public static void endNodeStep(Object handle, String outcome) {
+        if (handle == null) {
+            return;
+        }
+        NodeStepEvent event = (NodeStepEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    public static Object beginAutoNodeIteration(String executionId, String nodeName, int iteration) {
+        if (!SUPPORTED || !Types.AUTO_NODE_ITERATION.isEnabled()) {
+            return null;
+        }
+        AutoNodeIterationEvent event = new AutoNodeIterationEvent();
+        event.executionId = executionId;
+        event.nodeName = nodeName;
+        event.iteration = iteration;
+        event.begin();
+        return event;
+    }
+
+    public static void endAutoNodeIteration(Object handle, int toolCalls) {
+        if (handle == null) {
+            return;
+        }
+        AutoNodeIterationEvent event = (AutoNodeIterationEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.toolCalls = toolCalls;
+            event.commit();
+        }
+    }
+
+    public static Object beginToolCall(String executionId, String toolName) {
+        if (!SUPPORTED || !Types.TOOL_CALL.isEnabled()) {
+            return null;
+        }
+        ToolCallEvent event = new ToolCallEvent();
+        event.executionId = executionId;
+        event.toolName = toolName;
+        event.begin();
+        return event;
+    }
+
+    public static void endToolCall(Object handle, boolean success) {
+        if (handle == null) {
+            return;
+        }
+        ToolCallEvent event = (ToolCallEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    public static Object beginLlmCall(String executionId, int availableTools) {
+        if (!SUPPORTED || !Types.LLM_CALL.isEnabled()) {
+            return null;
+        }
+        LlmCallEvent event = new LlmCallEvent();
+        event.executionId = executionId;
+        event.availableTools = availableTools;
+        event.begin();
+        return event;
+    }
+
+    public static void endLlmCall(Object handle, int toolCalls, boolean success) {
+        if (handle == null) {
+            return;
+        }
+        LlmCallEvent event = (LlmCallEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.toolCalls = toolCalls;
+            event.success = success;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.fal1winter.langgraph4j.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.github.fal1winter.langgraph4j.LlmCall")
+@Label("LLM Call")
+@Category("LangGraph4j")
+@Description("One ToolCallingLLM.generate call")
+@StackTrace(false)
+final class LlmCallEvent extends Event {
+
+    @Label("Execution Id")
+    String executionId;
+
+    @Label("Available Tools")
+    int availableTools;
+
+    @Label("Requested Tool Calls")
+    int toolCalls;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,28 @@
+package io.github.fal1winter.langgraph4j.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.github.fal1winter.langgraph4j.NodeStep")
+@Label("Node Step")
+@Category("LangGraph4j")
+@Description("One step of an execution: a node, its retries and any fan-out it starts")
+@StackTrace(false)
+final class NodeStepEvent extends Event {
+
+    @Label("Execution Id")
+    String executionId;
+
+    @Label("Node")
+    String nodeName;
+
+    @Label("Iteration")
+    int iteration;
+
+    @Label("Outcome")
+    String outcome;
+}
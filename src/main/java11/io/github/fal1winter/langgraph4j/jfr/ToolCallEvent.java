@@ -0,0 +1,25 @@
+package io.github.fal1winter.langgraph4j.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.github.fal1winter.langgraph4j.ToolCall")
+@Label("Tool Call")
+@Category("LangGraph4j")
+@Description("One Tool.execute call")
+@StackTrace(false)
+final class ToolCallEvent extends Event {
+
+    @Label("Execution Id")
+    String executionId;
+
+    @Label("Tool")
+    String toolName;
+
+    @Label("Success")
+    boolean success;
+}
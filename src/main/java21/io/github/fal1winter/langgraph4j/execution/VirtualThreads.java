@@ -0,0 +1,24 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads
+ * Java 21 version, loaded from the multi-release JAR in place of the baseline.
+ * Each execution gets its own virtual thread, so blocking nodes, tools and
+ * LLM calls release their carrier thread while they wait.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    static ExecutorService newThreadPerTaskExecutor(String threadNamePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 1).factory());
+    }
+}
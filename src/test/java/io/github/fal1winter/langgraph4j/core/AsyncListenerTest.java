@@ -0,0 +1,201 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncListenerTest {
+
+    static class TestState extends State {
+        public void addStep() {
+            put("steps", getSteps() + 1);
+        }
+
+        public int getSteps() {
+            return get("steps", 0);
+        }
+    }
+
+    /**
+     * Records events on the listener thread, optionally held up by a latch
+     */
+    private static class RecordingListener implements GraphListener<TestState> {
+        final List<String> events = new ArrayList<>();
+        final CountDownLatch gate;
+
+        RecordingListener(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        private void record(String event) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void onStart(TestState state) {
+            record("start");
+        }
+
+        @Override
+        public void onBeforeNode(String nodeName, TestState state) {
+            record("before:" + nodeName);
+        }
+
+        @Override
+        public void onAfterNode(String nodeName, TestState state, long durationNanos) {
+            record("after:" + nodeName);
+        }
+
+        @Override
+        public void onTransition(String from, String to, TestState state) {
+            record(from + "->" + to);
+        }
+
+        @Override
+        public void onComplete(TestState state) {
+            record("complete");
+        }
+    }
+
+    @Test
+    void testSlowListenerDoesNotBlockExecution() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingListener recording = new RecordingListener(gate);
+        AsyncListener<TestState> async = AsyncListener.builder((GraphListener<TestState>) recording).build();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addListener(async)
+            .addNode("n0", state -> {
+                state.addStep();
+                return state;
+            })
+            .addNode("n1", state -> {
+                state.addStep();
+                return state;
+            })
+            .setEntryPoint("n0")
+            .addEdge("n0", "n1")
+            .addEdge("n1", Graph.END);
+
+        // The listener is stuck, yet the execution completes
+        assertEquals(2, graph.execute(new TestState()).getSteps());
+        assertTrue(recording.events.isEmpty());
+        assertEquals(8, async.getPublished());
+
+        gate.countDown();
+        async.close();
+
+        assertEquals(Arrays.asList("start", "before:n0", "after:n0", "n0->n1",
+                "before:n1", "after:n1", "n1->" + Graph.END, "complete"),
+                recording.events);
+        assertEquals(8, async.getDelivered());
+        assertEquals(0, async.getPending());
+        assertEquals(0, async.getDropped());
+        assertTrue(async.getMaxLagNanos() > 0);
+    }
+
+    @Test
+    void testDropPolicyKeepsLifecycleEvents() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingListener recording = new RecordingListener(gate);
+        AsyncListener<TestState> async = AsyncListener.builder((GraphListener<TestState>) recording)
+            .bufferSize(4)
+            .overflowPolicy(AsyncListener.OverflowPolicy.DROP)
+            .build();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setMaxIterations(21)
+            .addListener(async);
+        for (int i = 0; i < 20; i++) {
+            graph.addNode("n" + i, state -> {
+                state.addStep();
+                return state;
+            });
+        }
+        graph.setEntryPoint("n0");
+        for (int i = 0; i < 20; i++) {
+            graph.addEdge("n" + i, i < 19 ? "n" + (i + 1) : Graph.END);
+        }
+
+        // The final lifecycle event waits for space, so execute away from the test thread
+        CompletableFuture<TestState> result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return graph.execute(new TestState());
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (async.getDropped() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        gate.countDown();
+        assertEquals(20, result.get(5, TimeUnit.SECONDS).getSteps());
+        async.close();
+
+        assertTrue(async.getDropped() > 0);
+        assertEquals(async.getPublished(), async.getDelivered());
+        assertEquals(62, async.getPublished() + async.getDropped());
+        assertEquals("start", recording.events.get(0));
+        assertEquals("complete", recording.events.get(recording.events.size() - 1));
+    }
+
+    @Test
+    void testSamplePolicyThinsEventsUnderLoad() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingListener recording = new RecordingListener(gate);
+        AsyncListener<TestState> async = AsyncListener.builder((GraphListener<TestState>) recording)
+            .bufferSize(32)
+            .overflowPolicy(AsyncListener.OverflowPolicy.SAMPLE)
+            .sampleRate(4)
+            .build();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setMaxIterations(21)
+            .addListener(async);
+        for (int i = 0; i < 20; i++) {
+            graph.addNode("n" + i, state -> {
+                state.addStep();
+                return state;
+            });
+        }
+        graph.setEntryPoint("n0");
+        for (int i = 0; i < 20; i++) {
+            graph.addEdge("n" + i, i < 19 ? "n" + (i + 1) : Graph.END);
+        }
+
+        graph.execute(new TestState());
+        gate.countDown();
+        async.close();
+
+        // Below half full everything is kept, above it one in four
+        assertTrue(async.getDropped() > 0);
+        assertTrue(async.getPublished() > 16);
+        assertEquals(async.getPublished(), recording.events.size());
+        assertEquals("complete", recording.events.get(recording.events.size() - 1));
+    }
+
+    @Test
+    void testEventsAfterCloseAreDropped() throws Exception {
+        AsyncListener<TestState> async = AsyncListener.builder(new GraphListener<TestState>() { }).build();
+        async.close();
+
+        async.onStart(new TestState());
+
+        assertEquals(0, async.getPublished());
+        assertEquals(1, async.getDropped());
+    }
+}
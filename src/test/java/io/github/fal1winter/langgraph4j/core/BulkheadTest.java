@@ -0,0 +1,253 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import io.github.fal1winter.langgraph4j.metrics.GraphMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    static class TestState extends State {
+        public void setResponse(String response) {
+            put("response", response);
+        }
+
+        public String getResponse() {
+            return get("response");
+        }
+    }
+
+    @Test
+    void testAsyncRunsWaitWithoutThreads() throws Exception {
+        ScheduledExecutorService backend = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Bulkhead bulkhead = new Bulkhead(2);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addAsyncNode("call", state -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                CompletableFuture<TestState> done = new CompletableFuture<>();
+                backend.schedule(() -> {
+                    running.decrementAndGet();
+                    done.complete(state);
+                }, 30, TimeUnit.MILLISECONDS);
+                return done;
+            })
+            .setEntryPoint("call")
+            .addEdge("call", Graph.END)
+            .setBulkhead("call", bulkhead);
+
+        try {
+            List<CompletableFuture<TestState>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(graph.executeAsync(new TestState()));
+            }
+            // Six executions are queued, yet nothing blocks on them
+            assertEquals(6, bulkhead.getQueueDepth());
+            for (CompletableFuture<TestState> result : results) {
+                assertFalse(result.get(5, TimeUnit.SECONDS).hasError());
+            }
+        } finally {
+            backend.shutdownNow();
+        }
+
+        assertEquals(2, peak.get());
+        assertEquals(8, bulkhead.getAcquired());
+        assertEquals(0, bulkhead.getActive());
+        assertTrue(bulkhead.getWaitTime().getMax() >= TimeUnit.MILLISECONDS.toNanos(30));
+    }
+
+    @Test
+    void testFullQueueRejects() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Bulkhead bulkhead = new Bulkhead(1, 0);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("call", state -> {
+                entered.countDown();
+                release.await();
+                state.setResponse("ok");
+                return state;
+            })
+            .setEntryPoint("call")
+            .addEdge("call", Graph.END)
+            .setBulkhead("call", bulkhead);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<TestState> first = pool.submit(() -> graph.execute(new TestState()));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            assertThrows(BulkheadFullException.class, () -> graph.execute(new TestState()));
+            assertEquals(1, bulkhead.getRejected());
+
+            release.countDown();
+            assertEquals("ok", first.get(5, TimeUnit.SECONDS).getResponse());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    @Test
+    void testTimeoutWhileQueuedLeavesTheQueue() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Bulkhead bulkhead = new Bulkhead(1);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("call", state -> {
+                entered.countDown();
+                release.await();
+                state.setResponse("ok");
+                return state;
+            })
+            .setEntryPoint("call")
+            .addEdge("call", Graph.END)
+            .setBulkhead("call", bulkhead)
+            .setNodeTimeout("call", Duration.ofSeconds(5));
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<TestState> first = pool.submit(() -> graph.execute(new TestState()));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            TestState blocked = new TestState();
+            blocked.setCancellationToken(CancellationToken.withTimeout(Duration.ofMillis(50)));
+            assertThrows(NodeTimeoutException.class, () -> graph.execute(blocked));
+            TestState blockedAsync = new TestState();
+            blockedAsync.setCancellationToken(CancellationToken.withTimeout(Duration.ofMillis(50)));
+            ExecutionException error = assertThrows(ExecutionException.class,
+                () -> graph.executeAsync(blockedAsync).get(5, TimeUnit.SECONDS));
+            assertTrue(error.getCause() instanceof NodeTimeoutException);
+            assertEquals(0, bulkhead.getQueueDepth());
+
+            release.countDown();
+            assertEquals("ok", first.get(5, TimeUnit.SECONDS).getResponse());
+            assertEquals("ok", graph.execute(new TestState()).getResponse());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    @Test
+    void testCancelWhileQueuedLeavesTheQueue() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Bulkhead bulkhead = new Bulkhead(1);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("call", state -> {
+                entered.countDown();
+                release.await();
+                state.setResponse("ok");
+                return state;
+            })
+            .setEntryPoint("call")
+            .addEdge("call", Graph.END)
+            .setBulkhead("call", bulkhead);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<TestState> first = pool.submit(() -> graph.execute(new TestState()));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            TestState queued = new TestState();
+            CancellationToken token = new CancellationToken();
+            queued.setCancellationToken(token);
+            Future<TestState> second = pool.submit(() -> graph.execute(queued));
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                while (bulkhead.getQueueDepth() == 0) {
+                    Thread.sleep(5);
+                }
+            });
+
+            token.cancel("caller gave up");
+            ExecutionException error = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+            assertTrue(error.getCause() instanceof CancellationException);
+            assertEquals("caller gave up", error.getCause().getMessage());
+            assertEquals(0, bulkhead.getQueueDepth());
+
+            release.countDown();
+            assertEquals("ok", first.get(5, TimeUnit.SECONDS).getResponse());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    @Test
+    void testTimedOutNodeKeepsItsSlotUntilItReturns() throws Exception {
+        CountDownLatch release = new CountDownLatch(2);
+        Bulkhead bulkhead = new Bulkhead(2);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("call", state -> {
+                // Ignores interrupts, like a blocking client call
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        // Keep waiting
+                    }
+                }
+                return state;
+            })
+            .setEntryPoint("call")
+            .addEdge("call", Graph.END)
+            .setBulkhead("call", bulkhead)
+            .setNodeTimeout("call", Duration.ofMillis(50));
+
+        assertThrows(NodeTimeoutException.class, () -> graph.execute(new TestState()));
+        ExecutionException error = assertThrows(ExecutionException.class,
+            () -> graph.executeAsync(new TestState()).get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof NodeTimeoutException);
+
+        // Both nodes are still running, so their slots stay taken
+        assertEquals(2, bulkhead.getActive());
+
+        release.countDown();
+        release.countDown();
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (bulkhead.getActive() > 0) {
+                Thread.sleep(10);
+            }
+        });
+    }
+
+    @Test
+    void testMetricsExportWaitAndRejections() {
+        Bulkhead bulkhead = new Bulkhead(1, 0);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("call", state -> state)
+            .setEntryPoint("call")
+            .addEdge("call", Graph.END)
+            .setBulkhead("call", bulkhead);
+        GraphMetrics<TestState> metrics = new GraphMetrics<TestState>("orders").monitor("call", bulkhead);
+
+        bulkhead.acquire();
+        assertThrows(BulkheadFullException.class, () -> graph.execute(new TestState()));
+        bulkhead.release();
+
+        assertEquals(1, metrics.getBulkheadRejected("call"));
+        String scrape = metrics.scrape();
+        assertTrue(scrape.contains("langgraph4j_bulkhead_rejected_total{graph=\"orders\",node=\"call\"} 1"), scrape);
+        assertTrue(scrape.contains("langgraph4j_bulkhead_wait_seconds_count{graph=\"orders\",node=\"call\"} 1"), scrape);
+        assertTrue(scrape.contains("langgraph4j_bulkhead_queue_depth{graph=\"orders\",node=\"call\"} 0"), scrape);
+    }
+}
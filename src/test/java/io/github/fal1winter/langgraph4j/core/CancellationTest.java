@@ -0,0 +1,252 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import io.github.fal1winter.langgraph4j.agent.AgentState;
+import io.github.fal1winter.langgraph4j.agent.AutoNode;
+import io.github.fal1winter.langgraph4j.agent.Tool;
+import io.github.fal1winter.langgraph4j.agent.ToolCallingLLM;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CancellationTest {
+
+    static class TestState extends State {
+        public void setFetched(boolean fetched) {
+            put("fetched", fetched);
+        }
+
+        public boolean isFetched() {
+            return get("fetched", false);
+        }
+
+        public void setSteps(int steps) {
+            put("steps", steps);
+        }
+
+        public int getSteps() {
+            return get("steps", 0);
+        }
+    }
+
+    @Test
+    void testNodeTimeoutReleasesThread() {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("fetch", state -> {
+                state.setFetched(true);
+                return state;
+            })
+            .addNode("hang", state -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    throw e;
+                }
+                return state;
+            })
+            .setEntryPoint("fetch")
+            .addEdge("fetch", "hang")
+            .addListener(new GraphListener<TestState>() {
+                @Override
+                public void onError(String nodeName, TestState state, Exception error) {
+                    errors.add(error);
+                }
+            })
+            .setNodeTimeout("hang", Duration.ofMillis(100));
+
+        TestState state = new TestState();
+        long start = System.nanoTime();
+        NodeTimeoutException error = assertThrows(NodeTimeoutException.class, () -> graph.execute(state));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        assertEquals("hang", error.getNodeName());
+        assertEquals(1, errors.size());
+        assertSame(error, errors.get(0));
+        assertTrue(state.isFetched());
+        assertTrue(state.getCancellationToken().isCancelled());
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            while (!interrupted.get()) {
+                Thread.sleep(10);
+            }
+        });
+    }
+
+    @Test
+    void testAsyncNodeTimeout() {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("fetch", state -> {
+                state.setFetched(true);
+                return state;
+            })
+            .addNode("hang", state -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    throw e;
+                }
+                return state;
+            })
+            .setEntryPoint("fetch")
+            .addEdge("fetch", "hang")
+            .addListener(new GraphListener<TestState>() {
+                @Override
+                public void onError(String nodeName, TestState state, Exception error) {
+                    errors.add(error);
+                }
+            })
+            .setNodeTimeout("hang", Duration.ofMillis(100));
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+            () -> graph.executeAsync(new TestState()).get(2, TimeUnit.SECONDS));
+
+        assertTrue(error.getCause() instanceof NodeTimeoutException);
+        assertEquals(1, errors.size());
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            while (!interrupted.get()) {
+                Thread.sleep(10);
+            }
+        });
+    }
+
+    @Test
+    void testExecutionDeadline() {
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setMaxIterations(1_000)
+            .setExecutionTimeout(Duration.ofMillis(200))
+            .addNode("poll", state -> {
+                state.setSteps(state.getSteps() + 1);
+                Thread.sleep(30);
+                return state;
+            })
+            .setEntryPoint("poll")
+            .addEdge("poll", "poll");
+
+        TestState state = new TestState();
+        long start = System.nanoTime();
+        Exception error = assertThrows(Exception.class, () -> graph.execute(state));
+
+        assertTrue(error instanceof NodeTimeoutException || error instanceof CancellationException, error.toString());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+        assertTrue(state.getSteps() < 10);
+        assertTrue(state.hasError());
+    }
+
+    @Test
+    void testExternalCancellation() {
+        CancellationToken token = new CancellationToken();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("step", state -> {
+                state.setSteps(state.getSteps() + 1);
+                if (state.getSteps() == 3) {
+                    token.cancel("user pressed stop");
+                }
+                return state;
+            })
+            .setEntryPoint("step")
+            .addEdge("step", "step");
+
+        TestState state = new TestState();
+        state.setCancellationToken(token);
+        CancellationException error = assertThrows(CancellationException.class, () -> graph.execute(state));
+
+        assertEquals("user pressed stop", error.getMessage());
+        assertEquals(3, state.getSteps());
+        assertTrue(state.getError().contains("user pressed stop"));
+    }
+
+    @Test
+    void testCancelCallbacksFollowTheParentChain() {
+        CancellationToken caller = new CancellationToken();
+        CancellationToken execution = CancellationToken.forExecution(caller, 0);
+        AtomicInteger fired = new AtomicInteger();
+
+        Runnable removed = execution.onCancel(fired::incrementAndGet);
+        removed.run();
+        execution.onCancel(fired::incrementAndGet);
+        caller.cancel("stop");
+
+        assertEquals(1, fired.get());
+        execution.onCancel(fired::incrementAndGet);
+        assertEquals(2, fired.get());
+    }
+
+    @Test
+    void testReexecutedStateIsANewExecution() throws Exception {
+        List<String> seen = new CopyOnWriteArrayList<>();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("slow", state -> {
+                seen.add(state.getExecutionId());
+                return state;
+            })
+            .setEntryPoint("slow")
+            .addEdge("slow", Graph.END)
+            .setExecutionTimeout(Duration.ofMillis(100));
+
+        TestState state = new TestState();
+        graph.execute(state);
+        String first = state.getExecutionId();
+        Thread.sleep(150);
+        // Neither the first run's id nor its expired deadline carry over
+        graph.execute(state);
+
+        assertNotEquals(first, state.getExecutionId());
+        assertEquals(first, seen.get(0));
+        assertEquals(state.getExecutionId(), seen.get(1));
+    }
+
+    @Test
+    void testAutoNodeStopsWhenCancelled() {
+        AtomicInteger calls = new AtomicInteger();
+        ToolCallingLLM llm = (prompt, tools) -> {
+            calls.incrementAndGet();
+            return new ToolCallingLLM.LLMResponse("searching",
+                Collections.singletonList(new ToolCallingLLM.ToolCallRequest("search", "q")), false);
+        };
+        AutoNode<AgentState> agent = AutoNode.<AgentState>builder()
+            .llm(llm)
+            .maxIterations(10)
+            .addTool(new Tool() {
+                @Override
+                public String execute(Object parameters) {
+                    return "result";
+                }
+
+                @Override
+                public String execute(Object parameters, CancellationToken cancellationToken) {
+                    cancellationToken.cancel("budget exhausted");
+                    return "result";
+                }
+
+                @Override
+                public String getName() {
+                    return "search";
+                }
+            })
+            .build();
+
+        AgentState state = new AgentState();
+        assertThrows(CancellationException.class, () -> agent.execute(state));
+        assertEquals(1, calls.get());
+        assertEquals(1, state.getToolCalls().size());
+    }
+}
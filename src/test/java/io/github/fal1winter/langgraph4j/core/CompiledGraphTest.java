@@ -0,0 +1,511 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import io.github.fal1winter.langgraph4j.agent.AgentState;
+import io.github.fal1winter.langgraph4j.agent.AutoNode;
+import io.github.fal1winter.langgraph4j.agent.Tool;
+import io.github.fal1winter.langgraph4j.agent.ToolCallingLLM;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledGraphTest {
+
+    static class TestState extends State {
+        public TestState(int value) {
+            put("value", value);
+        }
+
+        public int getValue() {
+            return get("value");
+        }
+    }
+
+    private Graph<TestState> counterGraph() {
+        return Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("increment", state -> {
+                state.put("value", state.getValue() + 1);
+                return state;
+            })
+            .addNode("double", state -> {
+                state.put("value", state.getValue() * 2);
+                return state;
+            })
+            .addNode("done", state -> {
+                state.put("done", true);
+                return state;
+            })
+            .setEntryPoint("increment")
+            .addConditionalEdge("increment", "increment", state -> state.getValue() < 5)
+            .addEdge("increment", "double")
+            .addRouter("double", state -> state.getValue() > 50 ? Graph.END : "done")
+            .addEdge("done", Graph.END);
+    }
+
+    @Test
+    void testCompiledMatchesGraphExecute() throws Exception {
+        Graph<TestState> graph = counterGraph();
+        CompiledGraph<TestState> compiled = graph.compile();
+
+        TestState expected = graph.execute(new TestState(0));
+        TestState actual = compiled.execute(new TestState(0));
+
+        assertEquals(expected.getData(), actual.getData());
+        assertEquals(10, actual.getValue());
+        assertTrue(actual.<Boolean>get("done"));
+    }
+
+    @Test
+    void testCompiledGraphIsFrozen() throws Exception {
+        Graph<TestState> graph = counterGraph();
+        CompiledGraph<TestState> compiled = graph.compile();
+
+        final List<String> visited = new ArrayList<>();
+        graph.addListener(new GraphListener<TestState>() {
+            @Override
+            public void onBeforeNode(String nodeName, TestState state) {
+                visited.add(nodeName);
+            }
+        });
+        compiled.execute(new TestState(0));
+
+        assertTrue(visited.isEmpty());
+        assertEquals("increment", compiled.getEntryPoint());
+    }
+
+    @Test
+    void testUnknownRouterTarget() {
+        CompiledGraph<TestState> compiled = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("start", state -> state)
+            .setEntryPoint("start")
+            .addRouter("start", state -> "missing")
+            .compile();
+
+        assertThrows(IllegalStateException.class, () -> compiled.execute(new TestState(0)));
+    }
+
+    @Test
+    void testCompileRequiresEntryPoint() {
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .addNode("start", state -> state);
+
+        assertThrows(IllegalStateException.class, graph::compile);
+    }
+
+    @Test
+    void testConcurrentExecutionOfSharedInstance() throws Exception {
+        CompiledGraph<TestState> compiled = counterGraph().compile();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<TestState>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(pool.submit(() -> compiled.execute(new TestState(0))));
+            }
+            List<Integer> values = new ArrayList<>();
+            for (Future<TestState> future : futures) {
+                values.add(future.get().getValue());
+            }
+            assertEquals(Collections.nCopies(200, 10), values);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Graph<TestState> fanOutGraph(Node<TestState> docs, Node<TestState> profile) {
+        return Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("start", state -> state)
+            .addNode("docs", docs)
+            .addNode("profile", profile)
+            .addNode("join", state -> {
+                state.put("joined", state.has("docs") && state.has("profile"));
+                return state;
+            })
+            .setEntryPoint("start")
+            .addFanOut("start", "join", "docs", "profile")
+            .addEdge("docs", "join")
+            .addEdge("profile", "join")
+            .addEdge("join", Graph.END);
+    }
+
+    @Test
+    void testFanOutRunsBranchesInParallel() throws Exception {
+        final long[] superstepNanos = {0};
+        Graph<TestState> graph = fanOutGraph(
+            state -> {
+                Thread.sleep(300);
+                state.put("docs", "fetched");
+                return state;
+            },
+            state -> {
+                Thread.sleep(300);
+                state.put("profile", "fetched");
+                state.put("value", 42);
+                return state;
+            })
+            .addListener(new GraphListener<TestState>() {
+                @Override
+                public void onFanOutComplete(String fromNode, String joinNode, TestState state, long durationNanos) {
+                    superstepNanos[0] = durationNanos;
+                }
+            });
+
+        long start = System.nanoTime();
+        TestState result = graph.execute(new TestState(1));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(result.<Boolean>get("joined"));
+        assertEquals("fetched", result.get("docs"));
+        assertEquals(42, result.getValue());
+        assertTrue(elapsedMillis < 550, "branches should overlap, took " + elapsedMillis + " ms");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(superstepNanos[0]) >= 300);
+    }
+
+    @Test
+    void testFanOutParallelismLimit() throws Exception {
+        Node<TestState> slow = state -> {
+            Thread.sleep(200);
+            return state;
+        };
+        Graph<TestState> graph = fanOutGraph(slow, slow).setFanOutParallelism(1);
+
+        long start = System.nanoTime();
+        graph.execute(new TestState(1));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 400);
+    }
+
+    @Test
+    void testFanOutFailureCancelsSiblings() {
+        AtomicBoolean siblingInterrupted = new AtomicBoolean();
+        Graph<TestState> graph = fanOutGraph(
+            state -> {
+                Thread.sleep(50);
+                throw new IllegalStateException("docs backend down");
+            },
+            state -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    siblingInterrupted.set(true);
+                    throw e;
+                }
+                return state;
+            });
+
+        long start = System.nanoTime();
+        TestState state = new TestState(1);
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> graph.execute(state));
+
+        assertEquals("docs backend down", error.getMessage());
+        assertTrue(state.hasError());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            while (!siblingInterrupted.get()) {
+                Thread.sleep(10);
+            }
+        });
+    }
+
+    private static AsyncNode<TestState> delayed(ScheduledExecutorService io, long millis, String key) {
+        return state -> {
+            CompletableFuture<TestState> future = new CompletableFuture<>();
+            io.schedule(() -> {
+                state.put(key, Thread.currentThread().getName());
+                future.complete(state);
+            }, millis, TimeUnit.MILLISECONDS);
+            return future;
+        };
+    }
+
+    private AutoNode<AgentState> searchAgent(String query) {
+        return AutoNode.<AgentState>builder()
+            .llm((prompt, tools) -> new ToolCallingLLM.LLMResponse("searching",
+                Collections.singletonList(new ToolCallingLLM.ToolCallRequest("search", query)), true))
+            .addTool(new Tool() {
+                @Override
+                public String execute(Object parameters) throws Exception {
+                    Thread.sleep(50);
+                    return "results for " + parameters;
+                }
+
+                @Override
+                public String getName() {
+                    return "search";
+                }
+            })
+            .build();
+    }
+
+    @Test
+    void testFanOutKeepsToolCallsOfEveryAgentBranch() throws Exception {
+        Graph<AgentState> graph = Graph.<AgentState>builder()
+            .setLogging(false)
+            .addNode("start", state -> state)
+            .addNode("docs", searchAgent("docs"))
+            .addNode("profile", searchAgent("profile"))
+            .addNode("join", state -> state)
+            .setEntryPoint("start")
+            .addFanOut("start", "join", "docs", "profile")
+            .addEdge("docs", "join")
+            .addEdge("profile", "join")
+            .addEdge("join", Graph.END);
+
+        AgentState state = new AgentState();
+        state.addToolCall("plan", "task", "planned");
+        List<AgentState.ToolCall> before = state.getToolCalls();
+
+        AgentState result = graph.execute(state);
+
+        assertEquals(Arrays.asList("planned", "results for docs", "results for profile"),
+            result.getToolCalls().stream().map(AgentState.ToolCall::getResult).collect(Collectors.toList()));
+        assertEquals(1, before.size());
+    }
+
+    @Test
+    void testExecuteAsyncDoesNotParkThreads() throws Exception {
+        ScheduledExecutorService io = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService nodePool = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "node-pool"));
+        try {
+            CompiledGraph<TestState> compiled = Graph.<TestState>builder()
+                .setLogging(false)
+                .setNodeExecutor(nodePool)
+                .addAsyncNode("llm", delayed(io, 100, "llm"))
+                .addNode("parse", state -> {
+                    state.put("parse", Thread.currentThread().getName());
+                    return state;
+                })
+                .addAsyncNode("tool", delayed(io, 100, "tool"))
+                .setEntryPoint("llm")
+                .addEdge("llm", "parse")
+                .addEdge("parse", "tool")
+                .addEdge("tool", Graph.END)
+                .compile();
+
+            long start = System.nanoTime();
+            List<CompletableFuture<TestState>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                futures.add(compiled.executeAsync(new TestState(i)));
+            }
+            for (CompletableFuture<TestState> future : futures) {
+                TestState state = future.get(5, TimeUnit.SECONDS);
+                assertEquals("node-pool", state.get("parse"));
+                assertNotNull(state.get("tool"));
+                assertFalse(state.hasError());
+            }
+            // 1000 workflows with 200 ms of I/O each on two threads: only possible without blocking
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3_000);
+        } finally {
+            io.shutdownNow();
+            nodePool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecuteAsyncFailure() {
+        CompiledGraph<TestState> compiled = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("ok", state -> state)
+            .addAsyncNode("broken", state -> {
+                CompletableFuture<TestState> future = new CompletableFuture<>();
+                future.completeExceptionally(new IllegalArgumentException("bad response"));
+                return future;
+            })
+            .setEntryPoint("ok")
+            .addEdge("ok", "broken")
+            .compile();
+
+        TestState state = new TestState(0);
+        ExecutionException error = assertThrows(ExecutionException.class,
+            () -> compiled.executeAsync(state).get(5, TimeUnit.SECONDS));
+
+        assertTrue(error.getCause() instanceof IllegalArgumentException);
+        assertTrue(state.getError().contains("broken"));
+    }
+
+    @Test
+    void testExecuteAsyncMatchesExecute() throws Exception {
+        Graph<TestState> graph = counterGraph();
+        TestState expected = graph.execute(new TestState(0));
+        TestState actual = graph.executeAsync(new TestState(0)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(expected.getData(), actual.getData());
+    }
+
+    @Test
+    void testExecuteAsyncFanOut() throws Exception {
+        ScheduledExecutorService io = Executors.newSingleThreadScheduledExecutor();
+        try {
+            CompiledGraph<TestState> compiled = Graph.<TestState>builder()
+                .setLogging(false)
+                .addNode("start", state -> state)
+                .addAsyncNode("docs", delayed(io, 200, "docs"))
+                .addAsyncNode("profile", delayed(io, 200, "profile"))
+                .addNode("join", state -> {
+                    state.put("joined", state.has("docs") && state.has("profile"));
+                    return state;
+                })
+                .setEntryPoint("start")
+                .addFanOut("start", "join", "docs", "profile")
+                .addEdge("docs", "join")
+                .addEdge("profile", "join")
+                .compile();
+
+            long start = System.nanoTime();
+            TestState result = compiled.executeAsync(new TestState(0)).get(5, TimeUnit.SECONDS);
+
+            assertTrue(result.<Boolean>get("joined"));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 380);
+        } finally {
+            io.shutdownNow();
+        }
+    }
+
+    @Test
+    void testStreamEmitsStepsInOrder() {
+        Graph<TestState> graph = counterGraph();
+
+        List<StepEvent<TestState>> events;
+        try (Stream<StepEvent<TestState>> steps = graph.stream(new TestState(0))) {
+            events = steps.collect(Collectors.toList());
+        }
+
+        List<String> names = events.stream().map(StepEvent::getNodeName).collect(Collectors.toList());
+        assertEquals(Arrays.asList("increment", "increment", "increment", "increment", "increment", "double", "done"), names);
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i + 1, events.get(i).getIteration());
+            assertTrue(events.get(i).getDurationNanos() >= 0);
+        }
+        // Each event carries a snapshot, not the live state
+        assertEquals(1, events.get(0).getState().getValue());
+        assertEquals(10, events.get(5).getState().getValue());
+        assertFalse(events.get(5).getState().has("done"));
+        assertTrue(events.get(6).getState().<Boolean>get("done"));
+    }
+
+    @Test
+    void testStreamAppliesBackpressure() throws Exception {
+        AtomicInteger executed = new AtomicInteger();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setMaxIterations(200)
+            .addNode("tick", state -> {
+                executed.incrementAndGet();
+                state.put("value", state.getValue() + 1);
+                return state;
+            })
+            .setEntryPoint("tick")
+            .addConditionalEdge("tick", "tick", state -> state.getValue() < 100);
+
+        try (Stream<StepEvent<TestState>> steps = graph.stream(new TestState(0), 2)) {
+            Iterator<StepEvent<TestState>> it = steps.iterator();
+            assertEquals(1, it.next().getIteration());
+            Thread.sleep(200);
+            // Buffer of two, plus the event being offered and the one already taken
+            assertTrue(executed.get() <= 4, "producer ran ahead: " + executed.get());
+
+            int count = 1;
+            while (it.hasNext()) {
+                it.next();
+                count++;
+            }
+            assertEquals(100, count);
+        }
+    }
+
+    @Test
+    void testStreamStopsWaitingAtDeadline() throws Exception {
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setMaxIterations(200)
+            .addNode("tick", state -> {
+                state.put("value", state.getValue() + 1);
+                return state;
+            })
+            .setEntryPoint("tick")
+            .addConditionalEdge("tick", "tick", state -> state.getValue() < 100);
+
+        TestState state = new TestState(0);
+        state.setCancellationToken(CancellationToken.withTimeout(Duration.ofMillis(100)));
+        try (Stream<StepEvent<TestState>> steps = graph.stream(state, 1)) {
+            Thread.sleep(300);
+
+            // The execution gave up on the full buffer at its deadline instead of waiting for a reader
+            Iterator<StepEvent<TestState>> it = steps.iterator();
+            assertEquals(1, it.next().getIteration());
+            assertThrows(CompletionException.class, it::hasNext);
+        }
+    }
+
+    @Test
+    void testStreamPropagatesFailure() {
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("ok", state -> state)
+            .addNode("broken", state -> {
+                throw new IllegalStateException("model unavailable");
+            })
+            .setEntryPoint("ok")
+            .addEdge("ok", "broken");
+
+        Iterator<StepEvent<TestState>> it = graph.stream(new TestState(0)).iterator();
+        assertEquals("ok", it.next().getNodeName());
+        CompletionException error = assertThrows(CompletionException.class, it::hasNext);
+        assertTrue(error.getCause() instanceof IllegalStateException);
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void testClosingStreamInterruptsExecution() throws Exception {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("first", state -> state)
+            .addNode("slow", state -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    throw e;
+                }
+                return state;
+            })
+            .setEntryPoint("first")
+            .addEdge("first", "slow");
+
+        Stream<StepEvent<TestState>> steps = graph.stream(new TestState(0));
+        assertEquals("first", steps.iterator().next().getNodeName());
+        steps.close();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            while (!interrupted.get()) {
+                Thread.sleep(10);
+            }
+        });
+    }
+
+    @Test
+    void testStreamRejectsNonPositiveBuffer() {
+        assertThrows(IllegalArgumentException.class, () -> counterGraph().stream(new TestState(0), 0));
+    }
+}
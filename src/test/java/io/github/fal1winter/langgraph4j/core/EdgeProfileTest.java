@@ -0,0 +1,152 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import io.github.fal1winter.langgraph4j.metrics.GraphMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdgeProfileTest {
+
+    static class TestState extends State {
+        public TestState(String topic) {
+            put("topic", topic);
+        }
+
+        public String getTopic() {
+            return get("topic");
+        }
+    }
+
+    private static List<String> targets(CompiledGraph<TestState> graph, String node) {
+        return graph.getEdgeOrder(node).stream().map(Edge::getToNode).collect(Collectors.toList());
+    }
+
+    @Test
+    void testExclusiveEdgesAreEvaluatedMostTakenFirst() throws Exception {
+        GraphMetrics<TestState> metrics = new GraphMetrics<>();
+        CompiledGraph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setAdaptiveEdgeOrdering(true)
+            .addListener(metrics)
+            .addNode("classify", state -> state)
+            .addNode("billing", state -> state)
+            .addNode("outage", state -> state)
+            .addNode("spam", state -> state)
+            .addNode("general", state -> state)
+            .setEntryPoint("classify")
+            .addConditionalEdge("classify", "billing", state -> "billing".equals(state.getTopic()))
+            .addConditionalEdge("classify", "outage", state -> "outage".equals(state.getTopic()))
+            .addConditionalEdge("classify", "spam", state -> "spam".equals(state.getTopic()))
+            .addEdge("classify", "general")
+            .addEdge("billing", Graph.END)
+            .addEdge("outage", Graph.END)
+            .addEdge("spam", Graph.END)
+            .addEdge("general", Graph.END)
+            .setExclusiveEdges("classify")
+            .compile();
+        assertEquals(Arrays.asList("billing", "outage", "spam", "general"), targets(graph, "classify"));
+
+        for (int i = 0; i < 2 * EdgeProfile.REORDER_INTERVAL; i++) {
+            graph.execute(new TestState(i % 4 == 0 ? "outage" : "spam"));
+        }
+
+        // The unconditional fallback stays last, and every ticket still takes its own edge
+        assertEquals(Arrays.asList("spam", "outage", "billing", "general"), targets(graph, "classify"));
+        graph.execute(new TestState("billing"));
+        graph.execute(new TestState("other"));
+        assertEquals(1, metrics.getTransitionCount("classify", "billing"));
+        assertEquals(1, metrics.getTransitionCount("classify", "general"));
+    }
+
+    @Test
+    void testEdgesWithoutExclusivityKeepDeclarationOrder() throws Exception {
+        GraphMetrics<TestState> metrics = new GraphMetrics<>();
+        CompiledGraph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setAdaptiveEdgeOrdering(true)
+            .addListener(metrics)
+            .addNode("classify", state -> state)
+            .addNode("billing", state -> state)
+            .addNode("outage", state -> state)
+            .addNode("spam", state -> state)
+            .addNode("general", state -> state)
+            .setEntryPoint("classify")
+            .addConditionalEdge("classify", "billing", state -> "billing".equals(state.getTopic()))
+            .addConditionalEdge("classify", "outage", state -> "outage".equals(state.getTopic()))
+            .addConditionalEdge("classify", "spam", state -> "spam".equals(state.getTopic()))
+            .addEdge("classify", "general")
+            .addEdge("billing", Graph.END)
+            .addEdge("outage", Graph.END)
+            .addEdge("spam", Graph.END)
+            .addEdge("general", Graph.END)
+            .compile();
+
+        for (int i = 0; i < 2 * EdgeProfile.REORDER_INTERVAL; i++) {
+            graph.execute(new TestState("spam"));
+        }
+
+        assertEquals(Arrays.asList("billing", "outage", "spam", "general"), targets(graph, "classify"));
+        long runs = 2L * EdgeProfile.REORDER_INTERVAL;
+        assertEquals(runs, metrics.getConditionEvaluations("classify", "billing"));
+        assertEquals(0, metrics.getConditionMatches("classify", "billing"));
+        assertEquals(runs, metrics.getConditionMatches("classify", "spam"));
+        assertEquals(runs, metrics.getConditionLatency("classify", "spam").getCount());
+        assertTrue(metrics.scrape().contains(
+                "langgraph4j_condition_matches_total{graph=\"default\",from=\"classify\",to=\"spam\"} " + runs + "\n"));
+    }
+
+    @Test
+    void testPredicatesAreNotTimedUnlessEnabled() throws Exception {
+        GraphMetrics<TestState> metrics = new GraphMetrics<>();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setAdaptiveEdgeOrdering(true)
+            .addListener(metrics)
+            .addNode("classify", state -> state)
+            .addNode("billing", state -> state)
+            .addNode("outage", state -> state)
+            .addNode("spam", state -> state)
+            .addNode("general", state -> state)
+            .setEntryPoint("classify")
+            .addConditionalEdge("classify", "billing", state -> "billing".equals(state.getTopic()))
+            .addConditionalEdge("classify", "outage", state -> "outage".equals(state.getTopic()))
+            .addConditionalEdge("classify", "spam", state -> "spam".equals(state.getTopic()))
+            .addEdge("classify", "general")
+            .addEdge("billing", Graph.END)
+            .addEdge("outage", Graph.END)
+            .addEdge("spam", Graph.END)
+            .addEdge("general", Graph.END)
+            .setExclusiveEdges("classify")
+            .setAdaptiveEdgeOrdering(false);
+
+        graph.execute(new TestState("spam"));
+
+        assertEquals(0, metrics.getConditionEvaluations("classify", "billing"));
+        assertEquals(1, metrics.getTransitionCount("classify", "spam"));
+    }
+
+    @Test
+    void testReorderKeepsTiesInDeclarationOrderAndDecays() {
+        Edge<?>[] edges = {
+            new Edge<State>("a", "x", state -> true),
+            new Edge<State>("a", "y", state -> true),
+            new Edge<State>("a", "z", state -> true),
+            new Edge<State>("a", "w")
+        };
+        EdgeProfile profile = new EdgeProfile(edges, true);
+        profile.hit(2);
+        profile.hit(2);
+        profile.hit(1);
+        profile.hit(0);
+        profile.reorder();
+
+        assertArrayEquals(new int[]{2, 0, 1, 3}, profile.order());
+        assertEquals(1, profile.getHits(2));
+        assertEquals(0, profile.getHits(1));
+        assertFalse(new EdgeProfile(edges, false).isAdaptive());
+    }
+}
@@ -0,0 +1,225 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderTest {
+
+    static class TestState extends State {
+        public void setPayload(String payload) {
+            put("payload", payload);
+        }
+
+        public String getPayload() {
+            return get("payload");
+        }
+    }
+
+    @Test
+    void testRecordsStepsOfCompletedExecution() throws Exception {
+        List<String> dumps = new CopyOnWriteArrayList<>();
+        FlightRecorder recorder = FlightRecorder.builder().onDump(dumps::add).build();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setFlightRecorder(recorder)
+            .addNode("a", state -> {
+                state.setPayload("a");
+                return state;
+            })
+            .addNode("b", state -> state)
+            .addNode("c", state -> state)
+            .setEntryPoint("a")
+            .addEdge("a", "b")
+            .addEdge("b", "c")
+            .addEdge("c", Graph.END);
+
+        TestState result = graph.execute(new TestState());
+
+        List<ExecutionTrace> traces = recorder.getRecentExecutions();
+        assertEquals(1, traces.size());
+        ExecutionTrace trace = traces.get(0);
+        assertEquals(result.getExecutionId(), trace.getExecutionId());
+        assertEquals(ExecutionTrace.Status.COMPLETED, trace.getStatus());
+        assertEquals(3, trace.size());
+        assertEquals("a -> b -> c", trace.formatPath());
+        assertEquals(ExecutionTrace.StepOutcome.COMPLETED, trace.getOutcome(2));
+        assertTrue(trace.getDurationNanos(0) >= 0);
+        assertEquals("a", result.getPayload());
+        assertTrue(dumps.isEmpty());
+    }
+
+    @Test
+    void testStepsAreHandedOffNotPaused() throws Exception {
+        FlightRecorder recorder = FlightRecorder.builder().onDump(dump -> { }).build();
+        AtomicInteger starts = new AtomicInteger();
+        CompiledGraph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setFlightRecorder(recorder)
+            .addNode("a", state -> state)
+            .addNode("b", state -> state)
+            .addNode("c", state -> state)
+            .setEntryPoint("a")
+            .addEdge("a", "b")
+            .addEdge("b", "c")
+            .addEdge("c", Graph.END)
+            .addListener(new GraphListener<TestState>() {
+                @Override
+                public void onStart(TestState state) {
+                    starts.incrementAndGet();
+                }
+            })
+            .compile();
+
+        StepResult<TestState> first = graph.executeStep("run-1", null, new TestState(), 0);
+        // The queue hands the first step out again, as after a lost lease
+        graph.executeStep("run-1", null, new TestState(), 0, 2);
+        StepResult<TestState> second = graph.executeStep("run-1", first.getNextNode(), first.getState(), 1);
+        StepResult<TestState> last = graph.executeStep("run-1", second.getNextNode(), second.getState(), 2);
+
+        assertEquals(ExecutionTrace.Status.COMPLETED, last.getStatus());
+        assertEquals(1, starts.get());
+        List<ExecutionTrace> traces = recorder.getRecentExecutions();
+        assertEquals(4, traces.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(ExecutionTrace.Status.HANDED_OFF, traces.get(i).getStatus());
+        }
+        assertEquals(ExecutionTrace.Status.COMPLETED, traces.get(3).getStatus());
+    }
+
+    @Test
+    void testRetainsOnlyRecentExecutionsAndSteps() throws Exception {
+        FlightRecorder recorder = FlightRecorder.builder()
+            .executions(2)
+            .stepsPerExecution(2)
+            .onDump(dump -> { })
+            .build();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setFlightRecorder(recorder)
+            .addNode("a", state -> state)
+            .addNode("b", state -> state)
+            .addNode("c", state -> state)
+            .setEntryPoint("a")
+            .addEdge("a", "b")
+            .addEdge("b", "c")
+            .addEdge("c", Graph.END);
+
+        TestState last = null;
+        for (int i = 0; i < 5; i++) {
+            last = graph.execute(new TestState());
+        }
+
+        List<ExecutionTrace> traces = recorder.getRecentExecutions();
+        assertEquals(2, traces.size());
+        ExecutionTrace trace = traces.get(1);
+        assertEquals(last.getExecutionId(), trace.getExecutionId());
+        assertEquals(3, trace.getTotalSteps());
+        assertEquals(2, trace.size());
+        assertEquals("b", trace.getNodeName(0));
+        assertEquals("... (1 earlier steps) -> b -> c", trace.formatPath());
+    }
+
+    @Test
+    void testDumpsOnFailure() {
+        List<String> dumps = new CopyOnWriteArrayList<>();
+        FlightRecorder recorder = FlightRecorder.builder().onDump(dumps::add).build();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setFlightRecorder(recorder)
+            .addNode("fetch", state -> {
+                state.setPayload("{");
+                return state;
+            })
+            .addNode("parse", state -> {
+                throw new IllegalStateException("bad payload: " + state.getPayload());
+            })
+            .setEntryPoint("fetch")
+            .addEdge("fetch", "parse")
+            .addEdge("parse", Graph.END);
+
+        assertThrows(IllegalStateException.class, () -> graph.execute(new TestState()));
+
+        ExecutionTrace trace = recorder.getRecentExecutions().get(0);
+        assertEquals(ExecutionTrace.Status.FAILED, trace.getStatus());
+        assertTrue(trace.getError().contains("bad payload"));
+        assertEquals(ExecutionTrace.StepOutcome.FAILED, trace.getOutcome(1));
+        assertEquals(1, dumps.size());
+        assertTrue(dumps.get(0).contains("parse"));
+        assertTrue(dumps.get(0).contains("FAILED"));
+    }
+
+    @Test
+    void testDumpsWhenMaxIterationsExceeded() throws Exception {
+        List<String> dumps = new CopyOnWriteArrayList<>();
+        FlightRecorder recorder = FlightRecorder.builder().onDump(dumps::add).build();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setMaxIterations(5)
+            .setFlightRecorder(recorder)
+            .addNode("loop", state -> state)
+            .setEntryPoint("loop")
+            .addEdge("loop", "loop");
+
+        graph.execute(new TestState());
+
+        ExecutionTrace trace = recorder.getRecentExecutions().get(0);
+        assertEquals(ExecutionTrace.Status.MAX_ITERATIONS, trace.getStatus());
+        assertEquals(5, trace.getTotalSteps());
+        assertEquals(1, dumps.size());
+    }
+
+    @Test
+    void testAsyncExecutionIsRecorded() throws Exception {
+        List<String> dumps = new CopyOnWriteArrayList<>();
+        FlightRecorder recorder = FlightRecorder.builder().onDump(dumps::add).build();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setFlightRecorder(recorder)
+            .addNode("a", state -> state)
+            .addNode("b", state -> state)
+            .addNode("c", state -> state)
+            .setEntryPoint("a")
+            .addEdge("a", "b")
+            .addEdge("b", "c")
+            .addEdge("c", Graph.END);
+
+        graph.compile().executeAsync(new TestState()).get();
+
+        assertEquals("a -> b -> c", recorder.getRecentExecutions().get(0).formatPath());
+
+        Graph<TestState> failing = Graph.<TestState>builder()
+            .setLogging(false)
+            .setFlightRecorder(recorder)
+            .addNode("boom", state -> {
+                throw new IllegalStateException("boom");
+            })
+            .setEntryPoint("boom")
+            .addEdge("boom", Graph.END);
+        assertThrows(ExecutionException.class, () -> failing.compile().executeAsync(new TestState()).get());
+
+        ExecutionTrace trace = recorder.getRecentExecutions().get(1);
+        assertEquals(ExecutionTrace.Status.FAILED, trace.getStatus());
+        assertEquals(1, dumps.size());
+    }
+
+    @Test
+    void testNoTraceWithoutRecorderOrLogging() throws Exception {
+        FlightRecorder recorder = FlightRecorder.builder().build();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setFlightRecorder(recorder)
+            .addNode("a", state -> state)
+            .setEntryPoint("a")
+            .addEdge("a", Graph.END);
+
+        graph.setFlightRecorder(null).execute(new TestState());
+
+        assertTrue(recorder.getRecentExecutions().isEmpty());
+    }
+}
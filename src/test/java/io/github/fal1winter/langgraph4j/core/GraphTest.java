@@ -127,7 +127,7 @@ class GraphTest {
         TestState result = graph.execute(state);
 
         assertTrue(result.isNeedsHumanInput());
-        assertTrue(result.get("processed"));
+        assertTrue(result.<Boolean>get("processed"));
     }
 
     @Test
@@ -0,0 +1,172 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeCacheTest {
+
+    static class TestState extends State {
+        public TestState(String raw) {
+            put("raw", raw);
+            put("draft", "stale");
+        }
+
+        public String getRaw() {
+            return get("raw");
+        }
+
+        public void setCleaned(String cleaned) {
+            put("cleaned", cleaned);
+        }
+
+        public String getCleaned() {
+            return get("cleaned");
+        }
+
+        public void setLength(int length) {
+            put("length", length);
+        }
+
+        public int getLength() {
+            return get("length", 0);
+        }
+
+        public boolean hasDraft() {
+            return has("draft");
+        }
+
+        public void discardDraft() {
+            remove("draft");
+        }
+    }
+
+    @Test
+    void testRepeatedInputsAreServedFromCache() throws Exception {
+        AtomicInteger cleanRuns = new AtomicInteger();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("clean", state -> {
+                cleanRuns.incrementAndGet();
+                state.setCleaned(state.getRaw().trim().toLowerCase());
+                state.discardDraft();
+                return state;
+            })
+            .addNode("count", state -> {
+                state.setLength(state.getCleaned().length());
+                return state;
+            })
+            .setEntryPoint("clean")
+            .addEdge("clean", "count")
+            .setCacheable("clean", Collections.singletonList("raw"), Arrays.asList("cleaned", "draft"));
+
+        TestState first = graph.execute(new TestState("  Hello "));
+        TestState second = graph.execute(new TestState("  Hello "));
+        TestState other = graph.execute(new TestState("World"));
+
+        assertEquals(2, cleanRuns.get());
+        assertEquals(first.getData(), second.getData());
+        assertEquals("hello", second.getCleaned());
+        assertFalse(second.hasDraft());
+        assertEquals(5, second.getLength());
+        assertEquals("world", other.getCleaned());
+
+        NodeCache cache = graph.getNodeCache();
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+        assertTrue(cache.getWeight() > 0);
+    }
+
+    @Test
+    void testAsyncExecutionUsesCache() throws Exception {
+        AtomicInteger cleanRuns = new AtomicInteger();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("clean", state -> {
+                cleanRuns.incrementAndGet();
+                state.setCleaned(state.getRaw().trim().toLowerCase());
+                state.discardDraft();
+                return state;
+            })
+            .addNode("count", state -> {
+                state.setLength(state.getCleaned().length());
+                return state;
+            })
+            .setEntryPoint("clean")
+            .addEdge("clean", "count")
+            .setCacheable("clean", Collections.singletonList("raw"), Arrays.asList("cleaned", "draft"));
+
+        graph.executeAsync(new TestState("Hello")).get(5, TimeUnit.SECONDS);
+        TestState cached = graph.executeAsync(new TestState("Hello")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, cleanRuns.get());
+        assertEquals("hello", cached.getCleaned());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedBeyondMaxWeight() throws Exception {
+        AtomicInteger cleanRuns = new AtomicInteger();
+        // Each entry weighs about 300: overhead, input and output of 100 each, and an absent output
+        NodeCache cache = new NodeCache(700, value -> 100);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("clean", state -> {
+                cleanRuns.incrementAndGet();
+                state.setCleaned(state.getRaw().trim().toLowerCase());
+                state.discardDraft();
+                return state;
+            })
+            .addNode("count", state -> {
+                state.setLength(state.getCleaned().length());
+                return state;
+            })
+            .setEntryPoint("clean")
+            .addEdge("clean", "count")
+            .setCacheable("clean", Collections.singletonList("raw"), Arrays.asList("cleaned", "draft"))
+            .setNodeCache(cache);
+
+        for (int i = 0; i < 5; i++) {
+            graph.execute(new TestState("value" + i));
+        }
+
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.getEvictions());
+        assertTrue(cache.getWeight() <= 700);
+
+        graph.execute(new TestState("value4"));
+        graph.execute(new TestState("value0"));
+        assertEquals(6, cleanRuns.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testFailedRunsAreNotCached() {
+        AtomicInteger runs = new AtomicInteger();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("parse", state -> {
+                runs.incrementAndGet();
+                throw new IllegalStateException("unparseable");
+            })
+            .setEntryPoint("parse")
+            .setCacheable("parse", Collections.singletonList("raw"), Collections.singletonList("parsed"));
+
+        assertThrows(IllegalStateException.class, () -> graph.execute(new TestState("x")));
+        assertThrows(IllegalStateException.class, () -> graph.execute(new TestState("x")));
+        assertEquals(2, runs.get());
+        assertEquals(0, graph.getNodeCache().size());
+    }
+
+    @Test
+    void testEstimateSize() {
+        assertEquals(40 + 2 * 5, NodeCache.estimateSize("hello"));
+        assertTrue(NodeCache.estimateSize(Arrays.asList("a", "b")) > NodeCache.estimateSize("a"));
+        assertEquals(16 + 8 * 10, NodeCache.estimateSize(new long[10]));
+    }
+}
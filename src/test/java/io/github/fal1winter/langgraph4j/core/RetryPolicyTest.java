@@ -0,0 +1,316 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import io.github.fal1winter.langgraph4j.agent.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    static class TestState extends State {
+        public void setAttempt(int attempt) {
+            put("attempt", attempt);
+        }
+
+        public int getAttempt() {
+            return get("attempt", 0);
+        }
+
+        public void setFetchedBy(int attempt) {
+            put("fetchedBy", attempt);
+        }
+
+        public int getFetchedBy() {
+            return get("fetchedBy", 0);
+        }
+
+        public boolean isFetched() {
+            return has("fetchedBy");
+        }
+
+        public void setFailedAttempt(int attempt) {
+            put("failedAttempt", attempt);
+        }
+
+        public int getFailedAttempt() {
+            return get("failedAttempt", 0);
+        }
+    }
+
+    @Test
+    void testRetriesUntilSuccess() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        List<String> retries = new CopyOnWriteArrayList<>();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("fetch", state -> {
+                int attempt = attempts.incrementAndGet();
+                if (attempt <= 2) {
+                    throw new IOException("connection reset");
+                }
+                state.setFetchedBy(attempt);
+                return state;
+            })
+            .setEntryPoint("fetch")
+            .setRetryPolicy("fetch", RetryPolicy.builder()
+                .maxAttempts(3)
+                .backoff(Duration.ofMillis(20))
+                .jitter(0)
+                .build())
+            .addListener(new GraphListener<TestState>() {
+                @Override
+                public void onRetry(String nodeName, TestState state, int attempt, Exception error,
+                                    long attemptNanos, long backoffNanos) {
+                    retries.add(nodeName + ":" + attempt + ":" + TimeUnit.NANOSECONDS.toMillis(backoffNanos));
+                }
+            });
+
+        TestState result = graph.execute(new TestState());
+
+        assertEquals(3, result.getFetchedBy());
+        assertFalse(result.hasError());
+        assertEquals(3, attempts.get());
+        assertEquals(Arrays.asList("fetch:1:20", "fetch:2:40"), retries);
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Exception> errors = new ArrayList<>();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("fetch", state -> {
+                attempts.incrementAndGet();
+                throw new IOException("connection reset");
+            })
+            .setEntryPoint("fetch")
+            .setRetryPolicy("fetch", RetryPolicy.builder().maxAttempts(3).backoff(Duration.ZERO).build())
+            .addListener(new GraphListener<TestState>() {
+                @Override
+                public void onError(String nodeName, TestState state, Exception error) {
+                    errors.add(error);
+                }
+            });
+
+        TestState state = new TestState();
+        assertThrows(IOException.class, () -> graph.execute(state));
+
+        assertEquals(3, attempts.get());
+        assertFalse(state.isFetched());
+        assertEquals(1, errors.size());
+        assertEquals("Node fetch failed after 3 attempts: connection reset", state.getError());
+    }
+
+    @Test
+    void testClassifierSkipsNonRetryableErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("fetch", state -> {
+                attempts.incrementAndGet();
+                throw new IllegalArgumentException("bad request");
+            })
+            .setEntryPoint("fetch")
+            .setRetryPolicy("fetch", RetryPolicy.builder()
+                .maxAttempts(5)
+                .backoff(Duration.ZERO)
+                .retryOn(IOException.class)
+                .build());
+
+        assertThrows(IllegalArgumentException.class, () -> graph.execute(new TestState()));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testRetryAfterTimeout() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("llm", state -> {
+                int attempt = attempts.incrementAndGet();
+                if (attempt == 1) {
+                    Thread.sleep(10_000);
+                }
+                state.setFetchedBy(attempt);
+                return state;
+            })
+            .setEntryPoint("llm")
+            .setNodeTimeout("llm", Duration.ofMillis(100))
+            .setRetryPolicy("llm", RetryPolicy.builder().maxAttempts(2).backoff(Duration.ZERO).build());
+
+        TestState result = graph.execute(new TestState());
+
+        assertEquals(2, result.getFetchedBy());
+        assertFalse(result.getCancellationToken().isCancelled());
+    }
+
+    @Test
+    void testAsyncBackoffDoesNotBlockThreads() throws Exception {
+        ExecutorService nodePool = Executors.newSingleThreadExecutor();
+        // Failed attempts leave nothing on the state, so they are counted per execution here
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        try {
+            Graph<TestState> graph = Graph.<TestState>builder()
+                .setLogging(false)
+                .setNodeExecutor(nodePool)
+                .addNode("fetch", state -> {
+                    int attempt = attempts.computeIfAbsent(state.getExecutionId(), id -> new AtomicInteger())
+                        .incrementAndGet();
+                    state.setAttempt(attempt);
+                    if (attempt < 3) {
+                        throw new IOException("busy");
+                    }
+                    return state;
+                })
+                .setEntryPoint("fetch")
+                .setRetryPolicy("fetch", RetryPolicy.builder()
+                    .maxAttempts(3)
+                    .backoff(Duration.ofMillis(200))
+                    .multiplier(1)
+                    .jitter(0)
+                    .build());
+
+            long start = System.nanoTime();
+            List<CompletableFuture<TestState>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(graph.executeAsync(new TestState()));
+            }
+            for (CompletableFuture<TestState> future : futures) {
+                assertEquals(3, future.get(5, TimeUnit.SECONDS).getAttempt());
+            }
+            // 200 executions with 400 ms of backoff each on one node thread
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        } finally {
+            nodePool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailedAndAbandonedAttemptsLeaveNoWrites() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch abandoned = new CountDownLatch(1);
+        List<Boolean> cancelledTokens = new CopyOnWriteArrayList<>();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("fetch", state -> {
+                int attempt = attempts.incrementAndGet();
+                state.setAttempt(attempt);
+                if (attempt < 3) {
+                    state.setFailedAttempt(attempt);
+                }
+                if (attempt == 1) {
+                    throw new IOException("connection reset");
+                }
+                if (attempt == 2) {
+                    // Ignores interruption and keeps writing after its timeout
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+                    while (System.nanoTime() < deadline) {
+                        Thread.interrupted();
+                    }
+                    cancelledTokens.add(state.getCancellationToken().isCancelled());
+                    state.setFetchedBy(attempt);
+                    abandoned.countDown();
+                    return state;
+                }
+                cancelledTokens.add(state.getCancellationToken().isCancelled());
+                state.setFetchedBy(attempt);
+                return state;
+            })
+            .setEntryPoint("fetch")
+            .setNodeTimeout("fetch", Duration.ofMillis(100))
+            .setRetryPolicy("fetch", RetryPolicy.builder()
+                .maxAttempts(3)
+                .backoff(Duration.ofMillis(1))
+                .retryOn(IOException.class, NodeTimeoutException.class)
+                .jitter(0)
+                .build());
+
+        TestState result = graph.execute(new TestState());
+        assertTrue(abandoned.await(5, TimeUnit.SECONDS));
+
+        // Only the successful attempt's writes are applied
+        assertEquals(3, result.getAttempt());
+        assertEquals(3, result.getFetchedBy());
+        assertEquals(0, result.getFailedAttempt());
+        assertFalse(result.hasError());
+        // The timed-out attempt's own token was cancelled; the retry got a fresh one
+        assertEquals(Arrays.asList(false, true), cancelledTokens);
+    }
+
+    @Test
+    void testFailedAndAbandonedAttemptsLeaveNoToolCalls() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch abandoned = new CountDownLatch(1);
+        Graph<AgentState> graph = Graph.<AgentState>builder()
+            .setLogging(false)
+            .addNode("agent", state -> {
+                int attempt = attempts.incrementAndGet();
+                state.addToolCall("search", attempt, "attempt " + attempt);
+                if (attempt == 1) {
+                    throw new IOException("connection reset");
+                }
+                if (attempt == 2) {
+                    // Keeps recording tool calls after its timeout
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+                    while (System.nanoTime() < deadline) {
+                        Thread.interrupted();
+                    }
+                    state.addToolCall("search", attempt, "late");
+                    abandoned.countDown();
+                }
+                return state;
+            })
+            .setEntryPoint("agent")
+            .setNodeTimeout("agent", Duration.ofMillis(100))
+            .setRetryPolicy("agent", RetryPolicy.builder()
+                .maxAttempts(3)
+                .backoff(Duration.ofMillis(1))
+                .retryOn(IOException.class, NodeTimeoutException.class)
+                .jitter(0)
+                .build());
+
+        AgentState state = new AgentState();
+        state.addToolCall("plan", "task", "planned");
+        AgentState result = graph.execute(state);
+        assertTrue(abandoned.await(5, TimeUnit.SECONDS));
+
+        List<String> results = new ArrayList<>();
+        for (AgentState.ToolCall call : result.getToolCalls()) {
+            results.add(call.getResult());
+        }
+        assertEquals(Arrays.asList("planned", "attempt 3"), results);
+    }
+
+    @Test
+    void testBackoffGrowsWithJitter() {
+        RetryPolicy policy = RetryPolicy.builder()
+            .backoff(Duration.ofMillis(100))
+            .maxBackoff(Duration.ofMillis(350))
+            .multiplier(2)
+            .jitter(0.5)
+            .build();
+
+        for (int i = 0; i < 100; i++) {
+            long first = TimeUnit.NANOSECONDS.toMillis(policy.backoffNanos(1));
+            long capped = TimeUnit.NANOSECONDS.toMillis(policy.backoffNanos(10));
+            assertTrue(first >= 50 && first <= 150, "first backoff " + first);
+            assertTrue(capped >= 175 && capped <= 525, "capped backoff " + capped);
+        }
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().jitter(2));
+    }
+}
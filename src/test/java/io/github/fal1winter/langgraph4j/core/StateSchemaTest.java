@@ -0,0 +1,134 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateSchemaTest {
+
+    static class OrderState extends State {
+        static final StateSchema SCHEMA = StateSchema.of(OrderState.class);
+        static final StateKey<String> CUSTOMER = SCHEMA.key("customer", String.class);
+        static final IntKey ATTEMPTS = SCHEMA.intKey("attempts");
+        static final LongKey TOTAL_CENTS = SCHEMA.longKey("totalCents");
+        static final DoubleKey SCORE = SCHEMA.doubleKey("score");
+    }
+
+    static class RushOrderState extends OrderState {
+        static final StateSchema SCHEMA = StateSchema.of(RushOrderState.class);
+        static final StateKey<String> COURIER = SCHEMA.key("courier", String.class);
+    }
+
+    @Test
+    void testTypedKeysAndStringApiShareSlots() {
+        OrderState state = new OrderState();
+        assertEquals(0, state.get(OrderState.ATTEMPTS));
+        assertFalse(state.has(OrderState.ATTEMPTS));
+        assertFalse(state.has("attempts"));
+
+        state.put(OrderState.CUSTOMER, "ada");
+        state.put(OrderState.ATTEMPTS, 2);
+        state.put(OrderState.TOTAL_CENTS, 12_000_000_000L);
+        state.put(OrderState.SCORE, 0.25);
+        state.put("note", "fragile");
+
+        assertEquals("ada", state.get("customer"));
+        assertEquals(Integer.valueOf(2), state.get("attempts"));
+        assertEquals(Long.valueOf(12_000_000_000L), state.get("totalCents"));
+        assertEquals(Double.valueOf(0.25), state.get("score"));
+
+        state.put("attempts", 3);
+        assertEquals(3, state.get(OrderState.ATTEMPTS));
+        assertThrows(IllegalArgumentException.class, () -> state.put("attempts", "three"));
+        assertThrows(IllegalArgumentException.class, () -> state.put("customer", 42));
+
+        Map<String, Object> data = state.getData();
+        assertEquals(5, data.size());
+        assertEquals(3, data.get("attempts"));
+        assertEquals("fragile", data.get("note"));
+
+        state.remove("attempts");
+        assertFalse(state.has(OrderState.ATTEMPTS));
+        assertEquals(0, state.get(OrderState.ATTEMPTS));
+        state.put(OrderState.CUSTOMER, null);
+        assertTrue(state.has("customer"));
+        assertNull(state.get(OrderState.CUSTOMER));
+    }
+
+    @Test
+    void testCopiesAndSerializationKeepSlots() throws Exception {
+        OrderState state = new OrderState();
+        state.put(OrderState.ATTEMPTS, 1);
+        state.put(OrderState.CUSTOMER, "ada");
+
+        OrderState copy = state.copy();
+        copy.put(OrderState.ATTEMPTS, 5);
+        assertEquals(1, state.get(OrderState.ATTEMPTS));
+        assertEquals(5, copy.get(OrderState.ATTEMPTS));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(copy);
+        }
+        OrderState restored;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = (OrderState) in.readObject();
+        }
+        assertEquals(5, restored.get(OrderState.ATTEMPTS));
+        assertEquals("ada", restored.get(OrderState.CUSTOMER));
+    }
+
+    @Test
+    void testSubclassInheritsSlotsAndForeignKeysFallBack() {
+        RushOrderState rush = new RushOrderState();
+        rush.put(OrderState.ATTEMPTS, 4);
+        rush.put(RushOrderState.COURIER, "bike");
+        assertEquals(4, rush.get(OrderState.ATTEMPTS));
+        assertEquals(RushOrderState.SCHEMA.size(), OrderState.SCHEMA.size() + 1);
+        assertThrows(IllegalStateException.class, () -> OrderState.SCHEMA.intKey("late"));
+        assertThrows(IllegalArgumentException.class, () -> RushOrderState.SCHEMA.key("courier", String.class));
+
+        // A plain State has no slots for these keys; they use the string key of the same name
+        State plain = new State();
+        plain.put(OrderState.ATTEMPTS, 7);
+        plain.put(OrderState.CUSTOMER, "grace");
+        assertEquals(Integer.valueOf(7), plain.get("attempts"));
+        assertEquals(7, plain.get(OrderState.ATTEMPTS));
+        assertEquals("grace", plain.get(OrderState.CUSTOMER));
+    }
+
+    @Test
+    void testFanOutMergesSlotChanges() throws Exception {
+        Graph<OrderState> graph = Graph.<OrderState>builder()
+            .setLogging(false)
+            .addNode("start", state -> state)
+            .addNode("count", state -> {
+                state.put(OrderState.ATTEMPTS, state.get(OrderState.ATTEMPTS) + 1);
+                return state;
+            })
+            .addNode("score", state -> {
+                state.put(OrderState.SCORE, 0.9);
+                state.remove(OrderState.CUSTOMER);
+                return state;
+            })
+            .addNode("join", state -> state)
+            .setEntryPoint("start")
+            .addFanOut("start", "join", "count", "score")
+            .addEdge("join", Graph.END);
+
+        OrderState state = new OrderState();
+        state.put(OrderState.ATTEMPTS, 1);
+        state.put(OrderState.CUSTOMER, "ada");
+        OrderState result = graph.execute(state);
+
+        assertEquals(2, result.get(OrderState.ATTEMPTS));
+        assertEquals(0.9, result.get(OrderState.SCORE));
+        assertFalse(result.has(OrderState.CUSTOMER));
+    }
+}
@@ -0,0 +1,217 @@
+package io.github.fal1winter.langgraph4j.core;
+
+import io.github.fal1winter.langgraph4j.persistence.Checkpoint;
+import io.github.fal1winter.langgraph4j.persistence.Checkpointer;
+import io.github.fal1winter.langgraph4j.persistence.InMemoryStateStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubgraphTest {
+
+    static class TestState extends State {
+        public void addTrail(String step) {
+            put("trail", getTrail() + step + ";");
+        }
+
+        public String getTrail() {
+            return get("trail", "");
+        }
+
+        public void setFixed(boolean fixed) {
+            put("fixed", fixed);
+        }
+
+        public boolean isFixed() {
+            return get("fixed", false);
+        }
+
+        public void setBlocked(boolean blocked) {
+            put("blocked", blocked);
+        }
+
+        public boolean isBlocked() {
+            return get("blocked", false);
+        }
+    }
+
+    static class StepRecorder implements GraphListener<TestState> {
+        final List<String> steps = new ArrayList<>();
+        final List<String> transitions = new ArrayList<>();
+
+        @Override
+        public void onBeforeNode(String nodeName, TestState state) {
+            steps.add(nodeName);
+        }
+
+        @Override
+        public void onTransition(String from, String to, TestState state) {
+            transitions.add(from + "->" + to);
+        }
+    }
+
+    @Test
+    void testSubgraphStepsRunInParentLoop() throws Exception {
+        StepRecorder recorder = new StepRecorder();
+        // lint -> (fix -> lint)* -> approve, with the loop driven by a router on relative names
+        Graph<TestState> review = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("lint", state -> {
+                state.addTrail("lint");
+                return state;
+            })
+            .addNode("fix", state -> {
+                state.setFixed(true);
+                state.addTrail("fix");
+                return state;
+            })
+            .addNode("approve", state -> {
+                state.addTrail("approve");
+                return state;
+            })
+            .setEntryPoint("lint")
+            .addRouter("lint", state -> state.isFixed() ? "approve" : "fix")
+            .addEdge("fix", "lint")
+            .addEdge("approve", Graph.END);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addListener(recorder)
+            .addNode("fetch", state -> {
+                state.addTrail("fetch");
+                return state;
+            })
+            .addSubgraph("review", review)
+            .addNode("publish", state -> {
+                state.addTrail("publish");
+                return state;
+            })
+            .addNode("reject", state -> {
+                state.addTrail("reject");
+                return state;
+            })
+            .setEntryPoint("fetch")
+            .addEdge("fetch", "review")
+            .addConditionalEdge("review", "reject", TestState::isBlocked)
+            .addEdge("review", "publish")
+            .addEdge("publish", Graph.END)
+            .addEdge("reject", Graph.END);
+
+        TestState result = graph.execute(new TestState());
+
+        assertEquals("fetch;lint;fix;lint;approve;publish;", result.getTrail());
+        assertEquals(Arrays.asList("fetch", "review/lint", "review/fix", "review/lint", "review/approve", "publish"),
+                recorder.steps);
+        assertTrue(recorder.transitions.contains("review/approve->publish"));
+        assertTrue(graph.compile().getNodeNames().containsAll(
+                Arrays.asList("review/lint", "review/fix", "review/approve")));
+
+        TestState blocked = new TestState();
+        blocked.setBlocked(true);
+        assertEquals("fetch;lint;fix;lint;approve;reject;", graph.execute(blocked).getTrail());
+    }
+
+    @Test
+    void testNestedSubgraphAsEntryPointAndRouterTarget() throws Exception {
+        StepRecorder recorder = new StepRecorder();
+        Graph<TestState> review = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("lint", state -> {
+                state.addTrail("lint");
+                return state;
+            })
+            .addNode("fix", state -> {
+                state.setFixed(true);
+                state.addTrail("fix");
+                return state;
+            })
+            .addNode("approve", state -> {
+                state.addTrail("approve");
+                return state;
+            })
+            .setEntryPoint("lint")
+            .addRouter("lint", state -> state.isFixed() ? "approve" : "fix")
+            .addEdge("fix", "lint")
+            .addEdge("approve", Graph.END);
+        Graph<TestState> outer = Graph.<TestState>builder()
+            .setLogging(false)
+            .addSubgraph("review", review)
+            .addNode("notify", state -> {
+                state.addTrail("notify");
+                return state;
+            })
+            .setEntryPoint("review")
+            .addEdge("review", "notify")
+            .addEdge("notify", Graph.END);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addListener(recorder)
+            .addSubgraph("pipeline", outer)
+            .addNode("archive", state -> {
+                state.addTrail("archive");
+                return state;
+            })
+            .setEntryPoint("pipeline")
+            .addRouter("pipeline", state -> "archive")
+            .addEdge("archive", Graph.END);
+
+        TestState result = graph.execute(new TestState());
+
+        assertEquals("lint;fix;lint;approve;notify;archive;", result.getTrail());
+        assertEquals("pipeline/review/lint", recorder.steps.get(0));
+        assertEquals("pipeline/notify", recorder.steps.get(4));
+    }
+
+    @Test
+    void testCheckpointInsideSubgraphResumes() throws Exception {
+        InMemoryStateStore<TestState> store = new InMemoryStateStore<>();
+        Graph<TestState> approval = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("wait", state -> {
+                if (state.getHumanInput() == null) {
+                    state.setNeedsHumanInput(true);
+                }
+                return state;
+            })
+            .setEntryPoint("wait")
+            .addEdge("wait", Graph.END);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setCheckpointer(Checkpointer.onPause(store))
+            .addSubgraph("approval", approval)
+            .addNode("publish", state -> {
+                state.addTrail("publish");
+                return state;
+            })
+            .setEntryPoint("approval")
+            .addEdge("approval", "publish")
+            .addEdge("publish", Graph.END);
+
+        TestState paused = graph.execute(new TestState());
+        Checkpoint<TestState> checkpoint = Checkpointer.onPause(store).load(paused.getExecutionId());
+        assertEquals("approval/wait", checkpoint.getNodeName());
+
+        paused.setHumanInput("ok");
+        TestState result = graph.resume(paused.getExecutionId(), paused);
+        assertEquals("publish;", result.getTrail());
+    }
+
+    @Test
+    void testInvalidSubgraphs() {
+        Graph<TestState> graph = Graph.<TestState>builder();
+        Graph<TestState> step = Graph.<TestState>builder()
+            .addNode("step", state -> state)
+            .setEntryPoint("step");
+        assertThrows(IllegalArgumentException.class, () -> graph.addSubgraph("self", graph));
+        assertThrows(IllegalArgumentException.class, () -> graph.addSubgraph("empty", Graph.<TestState>builder()));
+        assertThrows(IllegalArgumentException.class, () -> graph.addSubgraph("a/b", step));
+
+        Graph<TestState> inner = Graph.<TestState>builder().addNode("step", state -> state).setEntryPoint("step");
+        graph.addSubgraph("inner", inner).setEntryPoint("inner");
+        inner.addSubgraph("outer", graph);
+        assertThrows(IllegalStateException.class, graph::compile);
+    }
+}
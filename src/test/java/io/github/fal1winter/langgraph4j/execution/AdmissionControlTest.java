@@ -0,0 +1,168 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.State;
+import io.github.fal1winter.langgraph4j.metrics.GraphMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    static class TestState extends State {
+        public void setDone(boolean done) {
+            put("done", done);
+        }
+
+        public boolean isDone() {
+            return get("done", false);
+        }
+    }
+
+    private static AdmissionControl.Reason rejection(CompletableFuture<?> future) {
+        assertTrue(future.isCompletedExceptionally());
+        ExecutionException error = assertThrows(ExecutionException.class, future::get);
+        assertTrue(error.getCause() instanceof AdmissionRejectedException);
+        return ((AdmissionRejectedException) error.getCause()).getReason();
+    }
+
+    @Test
+    void testBoundsInFlightAndRejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("work", state -> {
+                gate.await(10, TimeUnit.SECONDS);
+                state.setDone(true);
+                return state;
+            })
+            .setEntryPoint("work")
+            .addEdge("work", Graph.END);
+        AdmissionControl admission = AdmissionControl.builder().maxInFlight(1).maxQueued(1).build();
+        try (GraphExecutor<TestState> executor = GraphExecutor.builder(graph)
+                .parallelism(2)
+                .admissionControl(admission)
+                .build()) {
+            CompletableFuture<TestState> running = executor.submit(new TestState());
+            CompletableFuture<TestState> queued = executor.submit(new TestState());
+            CompletableFuture<TestState> shed = executor.submit(new TestState());
+
+            assertEquals(AdmissionControl.Reason.QUEUE_FULL, rejection(shed));
+            assertEquals(1, admission.getInFlight());
+            assertEquals(1, admission.getQueueDepth());
+
+            gate.countDown();
+            assertTrue(running.get(10, TimeUnit.SECONDS).isDone());
+            assertTrue(queued.get(10, TimeUnit.SECONDS).isDone());
+            assertEquals(2, admission.getAdmitted());
+            assertEquals(1, admission.getRejected(AdmissionControl.Reason.QUEUE_FULL));
+            assertEquals(2, admission.getQueueWait().getCount());
+        }
+    }
+
+    @Test
+    void testShedsOnStandingQueue() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("work", state -> {
+                gate.await(10, TimeUnit.SECONDS);
+                state.setDone(true);
+                return state;
+            })
+            .setEntryPoint("work")
+            .addEdge("work", Graph.END);
+        AdmissionControl admission = AdmissionControl.builder()
+            .maxInFlight(1)
+            .maxQueueWait(Duration.ofMillis(20))
+            .build();
+        try (GraphExecutor<TestState> executor = GraphExecutor.builder(graph)
+                .parallelism(2)
+                .admissionControl(admission)
+                .build()) {
+            CompletableFuture<TestState> running = executor.submit(new TestState());
+            CompletableFuture<TestState> stale = executor.submit(new TestState());
+            Thread.sleep(50);
+
+            // The queue has been standing longer than the target, so new work is turned away
+            assertEquals(AdmissionControl.Reason.QUEUE_WAIT, rejection(executor.submit(new TestState())));
+            assertTrue(admission.getOldestQueueWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+
+            gate.countDown();
+            running.get(10, TimeUnit.SECONDS);
+            // The queued execution waited too long to be worth starting
+            try {
+                stale.get(10, TimeUnit.SECONDS);
+                fail("Expected the stale execution to be shed");
+            } catch (ExecutionException e) {
+                assertEquals(AdmissionControl.Reason.QUEUE_WAIT, ((AdmissionRejectedException) e.getCause()).getReason());
+            }
+            assertEquals(2, admission.getRejected(AdmissionControl.Reason.QUEUE_WAIT));
+            assertEquals(0, admission.getQueueDepth());
+        }
+    }
+
+    @Test
+    void testShedsUnderHeapPressureButKeepsDraining() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("work", state -> {
+                gate.await(10, TimeUnit.SECONDS);
+                state.setDone(true);
+                return state;
+            })
+            .setEntryPoint("work")
+            .addEdge("work", Graph.END);
+        AdmissionControl admission = AdmissionControl.builder()
+            .maxInFlight(4)
+            .maxHeapUsage(0.9)
+            .heapUsage(() -> 0.95)
+            .build();
+        try (GraphExecutor<TestState> executor = GraphExecutor.builder(graph)
+                .parallelism(2)
+                .admissionControl(admission)
+                .build()) {
+            CompletableFuture<TestState> first = executor.submit(new TestState());
+            assertEquals(AdmissionControl.Reason.HEAP_PRESSURE, rejection(executor.submit(new TestState())));
+            gate.countDown();
+            assertTrue(first.get(10, TimeUnit.SECONDS).isDone());
+        }
+    }
+
+    @Test
+    void testMetricsExportAdmission() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("work", state -> {
+                gate.await(10, TimeUnit.SECONDS);
+                state.setDone(true);
+                return state;
+            })
+            .setEntryPoint("work")
+            .addEdge("work", Graph.END);
+        gate.countDown();
+        AdmissionControl admission = AdmissionControl.builder().maxInFlight(2).maxQueued(0).build();
+        GraphMetrics<TestState> metrics = new GraphMetrics<TestState>("admission").monitor(admission);
+        try (GraphExecutor<TestState> executor = GraphExecutor.builder(graph)
+                .admissionControl(admission)
+                .build()) {
+            executor.execute(new TestState());
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        String text = metrics.scrape();
+        assertTrue(text.contains("langgraph4j_admission_queue_depth{graph=\"admission\"} 0\n"));
+        assertTrue(text.contains("langgraph4j_admission_queue_wait_seconds_count{graph=\"admission\"} 1\n"));
+        assertTrue(text.contains("langgraph4j_admission_rejected_total{graph=\"admission\",reason=\"QUEUE_FULL\"} 0\n"));
+        assertEquals(0, metrics.getAdmissionInFlight());
+    }
+}
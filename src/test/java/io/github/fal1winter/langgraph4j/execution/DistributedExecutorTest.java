@@ -0,0 +1,210 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.State;
+import io.github.fal1winter.langgraph4j.persistence.FileStateStore;
+import io.github.fal1winter.langgraph4j.persistence.InMemoryStateStore;
+import io.github.fal1winter.langgraph4j.persistence.StateStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistributedExecutorTest {
+
+    static class TestState extends State {
+        public TestState(int target) {
+            put("target", target);
+        }
+
+        public int getTarget() {
+            return get("target", 0);
+        }
+
+        public void increment() {
+            put("count", getCount() + 1);
+        }
+
+        public int getCount() {
+            return get("count", 0);
+        }
+    }
+
+    private static DistributedExecutor<TestState> executor(Graph<TestState> graph, WorkQueue queue,
+                                                           StateStore<TestState> store, String prefix, int workers) {
+        return DistributedExecutor.builder(graph)
+            .queue(queue)
+            .stateStore(store)
+            .workers(workers)
+            .workerIdPrefix(prefix)
+            .pollInterval(Duration.ofMillis(1))
+            .build();
+    }
+
+    @Test
+    void testExecutorsShareTheQueue() throws Exception {
+        // Counts up to the target in steps of one, so every execution takes several hops
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("increment", state -> {
+                state.increment();
+                return state;
+            })
+            .addNode("check", state -> {
+                if (state.getTarget() < 0) {
+                    throw new IllegalStateException("negative target");
+                }
+                return state;
+            })
+            .setEntryPoint("check")
+            .addEdge("check", "increment")
+            .addConditionalEdge("increment", "increment", state -> state.getCount() < state.getTarget())
+            .addEdge("increment", Graph.END);
+
+        InMemoryWorkQueue queue = new InMemoryWorkQueue();
+        InMemoryStateStore<TestState> store = new InMemoryStateStore<>();
+        try (DistributedExecutor<TestState> first = executor(graph, queue, store, "first", 2);
+             DistributedExecutor<TestState> second = executor(graph, queue, store, "second", 2)) {
+            List<String> ids = new ArrayList<>();
+            for (int i = 1; i <= 20; i++) {
+                ids.add((i % 2 == 0 ? first : second).submit(new TestState(i % 5 + 1)));
+            }
+            for (int i = 1; i <= 20; i++) {
+                TestState result = first.awaitResult(ids.get(i - 1), Duration.ofSeconds(10));
+                assertFalse(result.hasError());
+                assertEquals(i % 5 + 1, result.getCount());
+                assertEquals(ids.get(i - 1), result.getExecutionId());
+            }
+            assertEquals(20, first.getExecutionsFinished() + second.getExecutionsFinished());
+        }
+        // Intermediate states are removed once their step is handed off
+        assertEquals(0, queue.size());
+        assertEquals(20, store.listCheckpoints().size());
+    }
+
+    @Test
+    void testFileQueueAndStoreHandOffAcrossExecutors(@TempDir Path tempDir) throws Exception {
+        // Counts up to the target in steps of one, so every execution takes several hops
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("increment", state -> {
+                state.increment();
+                return state;
+            })
+            .addNode("check", state -> {
+                if (state.getTarget() < 0) {
+                    throw new IllegalStateException("negative target");
+                }
+                return state;
+            })
+            .setEntryPoint("check")
+            .addEdge("check", "increment")
+            .addConditionalEdge("increment", "increment", state -> state.getCount() < state.getTarget())
+            .addEdge("increment", Graph.END);
+
+        FileWorkQueue queue = new FileWorkQueue(tempDir.resolve("queue").toString());
+        FileStateStore<TestState> store = new FileStateStore<>(tempDir.resolve("states").toString());
+        String id;
+        try (DistributedExecutor<TestState> client = executor(graph, queue, store, "client", 0)) {
+            id = client.submit(new TestState(3));
+            assertEquals(1, queue.size());
+            assertFalse(client.isDone(id));
+        }
+        try (DistributedExecutor<TestState> worker = executor(graph, queue, store, "worker", 1)) {
+            TestState result = worker.awaitResult(id, Duration.ofSeconds(10));
+            assertEquals(3, result.getCount());
+            assertEquals(4, worker.getStepsExecuted());
+        }
+    }
+
+    @Test
+    void testExpiredLeaseIsRedelivered() throws Exception {
+        // Counts up to the target in steps of one, so every execution takes several hops
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("increment", state -> {
+                state.increment();
+                return state;
+            })
+            .addNode("check", state -> {
+                if (state.getTarget() < 0) {
+                    throw new IllegalStateException("negative target");
+                }
+                return state;
+            })
+            .setEntryPoint("check")
+            .addEdge("check", "increment")
+            .addConditionalEdge("increment", "increment", state -> state.getCount() < state.getTarget())
+            .addEdge("increment", Graph.END);
+
+        InMemoryWorkQueue queue = new InMemoryWorkQueue();
+        InMemoryStateStore<TestState> store = new InMemoryStateStore<>();
+        String id;
+        try (DistributedExecutor<TestState> client = executor(graph, queue, store, "client", 0)) {
+            id = client.submit(new TestState(2));
+        }
+        // A worker that leases the first step and dies before finishing it
+        assertNotNull(queue.poll("crashed", Duration.ofMillis(20)));
+        assertNull(queue.poll("other", Duration.ofMillis(20)));
+        Thread.sleep(50);
+
+        try (DistributedExecutor<TestState> worker = executor(graph, queue, store, "worker", 1)) {
+            TestState result = worker.awaitResult(id, Duration.ofSeconds(10));
+            assertEquals(2, result.getCount());
+        }
+        assertEquals(1, queue.getExpired());
+    }
+
+    @Test
+    void testIdleWorkerStealsAffineSteps() throws Exception {
+        InMemoryWorkQueue queue = new InMemoryWorkQueue();
+        queue.offer(new StepTask("a", null, 0, "busy"));
+        queue.offer(new StepTask("b", null, 0, "busy"));
+
+        Lease stolen = queue.poll("idle", Duration.ofSeconds(30));
+        Lease own = queue.poll("busy", Duration.ofSeconds(30));
+
+        assertEquals("b", stolen.getTask().getExecutionId());
+        assertEquals("a", own.getTask().getExecutionId());
+        assertEquals(1, queue.getStolen());
+        assertTrue(queue.complete(own));
+        assertFalse(queue.complete(own));
+    }
+
+    @Test
+    void testFailedStepFinishesWithError() throws Exception {
+        // Counts up to the target in steps of one, so every execution takes several hops
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("increment", state -> {
+                state.increment();
+                return state;
+            })
+            .addNode("check", state -> {
+                if (state.getTarget() < 0) {
+                    throw new IllegalStateException("negative target");
+                }
+                return state;
+            })
+            .setEntryPoint("check")
+            .addEdge("check", "increment")
+            .addConditionalEdge("increment", "increment", state -> state.getCount() < state.getTarget())
+            .addEdge("increment", Graph.END);
+
+        InMemoryWorkQueue queue = new InMemoryWorkQueue();
+        InMemoryStateStore<TestState> store = new InMemoryStateStore<>();
+        try (DistributedExecutor<TestState> executor = executor(graph, queue, store, "worker", 1)) {
+            String id = executor.submit(new TestState(-1));
+            TestState result = executor.awaitResult(id, Duration.ofSeconds(10));
+            assertTrue(result.getError().contains("negative target"));
+            // Node failures are results, not redeliveries
+            assertEquals(1, executor.getStepsExecuted());
+        }
+        assertEquals(0, queue.size());
+    }
+}
@@ -0,0 +1,201 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.GraphListener;
+import io.github.fal1winter.langgraph4j.core.RetryPolicy;
+import io.github.fal1winter.langgraph4j.core.State;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphExecutorTest {
+
+    static class TestState extends State {
+        public TestState(int id) {
+            put("id", id);
+        }
+
+        public int getId() {
+            return get("id");
+        }
+    }
+
+    private Graph<TestState> graph(AtomicInteger completed) {
+        return Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("square", state -> {
+                state.put("square", state.getId() * state.getId());
+                return state;
+            })
+            .addNode("check", state -> {
+                if (state.getId() < 0) {
+                    throw new IllegalStateException("negative id");
+                }
+                return state;
+            })
+            .setEntryPoint("square")
+            .addEdge("square", "check")
+            .addEdge("check", Graph.END)
+            .addListener(new GraphListener<TestState>() {
+                @Override
+                public void onComplete(TestState state) {
+                    completed.incrementAndGet();
+                }
+            });
+    }
+
+    @Test
+    void testParallelExecutions() throws Exception {
+        AtomicInteger completed = new AtomicInteger();
+        try (GraphExecutor<TestState> executor = GraphExecutor.builder(graph(completed))
+                .parallelism(4)
+                .build()) {
+            List<TestState> inputs = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                inputs.add(new TestState(i));
+            }
+
+            List<CompletableFuture<TestState>> futures = executor.submitAll(inputs);
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(i * i, futures.get(i).get().<Integer>get("square"));
+            }
+            assertEquals(500, completed.get());
+        }
+    }
+
+    @Test
+    void testFailureIsIsolated() throws Exception {
+        try (GraphExecutor<TestState> executor = GraphExecutor.builder(graph(new AtomicInteger()))
+                .parallelism(2)
+                .build()) {
+            CompletableFuture<TestState> failing = executor.submit(new TestState(-1));
+            CompletableFuture<TestState> passing = executor.submit(new TestState(3));
+
+            ExecutionException error = assertThrows(ExecutionException.class, failing::get);
+            assertTrue(error.getCause() instanceof IllegalStateException);
+            assertEquals(9, passing.get().<Integer>get("square"));
+            assertThrows(IllegalStateException.class, () -> executor.execute(new TestState(-2)));
+        }
+    }
+
+    @Test
+    void testVirtualThreads() throws Exception {
+        GraphExecutor.Builder<TestState> builder = GraphExecutor.builder(graph(new AtomicInteger()));
+        if (!GraphExecutor.isVirtualThreadsSupported()) {
+            assertThrows(UnsupportedOperationException.class, () -> builder.virtualThreads(true));
+            return;
+        }
+        try (GraphExecutor<TestState> executor = builder.virtualThreads(true).build()) {
+            assertEquals(Integer.MAX_VALUE, executor.getParallelism());
+            assertEquals(16, executor.execute(new TestState(4)).<Integer>get("square"));
+        }
+    }
+
+    @Test
+    void testExecuteBatchOrderedWithFailures() throws Exception {
+        try (GraphExecutor<TestState> executor = GraphExecutor.builder(graph(new AtomicInteger()))
+                .parallelism(4)
+                .build()) {
+            List<TestState> inputs = IntStream.range(-5, 95).mapToObj(TestState::new).collect(Collectors.toList());
+
+            BatchResult<TestState> result = executor.executeBatch(inputs);
+
+            assertEquals(100, result.getItems().size());
+            for (int i = 0; i < 100; i++) {
+                BatchItem<TestState> item = result.getItems().get(i);
+                assertEquals(i, item.getIndex());
+                assertSame(inputs.get(i), item.getInput());
+                assertEquals(item.getInput().getId() >= 0, item.isSuccess());
+            }
+            assertEquals(5, result.getFailures().size());
+            assertTrue(result.getFailures().get(0).getError() instanceof IllegalStateException);
+            assertEquals(95, result.getResults().size());
+
+            BatchStats stats = result.getStats();
+            assertEquals(100, stats.getTotal());
+            assertEquals(5, stats.getFailed());
+            assertTrue(stats.getThroughput() > 0);
+            assertTrue(stats.getMedianLatencyNanos() <= stats.getP99LatencyNanos());
+            assertTrue(stats.getP99LatencyNanos() <= stats.getMaxLatencyNanos());
+        }
+    }
+
+    @Test
+    void testExecuteBatchBoundsInFlight() throws Exception {
+        AtomicInteger pulled = new AtomicInteger();
+        int[] maxAhead = {0};
+        Graph<TestState> slow = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("work", state -> {
+                Thread.sleep(2);
+                return state;
+            })
+            .setEntryPoint("work");
+
+        try (GraphExecutor<TestState> executor = GraphExecutor.builder(slow)
+                .parallelism(2)
+                .batchWindow(3)
+                .build()) {
+            List<Integer> order = new ArrayList<>();
+            BatchStats stats = executor.executeBatch(
+                IntStream.range(0, 200).mapToObj(i -> {
+                    pulled.incrementAndGet();
+                    return new TestState(i);
+                }),
+                false,
+                item -> {
+                    order.add(item.getIndex());
+                    maxAhead[0] = Math.max(maxAhead[0], pulled.get() - order.size());
+                });
+
+            assertEquals(200, stats.getSucceeded());
+            assertEquals(200, order.stream().distinct().count());
+            assertTrue(maxAhead[0] <= 3, "window exceeded: " + maxAhead[0]);
+        }
+    }
+
+    @Test
+    void testRetryBackoffDoesNotHoldWorkers() throws Exception {
+        Set<Integer> failedOnce = ConcurrentHashMap.newKeySet();
+        Graph<TestState> flaky = Graph.<TestState>builder()
+            .setLogging(false)
+            .addNode("fetch", state -> {
+                if (failedOnce.add(state.getId())) {
+                    throw new IOException("busy");
+                }
+                state.put("square", state.getId() * state.getId());
+                return state;
+            })
+            .setEntryPoint("fetch")
+            .addEdge("fetch", Graph.END)
+            .setRetryPolicy("fetch", RetryPolicy.builder()
+                .maxAttempts(2)
+                .backoff(Duration.ofMillis(300))
+                .jitter(0)
+                .build());
+
+        try (GraphExecutor<TestState> executor = GraphExecutor.builder(flaky).parallelism(1).batchWindow(10).build()) {
+            long start = System.nanoTime();
+            BatchResult<TestState> result = executor.executeBatch(
+                IntStream.range(0, 10).mapToObj(TestState::new).collect(Collectors.toList()));
+
+            assertEquals(10, result.getStats().getSucceeded());
+            assertEquals(81, result.getItems().get(9).getResult().<Integer>get("square"));
+            // Ten 300 ms backoffs would take 3 s if each held the only worker
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_500);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.fal1winter.langgraph4j.execution;
+
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.State;
+import io.github.fal1winter.langgraph4j.jfr.JfrEvents;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs against the packaged JAR, so the overlays under META-INF/versions are loaded
+ * The release profile sets {@code langgraph4j.requireOverlays} and runs these on JDK 21,
+ * where skipping would hide a JAR built without them.
+ */
+class MultiReleaseJarIT {
+
+    static class ThreadState extends State {
+        public void setVirtual(boolean virtual) {
+            put("virtual", virtual);
+        }
+
+        public boolean isVirtual() {
+            return get("virtual", false);
+        }
+    }
+
+    private static int javaVersion() {
+        String version = System.getProperty("java.specification.version");
+        return version.startsWith("1.") ? Integer.parseInt(version.substring(2)) : Integer.parseInt(version);
+    }
+
+    private static void requireJava(int version) {
+        if (Boolean.getBoolean("langgraph4j.requireOverlays")) {
+            assertTrue(javaVersion() >= version, "Release checks must run on Java " + version + "+");
+        } else {
+            assumeTrue(javaVersion() >= version, "Overlay needs Java " + version + "+");
+        }
+    }
+
+    @Test
+    void testVirtualThreadOverlay() throws Exception {
+        requireJava(21);
+        assertTrue(GraphExecutor.isVirtualThreadsSupported());
+
+        Graph<ThreadState> graph = Graph.<ThreadState>builder()
+            .setLogging(false)
+            .addNode("probe", state -> {
+                state.setVirtual((Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+                return state;
+            })
+            .setEntryPoint("probe")
+            .addEdge("probe", Graph.END);
+
+        try (GraphExecutor<ThreadState> executor = GraphExecutor.builder(graph).virtualThreads(true).build()) {
+            assertTrue(executor.execute(new ThreadState()).isVirtual());
+        }
+    }
+
+    @Test
+    void testFlightRecorderOverlay() {
+        requireJava(11);
+        assertTrue(JfrEvents.isSupported());
+    }
+}
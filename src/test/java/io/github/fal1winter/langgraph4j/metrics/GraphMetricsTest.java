@@ -0,0 +1,203 @@
+package io.github.fal1winter.langgraph4j.metrics;
+
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.State;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class GraphMetricsTest {
+
+    static class TestState extends State {
+        public void setDecision(String decision) {
+            put("decision", decision);
+        }
+
+        public String getDecision() {
+            return get("decision", "none");
+        }
+    }
+
+    @Test
+    void testHistogramPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(5_000_500.0, histogram.getMean(), 0.5);
+        long p50 = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(Math.abs(p50 - 5_000_000) <= 5_000_000 / 16, "p50 " + p50);
+        assertTrue(Math.abs(p99 - 9_900_000) <= 9_900_000 / 16, "p99 " + p99);
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testHistogramBucketsCoverWholeRange() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1_000_003, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(LatencyHistogram.highestValue(bucket) >= value);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValue(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    void testRecordsNodesTransitionsErrorsAndPauses() throws Exception {
+        GraphMetrics<TestState> metrics = new GraphMetrics<>("review");
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addListener(metrics)
+            .addNode("draft", state -> state)
+            .addNode("review", state -> {
+                if ("reject".equals(state.getDecision())) {
+                    throw new IllegalStateException("rejected");
+                }
+                if ("approve".equals(state.getDecision())) {
+                    state.setNeedsHumanInput(true);
+                }
+                return state;
+            })
+            .setEntryPoint("draft")
+            .addEdge("draft", "review")
+            .addEdge("review", Graph.END);
+
+        graph.execute(new TestState());
+        graph.execute(new TestState());
+        TestState approve = new TestState();
+        approve.setDecision("approve");
+        graph.execute(approve);
+        TestState reject = new TestState();
+        reject.setDecision("reject");
+        assertThrows(IllegalStateException.class, () -> graph.execute(reject));
+
+        assertEquals(4, metrics.getExecutionsStarted());
+        assertEquals(2, metrics.getExecutionsCompleted());
+        assertEquals(1, metrics.getExecutionsFailed());
+        assertEquals(1, metrics.getHumanInputPauses());
+        assertEquals(0, metrics.getExecutionsInFlight());
+        assertEquals(4, metrics.getNodeCount("draft"));
+        assertEquals(3, metrics.getNodeCount("review"));
+        assertEquals(1, metrics.getNodeErrors("review"));
+        assertEquals(4, metrics.getTransitionCount("draft", "review"));
+        assertEquals(2, metrics.getTransitionCount("review", Graph.END));
+        assertArrayEquals(new String[]{"draft", "review"}, metrics.getNodeNames());
+    }
+
+    @Test
+    void testScrapeUsesPrometheusTextFormat() throws Exception {
+        GraphMetrics<TestState> metrics = new GraphMetrics<>("review");
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addListener(metrics)
+            .addNode("draft", state -> state)
+            .addNode("review", state -> state)
+            .setEntryPoint("draft")
+            .addEdge("draft", "review")
+            .addEdge("review", Graph.END);
+        graph.execute(new TestState());
+
+        String text = metrics.scrape();
+
+        assertTrue(text.contains("# TYPE langgraph4j_node_duration_seconds summary\n"));
+        assertTrue(text.contains("langgraph4j_node_duration_seconds_count{graph=\"review\",node=\"draft\"} 1\n"));
+        assertTrue(text.contains("langgraph4j_node_duration_seconds{graph=\"review\",node=\"draft\",quantile=\"0.99\"} "));
+        assertTrue(text.contains("langgraph4j_transitions_total{graph=\"review\",from=\"draft\",to=\"review\"} 1\n"));
+        assertTrue(text.contains("langgraph4j_executions_in_flight{graph=\"review\"} 0\n"));
+        assertEquals("a\\\"b\\\\c\\n", GraphMetrics.escape("a\"b\\c\n"));
+    }
+
+    @Test
+    void testRecordingDoesNotAllocate() throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocation.isThreadAllocatedMemorySupported() && allocation.isThreadAllocatedMemoryEnabled());
+
+        GraphMetrics<TestState> metrics = new GraphMetrics<>();
+        TestState state = new TestState();
+        for (int i = 0; i < 20_000; i++) {
+            metrics.onAfterNode("node", state, i);
+            metrics.onTransition("node", "next", state);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocation.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            metrics.onAfterNode("node", state, i);
+            metrics.onTransition("node", "next", state);
+        }
+        long allocated = allocation.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(allocated < 16 * 1024, "allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void testRegistersMBean() throws Exception {
+        GraphMetrics<TestState> metrics = new GraphMetrics<>("jmx-test");
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addListener(metrics)
+            .addNode("draft", state -> state)
+            .addNode("review", state -> state)
+            .setEntryPoint("draft")
+            .addEdge("draft", "review")
+            .addEdge("review", Graph.END);
+        graph.execute(new TestState());
+
+        ObjectName name = metrics.registerMBean();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "ExecutionsCompleted"));
+            assertEquals(1L, server.invoke(name, "getNodeCount",
+                    new Object[]{"draft"}, new String[]{String.class.getName()}));
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Test
+    void testEndpointServesScrape() throws Exception {
+        GraphMetrics<TestState> metrics = new GraphMetrics<>("http-test");
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .addListener(metrics)
+            .addNode("draft", state -> state)
+            .addNode("review", state -> state)
+            .setEntryPoint("draft")
+            .addEdge("draft", "review")
+            .addEdge("review", Graph.END);
+        graph.execute(new TestState());
+
+        try (PrometheusEndpoint endpoint = PrometheusEndpoint.start(0, metrics)) {
+            URL url = new URL("http://localhost:" + endpoint.getPort() + "/metrics");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertEquals(PrometheusEndpoint.CONTENT_TYPE, connection.getContentType());
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream in = connection.getInputStream()) {
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    body.write(buffer, 0, read);
+                }
+            }
+            assertEquals(endpoint.scrape(), new String(body.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.fal1winter.langgraph4j.persistence;
+
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.State;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointerTest {
+
+    static class TestState extends State {
+        public TestState(String value) {
+            put("value", value);
+        }
+    }
+
+    /**
+     * llm -> review (pauses until approved) -> publish
+     */
+    private Graph<TestState> reviewGraph(AtomicInteger llmCalls, Checkpointer<TestState> checkpointer) {
+        return Graph.<TestState>builder()
+            .setLogging(false)
+            .setCheckpointer(checkpointer)
+            .addNode("llm", state -> {
+                llmCalls.incrementAndGet();
+                state.put("draft", "generated");
+                return state;
+            })
+            .addNode("review", state -> {
+                if (state.getHumanInput() == null) {
+                    state.setNeedsHumanInput(true);
+                }
+                return state;
+            })
+            .addNode("publish", state -> {
+                state.put("published", state.getHumanInput());
+                return state;
+            })
+            .setEntryPoint("llm")
+            .addEdge("llm", "review")
+            .addRouter("review", state -> "approved".equals(state.getHumanInput()) ? "publish" : Graph.END)
+            .addEdge("publish", Graph.END);
+    }
+
+    @Test
+    void testResumeAfterPause() throws Exception {
+        InMemoryStateStore<TestState> store = new InMemoryStateStore<>();
+        AtomicInteger llmCalls = new AtomicInteger();
+        Graph<TestState> graph = reviewGraph(llmCalls, Checkpointer.onPause(store));
+
+        TestState paused = graph.execute(new TestState("a"));
+        assertTrue(paused.isNeedsHumanInput());
+        String checkpointId = paused.getExecutionId();
+        assertNotNull(checkpointId);
+        assertTrue(store.exists(checkpointId));
+
+        Checkpoint<TestState> checkpoint = Checkpointer.onPause(store).load(checkpointId);
+        assertEquals("review", checkpoint.getNodeName());
+        assertEquals(2, checkpoint.getIterations());
+        assertFalse(checkpoint.getState().has(Checkpointer.NODE_KEY));
+
+        paused.setHumanInput("approved");
+        TestState result = graph.resume(checkpointId, paused);
+
+        assertEquals("approved", result.get("published"));
+        assertEquals(1, llmCalls.get());
+        assertFalse(store.exists(checkpointId));
+    }
+
+    @Test
+    void testResumeWithoutInputPausesAgain() throws Exception {
+        InMemoryStateStore<TestState> store = new InMemoryStateStore<>();
+        AtomicInteger llmCalls = new AtomicInteger();
+        Graph<TestState> graph = reviewGraph(llmCalls, Checkpointer.onPause(store));
+
+        String checkpointId = graph.execute(new TestState("a")).getExecutionId();
+        TestState result = graph.resume(checkpointId);
+
+        assertTrue(result.isNeedsHumanInput());
+        assertTrue(store.exists(checkpointId));
+        assertEquals(1, llmCalls.get());
+    }
+
+    @Test
+    void testResumeAfterFailure(@TempDir Path tempDir) throws Exception {
+        FileStateStore<TestState> store = new FileStateStore<>(tempDir.toString());
+        AtomicInteger llmCalls = new AtomicInteger();
+        AtomicBoolean crash = new AtomicBoolean(true);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setCheckpointer(Checkpointer.everyStep(store))
+            .addNode("llm", state -> {
+                llmCalls.incrementAndGet();
+                state.put("draft", "generated");
+                return state;
+            })
+            .addNode("tool", state -> {
+                if (crash.get()) {
+                    throw new IllegalStateException("connection reset");
+                }
+                state.put("tool", "done");
+                return state;
+            })
+            .setEntryPoint("llm")
+            .addEdge("llm", "tool")
+            .addEdge("tool", Graph.END);
+
+        TestState state = new TestState("a");
+        assertThrows(IllegalStateException.class, () -> graph.execute(state));
+        assertTrue(store.exists(state.getExecutionId()));
+
+        crash.set(false);
+        TestState result = graph.resume(state.getExecutionId());
+
+        assertEquals("generated", result.get("draft"));
+        assertEquals("done", result.get("tool"));
+        assertFalse(result.hasError());
+        assertEquals(1, llmCalls.get());
+        assertFalse(store.exists(state.getExecutionId()));
+    }
+
+    @Test
+    void testEveryStepsInterval() throws Exception {
+        AtomicInteger saves = new AtomicInteger();
+        InMemoryStateStore<TestState> store = new InMemoryStateStore<TestState>() {
+            @Override
+            public void save(String checkpointId, TestState state) {
+                saves.incrementAndGet();
+                super.save(checkpointId, state);
+            }
+        };
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setCheckpointer(Checkpointer.everySteps(store, 3))
+            .addNode("step", state -> {
+                state.put("count", state.get("count", 0) + 1);
+                return state;
+            })
+            .setEntryPoint("step")
+            .addConditionalEdge("step", "step", state -> state.<Integer>get("count") < 10);
+
+        TestState result = graph.execute(new TestState("a"));
+
+        assertEquals(10, result.<Integer>get("count"));
+        assertEquals(3, saves.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testResumeRequiresCheckpointer() {
+        Graph<TestState> graph = reviewGraph(new AtomicInteger(), null);
+
+        assertThrows(IllegalStateException.class, () -> graph.resume("missing"));
+        assertThrows(IllegalArgumentException.class, () -> Checkpointer.everySteps(new InMemoryStateStore<TestState>(), 0));
+    }
+}
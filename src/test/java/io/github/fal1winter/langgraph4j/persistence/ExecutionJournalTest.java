@@ -0,0 +1,407 @@
+package io.github.fal1winter.langgraph4j.persistence;
+
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.State;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionJournalTest {
+
+    static class TestState extends State {
+        /**
+         * Appends to the log list in place, so the journal has to notice the mutation
+         */
+        public void addLog(String entry) {
+            List<String> log = get("log");
+            if (log == null) {
+                log = new ArrayList<>();
+                put("log", log);
+            }
+            log.add(entry);
+        }
+
+        public List<String> getLog() {
+            return get("log");
+        }
+
+        public void setRecords(int records) {
+            put("records", records);
+        }
+
+        public int getRecords() {
+            return get("records", 0);
+        }
+
+        public void setStored(boolean stored) {
+            put("stored", stored);
+        }
+
+        public boolean isStored() {
+            return get("stored", false);
+        }
+
+        public void setAttachment(String attachment) {
+            put("attachment", attachment);
+        }
+
+        public boolean hasAttachment() {
+            return has("attachment");
+        }
+
+        public void removeAttachment() {
+            remove("attachment");
+        }
+    }
+
+    /**
+     * Run an execution until it hangs in a node, and leave it there as if the process died
+     * Its journal stays open. Interrupt the returned thread once the test is done.
+     */
+    private static Thread crash(Graph<TestState> graph, CountDownLatch hung, TestState state) throws Exception {
+        Thread thread = new Thread(() -> {
+            try {
+                graph.execute(state);
+            } catch (Exception e) {
+                // Interrupted at the end of the test
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        assertTrue(hung.await(5, TimeUnit.SECONDS));
+        return thread;
+    }
+
+    private static void cleanUp(Thread crashed, ExecutionJournal<TestState> abandoned) throws Exception {
+        abandoned.close();
+        crashed.interrupt();
+        crashed.join();
+    }
+
+    private static List<Path> segments(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.toString().endsWith(".log")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void testRecoversInFlightExecutions(@TempDir Path tempDir) throws Exception {
+        ExecutionJournal<TestState> abandoned = ExecutionJournal.<TestState>builder(tempDir.toString()).build();
+        AtomicBoolean hang = new AtomicBoolean();
+        CountDownLatch hung = new CountDownLatch(1);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setJournal(abandoned)
+            .addNode("fetch", state -> {
+                state.addLog("fetched");
+                state.setRecords(3);
+                return state;
+            })
+            .addNode("enrich", state -> {
+                if (hang.get()) {
+                    hung.countDown();
+                    new CountDownLatch(1).await();
+                }
+                state.addLog("enriched");
+                return state;
+            })
+            .addNode("store", state -> {
+                state.setStored(true);
+                return state;
+            })
+            .setEntryPoint("fetch")
+            .addEdge("fetch", "enrich")
+            .addEdge("enrich", "store")
+            .addEdge("store", Graph.END);
+
+        graph.execute(new TestState());
+        hang.set(true);
+        TestState crashed = new TestState();
+        Thread thread = crash(graph, hung, crashed);
+        String executionId = crashed.getExecutionId();
+
+        try (ExecutionJournal<TestState> journal = ExecutionJournal.<TestState>builder(tempDir.toString()).build()) {
+            List<Checkpoint<TestState>> recovered = journal.recover();
+            assertEquals(1, recovered.size());
+            Checkpoint<TestState> checkpoint = recovered.get(0);
+            assertEquals(executionId, checkpoint.getCheckpointId());
+            assertEquals("fetch", checkpoint.getNodeName());
+            assertEquals("enrich", checkpoint.getNextNode());
+            assertEquals(1, checkpoint.getIterations());
+            assertEquals(3, checkpoint.getState().getRecords());
+
+            hang.set(false);
+            TestState result = graph.setJournal(journal).resume(checkpoint);
+            assertEquals(executionId, result.getExecutionId());
+            assertTrue(result.isStored());
+            assertEquals(2, result.getLog().size());
+        }
+        cleanUp(thread, abandoned);
+
+        try (ExecutionJournal<TestState> journal = ExecutionJournal.<TestState>builder(tempDir.toString()).build()) {
+            assertTrue(journal.recover().isEmpty());
+        }
+    }
+
+    @Test
+    void testFailedExecutionsAreNotRecovered(@TempDir Path tempDir) throws Exception {
+        try (ExecutionJournal<TestState> journal = ExecutionJournal.<TestState>builder(tempDir.toString())
+                .segmentBytes(1)
+                .compactAfterSegments(0)
+                .build()) {
+            Graph<TestState> graph = Graph.<TestState>builder()
+                .setLogging(false)
+                .setJournal(journal)
+                .addNode("fetch", state -> {
+                    state.setRecords(3);
+                    return state;
+                })
+                .addNode("fail", state -> {
+                    throw new IllegalStateException("fail");
+                })
+                .setEntryPoint("fetch")
+                .addEdge("fetch", "fail")
+                .addEdge("fail", Graph.END);
+            assertThrows(IllegalStateException.class, () -> graph.execute(new TestState()));
+            // begin, fetch and the end of the failed execution
+            assertEquals(3, journal.getRecordsWritten());
+
+            journal.compact();
+            assertTrue(journal.recover().isEmpty());
+        }
+
+        try (ExecutionJournal<TestState> journal = ExecutionJournal.<TestState>builder(tempDir.toString()).build()) {
+            assertTrue(journal.recover().isEmpty());
+        }
+    }
+
+    @Test
+    void testDeltasCarryInPlaceMutations(@TempDir Path tempDir) throws Exception {
+        ExecutionJournal<TestState> abandoned = ExecutionJournal.<TestState>builder(tempDir.toString()).build();
+        CountDownLatch hung = new CountDownLatch(1);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setJournal(abandoned)
+            .addNode("first", state -> {
+                state.addLog("first");
+                state.setAttachment(new String(new char[4096]));
+                return state;
+            })
+            .addNode("second", state -> {
+                state.addLog("second");
+                state.removeAttachment();
+                return state;
+            })
+            .addNode("crash", state -> {
+                hung.countDown();
+                new CountDownLatch(1).await();
+                return state;
+            })
+            .setEntryPoint("first")
+            .addEdge("first", "second")
+            .addEdge("second", "crash")
+            .addEdge("crash", Graph.END);
+
+        Thread thread = crash(graph, hung, new TestState());
+        // begin, first (with the attachment), second (without it)
+        assertEquals(3, abandoned.getRecordsWritten());
+
+        try (ExecutionJournal<TestState> journal = ExecutionJournal.<TestState>builder(tempDir.toString()).build()) {
+            TestState state = journal.recover().get(0).getState();
+            assertEquals(2, state.getLog().size());
+            assertFalse(state.hasAttachment());
+        } finally {
+            cleanUp(thread, abandoned);
+        }
+    }
+
+    @Test
+    void testGroupCommitSharesFsyncs(@TempDir Path tempDir) throws Exception {
+        try (ExecutionJournal<TestState> journal = ExecutionJournal.<TestState>builder(tempDir.toString())
+                .commitInterval(Duration.ofMillis(2))
+                .build()) {
+            Graph<TestState> graph = Graph.<TestState>builder()
+                .setLogging(false)
+                .setJournal(journal)
+                .addNode("fetch", state -> {
+                    state.addLog("fetched");
+                    state.setRecords(3);
+                    return state;
+                })
+                .addNode("enrich", state -> {
+                    state.addLog("enriched");
+                    return state;
+                })
+                .addNode("store", state -> {
+                    state.setStored(true);
+                    return state;
+                })
+                .setEntryPoint("fetch")
+                .addEdge("fetch", "enrich")
+                .addEdge("enrich", "store")
+                .addEdge("store", Graph.END);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        try {
+                            graph.execute(new TestState());
+                        } catch (Exception e) {
+                            throw new AssertionError(e);
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            // 80 executions of begin, three steps and end
+            assertEquals(400, journal.getRecordsWritten());
+            assertTrue(journal.getCommits() < 400, "commits " + journal.getCommits());
+            assertTrue(journal.recover().isEmpty());
+        }
+    }
+
+    @Test
+    void testTornTailIsTruncated(@TempDir Path tempDir) throws Exception {
+        ExecutionJournal<TestState> abandoned = ExecutionJournal.<TestState>builder(tempDir.toString()).build();
+        CountDownLatch hung = new CountDownLatch(1);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setJournal(abandoned)
+            .addNode("fetch", state -> {
+                state.setRecords(3);
+                return state;
+            })
+            .addNode("enrich", state -> {
+                hung.countDown();
+                new CountDownLatch(1).await();
+                return state;
+            })
+            .setEntryPoint("fetch")
+            .addEdge("fetch", "enrich")
+            .addEdge("enrich", Graph.END);
+
+        Thread thread = crash(graph, hung, new TestState());
+        List<Path> segments = segments(tempDir);
+        Path last = segments.get(segments.size() - 1);
+        long intact = Files.size(last);
+        // A record whose header made it to disk but whose payload did not
+        Files.write(last, new byte[]{0, 0, 1, 0, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        try (ExecutionJournal<TestState> journal = ExecutionJournal.<TestState>builder(tempDir.toString()).build()) {
+            assertEquals(intact, Files.size(last));
+            assertEquals(1, journal.recover().size());
+        } finally {
+            cleanUp(thread, abandoned);
+        }
+    }
+
+    @Test
+    void testRecoveryWaitsForCompactionOnOpen(@TempDir Path tempDir) throws Exception {
+        ExecutionJournal<TestState> abandoned = ExecutionJournal.<TestState>builder(tempDir.toString())
+                .segmentBytes(1)
+                .compactAfterSegments(0)
+                .build();
+        AtomicBoolean hang = new AtomicBoolean();
+        CountDownLatch hung = new CountDownLatch(1);
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setJournal(abandoned)
+            .addNode("fetch", state -> {
+                state.setRecords(3);
+                return state;
+            })
+            .addNode("enrich", state -> {
+                if (hang.get()) {
+                    hung.countDown();
+                    new CountDownLatch(1).await();
+                }
+                state.setStored(true);
+                return state;
+            })
+            .setEntryPoint("fetch")
+            .addEdge("fetch", "enrich")
+            .addEdge("enrich", Graph.END);
+
+        for (int i = 0; i < 100; i++) {
+            graph.execute(new TestState());
+        }
+        hang.set(true);
+        Thread thread = crash(graph, hung, new TestState());
+
+        // Opening starts a compaction of the old segments while recovery reads them; closing waits for it
+        try (ExecutionJournal<TestState> journal = ExecutionJournal.<TestState>builder(tempDir.toString())
+                .compactAfterSegments(1)
+                .build()) {
+            List<Checkpoint<TestState>> recovered = journal.recover();
+            assertEquals(1, recovered.size());
+            assertEquals("enrich", recovered.get(0).getNextNode());
+        } finally {
+            cleanUp(thread, abandoned);
+        }
+    }
+
+    @Test
+    void testCompactionKeepsOnlyInFlightExecutions(@TempDir Path tempDir) throws Exception {
+        try (ExecutionJournal<TestState> journal = ExecutionJournal.<TestState>builder(tempDir.toString())
+                .segmentBytes(1)
+                .compactAfterSegments(0)
+                .build()) {
+            AtomicBoolean hang = new AtomicBoolean();
+            CountDownLatch hung = new CountDownLatch(1);
+            Graph<TestState> graph = Graph.<TestState>builder()
+                .setLogging(false)
+                .setJournal(journal)
+                .addNode("fetch", state -> {
+                    state.setRecords(3);
+                    return state;
+                })
+                .addNode("enrich", state -> {
+                    if (hang.get()) {
+                        hung.countDown();
+                        new CountDownLatch(1).await();
+                    }
+                    state.setStored(true);
+                    return state;
+                })
+                .setEntryPoint("fetch")
+                .addEdge("fetch", "enrich")
+                .addEdge("enrich", Graph.END);
+
+            for (int i = 0; i < 5; i++) {
+                graph.execute(new TestState());
+            }
+            hang.set(true);
+            Thread thread = crash(graph, hung, new TestState());
+            int before = segments(tempDir).size();
+
+            journal.compact();
+
+            // One compacted segment plus the active one
+            assertEquals(2, segments(tempDir).size(), "segments before compaction: " + before);
+            List<Checkpoint<TestState>> recovered = journal.recover();
+            assertEquals(1, recovered.size());
+            assertEquals("enrich", recovered.get(0).getNextNode());
+            assertEquals(3, recovered.get(0).getState().getRecords());
+            thread.interrupt();
+            thread.join();
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package io.github.fal1winter.langgraph4j.persistence;
 
+import io.github.fal1winter.langgraph4j.agent.AgentState;
 import io.github.fal1winter.langgraph4j.core.State;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -61,6 +69,48 @@ class StateStoreTest {
         assertFalse(store.exists("checkpoint1"));
     }
 
+    @Test
+    void testConcurrentSavesOfOneCheckpoint(@TempDir Path tempDir) throws Exception {
+        FileStateStore<TestState> store = new FileStateStore<>(tempDir.toString(), true);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> saves = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                TestState state = new TestState("value-" + i);
+                saves.add(pool.submit(() -> {
+                    store.save("checkpoint1", state);
+                    return null;
+                }));
+            }
+            for (Future<?> save : saves) {
+                save.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(store.load("checkpoint1").getValue().startsWith("value-"));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            // No temporary files are left behind
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testCheckpointAgentStateWithToolCalls(@TempDir Path tempDir) throws Exception {
+        Checkpointer<AgentState> checkpointer = Checkpointer.everyStep(new FileStateStore<>(tempDir.toString()));
+        AgentState state = new AgentState();
+        state.addToolCall("search", Collections.singletonMap("query", "docs"), "3 results", 1000L);
+        checkpointer.save("agent", state, "agent", "answer", 1);
+
+        List<AgentState.ToolCall> calls = checkpointer.load("agent").getState().getToolCalls();
+        assertEquals(1, calls.size());
+        assertEquals("search", calls.get(0).getToolName());
+        assertEquals(Collections.singletonMap("query", "docs"), calls.get(0).getParameters());
+        assertEquals("3 results", calls.get(0).getResult());
+        assertEquals(1000L, calls.get(0).getTimestamp());
+    }
+
     @Test
     void testLoadNonExistentCheckpoint() {
         InMemoryStateStore<TestState> store = new InMemoryStateStore<>();
@@ -0,0 +1,201 @@
+package io.github.fal1winter.langgraph4j.replay;
+
+import io.github.fal1winter.langgraph4j.agent.AgentState;
+import io.github.fal1winter.langgraph4j.agent.AutoNode;
+import io.github.fal1winter.langgraph4j.agent.Tool;
+import io.github.fal1winter.langgraph4j.agent.ToolCallingLLM;
+import io.github.fal1winter.langgraph4j.core.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordingTest {
+
+    static class TestState extends AgentState {
+        public void setUserInput(String userInput) {
+            put("userInput", userInput);
+        }
+
+        public void setDecision(String decision) {
+            put("decision", decision);
+        }
+
+        public String getDecision() {
+            return get("decision");
+        }
+    }
+
+    private static Tool tool(String name, Tool body) {
+        return new Tool() {
+            @Override
+            public String execute(Object parameters) throws Exception {
+                return body.execute(parameters);
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    @Test
+    void testReplayReproducesRunWithoutCallingOut(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("run.rec");
+        AtomicInteger llmCalls = new AtomicInteger();
+        ToolCallingLLM llm = (prompt, tools) -> {
+            Map<String, Object> query = new HashMap<>();
+            query.put("q", "order " + llmCalls.get());
+            return llmCalls.getAndIncrement() == 0
+                ? new ToolCallingLLM.LLMResponse("checking",
+                    Arrays.asList(new ToolCallingLLM.ToolCallRequest("lookup", query),
+                        new ToolCallingLLM.ToolCallRequest("charge", "42")), false)
+                : new ToolCallingLLM.LLMResponse("done at " + System.nanoTime(), Collections.emptyList(), true);
+        };
+        Tool lookup = tool("lookup", parameters -> "found " + System.nanoTime());
+        Tool charge = tool("charge", parameters -> {
+            throw new IOException("card declined");
+        });
+
+        TestState original;
+        try (Recording recording = Recording.record(file)) {
+            AutoNode<TestState> agent = AutoNode.<TestState>builder()
+                .name("agent")
+                .llm(llm)
+                .tools(Arrays.asList(lookup, charge))
+                .recording(recording)
+                .build();
+            Graph<TestState> graph = Graph.<TestState>builder()
+                .setLogging(false)
+                .setRecording(recording)
+                .addNode("agent", agent)
+                .addNode("approve", state -> {
+                    state.setDecision("approve");
+                    return state;
+                })
+                .addNode("reject", state -> {
+                    state.setDecision("reject");
+                    return state;
+                })
+                .setEntryPoint("agent")
+                .addRouter("agent", state -> Math.random() < 0.5 ? "approve" : "reject")
+                .addEdge("approve", Graph.END)
+                .addEdge("reject", Graph.END);
+            original = graph.execute(new TestState());
+            assertEquals(7, recording.getEntries());
+        }
+
+        Tool unreachable = tool("lookup", parameters -> fail("tool called during replay"));
+        Tool unreachableCharge = tool("charge", parameters -> fail("tool called during replay"));
+        TestState replayed;
+        try (Recording recording = Recording.replay(file)) {
+            AutoNode<TestState> agent = AutoNode.<TestState>builder()
+                .name("agent")
+                .llm(null)
+                .tools(Arrays.asList(unreachable, unreachableCharge))
+                .recording(recording)
+                .build();
+            Graph<TestState> graph = Graph.<TestState>builder()
+                .setLogging(false)
+                .setRecording(recording)
+                .addNode("agent", agent)
+                .addNode("approve", state -> {
+                    state.setDecision("approve");
+                    return state;
+                })
+                .addNode("reject", state -> {
+                    state.setDecision("reject");
+                    return state;
+                })
+                .setEntryPoint("agent")
+                .addRouter("agent", state -> Math.random() < 0.5 ? "approve" : "reject")
+                .addEdge("approve", Graph.END)
+                .addEdge("reject", Graph.END);
+            replayed = graph.execute(new TestState());
+            assertEquals(0, recording.getRemaining());
+        }
+
+        assertEquals(original.getLLMResponse(), replayed.getLLMResponse());
+        assertEquals(original.getDecision(), replayed.getDecision());
+        List<AgentState.ToolCall> expected = original.getToolCalls();
+        List<AgentState.ToolCall> actual = replayed.getToolCalls();
+        assertEquals(2, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getResult(), actual.get(i).getResult());
+            assertEquals(expected.get(i).getParameters(), actual.get(i).getParameters());
+            assertEquals(expected.get(i).getTimestamp(), actual.get(i).getTimestamp());
+        }
+        assertEquals("Tool execution failed: card declined", actual.get(1).getResult());
+    }
+
+    @Test
+    void testReplayFailsWhereTheRunDiverges(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("run.rec");
+        ToolCallingLLM llm = (prompt, tools) -> new ToolCallingLLM.LLMResponse("done", Collections.emptyList(), true);
+        Tool lookup = tool("lookup", parameters -> "found");
+        try (Recording recording = Recording.record(file)) {
+            AutoNode<TestState> agent = AutoNode.<TestState>builder()
+                .name("agent")
+                .llm(llm)
+                .tools(Arrays.asList(lookup))
+                .recording(recording)
+                .build();
+            Graph<TestState> graph = Graph.<TestState>builder()
+                .setLogging(false)
+                .setRecording(recording)
+                .addNode("agent", agent)
+                .addNode("approve", state -> {
+                    state.setDecision("approve");
+                    return state;
+                })
+                .addNode("reject", state -> {
+                    state.setDecision("reject");
+                    return state;
+                })
+                .setEntryPoint("agent")
+                .addRouter("agent", state -> Math.random() < 0.5 ? "approve" : "reject")
+                .addEdge("approve", Graph.END)
+                .addEdge("reject", Graph.END);
+            graph.execute(new TestState());
+        }
+
+        TestState changed = new TestState();
+        changed.setUserInput("a different question");
+        try (Recording recording = Recording.replay(file)) {
+            AutoNode<TestState> agent = AutoNode.<TestState>builder()
+                .name("agent")
+                .llm(null)
+                .tools(Arrays.asList(lookup))
+                .recording(recording)
+                .build();
+            Graph<TestState> graph = Graph.<TestState>builder()
+                .setLogging(false)
+                .setRecording(recording)
+                .addNode("agent", agent)
+                .addNode("approve", state -> {
+                    state.setDecision("approve");
+                    return state;
+                })
+                .addNode("reject", state -> {
+                    state.setDecision("reject");
+                    return state;
+                })
+                .setEntryPoint("agent")
+                .addRouter("agent", state -> Math.random() < 0.5 ? "approve" : "reject")
+                .addEdge("approve", Graph.END)
+                .addEdge("reject", Graph.END);
+            IllegalStateException error = assertThrows(IllegalStateException.class, () -> graph.execute(changed));
+            assertTrue(error.getMessage().contains("llm:agent"), error.getMessage());
+        }
+    }
+}
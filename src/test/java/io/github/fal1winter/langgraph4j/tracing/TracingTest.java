@@ -0,0 +1,192 @@
+package io.github.fal1winter.langgraph4j.tracing;
+
+import io.github.fal1winter.langgraph4j.agent.AgentState;
+import io.github.fal1winter.langgraph4j.agent.AutoNode;
+import io.github.fal1winter.langgraph4j.agent.ToolCallingLLM;
+import io.github.fal1winter.langgraph4j.core.Graph;
+import io.github.fal1winter.langgraph4j.core.State;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracingTest {
+
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    static class TestState extends State {
+        public void setTraceparent(String traceparent) {
+            put(SpanContext.STATE_KEY, traceparent);
+        }
+
+        public String getTraceparent() {
+            return get(SpanContext.STATE_KEY);
+        }
+    }
+
+    @Test
+    void testRootSpanWithChildPerNode() throws Exception {
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        AtomicReference<String> seenByNode = new AtomicReference<>();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setTracer(SimpleTracer.builder().exporter(exporter).build())
+            .addNode("fetch", state -> {
+                seenByNode.set(state.getTraceparent());
+                return state;
+            })
+            .addNode("store", state -> state)
+            .setEntryPoint("fetch")
+            .addEdge("fetch", "store")
+            .addEdge("store", Graph.END);
+
+        TestState result = graph.execute(new TestState());
+
+        List<SpanData> spans = exporter.getSpans();
+        assertEquals(3, spans.size());
+        SpanData root = exporter.getSpans(Tracer.EXECUTION_SPAN).get(0);
+        SpanData fetch = exporter.getSpans("fetch").get(0);
+        SpanData store = exporter.getSpans("store").get(0);
+        assertNull(root.getParentSpanId());
+        assertEquals(result.getExecutionId(), root.getAttribute(Tracer.EXECUTION_ID));
+        assertEquals("COMPLETED", root.getAttribute(Tracer.STATUS));
+        assertEquals(root.getSpanId(), fetch.getParentSpanId());
+        assertEquals(root.getSpanId(), store.getParentSpanId());
+        assertEquals(root.getTraceId(), store.getTraceId());
+        assertEquals(2L, store.getAttribute(Tracer.ITERATION));
+        assertEquals(fetch.getContext().toTraceparent(), seenByNode.get());
+    }
+
+    @Test
+    void testIncomingTraceparentBecomesParent() throws Exception {
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setTracer(SimpleTracer.builder().sampler(Sampler.never()).exporter(exporter).build())
+            .addNode("only", state -> state)
+            .setEntryPoint("only")
+            .addEdge("only", Graph.END);
+
+        TestState state = new TestState();
+        state.setTraceparent(TRACEPARENT);
+        graph.execute(state);
+
+        // The caller sampled the trace, so it is recorded despite the local sampler
+        SpanData root = exporter.getSpans(Tracer.EXECUTION_SPAN).get(0);
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", root.getTraceId());
+        assertEquals("00f067aa0ba902b7", root.getParentSpanId());
+    }
+
+    @Test
+    void testUnsampledTracesPropagateButExportNothing() throws Exception {
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setTracer(SimpleTracer.builder().sampler(Sampler.never()).exporter(exporter).build())
+            .addNode("only", state -> state)
+            .setEntryPoint("only")
+            .addEdge("only", Graph.END);
+
+        TestState result = graph.execute(new TestState());
+
+        assertTrue(exporter.getSpans().isEmpty());
+        SpanContext propagated = SpanContext.fromState(result);
+        assertNotNull(propagated);
+        assertFalse(propagated.isSampled());
+    }
+
+    @Test
+    void testFailureIsRecordedOnStepAndRoot() {
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        Graph<TestState> graph = Graph.<TestState>builder()
+            .setLogging(false)
+            .setTracer(SimpleTracer.builder().exporter(exporter).build())
+            .addNode("broken", state -> {
+                throw new IllegalStateException("down");
+            })
+            .setEntryPoint("broken")
+            .addEdge("broken", Graph.END);
+
+        assertThrows(IllegalStateException.class, () -> graph.execute(new TestState()));
+
+        SpanData step = exporter.getSpans("broken").get(0);
+        assertTrue(step.getError().contains("down"));
+        assertEquals("FAILED", step.getAttribute(Tracer.OUTCOME));
+        assertEquals("FAILED", exporter.getSpans(Tracer.EXECUTION_SPAN).get(0).getAttribute(Tracer.STATUS));
+    }
+
+    @Test
+    void testAutoNodeSpansLlmAndToolCalls() throws Exception {
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        Tracer tracer = SimpleTracer.builder().exporter(exporter).build();
+        AtomicInteger calls = new AtomicInteger();
+        ToolCallingLLM llm = (prompt, tools) -> calls.getAndIncrement() == 0
+            ? new ToolCallingLLM.LLMResponse("looking up",
+                Collections.singletonList(new ToolCallingLLM.ToolCallRequest("lookup", "q")), false)
+            : new ToolCallingLLM.LLMResponse("done", Collections.emptyList(), true);
+        AutoNode<AgentState> agent = AutoNode.<AgentState>builder()
+            .name("agent")
+            .llm(llm)
+            .tracer(tracer)
+            .addTool(new io.github.fal1winter.langgraph4j.agent.Tool() {
+                @Override
+                public String execute(Object parameters) {
+                    return "found";
+                }
+
+                @Override
+                public String getName() {
+                    return "lookup";
+                }
+            })
+            .build();
+        Graph<AgentState> graph = Graph.<AgentState>builder()
+            .setLogging(false)
+            .setTracer(tracer)
+            .addNode("agent", agent)
+            .setEntryPoint("agent")
+            .addEdge("agent", Graph.END);
+
+        graph.execute(new AgentState());
+
+        SpanData node = exporter.getSpans("agent").get(0);
+        List<SpanData> llmSpans = exporter.getSpans(Tracer.LLM_SPAN);
+        SpanData tool = exporter.getSpans(Tracer.TOOL_SPAN).get(0);
+        assertEquals(2, llmSpans.size());
+        assertEquals(node.getSpanId(), llmSpans.get(0).getParentSpanId());
+        assertEquals(node.getSpanId(), tool.getParentSpanId());
+        assertEquals("lookup", tool.getAttribute(Tracer.TOOL));
+        assertEquals(1L, llmSpans.get(0).getAttribute(Tracer.TOOL_CALLS));
+    }
+
+    @Test
+    void testRateLimitedSamplerBoundsTraces() {
+        Sampler sampler = Sampler.rateLimited(5);
+        int sampled = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (sampler.shouldSample()) {
+                sampled++;
+            }
+        }
+        assertTrue(sampled >= 5 && sampled <= 6, "sampled " + sampled);
+    }
+
+    @Test
+    void testTraceparentRoundTrip() {
+        SpanContext context = SpanContext.parse(TRACEPARENT);
+        assertNotNull(context);
+        assertTrue(context.isSampled());
+        assertEquals(TRACEPARENT, context.toTraceparent());
+
+        assertNull(SpanContext.parse(null));
+        assertNull(SpanContext.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01"));
+        assertNull(SpanContext.parse("ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"));
+        assertNull(SpanContext.parse("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01"));
+        assertNotNull(SpanContext.parse(TRACEPARENT.replaceFirst("00", "01") + "-extra"));
+        assertFalse(SpanContext.parse(TRACEPARENT.substring(0, 53) + "00").isSampled());
+    }
+}